@@ -2,8 +2,6 @@ package com.hartwig.hmftools.amber;
 
 import static java.lang.Double.isFinite;
 
-import static com.hartwig.hmftools.common.utils.collection.Multimaps.filterEntries;
-
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
@@ -15,25 +13,20 @@ import java.util.concurrent.ThreadFactory;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.amber.AmberBAF;
 import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteCatalogue;
 import com.hartwig.hmftools.common.amber.AmberSiteFactory;
 import com.hartwig.hmftools.common.amber.BaseDepth;
-import com.hartwig.hmftools.common.amber.BaseDepthEvidence;
-import com.hartwig.hmftools.common.amber.BaseDepthFactory;
-import com.hartwig.hmftools.common.amber.BaseDepthFilter;
-import com.hartwig.hmftools.common.amber.NormalHetrozygousFilter;
-import com.hartwig.hmftools.common.amber.NormalHomozygousFilter;
+import com.hartwig.hmftools.common.amber.BaseDepthStore;
 import com.hartwig.hmftools.common.amber.TumorBAF;
 import com.hartwig.hmftools.common.amber.TumorBAFEvidence;
+import com.hartwig.hmftools.common.amber.TumorBAFStore;
 import com.hartwig.hmftools.common.amber.TumorContamination;
-import com.hartwig.hmftools.common.amber.TumorContaminationEvidence;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
-import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
 
@@ -57,11 +50,9 @@ public class AmberApplication implements AutoCloseable {
     private final AmberConfig config;
     private final ExecutorService executorService;
     private final Predicate<BaseDepth> snpCheckFilter;
-    private final Predicate<BaseDepth> homozygousFilter;
-    private final Predicate<BaseDepth> heterozygousFilter;
     private final AmberPersistence persistence;
     private final VersionInfo versionInfo;
-    private final ListMultimap<Chromosome, AmberSite> sites;
+    private final AmberSiteCatalogue sites;
 
     public static void main(final String... args) throws IOException, InterruptedException, ExecutionException {
         final Options options = AmberConfig.createOptions();
@@ -82,18 +73,13 @@ public class AmberApplication implements AutoCloseable {
         final CommandLine cmd = createCommandLine(args, options);
         config = AmberConfig.createConfig(cmd);
 
-        final Predicate<BaseDepth> isValidFilter = BaseDepth::isValid;
-        homozygousFilter = new NormalHomozygousFilter().and(isValidFilter);
-        heterozygousFilter = new NormalHetrozygousFilter(config.minHetAfPercent(), config.maxHetAfPercent()).and(isValidFilter);
-        persistence = new AmberPersistence(config);
-
         final File outputDir = new File(config.outputDirectory());
         if (!outputDir.exists() && !outputDir.mkdirs()) {
             throw new IOException("Unable to write directory " + config.outputDirectory());
         }
 
         if (!new File(config.bafLociPath()).exists()) {
-            throw new IOException("Unable to locate vcf file " + config.bafLociPath());
+            throw new IOException("Unable to locate loci file " + config.bafLociPath());
         }
 
         if (!new File(config.tumorBamPath()).exists()) {
@@ -106,9 +92,10 @@ public class AmberApplication implements AutoCloseable {
 
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("-%d").build();
         executorService = Executors.newFixedThreadPool(config.threadCount(), namedThreadFactory);
+        persistence = new AmberPersistence(config, executorService);
 
-        LOGGER.info("Loading vcf file {}", config.bafLociPath());
-        sites = AmberSiteFactory.sites(config.bafLociPath());
+        LOGGER.info("Loading loci file {}", config.bafLociPath());
+        sites = AmberSiteFactory.catalogue(config.bafLociPath());
         snpCheckFilter = new SnpCheckFilter(sites);
     }
 
@@ -121,23 +108,15 @@ public class AmberApplication implements AutoCloseable {
     }
 
     private void runNormalMode() throws InterruptedException, ExecutionException, IOException {
-        final SamReaderFactory readerFactory = readerFactory(config);
-
-        final ListMultimap<Chromosome, BaseDepth> unfilteredNormal = normalDepth(readerFactory, sites);
-
-        final Predicate<BaseDepth> depthFilter = new BaseDepthFilter(config.minDepthPercent(), config.maxDepthPercent(), unfilteredNormal);
-        final ListMultimap<Chromosome, BaseDepth> homNormal = filterEntries(unfilteredNormal, depthFilter.and(homozygousFilter));
-        final ListMultimap<Chromosome, BaseDepth> hetNormal = filterEntries(unfilteredNormal, depthFilter.and(heterozygousFilter));
-        final ListMultimap<Chromosome, BaseDepth> snpCheck = filterEntries(unfilteredNormal, snpCheckFilter);
+        final AmberNormalEvidence evidence =
+                new AmberNormalEvidence(config, executorService, readerFactory(config), snpCheckFilter).run(sites);
 
-        final ListMultimap<Chromosome, TumorBAF> tumorBAFMap = tumorBAF(readerFactory, hetNormal);
-
-        final List<TumorBAF> tumorBAFList = tumorBAFMap.values().stream().sorted().collect(Collectors.toList());
+        final List<TumorBAF> tumorBAFList = evidence.tumorBAF();
         final List<AmberBAF> amberBAFList =
                 tumorBAFList.stream().map(AmberBAF::create).filter(AmberApplication::isValid).collect(Collectors.toList());
 
-        final ListMultimap<Chromosome, TumorContamination> tumorContamination = contamination(readerFactory, homNormal);
-        final List<TumorContamination> contaminationList = Lists.newArrayList(tumorContamination.values());
+        final List<TumorContamination> contaminationList = evidence.contamination();
+        final ListMultimap<Chromosome, BaseDepth> snpCheck = evidence.snpCheck();
 
         persistence.persisQC(amberBAFList, contaminationList);
         persistence.persistVersionInfo(versionInfo);
@@ -150,11 +129,10 @@ public class AmberApplication implements AutoCloseable {
     private void runTumorOnly() throws InterruptedException, ExecutionException, IOException {
         final SamReaderFactory readerFactory = readerFactory(config);
 
-        final ListMultimap<Chromosome, BaseDepth> allNormal = emptyNormalHetSites(sites);
-        final ListMultimap<Chromosome, TumorBAF> tumorBAFMap = tumorBAF(readerFactory, allNormal);
+        final List<TumorBAFStore> tumorBAFStores = tumorBAF(readerFactory, sites);
 
-        final List<TumorBAF> tumorBAFList = tumorBAFMap.values()
-                .stream()
+        final List<TumorBAF> tumorBAFList = tumorBAFStores.stream()
+                .flatMap(x -> x.asList().stream())
                 .filter(x -> x.tumorRefSupport() >= config.tumorOnlyMinSupport())
                 .filter(x -> x.tumorAltSupport() >= config.tumorOnlyMinSupport())
                 .filter(x -> isFinite(x.refFrequency()) && Doubles.greaterOrEqual(x.refFrequency(), config.tumorOnlyMinVaf()))
@@ -171,101 +149,32 @@ public class AmberApplication implements AutoCloseable {
     }
 
     @NotNull
-    private ListMultimap<Chromosome, BaseDepth> normalDepth(final SamReaderFactory readerFactory,
-            final ListMultimap<Chromosome, AmberSite> bedRegionsSortedSet) throws InterruptedException, ExecutionException {
-
-        final int partitionSize = Math.max(config.minPartition(), bedRegionsSortedSet.size() / config.threadCount());
+    private List<TumorBAFStore> tumorBAF(@NotNull final SamReaderFactory readerFactory, @NotNull final AmberSiteCatalogue sites)
+            throws ExecutionException, InterruptedException {
+        final int partitionSize = Math.max(config.minPartition(), sites.size() / config.threadCount());
 
-        LOGGER.info("Processing {} potential sites in reference bam {}", bedRegionsSortedSet.values().size(), config.referenceBamPath());
+        LOGGER.info("Processing {} sites in tumor bam {}", sites.size(), config.tumorBamPath());
         final AmberTaskCompletion completion = new AmberTaskCompletion();
 
-        final List<Future<BaseDepthEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome contig : bedRegionsSortedSet.keySet()) {
-            for (final List<AmberSite> inner : Lists.partition(Lists.newArrayList(bedRegionsSortedSet.get(contig)), partitionSize)) {
-                final BaseDepthEvidence evidence = new BaseDepthEvidence(config.typicalReadDepth(),
+        final List<Future<TumorBAFEvidence>> futures = Lists.newArrayList();
+        for (final Chromosome chromosome : sites.chromosomes()) {
+            final List<AmberSite> chromosomeSites = sites.sites(chromosome);
+            final String contig = chromosomeSites.get(0).chromosome();
+            final BaseDepthStore emptyNormal = BaseDepthStore.create(contig, chromosomeSites);
+            for (int start = 0; start < emptyNormal.size(); start += partitionSize) {
+                final TumorBAFEvidence evidence = new TumorBAFEvidence(config.typicalReadDepth(),
                         config.minMappingQuality(),
                         config.minBaseQuality(),
-                        inner.get(0).chromosome(),
-                        config.referenceBamPath(),
+                        contig,
+                        config.tumorBamPath(),
                         readerFactory,
-                        inner);
+                        emptyNormal.slice(start, Math.min(emptyNormal.size(), start + partitionSize)));
                 futures.add(executorService.submit(completion.task(evidence)));
             }
         }
 
-        final ListMultimap<Chromosome, BaseDepth> normalEvidence = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> normalEvidence.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
-        return normalEvidence;
-    }
-
-    @NotNull
-    private ListMultimap<Chromosome, BaseDepth> emptyNormalHetSites(@NotNull final ListMultimap<Chromosome, AmberSite> sites) {
-        final ListMultimap<Chromosome, BaseDepth> result = ArrayListMultimap.create();
-        for (Chromosome chromosome : sites.keySet()) {
-            result.putAll(chromosome, sites.get(chromosome).stream().map(BaseDepthFactory::create).collect(Collectors.toList()));
-        }
-
-        return result;
-    }
-
-    @NotNull
-    private ListMultimap<Chromosome, TumorBAF> tumorBAF(@NotNull final SamReaderFactory readerFactory,
-            @NotNull final ListMultimap<Chromosome, BaseDepth> normalHetSites) throws ExecutionException, InterruptedException {
-        final int partitionSize = Math.max(config.minPartition(), normalHetSites.values().size() / config.threadCount());
-
-        LOGGER.info("Processing {} heterozygous sites in tumor bam {}", normalHetSites.values().size(), config.tumorBamPath());
-        final AmberTaskCompletion completion = new AmberTaskCompletion();
-
-        final List<Future<TumorBAFEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome chromosome : normalHetSites.keySet()) {
-            for (final List<BaseDepth> chromosomeBafPoints : Lists.partition(normalHetSites.get(chromosome), partitionSize)) {
-                if (!chromosomeBafPoints.isEmpty()) {
-                    final String contig = chromosomeBafPoints.get(0).chromosome();
-                    final TumorBAFEvidence evidence = new TumorBAFEvidence(config.typicalReadDepth(),
-                            config.minMappingQuality(),
-                            config.minBaseQuality(),
-                            contig,
-                            config.tumorBamPath(),
-                            readerFactory,
-                            chromosomeBafPoints);
-                    futures.add(executorService.submit(completion.task(evidence)));
-                }
-            }
-        }
-
-        final ListMultimap<Chromosome, TumorBAF> result = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> result.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
-
-        return result;
-    }
-
-    @NotNull
-    private ListMultimap<Chromosome, TumorContamination> contamination(@NotNull final SamReaderFactory readerFactory,
-            @NotNull final ListMultimap<Chromosome, BaseDepth> normalHomSites) throws ExecutionException, InterruptedException {
-        final int partitionSize = Math.max(config.minPartition(), normalHomSites.values().size() / config.threadCount());
-
-        LOGGER.info("Processing {} homozygous sites in tumor bam {} for contamination", normalHomSites.size(), config.tumorBamPath());
-        final AmberTaskCompletion completion = new AmberTaskCompletion();
-
-        final List<Future<TumorContaminationEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome chromosome : normalHomSites.keySet()) {
-            for (final List<BaseDepth> chromosomeBafPoints : Lists.partition(normalHomSites.get(chromosome), partitionSize)) {
-                if (!chromosomeBafPoints.isEmpty()) {
-                    final String contig = chromosomeBafPoints.get(0).chromosome();
-                    final TumorContaminationEvidence evidence = new TumorContaminationEvidence(config.typicalReadDepth(),
-                            config.minMappingQuality(),
-                            config.minBaseQuality(),
-                            contig,
-                            config.tumorBamPath(),
-                            readerFactory,
-                            chromosomeBafPoints);
-                    futures.add(executorService.submit(completion.task(evidence)));
-                }
-            }
-        }
-
-        final ListMultimap<Chromosome, TumorContamination> result = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> result.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
+        final List<TumorBAFStore> result = Lists.newArrayList();
+        getFuture(futures).forEach(x -> result.add(x.evidence()));
 
         return result;
     }
@@ -281,7 +190,7 @@ public class AmberApplication implements AutoCloseable {
     }
 
     @NotNull
-    private static <T> List<T> getFuture(@NotNull final List<Future<T>> futures) throws ExecutionException, InterruptedException {
+    static <T> List<T> getFuture(@NotNull final List<Future<T>> futures) throws ExecutionException, InterruptedException {
         final List<T> result = Lists.newArrayList();
         for (Future<T> chromosomeBAFEvidenceFuture : futures) {
             result.add(chromosomeBAFEvidenceFuture.get());
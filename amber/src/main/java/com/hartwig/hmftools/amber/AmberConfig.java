@@ -66,7 +66,7 @@ public interface AmberConfig {
         options.addOption(TUMOR, true, "Name of tumor sample");
         options.addOption(TUMOR_BAM, true, "Path to tumor bam file");
         options.addOption(OUTPUT_DIR, true, "Output directory");
-        options.addOption(BAF_LOCI, true, "Path to BAF loci vcf file");
+        options.addOption(BAF_LOCI, true, "Path to BAF loci vcf file or binary site catalogue");
         options.addOption(REF_GENOME, true, "Path to the ref genome fasta file");
         options.addOption(MIN_BASE_QUALITY, true, "Minimum quality for a base to be considered [" + DEFAULT_MIN_BASE_QUALITY + "]");
         options.addOption(MIN_MAPPING_QUALITY,
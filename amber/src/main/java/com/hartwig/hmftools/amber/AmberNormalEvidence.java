@@ -0,0 +1,187 @@
+package com.hartwig.hmftools.amber;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteCatalogue;
+import com.hartwig.hmftools.common.amber.BaseDepth;
+import com.hartwig.hmftools.common.amber.BaseDepthEvidence;
+import com.hartwig.hmftools.common.amber.BaseDepthFilter;
+import com.hartwig.hmftools.common.amber.BaseDepthStore;
+import com.hartwig.hmftools.common.amber.NormalHetrozygousFilter;
+import com.hartwig.hmftools.common.amber.NormalHomozygousFilter;
+import com.hartwig.hmftools.common.amber.ReadDepthHistogram;
+import com.hartwig.hmftools.common.amber.TumorBAF;
+import com.hartwig.hmftools.common.amber.TumorBAFStore;
+import com.hartwig.hmftools.common.amber.TumorContamination;
+import com.hartwig.hmftools.common.amber.TumorEvidence;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SamReaderFactory;
+
+/**
+ * Reads every site from the reference bam first so the depth filter can use the genome wide median normal depth, keeping only the
+ * heterozygous and homozygous candidates of each chromosome. The tumor bam is then read once for the sites that pass the filter.
+ * Each pass submits the partitions of all chromosomes together so no thread waits on a small chromosome.
+ */
+class AmberNormalEvidence {
+
+    private static final Logger LOGGER = LogManager.getLogger(AmberNormalEvidence.class);
+
+    private final AmberConfig config;
+    private final ExecutorService executorService;
+    private final SamReaderFactory readerFactory;
+    private final Predicate<BaseDepth> snpCheckFilter;
+    private final NormalHomozygousFilter homozygousFilter;
+    private final NormalHetrozygousFilter heterozygousFilter;
+
+    private final ReadDepthHistogram normalDepths = new ReadDepthHistogram();
+    private final ListMultimap<Chromosome, BaseDepth> snpCheck = ArrayListMultimap.create();
+    private final List<TumorBAFStore> tumorBAF = Lists.newArrayList();
+    private final List<TumorBAFStore> contamination = Lists.newArrayList();
+
+    AmberNormalEvidence(@NotNull final AmberConfig config, @NotNull final ExecutorService executorService,
+            @NotNull final SamReaderFactory readerFactory, @NotNull final Predicate<BaseDepth> snpCheckFilter) {
+        this.config = config;
+        this.executorService = executorService;
+        this.readerFactory = readerFactory;
+        this.snpCheckFilter = snpCheckFilter;
+        this.homozygousFilter = new NormalHomozygousFilter();
+        this.heterozygousFilter = new NormalHetrozygousFilter(config.minHetAfPercent(), config.maxHetAfPercent());
+    }
+
+    @NotNull
+    AmberNormalEvidence run(@NotNull final AmberSiteCatalogue sites) throws ExecutionException, InterruptedException {
+        final Map<Chromosome, List<Future<BaseDepthEvidence>>> normalFutures = normalDepth(sites);
+
+        final List<BaseDepthStore> hetNormals = Lists.newArrayList();
+        final List<BaseDepthStore> homNormals = Lists.newArrayList();
+        for (Map.Entry<Chromosome, List<Future<BaseDepthEvidence>>> entry : normalFutures.entrySet()) {
+            final List<BaseDepthStore> partitions = Lists.newArrayList();
+            AmberApplication.getFuture(entry.getValue()).forEach(x -> partitions.add(x.evidence()));
+            final BaseDepthStore normal = BaseDepthStore.concat(partitions.get(0).contig(), partitions);
+
+            normalDepths.add(normal);
+            snpCheck.putAll(entry.getKey(), normal.filter(i -> snpCheckFilter.test(normal.get(i))).asList());
+            hetNormals.add(normal.filter(i -> heterozygousFilter.test(normal, i)));
+            homNormals.add(normal.filter(i -> homozygousFilter.test(normal, i)));
+        }
+
+        final int medianDepth = normalDepths.medianPositiveValue();
+        LOGGER.info("Median normal depth is {}", medianDepth);
+        final BaseDepthFilter depthFilter = new BaseDepthFilter(config.minDepthPercent(), config.maxDepthPercent(), medianDepth);
+        for (int i = 0; i < hetNormals.size(); i++) {
+            final BaseDepthStore het = hetNormals.get(i);
+            final BaseDepthStore hom = homNormals.get(i);
+            hetNormals.set(i, het.filter(x -> depthFilter.test(het, x)));
+            homNormals.set(i, hom.filter(x -> depthFilter.test(hom, x)));
+        }
+
+        for (TumorEvidence evidence : tumorEvidence(hetNormals, homNormals)) {
+            tumorBAF.add(evidence.bafEvidence());
+            contamination.add(evidence.contaminationStore());
+        }
+
+        return this;
+    }
+
+    @NotNull
+    List<TumorBAF> tumorBAF() {
+        return tumorBAF.stream().flatMap(x -> x.asList().stream()).sorted().collect(Collectors.toList());
+    }
+
+    @NotNull
+    List<TumorContamination> contamination() {
+        return contamination.stream().flatMap(x -> TumorEvidence.contamination(x).stream()).collect(Collectors.toList());
+    }
+
+    @NotNull
+    ListMultimap<Chromosome, BaseDepth> snpCheck() {
+        return snpCheck;
+    }
+
+    @NotNull
+    private Map<Chromosome, List<Future<BaseDepthEvidence>>> normalDepth(@NotNull final AmberSiteCatalogue sites) {
+        final int partitionSize = Math.max(config.minPartition(), sites.size() / config.threadCount());
+
+        LOGGER.info("Processing {} potential sites in reference bam {}", sites.size(), config.referenceBamPath());
+        final AmberTaskCompletion completion = new AmberTaskCompletion();
+
+        final Map<Chromosome, List<Future<BaseDepthEvidence>>> futures = Maps.newLinkedHashMap();
+        for (final HumanChromosome chromosome : HumanChromosome.values()) {
+            final List<AmberSite> chromosomeSites = sites.sites(chromosome);
+            for (final List<AmberSite> inner : Lists.partition(chromosomeSites, partitionSize)) {
+                final BaseDepthEvidence evidence = new BaseDepthEvidence(config.typicalReadDepth(),
+                        config.minMappingQuality(),
+                        config.minBaseQuality(),
+                        inner.get(0).chromosome(),
+                        config.referenceBamPath(),
+                        readerFactory,
+                        inner);
+                futures.computeIfAbsent(chromosome, x -> Lists.newArrayList()).add(executorService.submit(completion.task(evidence)));
+            }
+        }
+
+        return futures;
+    }
+
+    @NotNull
+    private List<TumorEvidence> tumorEvidence(@NotNull final List<BaseDepthStore> hetNormals,
+            @NotNull final List<BaseDepthStore> homNormals) throws ExecutionException, InterruptedException {
+        final int hetCount = hetNormals.stream().mapToInt(BaseDepthStore::size).sum();
+        final int homCount = homNormals.stream().mapToInt(BaseDepthStore::size).sum();
+        final int partitionSize = Math.max(config.minPartition(), (hetCount + homCount) / config.threadCount());
+
+        LOGGER.info("Processing {} heterozygous and {} homozygous sites in tumor bam {}", hetCount, homCount, config.tumorBamPath());
+        final AmberTaskCompletion completion = new AmberTaskCompletion();
+
+        final List<Future<TumorEvidence>> futures = Lists.newArrayList();
+        for (int chromosome = 0; chromosome < hetNormals.size(); chromosome++) {
+            final BaseDepthStore hetSites = hetNormals.get(chromosome);
+            final BaseDepthStore homSites = homNormals.get(chromosome);
+
+            // Partition het and hom sites together by position so each region of the tumor bam is only read once
+            int hetIndex = 0;
+            int homIndex = 0;
+            while (hetIndex < hetSites.size() || homIndex < homSites.size()) {
+                final int hetStart = hetIndex;
+                final int homStart = homIndex;
+                for (int i = 0; i < partitionSize && (hetIndex < hetSites.size() || homIndex < homSites.size()); i++) {
+                    if (homIndex >= homSites.size() || (hetIndex < hetSites.size()
+                            && hetSites.position(hetIndex) <= homSites.position(homIndex))) {
+                        hetIndex++;
+                    } else {
+                        homIndex++;
+                    }
+                }
+
+                final TumorEvidence evidence = new TumorEvidence(config.typicalReadDepth(),
+                        config.minMappingQuality(),
+                        config.minBaseQuality(),
+                        hetSites.contig(),
+                        config.tumorBamPath(),
+                        readerFactory,
+                        hetSites.slice(hetStart, hetIndex),
+                        homSites.slice(homStart, homIndex));
+                futures.add(executorService.submit(completion.task(evidence)));
+            }
+        }
+
+        return AmberApplication.getFuture(futures);
+    }
+}
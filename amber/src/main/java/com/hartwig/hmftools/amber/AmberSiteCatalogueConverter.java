@@ -0,0 +1,57 @@
+package com.hartwig.hmftools.amber;
+
+import java.io.IOException;
+
+import com.hartwig.hmftools.common.amber.AmberSiteCatalogue;
+import com.hartwig.hmftools.common.amber.AmberSiteCatalogueFile;
+import com.hartwig.hmftools.common.amber.AmberSiteFactory;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+public class AmberSiteCatalogueConverter {
+
+    private static final Logger LOGGER = LogManager.getLogger(AmberSiteCatalogueConverter.class);
+
+    private static final String LOCI = "loci";
+    private static final String OUTPUT = "output";
+
+    public static void main(final String... args) throws IOException {
+        final Options options = createOptions();
+        try {
+            final CommandLine cmd = new DefaultParser().parse(options, args);
+            if (!cmd.hasOption(LOCI) || !cmd.hasOption(OUTPUT)) {
+                throw new ParseException(LOCI + " and " + OUTPUT + " are mandatory");
+            }
+
+            final String lociFile = cmd.getOptionValue(LOCI);
+            final String outputFile = cmd.getOptionValue(OUTPUT);
+
+            LOGGER.info("Loading vcf file {}", lociFile);
+            final AmberSiteCatalogue catalogue = AmberSiteCatalogue.create(AmberSiteFactory.sites(lociFile));
+
+            LOGGER.info("Writing {} sites to {}", catalogue.size(), outputFile);
+            AmberSiteCatalogueFile.write(outputFile, catalogue);
+        } catch (ParseException e) {
+            LOGGER.warn(e);
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("AmberSiteCatalogueConverter", options);
+            System.exit(1);
+        }
+    }
+
+    @NotNull
+    private static Options createOptions() {
+        final Options options = new Options();
+        options.addOption(LOCI, true, "Path to BAF loci vcf file");
+        options.addOption(OUTPUT, true, "Path to output binary site catalogue");
+        return options;
+    }
+}
@@ -16,7 +16,7 @@ class AmberTaskCompletion {
     private int complete = 0;
     private double previousPercentComplete = 0;
 
-    <T> Callable<T> task(@NotNull final Callable<T> callable) {
+    synchronized <T> Callable<T> task(@NotNull final Callable<T> callable) {
         expected++;
 
         return () -> {
@@ -26,7 +26,7 @@ class AmberTaskCompletion {
         };
     }
 
-    private void completed() {
+    private synchronized void completed() {
         double percentComplete = ((double) ++complete) / expected;
         if (expected == complete || percentComplete > previousPercentComplete + 0.1) {
             LOGGER.info("{}", complete(percentComplete));
@@ -1,28 +1,47 @@
 package com.hartwig.hmftools.amber;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
-import com.hartwig.hmftools.common.amber.AmberBAFFile;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.pcf.PCFFactory;
 import com.hartwig.hmftools.common.utils.pcf.PCFFile;
-import com.hartwig.hmftools.common.utils.r.RExecutor;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
 
 import org.jetbrains.annotations.NotNull;
 
 class BAFSegmentation {
 
+    // Column name previously written as sampleID by the R segmentation
+    static final String SAMPLE_ID = "tumorModifiedBAF";
+
+    @NotNull
+    private final ExecutorService executorService;
     @NotNull
     private final String outputDirectory;
 
-    BAFSegmentation(@NotNull final String outputDirectory) {
+    BAFSegmentation(@NotNull final ExecutorService executorService, @NotNull final String outputDirectory) {
+        this.executorService = executorService;
         this.outputDirectory = outputDirectory;
     }
 
-    void applySegmentation(@NotNull final String tumor) throws InterruptedException, IOException {
-        final String ratioFile = AmberBAFFile.generateAmberFilenameForReading(outputDirectory, tumor);
+    void applySegmentation(@NotNull final String tumor, @NotNull final List<AmberBAF> bafs)
+            throws ExecutionException, InterruptedException, IOException {
+        final List<PCFSegment> segments = segment(executorService, bafs);
         final String pcfFile = PCFFile.generateBAFFilename(outputDirectory, tumor);
-        int result = RExecutor.executeFromClasspath("r/bafSegmentation.R", ratioFile, pcfFile);
-        if (result != 0) {
-            throw new IOException("R execution failed. Unable to complete segmentation.");
-        }
+        PCFFile.write(pcfFile, SAMPLE_ID, segments);
+    }
+
+    @NotNull
+    static List<PCFSegment> segment(@NotNull final ExecutorService executorService, @NotNull final Iterable<AmberBAF> bafs)
+            throws ExecutionException, InterruptedException {
+        final ListMultimap<Chromosome, AmberBAF> chromosomeBafs = Multimaps.index(bafs, x -> HumanChromosome.fromString(x.chromosome()));
+        return new PCFFactory(executorService).segment(chromosomeBafs, AmberBAF::tumorModifiedBAF);
     }
 }
@@ -0,0 +1,101 @@
+package com.hartwig.hmftools.amber;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.amber.AmberBAFFile;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.utils.pcf.PCFConcordance;
+import com.hartwig.hmftools.common.utils.pcf.PCFFile;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Compares the in process BAF segmentation against a .amber.baf.pcf produced by the R copynumber package for the same
+ * .amber.baf.tsv and fails if the breakpoint concordance falls below the threshold.
+ */
+public class BAFSegmentationRegression {
+
+    private static final Logger LOGGER = LogManager.getLogger(BAFSegmentationRegression.class);
+
+    private static final String BAF = "baf";
+    private static final String PCF = "pcf";
+    private static final String OUTPUT = "output";
+    private static final String THREADS = "threads";
+    private static final String MIN_CONCORDANCE = "min_concordance";
+
+    private static final int DEFAULT_THREADS = 1;
+    private static final double DEFAULT_MIN_CONCORDANCE = 0.95;
+
+    public static void main(final String... args) throws IOException, ExecutionException, InterruptedException {
+        final Options options = createOptions();
+        try {
+            final CommandLine cmd = new DefaultParser().parse(options, args);
+            if (!cmd.hasOption(BAF) || !cmd.hasOption(PCF)) {
+                throw new ParseException(BAF + " and " + PCF + " are mandatory");
+            }
+
+            final int threads = Integer.parseInt(cmd.getOptionValue(THREADS, String.valueOf(DEFAULT_THREADS)));
+            final double minConcordance = Double.parseDouble(cmd.getOptionValue(MIN_CONCORDANCE, String.valueOf(DEFAULT_MIN_CONCORDANCE)));
+
+            final String bafFile = cmd.getOptionValue(BAF);
+            LOGGER.info("Loading amber baf file {}", bafFile);
+            final Multimap<Chromosome, AmberBAF> bafs = AmberBAFFile.read(bafFile);
+
+            final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+            final List<PCFSegment> actual;
+            try {
+                actual = BAFSegmentation.segment(executorService, bafs.values());
+            } finally {
+                executorService.shutdown();
+            }
+
+            if (cmd.hasOption(OUTPUT)) {
+                PCFFile.write(cmd.getOptionValue(OUTPUT), BAFSegmentation.SAMPLE_ID, actual);
+            }
+
+            final Multimap<String, GenomeRegion> expected = PCFFile.read(1, cmd.getOptionValue(PCF));
+            final PCFConcordance concordance = PCFConcordance.compare(expected.values(), actual);
+            LOGGER.info("Shared breakpoints: {}, R only: {}, java only: {}, concordance: {}",
+                    concordance.sharedBreakpoints(),
+                    concordance.expectedOnlyBreakpoints(),
+                    concordance.actualOnlyBreakpoints(),
+                    String.format("%.4f", concordance.concordance()));
+
+            if (concordance.concordance() < minConcordance) {
+                LOGGER.warn("Concordance below minimum of {}", minConcordance);
+                System.exit(1);
+            }
+        } catch (ParseException e) {
+            LOGGER.warn(e);
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("BAFSegmentationRegression", options);
+            System.exit(1);
+        }
+    }
+
+    @NotNull
+    private static Options createOptions() {
+        final Options options = new Options();
+        options.addOption(BAF, true, "Path to amber baf tsv file");
+        options.addOption(PCF, true, "Path to R generated amber baf pcf file");
+        options.addOption(OUTPUT, true, "Optional path to write java generated pcf file");
+        options.addOption(THREADS, true, "Number of threads [" + DEFAULT_THREADS + "]");
+        options.addOption(MIN_CONCORDANCE, true, "Minimum breakpoint concordance [" + DEFAULT_MIN_CONCORDANCE + "]");
+        return options;
+    }
+}
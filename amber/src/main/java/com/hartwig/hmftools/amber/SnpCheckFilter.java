@@ -4,10 +4,8 @@ import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
-import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteCatalogue;
 import com.hartwig.hmftools.common.amber.BaseDepth;
-import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.genome.position.GenomePositions;
 
@@ -17,10 +15,9 @@ class SnpCheckFilter implements Predicate<BaseDepth> {
 
     private final Set<GenomePosition> snpLoci;
 
-    SnpCheckFilter(@NotNull final Multimap<Chromosome, AmberSite> snpLoci) {
-        this.snpLoci = snpLoci.values()
+    SnpCheckFilter(@NotNull final AmberSiteCatalogue snpLoci) {
+        this.snpLoci = snpLoci.snpCheckSites()
                 .stream()
-                .filter(AmberSite::snpCheck)
                 .map(x -> GenomePositions.create(x.chromosome(), x.position()))
                 .collect(Collectors.toSet());
     }
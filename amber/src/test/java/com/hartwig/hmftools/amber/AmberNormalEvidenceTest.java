@@ -0,0 +1,256 @@
+package com.hartwig.hmftools.amber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteCatalogue;
+import com.hartwig.hmftools.common.amber.BaseDepth;
+import com.hartwig.hmftools.common.amber.BaseDepthEvidence;
+import com.hartwig.hmftools.common.amber.BaseDepthFilter;
+import com.hartwig.hmftools.common.amber.BaseDepthStore;
+import com.hartwig.hmftools.common.amber.ImmutableAmberSite;
+import com.hartwig.hmftools.common.amber.NormalHetrozygousFilter;
+import com.hartwig.hmftools.common.amber.NormalHomozygousFilter;
+import com.hartwig.hmftools.common.amber.TumorBAF;
+import com.hartwig.hmftools.common.amber.TumorBAFEvidence;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.utils.Integers;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
+
+public class AmberNormalEvidenceTest {
+
+    private static final int SITES = 60;
+    private static final int SITE_DISTANCE = 1000;
+    private static final int READ_LENGTH = 50;
+    private static final int DEPTH = 20;
+    private static final String[] CONTIGS = { "1", "2" };
+
+    private final ListMultimap<Chromosome, AmberSite> siteMap = ArrayListMultimap.create();
+    private final SamReaderFactory readerFactory = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT);
+
+    private File referenceBam;
+    private File tumorBam;
+    private AmberConfig config;
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() throws IOException {
+        referenceBam = File.createTempFile("reference", ".bam");
+        tumorBam = File.createTempFile("tumor", ".bam");
+        executorService = Executors.newFixedThreadPool(2);
+
+        final SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        for (String contig : CONTIGS) {
+            header.addSequence(new SAMSequenceRecord(contig, (SITES + 1) * SITE_DISTANCE));
+        }
+
+        try (SAMFileWriter reference = writer(header, referenceBam); SAMFileWriter tumor = writer(header, tumorBam)) {
+            for (String contig : CONTIGS) {
+                for (int site = 0; site < SITES; site++) {
+                    final int position = (site + 1) * SITE_DISTANCE;
+                    siteMap.put(HumanChromosome.fromString(contig),
+                            ImmutableAmberSite.builder()
+                                    .chromosome(contig)
+                                    .position(position)
+                                    .ref("A")
+                                    .alt("G")
+                                    .snpCheck(site % 4 == 0)
+                                    .build());
+
+                    // Every 5th site is hom, the next two het and the rest neither with a few depth outliers of each
+                    final int normalDepth = site == 11 ? 3 * DEPTH : site == 5 || site == 15 ? DEPTH / 5 : DEPTH;
+                    final int normalAlt = site % 5 == 0 ? 0 : site % 5 == 1 ? normalDepth / 2 : site % 5 == 2 ? normalDepth / 2 - 1 : 2;
+                    for (int i = 0; i < normalDepth; i++) {
+                        reference.addAlignment(read(header, contig, position, i, i < normalAlt, 30, "50M"));
+                    }
+
+                    final int tumorDepth = DEPTH + site % 7;
+                    final int tumorAlt = site % 5 == 0 ? site % 3 : (site * 7) % 12;
+                    for (int i = 0; i < tumorDepth; i++) {
+                        tumor.addAlignment(read(header, contig, position, i, i < tumorAlt, i == 0 ? 5 : 30, "50M"));
+                    }
+
+                    if (site == 6) {
+                        tumor.addAlignment(read(header, contig, position, 63, false, 30, "20M2I28M"));
+                    }
+                }
+            }
+        }
+
+        config = ImmutableAmberConfig.builder()
+                .tumorOnly(false)
+                .tumorOnlyMinVaf(AmberConfig.DEFAULT_TUMOR_ONLY_MIN_VAF)
+                .tumorOnlyMinSupport(AmberConfig.DEFAULT_TUMOR_ONLY_MIN_SUPPORT)
+                .threadCount(2)
+                .minBaseQuality(AmberConfig.DEFAULT_MIN_BASE_QUALITY)
+                .minMappingQuality(AmberConfig.DEFAULT_MIN_MAPPING_QUALITY)
+                .minDepthPercent(AmberConfig.DEFAULT_MIN_DEPTH_PERCENTAGE)
+                .maxDepthPercent(AmberConfig.DEFAULT_MAX_DEPTH_PERCENTAGE)
+                .minHetAfPercent(AmberConfig.DEFAULT_MIN_HET_AF_PERCENTAGE)
+                .maxHetAfPercent(AmberConfig.DEFAULT_MAX_HET_AF_PERCENTAGE)
+                .bafLociPath("")
+                .tumorBamPath(tumorBam.getPath())
+                .referenceBamPath(referenceBam.getPath())
+                .refGenomePath("")
+                .outputDirectory("")
+                .normal("reference")
+                .tumor("tumor")
+                .validationStringency(ValidationStringency.SILENT)
+                .build();
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdown();
+        for (File bam : new File[] { referenceBam, tumorBam }) {
+            bam.delete();
+            new File(bam.getPath().replaceAll("\\.bam$", ".bai")).delete();
+        }
+    }
+
+    @Test
+    public void testMatchesTwoPhaseEvidence() throws Exception {
+        final AmberSiteCatalogue sites = AmberSiteCatalogue.create(siteMap);
+        final SnpCheckFilter snpCheckFilter = new SnpCheckFilter(sites);
+
+        // Previous path: the reference bam over every site, the genome wide depth filter and then the tumor bam per filtered site type
+        final Map<String, BaseDepthStore> normals = Maps.newLinkedHashMap();
+        final List<Integer> normalDepths = Lists.newArrayList();
+        for (String contig : CONTIGS) {
+            final BaseDepthStore normal = new BaseDepthEvidence(config.typicalReadDepth(),
+                    config.minMappingQuality(),
+                    config.minBaseQuality(),
+                    contig,
+                    config.referenceBamPath(),
+                    readerFactory,
+                    sites.sites(HumanChromosome.fromString(contig))).call().evidence();
+            normals.put(contig, normal);
+            for (int i = 0; i < normal.size(); i++) {
+                normalDepths.add(normal.readDepth(i));
+            }
+        }
+
+        final BaseDepthFilter depthFilter =
+                new BaseDepthFilter(config.minDepthPercent(), config.maxDepthPercent(), Integers.medianPositiveValue(normalDepths));
+        final NormalHetrozygousFilter hetFilter = new NormalHetrozygousFilter(config.minHetAfPercent(), config.maxHetAfPercent());
+        final NormalHomozygousFilter homFilter = new NormalHomozygousFilter();
+
+        final List<String> expectedBAF = Lists.newArrayList();
+        final List<String> expectedContamination = Lists.newArrayList();
+        final List<String> expectedSnpCheck = Lists.newArrayList();
+        for (Map.Entry<String, BaseDepthStore> entry : normals.entrySet()) {
+            final String contig = entry.getKey();
+            final BaseDepthStore normal = entry.getValue();
+            normal.filter(i -> snpCheckFilter.test(normal.get(i))).asList().forEach(x -> expectedSnpCheck.add(describe(x)));
+
+            final BaseDepthStore het = normal.filter(i -> depthFilter.test(normal, i) && hetFilter.test(normal, i));
+            new TumorBAFEvidence(config.typicalReadDepth(),
+                    config.minMappingQuality(),
+                    config.minBaseQuality(),
+                    contig,
+                    config.tumorBamPath(),
+                    readerFactory,
+                    het).call().evidence().asList().forEach(x -> expectedBAF.add(describe(x)));
+
+            final BaseDepthStore hom = normal.filter(i -> depthFilter.test(normal, i) && homFilter.test(normal, i));
+            final List<AmberSite> homSites = sites.sites(HumanChromosome.fromString(contig))
+                    .stream()
+                    .filter(x -> hom.asList().stream().anyMatch(y -> y.position() == x.position()))
+                    .collect(Collectors.toList());
+            final BaseDepthStore tumor = new BaseDepthEvidence(config.typicalReadDepth(),
+                    config.minMappingQuality(),
+                    config.minBaseQuality(),
+                    contig,
+                    config.tumorBamPath(),
+                    readerFactory,
+                    homSites).call().evidence();
+            for (int i = 0; i < tumor.size(); i++) {
+                if (tumor.altSupport(i) != 0) {
+                    expectedContamination.add(describe(hom.get(i)) + "/" + describe(tumor.get(i)));
+                }
+            }
+        }
+
+        final AmberNormalEvidence victim = new AmberNormalEvidence(config, executorService, readerFactory, snpCheckFilter).run(sites);
+        final List<String> actualBAF = victim.tumorBAF().stream().map(AmberNormalEvidenceTest::describe).collect(Collectors.toList());
+        final List<String> actualContamination =
+                victim.contamination().stream().map(x -> describe(x.normal()) + "/" + describe(x.tumor())).collect(Collectors.toList());
+        final List<String> actualSnpCheck =
+                victim.snpCheck().values().stream().map(AmberNormalEvidenceTest::describe).collect(Collectors.toList());
+
+        assertTrue(expectedBAF.size() > 10);
+        assertTrue(expectedContamination.size() > 5);
+        assertTrue(expectedBAF.stream().noneMatch(x -> x.startsWith("1:12000:") || x.startsWith("1:7000:")));
+        assertTrue(expectedContamination.stream().noneMatch(x -> x.startsWith("1:16000:") || x.startsWith("1:6000:")));
+        assertEquals(expectedBAF, actualBAF);
+        assertEquals(expectedContamination, actualContamination);
+        assertEquals(expectedSnpCheck, actualSnpCheck);
+    }
+
+    @NotNull
+    private static SAMFileWriter writer(@NotNull final SAMFileHeader header, @NotNull final File bam) {
+        return new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, false, bam);
+    }
+
+    @NotNull
+    private static SAMRecord read(@NotNull final SAMFileHeader header, @NotNull final String contig, int position, int index, boolean alt,
+            int siteQuality, @NotNull final String cigar) {
+        final int start = position - 1 - index % (READ_LENGTH - 5);
+        final int offset = position - start;
+        final char[] bases = Strings.repeat("A", READ_LENGTH).toCharArray();
+        final char[] qualities = Strings.repeat("?", READ_LENGTH).toCharArray();
+        bases[offset] = alt ? 'G' : 'A';
+        qualities[offset] = (char) (siteQuality + 33);
+
+        final SAMRecord record = new SAMRecord(header);
+        record.setReadName(contig + "_" + position + "_" + index);
+        record.setReferenceName(contig);
+        record.setAlignmentStart(start);
+        record.setCigarString(cigar);
+        record.setMappingQuality(60);
+        record.setReadString(new String(bases));
+        record.setBaseQualityString(new String(qualities));
+        return record;
+    }
+
+    @NotNull
+    private static String describe(@NotNull final BaseDepth depth) {
+        return depth.chromosome() + ":" + depth.position() + ":" + depth.readDepth() + ":" + depth.indelCount() + ":" + depth.refSupport()
+                + ":" + depth.altSupport();
+    }
+
+    @NotNull
+    private static String describe(@NotNull final TumorBAF baf) {
+        return baf.chromosome() + ":" + baf.position() + ":" + baf.normalReadDepth() + ":" + baf.normalRefSupport() + ":"
+                + baf.normalAltSupport() + ":" + baf.tumorReadDepth() + ":" + baf.tumorRefSupport() + ":" + baf.tumorAltSupport() + ":"
+                + baf.tumorAltQuality() + ":" + baf.tumorIndelCount();
+    }
+}
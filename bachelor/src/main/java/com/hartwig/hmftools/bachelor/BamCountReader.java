@@ -6,6 +6,7 @@ import java.util.Set;
 
 import com.google.common.collect.Sets;
 import com.hartwig.hmftools.bachelor.types.BachelorGermlineVariant;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeBlockCache;
 import com.hartwig.hmftools.common.variant.hotspot.ImmutableVariantHotspotImpl;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotEvidence;
@@ -17,10 +18,11 @@ import org.apache.logging.log4j.Logger;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 class BamCountReader
 {
-    private IndexedFastaSequenceFile mIndexedFastaSequenceFile;
+    private ReferenceSequenceFile mIndexedFastaSequenceFile;
     private File mRefGenomeFile;
     private SamReader mTumorReader;
 
@@ -38,7 +40,7 @@ class BamCountReader
 
     void initialise(final String refGenomeFile, IndexedFastaSequenceFile ifSeqFile)
     {
-        mIndexedFastaSequenceFile = ifSeqFile;
+        mIndexedFastaSequenceFile = new RefGenomeBlockCache(ifSeqFile);
 
         mRefGenomeFile = new File(refGenomeFile);
     }
@@ -102,7 +102,8 @@ public class CountBamLinesApplication implements AutoCloseable {
         versionInfo.write(config.outputDirectory());
         CobaltRatioFile.write(outputFilename, ratios);
 
-        new RatioSegmentation(executorService, config.outputDirectory()).applySegmentation(config.reference(), config.tumor());
+        LOGGER.info("Applying pcf segmentation");
+        new RatioSegmentation(executorService, config.outputDirectory()).applySegmentation(config.reference(), config.tumor(), ratios);
     }
 
     @NotNull
@@ -0,0 +1,64 @@
+package com.hartwig.hmftools.cobalt;
+
+import java.io.IOException;
+
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.GCProfileFactory;
+import com.hartwig.hmftools.common.genome.gc.GCProfileFile;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+public class GCProfileConverter {
+
+    private static final Logger LOGGER = LogManager.getLogger(GCProfileConverter.class);
+
+    private static final String GC_PROFILE = "gc_profile";
+    private static final String OUTPUT = "output";
+    private static final String WINDOW_SIZE = "window_size";
+
+    private static final int DEFAULT_WINDOW_SIZE = 1000;
+
+    public static void main(final String... args) throws IOException {
+        final Options options = createOptions();
+        try {
+            final CommandLine cmd = new DefaultParser().parse(options, args);
+            if (!cmd.hasOption(GC_PROFILE) || !cmd.hasOption(OUTPUT)) {
+                throw new ParseException(GC_PROFILE + " and " + OUTPUT + " are mandatory");
+            }
+
+            final String gcProfile = cmd.getOptionValue(GC_PROFILE);
+            final String outputFile = cmd.getOptionValue(OUTPUT);
+            final int windowSize =
+                    cmd.hasOption(WINDOW_SIZE) ? Integer.parseInt(cmd.getOptionValue(WINDOW_SIZE)) : DEFAULT_WINDOW_SIZE;
+
+            LOGGER.info("Loading GC profile {}", gcProfile);
+            final Multimap<Chromosome, GCProfile> profiles = GCProfileFactory.loadGCContent(windowSize, gcProfile);
+
+            LOGGER.info("Writing {} windows to {}", profiles.size(), outputFile);
+            GCProfileFile.write(windowSize, outputFile, profiles);
+        } catch (ParseException e) {
+            LOGGER.warn(e);
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("GCProfileConverter", options);
+            System.exit(1);
+        }
+    }
+
+    @NotNull
+    private static Options createOptions() {
+        final Options options = new Options();
+        options.addOption(GC_PROFILE, true, "Path to GC profile");
+        options.addOption(OUTPUT, true, "Path to output binary GC profile");
+        options.addOption(WINDOW_SIZE, true, "Window size of GC profile (default " + DEFAULT_WINDOW_SIZE + ")");
+        return options;
+    }
+}
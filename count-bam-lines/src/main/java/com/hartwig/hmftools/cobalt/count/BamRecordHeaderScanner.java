@@ -0,0 +1,91 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.util.BlockCompressedInputStream;
+
+/**
+ * Reads only the fixed length block of each BAM alignment record, ie, reference, position, mapping quality and flags. Read names,
+ * cigar, bases, qualities and tags are skipped without being decoded.
+ */
+class BamRecordHeaderScanner {
+
+    // block_size, refID, pos, l_read_name, mapq, bin, n_cigar_op, flag, l_seq, next_refID, next_pos, tlen
+    private static final int HEADER_LENGTH = 36;
+
+    interface Consumer {
+
+        void accept(int alignmentStart, int flags, int mappingQuality);
+    }
+
+    private final File inputFile;
+    private final byte[] header = new byte[HEADER_LENGTH];
+    private byte[] skipBuffer = new byte[1024];
+
+    BamRecordHeaderScanner(@NotNull final File inputFile) {
+        this.inputFile = inputFile;
+    }
+
+    /**
+     * Passes every record of the reference from the virtual file offset onwards until the first record starting after end. The BAM
+     * must be coordinate sorted.
+     */
+    void scan(long virtualOffset, int referenceIndex, long end, @NotNull final Consumer consumer) throws IOException {
+        try (BlockCompressedInputStream stream = new BlockCompressedInputStream(inputFile)) {
+            stream.seek(virtualOffset);
+            while (readFully(stream, header, HEADER_LENGTH)) {
+                final int blockSize = intValue(header, 0);
+                final int recordReference = intValue(header, 4);
+                final int alignmentStart = intValue(header, 8) + 1;
+                if (recordReference != referenceIndex || alignmentStart > end) {
+                    return;
+                }
+
+                final int mappingQuality = header[13] & 0xFF;
+                final int flags = shortValue(header, 18);
+                consumer.accept(alignmentStart, flags, mappingQuality);
+
+                skip(stream, blockSize + 4 - HEADER_LENGTH);
+            }
+        }
+    }
+
+    private void skip(@NotNull final BlockCompressedInputStream stream, int length) throws IOException {
+        if (length > skipBuffer.length) {
+            skipBuffer = new byte[length];
+        }
+
+        if (!readFully(stream, skipBuffer, length)) {
+            throw new IOException("Truncated BAM record in " + inputFile);
+        }
+    }
+
+    private boolean readFully(@NotNull final BlockCompressedInputStream stream, @NotNull final byte[] buffer, int length)
+            throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            final int read = stream.read(buffer, offset, length - offset);
+            if (read < 0) {
+                if (offset == 0) {
+                    return false;
+                }
+                throw new IOException("Truncated BAM record in " + inputFile);
+            }
+            offset += read;
+        }
+
+        return true;
+    }
+
+    private static int intValue(@NotNull final byte[] buffer, int offset) {
+        return (buffer[offset] & 0xFF) | (buffer[offset + 1] & 0xFF) << 8 | (buffer[offset + 2] & 0xFF) << 16
+                | (buffer[offset + 3] & 0xFF) << 24;
+    }
+
+    private static int shortValue(@NotNull final byte[] buffer, int offset) {
+        return (buffer[offset] & 0xFF) | (buffer[offset + 1] & 0xFF) << 8;
+    }
+}
@@ -1,108 +1,98 @@
 package com.hartwig.hmftools.cobalt.count;
 
 import java.io.File;
-import java.util.List;
+import java.io.IOException;
 import java.util.concurrent.Callable;
 
-import com.google.common.collect.Lists;
-import com.hartwig.hmftools.common.cobalt.ImmutableReadCount;
-import com.hartwig.hmftools.common.cobalt.ReadCount;
-import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
-import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
-import com.hartwig.hmftools.common.genome.window.Window;
+import com.hartwig.hmftools.common.cobalt.ReadCountArray;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
+import htsjdk.samtools.BAMFileSpan;
+import htsjdk.samtools.SAMFlag;
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SAMRecordIterator;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
 
+/**
+ * Counts eligible reads per window for the reads starting within [start, end] of a chromosome. Start must be window aligned so
+ * that consecutive chunks never share a window. Indexed BAMs are counted from the record headers alone, other inputs (eg, CRAM) are
+ * decoded through htsjdk.
+ */
 class ChromosomeReadCount implements Callable<ChromosomeReadCount> {
 
-    private static final Logger LOGGER = LogManager.getLogger(ChromosomeReadCount.class);
+    private static final int EXCLUDED_FLAGS = SAMFlag.READ_UNMAPPED.intValue() | SAMFlag.DUPLICATE_READ.intValue()
+            | SAMFlag.NOT_PRIMARY_ALIGNMENT.intValue() | SAMFlag.SUPPLEMENTARY_ALIGNMENT.intValue();
 
     private final File inputFile;
     private final SamReaderFactory readerFactory;
     private final String chromosome;
-    private final long chromosomeLength;
-    private final List<ReadCount> result = Lists.newArrayList();
+    private final long start;
+    private final long end;
+    private final int windowSize;
     private final int minMappingQuality;
-    private final Window window;
+    private final int[] counts;
 
-    private long start;
-    private int count;
-
-    ChromosomeReadCount(final File inputFile, final SamReaderFactory readerFactory, @NotNull final String chromosome,
-            final long chromosomeLength, final int windowSize, final int minMappingQuality) {
+    ChromosomeReadCount(final File inputFile, final SamReaderFactory readerFactory, @NotNull final String chromosome, final long start,
+            final long end, final int windowSize, final int minMappingQuality) {
         this.inputFile = inputFile;
         this.readerFactory = readerFactory;
         this.chromosome = chromosome;
-        this.chromosomeLength = chromosomeLength;
+        this.start = start;
+        this.end = end;
+        this.windowSize = windowSize;
         this.minMappingQuality = minMappingQuality;
-        this.window = new Window(windowSize);
-
-        start = 1;
-        count = -1;
+        this.counts = new int[(int) ((end - start) / windowSize + 1)];
     }
 
     @Override
     public ChromosomeReadCount call() throws Exception {
-        LOGGER.info("Generating windows on chromosome {}", chromosome);
-
         try (final SamReader reader = readerFactory.open(inputFile)) {
-            final SAMRecordIterator iterator = reader.query(chromosome, 0, 0, true);
-            while (iterator.hasNext()) {
-                addRecord(iterator.next());
+            if (SamReader.Type.BAM_TYPE.equals(reader.type()) && reader.hasIndex()) {
+                scanRecordHeaders(reader);
+            } else {
+                final SAMRecordIterator iterator = reader.queryOverlapping(chromosome, (int) start, (int) end);
+                while (iterator.hasNext()) {
+                    addRecord(iterator.next());
+                }
             }
         }
-        return this;
-    }
 
-    Chromosome chromosome() {
-        return HumanChromosome.fromString(chromosome);
+        return this;
     }
 
-    List<ReadCount> readCount() {
-        addReadCount(start, count);
+    private void scanRecordHeaders(@NotNull final SamReader reader) throws IOException {
+        final int referenceIndex = reader.getFileHeader().getSequenceIndex(chromosome);
+        if (referenceIndex < 0) {
+            return;
+        }
 
-        long lastWindowPosition = lastWindowPosition();
-        if (result.get(result.size() - 1).position() < lastWindowPosition) {
-            addReadCount(lastWindowPosition, -1);
+        final BAMFileSpan span = reader.indexing().getIndex().getSpanOverlapping(referenceIndex, (int) start, (int) end);
+        if (span == null || span.isEmpty()) {
+            return;
         }
 
-        return result;
+        new BamRecordHeaderScanner(inputFile).scan(span.getFirstOffset(), referenceIndex, end, this::addRecord);
     }
 
-    private void addRecord(@NotNull SAMRecord record) {
-        if (isEligible(record)) {
-
-            long window = windowPosition(record.getAlignmentStart());
-            if (start != window) {
-                addReadCount(start, count);
-                start = window;
-                count = 0;
-            }
-            count++;
-        }
+    void addTo(@NotNull final ReadCountArray readCounts) {
+        readCounts.add(readCounts.window(start), counts);
     }
 
-    private void addReadCount(long position, int count) {
-        result.add(ImmutableReadCount.builder().chromosome(chromosome).position(position).readCount(count).build());
+    private void addRecord(@NotNull SAMRecord record) {
+        addRecord(record.getAlignmentStart(), record.getFlags(), record.getMappingQuality());
     }
 
-    private boolean isEligible(@NotNull SAMRecord record) {
-        return record.getMappingQuality() >= minMappingQuality && !(record.getReadUnmappedFlag() || record.getDuplicateReadFlag()
-                || record.isSecondaryOrSupplementary());
-    }
+    private void addRecord(int alignmentStart, int flags, int mappingQuality) {
+        if (alignmentStart < start || alignmentStart > end || !isEligible(flags, mappingQuality)) {
+            return;
+        }
 
-    private long lastWindowPosition() {
-        return windowPosition(chromosomeLength);
+        counts[(int) ((alignmentStart - start) / windowSize)]++;
     }
 
-    private long windowPosition(long position) {
-        return window.start(position);
+    private boolean isEligible(int flags, int mappingQuality) {
+        return mappingQuality >= minMappingQuality && (flags & EXCLUDED_FLAGS) == 0;
     }
 }
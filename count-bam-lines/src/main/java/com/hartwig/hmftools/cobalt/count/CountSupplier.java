@@ -3,22 +3,24 @@ package com.hartwig.hmftools.cobalt.count;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.cobalt.CountBamLinesApplication;
 import com.hartwig.hmftools.common.cobalt.CobaltCount;
 import com.hartwig.hmftools.common.cobalt.CobaltCountFactory;
-import com.hartwig.hmftools.common.cobalt.ReadCount;
+import com.hartwig.hmftools.common.cobalt.ReadCountArray;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLength;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLengthFactory;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLengthFile;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -31,6 +33,9 @@ public class CountSupplier {
 
     private static final Logger LOGGER = LogManager.getLogger(CountBamLinesApplication.class);
 
+    // Chunks are a whole number of windows so no window spans two chunks
+    private static final int CHUNK_WINDOWS = 10_000;
+
     private final String tumor;
     private final String outputDirectory;
     private final int windowSize;
@@ -61,46 +66,51 @@ public class CountSupplier {
         }
         ChromosomeLengthFile.write(chromosomeLengthFileName, lengths);
 
-        LOGGER.info("Calculating Read Count from {}", tumorFile.toString());
-        final List<Future<ChromosomeReadCount>> tumorFutures = createFutures(readerFactory, tumorFile, lengths);
-
-        LOGGER.info("Calculating Read Count from {}", referenceFile.toString());
-        final List<Future<ChromosomeReadCount>> referenceFutures = createFutures(readerFactory, referenceFile, lengths);
+        LOGGER.info("Calculating Read Count from {} and {}", tumorFile.toString(), referenceFile.toString());
+        final ListMultimap<String, Future<ChromosomeReadCount>> tumorFutures = ArrayListMultimap.create();
+        final ListMultimap<String, Future<ChromosomeReadCount>> referenceFutures = ArrayListMultimap.create();
+        createFutures(readerFactory, tumorFile, referenceFile, lengths, tumorFutures, referenceFutures);
 
-        final Multimap<Chromosome, ReadCount> tumorCounts = fromFutures(tumorFutures);
-        final Multimap<Chromosome, ReadCount> referenceCounts = fromFutures(referenceFutures);
+        final Map<Chromosome, ReadCountArray> tumorCounts = fromFutures(lengths, tumorFutures);
+        final Map<Chromosome, ReadCountArray> referenceCounts = fromFutures(lengths, referenceFutures);
 
         LOGGER.info("Read Count Complete");
         return CobaltCountFactory.merge(referenceCounts, tumorCounts);
     }
 
-    @NotNull
-    private List<Future<ChromosomeReadCount>> createFutures(final SamReaderFactory readerFactory, final File file,
-            final List<ChromosomeLength> lengths) {
-        final List<Future<ChromosomeReadCount>> futures = Lists.newArrayList();
+    private void createFutures(final SamReaderFactory readerFactory, final File tumorFile, final File referenceFile,
+            final List<ChromosomeLength> lengths, final ListMultimap<String, Future<ChromosomeReadCount>> tumorFutures,
+            final ListMultimap<String, Future<ChromosomeReadCount>> referenceFutures) {
+        final long chunkSize = (long) CHUNK_WINDOWS * windowSize;
+
+        // Tumor and reference chunks are interleaved so idle threads pick up whichever work remains in either bam
         for (ChromosomeLength chromosome : lengths) {
-            final ChromosomeReadCount callable = new ChromosomeReadCount(file,
-                    readerFactory,
-                    chromosome.chromosome(),
-                    chromosome.length(),
-                    windowSize,
-                    minMappingQuality);
-            futures.add(executorService.submit(callable));
+            for (long start = 1; start <= chromosome.length(); start += chunkSize) {
+                final long end = Math.min(chromosome.length(), start + chunkSize - 1);
+                final String contig = chromosome.chromosome();
+                tumorFutures.put(contig, executorService.submit(chunk(readerFactory, tumorFile, contig, start, end)));
+                referenceFutures.put(contig, executorService.submit(chunk(readerFactory, referenceFile, contig, start, end)));
+            }
         }
+    }
 
-        return futures;
+    @NotNull
+    private ChromosomeReadCount chunk(final SamReaderFactory readerFactory, final File file, final String chromosome, final long start,
+            final long end) {
+        return new ChromosomeReadCount(file, readerFactory, chromosome, start, end, windowSize, minMappingQuality);
     }
 
     @NotNull
-    private static Multimap<Chromosome, ReadCount> fromFutures(List<Future<ChromosomeReadCount>> futures)
-            throws ExecutionException, InterruptedException {
-        final ListMultimap<Chromosome, ReadCount> readCounts = ArrayListMultimap.create();
-        for (Future<ChromosomeReadCount> future : futures) {
-            final ChromosomeReadCount readCount = future.get();
-            final Chromosome chromosome = readCount.chromosome();
-            final List<ReadCount> result = readCount.readCount();
-
-            readCounts.putAll(chromosome, result);
+    private Map<Chromosome, ReadCountArray> fromFutures(@NotNull final List<ChromosomeLength> lengths,
+            @NotNull final ListMultimap<String, Future<ChromosomeReadCount>> futures) throws ExecutionException, InterruptedException {
+        final Map<Chromosome, ReadCountArray> readCounts = Maps.newLinkedHashMap();
+        for (ChromosomeLength chromosome : lengths) {
+            final ReadCountArray result = new ReadCountArray(chromosome.chromosome(), chromosome.length(), windowSize);
+            for (Future<ChromosomeReadCount> future : futures.get(chromosome.chromosome())) {
+                future.get().addTo(result);
+            }
+
+            readCounts.put(HumanChromosome.fromString(chromosome.chromosome()), result);
         }
 
         return readCounts;
@@ -1,16 +1,16 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.Map;
 
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.cobalt.CobaltCount;
 import com.hartwig.hmftools.common.cobalt.ReadRatio;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.gc.GCMedianReadCount;
 import com.hartwig.hmftools.common.genome.gc.GCProfile;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelector;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelectorFactory;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -22,16 +22,27 @@ class GCRatioSupplier {
     private final ListMultimap<Chromosome, ReadRatio> referenceRatios;
 
     GCRatioSupplier(@NotNull final Multimap<Chromosome, GCProfile> gcProfiles, @NotNull final Multimap<Chromosome, CobaltCount> counts) {
-        final GenomeRegionSelector<GCProfile> gcProfileSelector = GenomeRegionSelectorFactory.createImproved(gcProfiles);
+        final Map<Chromosome, GCProfile[]> gcProfileWindows = Maps.newHashMap();
+        for (Chromosome chromosome : gcProfiles.keySet()) {
+            gcProfileWindows.put(chromosome, windows(gcProfiles.get(chromosome)));
+        }
 
         final GCRatioNormalization tumorRatiosBuilder = new GCRatioNormalization();
         final GCRatioNormalization referenceRatiosBuilder = new GCRatioNormalization();
 
         for (Chromosome chromosome : counts.keySet()) {
+            final GCProfile[] windows = gcProfileWindows.get(chromosome);
+            if (windows == null || windows.length == 0) {
+                continue;
+            }
+
+            final int windowSize = windowSize(windows);
             for (CobaltCount cobaltPosition : counts.get(chromosome)) {
-                final Optional<GCProfile> optionalGCProfile = gcProfileSelector.select(cobaltPosition);
-                if (optionalGCProfile.isPresent()) {
-                    final GCProfile gcProfile = optionalGCProfile.get();
+                final int window = (int) ((cobaltPosition.position() - 1) / windowSize);
+                final GCProfile gcProfile = window < windows.length ? windows[window] : null;
+
+                // Contig names may differ in prefix between the bam and the profile so only the position is checked
+                if (gcProfile != null && gcProfile.start() <= cobaltPosition.position() && cobaltPosition.position() <= gcProfile.end()) {
                     referenceRatiosBuilder.addPosition(chromosome, gcProfile, cobaltPosition.referenceReadCount());
                     tumorRatiosBuilder.addPosition(chromosome, gcProfile, cobaltPosition.tumorReadCount());
                 }
@@ -64,4 +75,37 @@ class GCRatioSupplier {
     GCMedianReadCount tumorGCMedianReadCount() {
         return tumorGCMedianReadCount;
     }
+    /**
+     * GC profiles are window aligned so are addressed directly by window number rather than searched.
+     */
+    @NotNull
+    private static GCProfile[] windows(@NotNull final Collection<GCProfile> profiles) {
+        if (profiles.isEmpty()) {
+            return new GCProfile[0];
+        }
+
+        final GCProfile first = profiles.iterator().next();
+        final int windowSize = (int) first.bases();
+        long maxStart = 0;
+        for (GCProfile profile : profiles) {
+            maxStart = Math.max(maxStart, profile.start());
+        }
+
+        final GCProfile[] result = new GCProfile[(int) ((maxStart - 1) / windowSize + 1)];
+        for (GCProfile profile : profiles) {
+            result[(int) ((profile.start() - 1) / windowSize)] = profile;
+        }
+
+        return result;
+    }
+
+    private static int windowSize(@NotNull final GCProfile[] windows) {
+        for (GCProfile profile : windows) {
+            if (profile != null) {
+                return (int) profile.bases();
+            }
+        }
+
+        return 1;
+    }
 }
@@ -1,82 +1,185 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
+/**
+ * Order statistic tree (treap) over primitive doubles. Add, remove and median are O(log n) expected. Nodes live in parallel arrays
+ * with index 0 as the empty sentinel, repeated values share a node.
+ */
 class RollingMedian {
 
-    private final PriorityQueue<Double> minheap = new PriorityQueue<>(new MinHeapComparator());
-    private final PriorityQueue<Double> maxheap = new PriorityQueue<>(new MaxHeapComparator());
+    private static final int NIL = 0;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private double[] key = new double[INITIAL_CAPACITY];
+    private int[] priority = new int[INITIAL_CAPACITY];
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] right = new int[INITIAL_CAPACITY];
+    private int[] count = new int[INITIAL_CAPACITY];
+    private int[] size = new int[INITIAL_CAPACITY];
+
+    private int root = NIL;
+    private int nextNode = 1;
+    private int freeNode = NIL;
+    private int seed = 0x2545F491;
 
     void add(double n) {
-        if (isEmpty()) {
-            minheap.add(n);
-        } else {
-            if (Double.compare(n, median()) <= 0) {
-                maxheap.add(n);
-            } else {
-                minheap.add(n);
-            }
-        }
-        fixChaos();
+        root = insert(root, n);
     }
 
     void remove(double n) {
-        if (!isEmpty()) {
-            if (Double.compare(n, median()) <= 0) {
-                maxheap.remove(n);
-            } else {
-                minheap.remove(n);
-            }
-        }
-        fixChaos();
+        root = delete(root, n);
     }
 
     int size() {
-        return maxheap.size() + minheap.size();
+        return size[root];
     }
 
-    private boolean isEmpty() {
-        return size() == 0;
+    double median() {
+        final int n = size();
+        if (n == 0) {
+            return 0;
+        }
+
+        if (n % 2 == 1) {
+            return select(n / 2);
+        }
+
+        return (select(n / 2 - 1) + select(n / 2)) / 2;
     }
 
-    private void fixChaos() {
-        //if sizes of heaps differ by 2, then it's a chaos, since median must be the middle element
-        if (Math.abs(maxheap.size() - minheap.size()) > 1) {
-            //check which one is the culprit and take action by kicking out the root from culprit into victim
-            if (maxheap.size() > minheap.size()) {
-                minheap.add(maxheap.poll());
+    private double select(int rank) {
+        int node = root;
+        while (true) {
+            final int leftSize = size[left[node]];
+            if (rank < leftSize) {
+                node = left[node];
+            } else if (rank < leftSize + count[node]) {
+                return key[node];
             } else {
-                maxheap.add(minheap.poll());
+                rank -= leftSize + count[node];
+                node = right[node];
             }
         }
     }
 
-    double median() {
-        if (isEmpty()) {
-            return 0;
+    private int insert(int node, double value) {
+        if (node == NIL) {
+            return newNode(value);
         }
-        if (maxheap.size() == minheap.size()) {
-            return (maxheap.peek() + minheap.peek()) / 2;
-        } else if (maxheap.size() > minheap.size()) {
-            return maxheap.peek();
+
+        final int compare = Double.compare(value, key[node]);
+        if (compare == 0) {
+            count[node]++;
+        } else if (compare < 0) {
+            // Insertion may grow the arrays so the child is assigned after the call
+            final int child = insert(left[node], value);
+            left[node] = child;
+            if (priority[left[node]] > priority[node]) {
+                node = rotateRight(node);
+            }
         } else {
-            return minheap.peek();
+            final int child = insert(right[node], value);
+            right[node] = child;
+            if (priority[right[node]] > priority[node]) {
+                node = rotateLeft(node);
+            }
         }
+
+        update(node);
+        return node;
     }
 
-    private static class MinHeapComparator implements Comparator<Double> {
-        @Override
-        public int compare(Double i, Double j) {
-            return Double.compare(i, j);
+    private int delete(int node, double value) {
+        if (node == NIL) {
+            return NIL;
         }
+
+        final int compare = Double.compare(value, key[node]);
+        if (compare < 0) {
+            left[node] = delete(left[node], value);
+        } else if (compare > 0) {
+            right[node] = delete(right[node], value);
+        } else if (count[node] > 1) {
+            count[node]--;
+        } else if (left[node] == NIL || right[node] == NIL) {
+            final int child = left[node] == NIL ? right[node] : left[node];
+            release(node);
+            return child;
+        } else if (priority[left[node]] > priority[right[node]]) {
+            node = rotateRight(node);
+            right[node] = delete(right[node], value);
+        } else {
+            node = rotateLeft(node);
+            left[node] = delete(left[node], value);
+        }
+
+        update(node);
+        return node;
+    }
+
+    private int rotateRight(int node) {
+        final int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        final int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(int node) {
+        size[node] = size[left[node]] + size[right[node]] + count[node];
     }
 
-    private static class MaxHeapComparator implements Comparator<Double> {
-        // opposite to minHeapComparator, invert the return values
-        @Override
-        public int compare(Double i, Double j) {
-            return -1 * Double.compare(i, j);
+    private int newNode(double value) {
+        final int node;
+        if (freeNode != NIL) {
+            node = freeNode;
+            freeNode = right[node];
+        } else {
+            if (nextNode == key.length) {
+                grow();
+            }
+            node = nextNode++;
         }
+
+        key[node] = value;
+        priority[node] = nextPriority();
+        left[node] = NIL;
+        right[node] = NIL;
+        count[node] = 1;
+        size[node] = 1;
+        return node;
+    }
+
+    private void release(int node) {
+        right[node] = freeNode;
+        freeNode = node;
+    }
+
+    private int nextPriority() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private void grow() {
+        final int capacity = 2 * key.length;
+        key = Arrays.copyOf(key, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        count = Arrays.copyOf(count, capacity);
+        size = Arrays.copyOf(size, capacity);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package com.hartwig.hmftools.cobalt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RatioSegmentationTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testLog2Ratio() {
+        assertEquals(0, RatioSegmentation.log2Ratio(1), EPSILON);
+        assertEquals(1, RatioSegmentation.log2Ratio(2), EPSILON);
+        assertEquals(Math.log(0.001) / Math.log(2), RatioSegmentation.log2Ratio(0), EPSILON);
+        assertTrue(Double.isNaN(RatioSegmentation.log2Ratio(-1)));
+    }
+}
@@ -0,0 +1,192 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.cobalt.CobaltCount;
+import com.hartwig.hmftools.common.cobalt.CobaltCountFactory;
+import com.hartwig.hmftools.common.cobalt.ReadCountArray;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReaderFactory;
+
+public class ChromosomeReadCountTest {
+
+    private static final String CHROMOSOME = "1";
+    private static final int LENGTH = 10_000;
+    private static final int WINDOW_SIZE = 1000;
+    private static final int MIN_MAPPING_QUALITY = 10;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File bam;
+
+    @Before
+    public void setup() throws IOException {
+        bam = folder.newFile("test.bam");
+
+        final SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        header.setSequenceDictionary(new SAMSequenceDictionary(Lists.newArrayList(new SAMSequenceRecord(CHROMOSOME, LENGTH))));
+
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, false, bam)) {
+            writer.addAlignment(record(header, "A", 5, 60, 0));
+            writer.addAlignment(record(header, "B", 5, 60, 0));
+            writer.addAlignment(record(header, "C", 1500, 60, 0));
+            writer.addAlignment(record(header, "D", 1600, 60, 0x400));
+            writer.addAlignment(record(header, "E", 2500, 0, 0));
+            writer.addAlignment(record(header, "F", 2950, 60, 0));
+            writer.addAlignment(record(header, "G", 4200, 60, 0));
+            writer.addAlignment(record(header, "H", 4300, 60, 0x100));
+        }
+    }
+
+    @Test
+    public void testChunksMatchSinglePass() throws Exception {
+        final ReadCountArray chunked = new ReadCountArray(CHROMOSOME, LENGTH, WINDOW_SIZE);
+        for (long start = 1; start <= LENGTH; start += 3 * WINDOW_SIZE) {
+            chunk(start, Math.min(LENGTH, start + 3 * WINDOW_SIZE - 1)).addTo(chunked);
+        }
+
+        final ReadCountArray single = new ReadCountArray(CHROMOSOME, LENGTH, WINDOW_SIZE);
+        chunk(1, LENGTH).addTo(single);
+
+        assertEquals(10, chunked.windows());
+        for (int window = 0; window < chunked.windows(); window++) {
+            assertEquals(single.count(window), chunked.count(window));
+        }
+
+        assertEquals(2, chunked.count(0));
+        assertEquals(1, chunked.count(1));
+        assertEquals(1, chunked.count(2));
+        assertEquals(0, chunked.count(3));
+        assertEquals(1, chunked.count(4));
+    }
+
+    @Test
+    public void testReportedCounts() throws Exception {
+        final ReadCountArray reference = new ReadCountArray(CHROMOSOME, LENGTH, WINDOW_SIZE);
+        chunk(1, LENGTH).addTo(reference);
+
+        final ListMultimap<Chromosome, CobaltCount> result = CobaltCountFactory.merge(map(reference), map(reference));
+        final Chromosome chromosome = HumanChromosome.fromString(CHROMOSOME);
+        assertEquals(5, result.get(chromosome).size());
+        assertReadCount(1, 1, result.get(chromosome).get(0));
+        assertReadCount(1001, 1, result.get(chromosome).get(1));
+        assertReadCount(2001, 1, result.get(chromosome).get(2));
+        assertReadCount(4001, 1, result.get(chromosome).get(3));
+        assertReadCount(9001, -1, result.get(chromosome).get(4));
+    }
+
+    @Test
+    public void testEmptyChromosome() {
+        final ReadCountArray empty = new ReadCountArray(CHROMOSOME, LENGTH, WINDOW_SIZE);
+        final ListMultimap<Chromosome, CobaltCount> result = CobaltCountFactory.merge(map(empty), map(empty));
+        final Chromosome chromosome = HumanChromosome.fromString(CHROMOSOME);
+        assertEquals(2, result.get(chromosome).size());
+        assertReadCount(1, -1, result.get(chromosome).get(0));
+        assertReadCount(9001, -1, result.get(chromosome).get(1));
+    }
+
+    @Test
+    public void testRecordHeadersAcrossManyBlocks() throws Exception {
+        final File largeBam = folder.newFile("large.bam");
+        final int length = 1_000_000;
+
+        final SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        header.setSequenceDictionary(new SAMSequenceDictionary(Lists.newArrayList(new SAMSequenceRecord(CHROMOSOME, length),
+                new SAMSequenceRecord("2", length))));
+
+        final Random random = new Random(0);
+        final int[] flags = { 0, 0, 0, 0x10, 0x100, 0x400, 0x800 };
+        final int[] expected = new int[length / WINDOW_SIZE];
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, false, largeBam)) {
+            for (String contig : new String[] { CHROMOSOME, "2" }) {
+                int position = 1;
+                for (int i = 0; i < 20_000; i++) {
+                    position += random.nextInt(90);
+                    final int mappingQuality = random.nextInt(60);
+                    final int flag = flags[random.nextInt(flags.length)];
+                    final SAMRecord record = record(header, contig, "R" + i, position, mappingQuality, flag);
+                    writer.addAlignment(record);
+                    if (contig.equals(CHROMOSOME) && flag <= 0x10 && mappingQuality >= MIN_MAPPING_QUALITY) {
+                        expected[(position - 1) / WINDOW_SIZE]++;
+                    }
+                }
+            }
+        }
+
+        final ReadCountArray result = new ReadCountArray(CHROMOSOME, length, WINDOW_SIZE);
+        for (long start = 1; start <= length; start += 7 * WINDOW_SIZE) {
+            final long end = Math.min(length, start + 7 * WINDOW_SIZE - 1);
+            new ChromosomeReadCount(largeBam, SamReaderFactory.makeDefault(), CHROMOSOME, start, end, WINDOW_SIZE, MIN_MAPPING_QUALITY)
+                    .call()
+                    .addTo(result);
+        }
+
+        for (int window = 0; window < expected.length; window++) {
+            assertEquals(expected[window], result.count(window));
+        }
+    }
+
+    @NotNull
+    private static Map<Chromosome, ReadCountArray> map(@NotNull final ReadCountArray readCounts) {
+        final Map<Chromosome, ReadCountArray> result = Maps.newHashMap();
+        result.put(HumanChromosome.fromString(readCounts.chromosome()), readCounts);
+        return result;
+    }
+
+    @NotNull
+    private ChromosomeReadCount chunk(long start, long end) throws Exception {
+        return new ChromosomeReadCount(bam, SamReaderFactory.makeDefault(), CHROMOSOME, start, end, WINDOW_SIZE, MIN_MAPPING_QUALITY).call();
+    }
+
+    @NotNull
+    private static SAMRecord record(@NotNull final SAMFileHeader header, @NotNull final String name, int start, int mappingQuality,
+            int flags) {
+        return record(header, CHROMOSOME, name, start, mappingQuality, flags);
+    }
+
+    @NotNull
+    private static SAMRecord record(@NotNull final SAMFileHeader header, @NotNull final String chromosome, @NotNull final String name,
+            int start, int mappingQuality, int flags) {
+        final SAMRecord record = new SAMRecord(header);
+        record.setReadName(name);
+        record.setReferenceName(chromosome);
+        record.setAlignmentStart(start);
+        record.setCigarString("100M");
+        record.setReadString(new String(new char[100]).replace('\0', 'A'));
+        record.setBaseQualityString(new String(new char[100]).replace('\0', 'I'));
+        record.setMappingQuality(mappingQuality);
+        record.setFlags(flags);
+        return record;
+    }
+
+    private static void assertReadCount(long position, int count, @NotNull final CobaltCount readCount) {
+        assertEquals(position, readCount.position());
+        assertEquals(count, readCount.referenceReadCount());
+        assertEquals(count, readCount.tumorReadCount());
+    }
+}
@@ -0,0 +1,82 @@
+package com.hartwig.hmftools.cobalt.ratio;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.cobalt.CobaltCount;
+import com.hartwig.hmftools.common.cobalt.ImmutableCobaltRatio;
+import com.hartwig.hmftools.common.cobalt.ReadRatio;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.ImmutableGCProfile;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class GCRatioSupplierTest {
+
+    private static final int WINDOW_SIZE = 1000;
+    private static final int WINDOWS = 10;
+    private static final double EPSILON = 1e-10;
+
+    @Test
+    public void testMatchingContigs() {
+        assertRatios(create("1", "1"));
+    }
+
+    @Test
+    public void testPrefixedCountContig() {
+        assertRatios(create("1", "chr1"));
+    }
+
+    @Test
+    public void testPrefixedProfileContig() {
+        assertRatios(create("chr1", "1"));
+    }
+
+    private static void assertRatios(@NotNull final GCRatioSupplier victim) {
+        final List<ReadRatio> referenceRatios = victim.referenceRatios().get(HumanChromosome._1);
+        final List<ReadRatio> tumorRatios = victim.tumorRatios().get(HumanChromosome._1);
+        assertEquals(WINDOWS, referenceRatios.size());
+        assertEquals(WINDOWS, tumorRatios.size());
+        for (int i = 0; i < WINDOWS; i++) {
+            assertEquals(i * WINDOW_SIZE + 1, referenceRatios.get(i).position());
+            assertEquals(1, referenceRatios.get(i).ratio(), EPSILON);
+            assertEquals(1, tumorRatios.get(i).ratio(), EPSILON);
+        }
+    }
+
+    @NotNull
+    private static GCRatioSupplier create(@NotNull final String profileContig, @NotNull final String countContig) {
+        final ListMultimap<Chromosome, GCProfile> profiles = ArrayListMultimap.create();
+        final ListMultimap<Chromosome, CobaltCount> counts = ArrayListMultimap.create();
+        for (int i = 0; i < WINDOWS; i++) {
+            final long start = i * WINDOW_SIZE + 1;
+            profiles.put(HumanChromosome.fromString(profileContig),
+                    ImmutableGCProfile.builder()
+                            .chromosome(profileContig)
+                            .start(start)
+                            .end(start + WINDOW_SIZE - 1)
+                            .gcContent(0.5)
+                            .nonNPercentage(1)
+                            .mappablePercentage(1)
+                            .build());
+            counts.put(HumanChromosome.fromString(countContig),
+                    ImmutableCobaltRatio.builder()
+                            .chromosome(countContig)
+                            .position(start)
+                            .referenceReadCount(100)
+                            .tumorReadCount(200)
+                            .referenceGCRatio(0)
+                            .referenceGCDiploidRatio(0)
+                            .tumorGCRatio(0)
+                            .build());
+        }
+
+        return new GCRatioSupplier(profiles, counts);
+    }
+}
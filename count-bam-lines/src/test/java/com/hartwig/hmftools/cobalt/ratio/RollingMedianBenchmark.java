@@ -0,0 +1,82 @@
+package com.hartwig.hmftools.cobalt.ratio;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Rolls a window over a chromosome worth of ratios as DiploidRatioNormalization does (window 2 x 5000 + 1).
+ * Run from count-bam-lines with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.hartwig.hmftools.cobalt.ratio.RollingMedianBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RollingMedianBenchmark {
+
+    @Param({ "1001", "10001" })
+    public int window;
+
+    @Param({ "250000" })
+    public int ratios;
+
+    private double[] values;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        values = new double[ratios];
+        for (int i = 0; i < ratios; i++) {
+            values[i] = Math.max(0, 1 + 0.2 * random.nextGaussian());
+        }
+    }
+
+    @Benchmark
+    public double treap() {
+        final RollingMedian median = new RollingMedian();
+        double result = 0;
+        for (int i = 0; i < values.length; i++) {
+            median.add(values[i]);
+            if (i >= window) {
+                median.remove(values[i - window]);
+            }
+            result += median.median();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double priorityQueue() {
+        final PriorityQueueRollingMedian median = new PriorityQueueRollingMedian();
+        double result = 0;
+        for (int i = 0; i < values.length; i++) {
+            median.add(values[i]);
+            if (i >= window) {
+                median.remove(values[i - window]);
+            }
+            result += median.median();
+        }
+        return result;
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RollingMedianBenchmark.class.getSimpleName()).build()).run();
+    }
+}
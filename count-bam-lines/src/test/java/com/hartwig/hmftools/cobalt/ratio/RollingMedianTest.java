@@ -2,6 +2,12 @@ package com.hartwig.hmftools.cobalt.ratio;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -44,6 +50,58 @@ public class RollingMedianTest {
         assertMedian(5.5);
     }
 
+    @Test
+    public void testDuplicates() {
+        victim.add(5);
+        victim.add(5);
+        victim.add(7);
+        victim.remove(5);
+        assertMedian(6);
+        victim.remove(5);
+        assertMedian(7);
+    }
+
+    @Test
+    public void testRemoveAbsentValueIgnored() {
+        testThreeElements();
+        victim.remove(8);
+        assertEquals(3, victim.size());
+        assertMedian(6);
+    }
+
+    @Test
+    public void testRollingWindow() {
+        final Random random = new Random(0);
+        final List<Double> window = Lists.newArrayList();
+        for (int i = 0; i < 10000; i++) {
+            final double value = random.nextInt(100) / 10d;
+            victim.add(value);
+            window.add(value);
+            if (window.size() > 51) {
+                victim.remove(window.remove(0));
+            }
+
+            final List<Double> sorted = Lists.newArrayList(window);
+            Collections.sort(sorted);
+            final int n = sorted.size();
+            assertEquals(n, victim.size());
+            assertMedian(n % 2 == 1 ? sorted.get(n / 2) : (sorted.get(n / 2 - 1) + sorted.get(n / 2)) / 2);
+        }
+    }
+
+    @Test
+    public void testManyDistinctValues() {
+        for (int i = 0; i < 5000; i++) {
+            victim.add(i);
+        }
+        assertMedian(2499.5);
+
+        for (int i = 0; i < 1000; i++) {
+            victim.remove(i);
+        }
+        assertMedian(2999.5);
+    }
+
     private void assertMedian(double expected) {
         assertEquals(expected, victim.median(), EPSILON);
     }
@@ -0,0 +1,144 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+
+public class AmberSiteCatalogue {
+
+    private final Map<Chromosome, ChromosomeSites> chromosomeSites;
+
+    AmberSiteCatalogue(@NotNull final List<ChromosomeSites> chromosomeSites) {
+        this.chromosomeSites = Maps.newLinkedHashMap();
+        chromosomeSites.stream()
+                .sorted(Comparator.comparing(x -> HumanChromosome.fromString(x.contig)))
+                .forEach(x -> this.chromosomeSites.put(HumanChromosome.fromString(x.contig), x));
+    }
+
+    @NotNull
+    public static AmberSiteCatalogue create(@NotNull final ListMultimap<Chromosome, AmberSite> sites) {
+        final List<ChromosomeSites> chromosomeSites = Lists.newArrayList();
+        for (Chromosome chromosome : sites.keySet()) {
+            final List<AmberSite> sorted = Lists.newArrayList(sites.get(chromosome));
+            sorted.sort(Comparator.comparingLong(AmberSite::position));
+
+            final int count = sorted.size();
+            final int[] positions = new int[count];
+            final byte[] ref = new byte[count];
+            final byte[] alt = new byte[count];
+            final boolean[] snpCheck = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                final AmberSite site = sorted.get(i);
+                positions[i] = (int) site.position();
+                ref[i] = base(site.ref());
+                alt[i] = base(site.alt());
+                snpCheck[i] = site.snpCheck();
+            }
+
+            chromosomeSites.add(new ChromosomeSites(sorted.get(0).chromosome(), positions, ref, alt, snpCheck));
+        }
+
+        return new AmberSiteCatalogue(chromosomeSites);
+    }
+
+    @NotNull
+    public Set<Chromosome> chromosomes() {
+        return chromosomeSites.keySet();
+    }
+
+    public int size() {
+        return chromosomeSites.values().stream().mapToInt(x -> x.positions.length).sum();
+    }
+
+    @NotNull
+    public List<AmberSite> sites(@NotNull final Chromosome chromosome) {
+        final ChromosomeSites sites = chromosomeSites.get(chromosome);
+        return sites == null ? Collections.emptyList() : new SiteView(sites);
+    }
+
+    @NotNull
+    public List<AmberSite> snpCheckSites() {
+        final List<AmberSite> result = Lists.newArrayList();
+        for (ChromosomeSites sites : chromosomeSites.values()) {
+            for (int i = 0; i < sites.snpCheck.length; i++) {
+                if (sites.snpCheck[i]) {
+                    result.add(sites.site(i));
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    List<ChromosomeSites> chromosomeSites() {
+        return Lists.newArrayList(chromosomeSites.values());
+    }
+
+    private static byte base(@NotNull final String allele) {
+        if (allele.length() != 1) {
+            throw new IllegalArgumentException("Amber sites must be single base, found allele " + allele);
+        }
+        return (byte) allele.charAt(0);
+    }
+
+    static class ChromosomeSites {
+
+        final String contig;
+        final int[] positions;
+        final byte[] ref;
+        final byte[] alt;
+        final boolean[] snpCheck;
+
+        ChromosomeSites(@NotNull final String contig, @NotNull final int[] positions, @NotNull final byte[] ref,
+                @NotNull final byte[] alt, @NotNull final boolean[] snpCheck) {
+            this.contig = contig;
+            this.positions = positions;
+            this.ref = ref;
+            this.alt = alt;
+            this.snpCheck = snpCheck;
+        }
+
+        @NotNull
+        AmberSite site(int index) {
+            return ImmutableAmberSite.builder()
+                    .chromosome(contig)
+                    .position(positions[index])
+                    .ref(String.valueOf((char) ref[index]))
+                    .alt(String.valueOf((char) alt[index]))
+                    .snpCheck(snpCheck[index])
+                    .build();
+        }
+    }
+
+    private static class SiteView extends AbstractList<AmberSite> implements RandomAccess {
+
+        private final ChromosomeSites sites;
+
+        private SiteView(@NotNull final ChromosomeSites sites) {
+            this.sites = sites;
+        }
+
+        @Override
+        public AmberSite get(final int index) {
+            return sites.site(index);
+        }
+
+        @Override
+        public int size() {
+            return sites.positions.length;
+        }
+    }
+}
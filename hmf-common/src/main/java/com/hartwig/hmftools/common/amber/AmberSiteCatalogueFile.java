@@ -0,0 +1,105 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+
+public final class AmberSiteCatalogueFile {
+
+    private static final int MAGIC = 0x414D5354; // AMST
+    private static final int VERSION = 1;
+
+    private AmberSiteCatalogueFile() {
+    }
+
+    public static boolean isCatalogue(@NotNull final String filename) throws IOException {
+        try (DataInputStream input = new DataInputStream(new FileInputStream(filename))) {
+            return input.available() >= 4 && input.readInt() == MAGIC;
+        }
+    }
+
+    @NotNull
+    public static AmberSiteCatalogue read(@NotNull final String filename) throws IOException {
+        try (FileInputStream input = new FileInputStream(filename); FileChannel channel = input.getChannel()) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File " + filename + " is not an amber site catalogue");
+            }
+
+            final int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported amber site catalogue version " + version + " in " + filename);
+            }
+
+            final int chromosomeCount = buffer.getInt();
+            final List<AmberSiteCatalogue.ChromosomeSites> chromosomeSites = Lists.newArrayList();
+            for (int i = 0; i < chromosomeCount; i++) {
+                final byte[] contig = new byte[buffer.getShort()];
+                buffer.get(contig);
+
+                final int count = buffer.getInt();
+                final int[] positions = new int[count];
+                buffer.asIntBuffer().get(positions);
+                buffer.position(buffer.position() + 4 * count);
+
+                final byte[] ref = new byte[count];
+                buffer.get(ref);
+                final byte[] alt = new byte[count];
+                buffer.get(alt);
+
+                final boolean[] snpCheck = new boolean[count];
+                for (int j = 0; j < count; j++) {
+                    snpCheck[j] = buffer.get() != 0;
+                }
+
+                chromosomeSites.add(new AmberSiteCatalogue.ChromosomeSites(new String(contig, StandardCharsets.US_ASCII),
+                        positions,
+                        ref,
+                        alt,
+                        snpCheck));
+            }
+
+            return new AmberSiteCatalogue(chromosomeSites);
+        }
+    }
+
+    public static void write(@NotNull final String filename, @NotNull final AmberSiteCatalogue catalogue) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+            final List<AmberSiteCatalogue.ChromosomeSites> chromosomeSites = catalogue.chromosomeSites();
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(chromosomeSites.size());
+            for (AmberSiteCatalogue.ChromosomeSites sites : chromosomeSites) {
+                final byte[] contig = sites.contig.getBytes(StandardCharsets.US_ASCII);
+                output.writeShort(contig.length);
+                output.write(contig);
+
+                final int count = sites.positions.length;
+                output.writeInt(count);
+
+                final ByteBuffer positions = ByteBuffer.allocate(4 * count);
+                positions.asIntBuffer().put(sites.positions);
+                output.write(positions.array());
+
+                output.write(sites.ref);
+                output.write(sites.alt);
+                for (boolean snpCheck : sites.snpCheck) {
+                    output.writeByte(snpCheck ? 1 : 0);
+                }
+            }
+        }
+    }
+}
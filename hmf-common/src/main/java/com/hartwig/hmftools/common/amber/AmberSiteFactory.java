@@ -21,6 +21,13 @@ public final class AmberSiteFactory {
     private AmberSiteFactory() {
     }
 
+    @NotNull
+    public static AmberSiteCatalogue catalogue(@NotNull final String lociFile) throws IOException {
+        return AmberSiteCatalogueFile.isCatalogue(lociFile)
+                ? AmberSiteCatalogueFile.read(lociFile)
+                : AmberSiteCatalogue.create(sites(lociFile));
+    }
+
     @NotNull
     public static ListMultimap<Chromosome, AmberSite> sites(@NotNull final String vcfFile) throws IOException {
         final ListMultimap<Chromosome, AmberSite> result = ArrayListMultimap.create();
@@ -3,13 +3,9 @@ package com.hartwig.hmftools.common.amber;
 import java.io.File;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.stream.Collectors;
 
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
-import com.hartwig.hmftools.common.utils.collection.Multimaps;
 import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
 
 import org.jetbrains.annotations.NotNull;
@@ -23,8 +19,7 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
     private final String contig;
     private final String bamFile;
     private final SamReaderFactory samReaderFactory;
-    private final List<ModifiableBaseDepth> evidence;
-    private final GenomePositionSelector<ModifiableBaseDepth> selector;
+    private final BaseDepthStore evidence;
     private final BaseDepthFactory bafFactory;
     private final SAMSlicer supplier;
 
@@ -38,8 +33,7 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
         bafRegions.forEach(x -> builder.addPosition(x.position()));
         final List<GenomeRegion> bafRegions1 = builder.build();
 
-        this.evidence = bafRegions.stream().map(BaseDepthFactory::create).collect(Collectors.toList());
-        this.selector = GenomePositionSelectorFactory.create(Multimaps.fromPositions(evidence));
+        this.evidence = BaseDepthStore.create(contig, bafRegions);
         this.supplier = new SAMSlicer(minMappingQuality, bafRegions1);
     }
 
@@ -49,8 +43,8 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
     }
 
     @NotNull
-    public List<BaseDepth> evidence() {
-        return evidence.stream().filter(x -> x.readDepth() > 0).collect(Collectors.toList());
+    public BaseDepthStore evidence() {
+        return evidence.filter(x -> evidence.readDepth(x) > 0);
     }
 
     @Override
@@ -63,11 +57,6 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
     }
 
     private void record(@NotNull final SAMRecord record) {
-        selector.select(asRegion(record), bafEvidence -> bafFactory.addEvidence(bafEvidence, record));
-    }
-
-    @NotNull
-    private static GenomeRegion asRegion(@NotNull final SAMRecord record) {
-        return GenomeRegions.create(record.getContig(), record.getAlignmentStart(), record.getAlignmentEnd());
+        evidence.select(record.getAlignmentStart(), record.getAlignmentEnd(), index -> bafFactory.addEvidence(evidence, index, record));
     }
 }
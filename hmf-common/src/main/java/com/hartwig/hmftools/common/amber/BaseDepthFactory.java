@@ -1,6 +1,5 @@
 package com.hartwig.hmftools.common.amber;
 
-import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.utils.sam.SAMRecords;
 
 import org.jetbrains.annotations.NotNull;
@@ -15,42 +14,23 @@ public class BaseDepthFactory {
         this.minBaseQuality = minBaseQuality;
     }
 
-    @NotNull
-    public static ModifiableBaseDepth create(@NotNull final BaseDepth pos) {
-        return ModifiableBaseDepth.create().from(pos).setIndelCount(0).setRefSupport(0).setAltSupport(0).setReadDepth(0);
-    }
-
-    @NotNull
-    public static ModifiableBaseDepth create(@NotNull final AmberSite site) {
-        return ModifiableBaseDepth.create()
-                .setChromosome(site.chromosome())
-                .setPosition(site.position())
-                .setRef(BaseDepth.Base.valueOf(site.ref()))
-                .setAlt(BaseDepth.Base.valueOf(site.alt()))
-                .setAltSupport(0)
-                .setRefSupport(0)
-                .setIndelCount(0)
-                .setReadDepth(0);
-    }
-
-    void addEvidence(@NotNull final ModifiableBaseDepth evidence, @NotNull final SAMRecord samRecord) {
-        int quality = getBaseQuality(evidence, samRecord);
+    void addEvidence(@NotNull final BaseDepthStore evidence, int index, @NotNull final SAMRecord samRecord) {
+        int bafPosition = evidence.position(index);
+        int quality = getBaseQuality(bafPosition, samRecord);
         if (quality >= minBaseQuality) {
-            evidence.setReadDepth(evidence.readDepth() + 1);
+            evidence.addReadDepth(index);
 
-            int bafPosition = (int) evidence.position();
             int readPosition = samRecord.getReadPositionAtReferencePosition(bafPosition);
             if (readPosition != 0) {
                 if (!indel(bafPosition, readPosition, samRecord)) {
-                    final char baseChar = samRecord.getReadString().charAt(readPosition - 1);
-                    final BaseDepth.Base base = BaseDepth.Base.valueOf(String.valueOf(baseChar).toUpperCase());
-                    if (base.equals(evidence.ref())) {
-                        evidence.setRefSupport(evidence.refSupport() + 1);
-                    } else if (base.equals(evidence.alt())) {
-                        evidence.setAltSupport(evidence.altSupport() + 1);
+                    final char base = Character.toUpperCase(samRecord.getReadString().charAt(readPosition - 1));
+                    if (base == evidence.ref(index).name().charAt(0)) {
+                        evidence.addRefSupport(index);
+                    } else if (base == evidence.alt(index).name().charAt(0)) {
+                        evidence.addAltSupport(index, quality);
                     }
                 } else {
-                    evidence.setIndelCount(evidence.indelCount() + 1);
+                    evidence.addIndel(index);
                 }
             }
         }
@@ -71,9 +51,9 @@ public class BaseDepthFactory {
         return false;
     }
 
-    static int getBaseQuality(@NotNull final GenomePosition position, @NotNull final SAMRecord samRecord) {
+    static int getBaseQuality(int position, @NotNull final SAMRecord samRecord) {
         // Get quality of base after del if necessary
-        for (int pos = (int) position.position(); pos <= samRecord.getAlignmentEnd(); pos++) {
+        for (int pos = position; pos <= samRecord.getAlignmentEnd(); pos++) {
             int readPosition = samRecord.getReadPositionAtReferencePosition(pos);
             if (readPosition != 0) {
                 return SAMRecords.getBaseQuality(samRecord, readPosition);
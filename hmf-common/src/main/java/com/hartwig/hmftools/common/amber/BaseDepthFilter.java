@@ -20,7 +20,10 @@ public class BaseDepthFilter implements Predicate<BaseDepth> {
 
     public BaseDepthFilter(final double minDepthPercentage, final double maxDepthPercentage,
             @NotNull final Multimap<Chromosome, BaseDepth> evidence) {
-        int medianDepth = medianDepth(evidence);
+        this(minDepthPercentage, maxDepthPercentage, medianDepth(evidence));
+    }
+
+    public BaseDepthFilter(final double minDepthPercentage, final double maxDepthPercentage, int medianDepth) {
         minDepth = (int) Math.round(medianDepth * minDepthPercentage);
         maxDepth = (int) Math.round(medianDepth * maxDepthPercentage);
         LOGGER.info("Median normal depth is {} reads: filtering reads outside of {} and {}", medianDepth, minDepth, maxDepth);
@@ -28,10 +31,18 @@ public class BaseDepthFilter implements Predicate<BaseDepth> {
 
     @Override
     public boolean test(final BaseDepth bafEvidence) {
-        return bafEvidence.readDepth() > 0 && bafEvidence.readDepth() >= minDepth && bafEvidence.readDepth() <= maxDepth;
+        return test(bafEvidence.readDepth());
+    }
+
+    public boolean test(@NotNull final BaseDepthStore evidence, int index) {
+        return test(evidence.readDepth(index));
+    }
+
+    public boolean test(int readDepth) {
+        return readDepth > 0 && readDepth >= minDepth && readDepth <= maxDepth;
     }
 
-    private int medianDepth(@NotNull final Multimap<Chromosome, BaseDepth> evidence) {
+    private static int medianDepth(@NotNull final Multimap<Chromosome, BaseDepth> evidence) {
         return Integers.medianPositiveValue(evidence.values().stream().map(BaseDepth::readDepth).collect(Collectors.toList()));
     }
 }
@@ -0,0 +1,281 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import org.jetbrains.annotations.NotNull;
+
+public class BaseDepthStore {
+
+    private static final BaseDepth.Base[] BASES = BaseDepth.Base.values();
+
+    private final String contig;
+    private final int[] positions;
+    private final byte[] ref;
+    private final byte[] alt;
+    private final int[] readDepth;
+    private final int[] indelCount;
+    private final int[] refSupport;
+    private final int[] altSupport;
+    private final int[] altQuality;
+
+    private BaseDepthStore(@NotNull final String contig, @NotNull final int[] positions, @NotNull final byte[] ref,
+            @NotNull final byte[] alt) {
+        this(contig, positions, ref, alt, new int[positions.length], new int[positions.length], new int[positions.length],
+                new int[positions.length], new int[positions.length]);
+    }
+
+    private BaseDepthStore(@NotNull final String contig, @NotNull final int[] positions, @NotNull final byte[] ref,
+            @NotNull final byte[] alt, @NotNull final int[] readDepth, @NotNull final int[] indelCount, @NotNull final int[] refSupport,
+            @NotNull final int[] altSupport, @NotNull final int[] altQuality) {
+        this.contig = contig;
+        this.positions = positions;
+        this.ref = ref;
+        this.alt = alt;
+        this.readDepth = readDepth;
+        this.indelCount = indelCount;
+        this.refSupport = refSupport;
+        this.altSupport = altSupport;
+        this.altQuality = altQuality;
+    }
+
+    @NotNull
+    public static BaseDepthStore create(@NotNull final String contig, @NotNull final List<AmberSite> sites) {
+        final int count = sites.size();
+        final int[] positions = new int[count];
+        final byte[] ref = new byte[count];
+        final byte[] alt = new byte[count];
+        for (int i = 0; i < count; i++) {
+            final AmberSite site = sites.get(i);
+            positions[i] = (int) site.position();
+            ref[i] = (byte) BaseDepth.Base.valueOf(site.ref()).ordinal();
+            alt[i] = (byte) BaseDepth.Base.valueOf(site.alt()).ordinal();
+        }
+
+        return new BaseDepthStore(contig, positions, ref, alt);
+    }
+
+    @NotNull
+    public static BaseDepthStore concat(@NotNull final String contig, @NotNull final List<BaseDepthStore> stores) {
+        final int count = stores.stream().mapToInt(BaseDepthStore::size).sum();
+        final BaseDepthStore result = new BaseDepthStore(contig, new int[count], new byte[count], new byte[count]);
+
+        int offset = 0;
+        for (BaseDepthStore store : stores) {
+            for (int i = 0; i < store.size(); i++) {
+                store.copy(i, result, offset++);
+            }
+        }
+
+        return result;
+    }
+
+    @NotNull
+    public String contig() {
+        return contig;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public boolean isEmpty() {
+        return positions.length == 0;
+    }
+
+    public int position(int index) {
+        return positions[index];
+    }
+
+    @NotNull
+    public BaseDepth.Base ref(int index) {
+        return BASES[ref[index]];
+    }
+
+    @NotNull
+    public BaseDepth.Base alt(int index) {
+        return BASES[alt[index]];
+    }
+
+    public int readDepth(int index) {
+        return readDepth[index];
+    }
+
+    public int indelCount(int index) {
+        return indelCount[index];
+    }
+
+    public int refSupport(int index) {
+        return refSupport[index];
+    }
+
+    public int altSupport(int index) {
+        return altSupport[index];
+    }
+
+    public int altQuality(int index) {
+        return altQuality[index];
+    }
+
+    @NotNull
+    public BaseDepth get(int index) {
+        return new BaseDepthView(index);
+    }
+
+    @NotNull
+    public List<BaseDepth> asList() {
+        return new BaseDepthList();
+    }
+
+    @NotNull
+    public BaseDepthStore filter(@NotNull final IntPredicate predicate) {
+        return retain(indices(size(), predicate));
+    }
+
+    @NotNull
+    public BaseDepthStore slice(int fromIndex, int toIndex) {
+        return new BaseDepthStore(contig,
+                Arrays.copyOfRange(positions, fromIndex, toIndex),
+                Arrays.copyOfRange(ref, fromIndex, toIndex),
+                Arrays.copyOfRange(alt, fromIndex, toIndex),
+                Arrays.copyOfRange(readDepth, fromIndex, toIndex),
+                Arrays.copyOfRange(indelCount, fromIndex, toIndex),
+                Arrays.copyOfRange(refSupport, fromIndex, toIndex),
+                Arrays.copyOfRange(altSupport, fromIndex, toIndex),
+                Arrays.copyOfRange(altQuality, fromIndex, toIndex));
+    }
+
+    @NotNull
+    public BaseDepthStore withoutEvidence() {
+        return new BaseDepthStore(contig, positions, ref, alt);
+    }
+
+    public void select(long start, long end, @NotNull final IntConsumer handler) {
+        int index = Arrays.binarySearch(positions, (int) start);
+        if (index < 0) {
+            index = -index - 1;
+        } else {
+            while (index > 0 && positions[index - 1] == start) {
+                index--;
+            }
+        }
+
+        for (; index < positions.length && positions[index] <= end; index++) {
+            handler.accept(index);
+        }
+    }
+
+    @NotNull
+    BaseDepthStore retain(@NotNull final int[] indices) {
+        final int count = indices.length;
+        final BaseDepthStore result = new BaseDepthStore(contig, new int[count], new byte[count], new byte[count]);
+        for (int i = 0; i < indices.length; i++) {
+            copy(indices[i], result, i);
+        }
+
+        return result;
+    }
+
+    @NotNull
+    static int[] indices(int size, @NotNull final IntPredicate predicate) {
+        return IntStream.range(0, size).filter(predicate).toArray();
+    }
+
+    void addReadDepth(int index) {
+        readDepth[index]++;
+    }
+
+    void addIndel(int index) {
+        indelCount[index]++;
+    }
+
+    void addRefSupport(int index) {
+        refSupport[index]++;
+    }
+
+    void addAltSupport(int index, int quality) {
+        altSupport[index]++;
+        altQuality[index] += quality;
+    }
+
+    private void copy(int index, @NotNull final BaseDepthStore target, int targetIndex) {
+        target.positions[targetIndex] = positions[index];
+        target.ref[targetIndex] = ref[index];
+        target.alt[targetIndex] = alt[index];
+        target.readDepth[targetIndex] = readDepth[index];
+        target.indelCount[targetIndex] = indelCount[index];
+        target.refSupport[targetIndex] = refSupport[index];
+        target.altSupport[targetIndex] = altSupport[index];
+        target.altQuality[targetIndex] = altQuality[index];
+    }
+
+    private class BaseDepthView implements BaseDepth {
+
+        private final int index;
+
+        private BaseDepthView(final int index) {
+            this.index = index;
+        }
+
+        @NotNull
+        @Override
+        public String chromosome() {
+            return contig;
+        }
+
+        @Override
+        public long position() {
+            return positions[index];
+        }
+
+        @NotNull
+        @Override
+        public Base ref() {
+            return BaseDepthStore.this.ref(index);
+        }
+
+        @NotNull
+        @Override
+        public Base alt() {
+            return BaseDepthStore.this.alt(index);
+        }
+
+        @Override
+        public int readDepth() {
+            return readDepth[index];
+        }
+
+        @Override
+        public int indelCount() {
+            return indelCount[index];
+        }
+
+        @Override
+        public int refSupport() {
+            return refSupport[index];
+        }
+
+        @Override
+        public int altSupport() {
+            return altSupport[index];
+        }
+    }
+
+    private class BaseDepthList extends AbstractList<BaseDepth> implements RandomAccess {
+
+        @Override
+        public BaseDepth get(final int index) {
+            return new BaseDepthView(index);
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.hartwig.hmftools.common.amber;
 
 import java.util.function.Predicate;
 
+import org.jetbrains.annotations.NotNull;
+
 public class NormalHetrozygousFilter implements Predicate<BaseDepth> {
 
     private final double minHetAFPercentage;
@@ -14,9 +16,16 @@ public class NormalHetrozygousFilter implements Predicate<BaseDepth> {
 
     @Override
     public boolean test(final BaseDepth bafEvidence) {
-        return bafEvidence.isValid() && bafEvidence.altSupport() > 0 && bafEvidence.refSupport() > 0
-                && isHeterozygousRef(bafEvidence.refSupport(), bafEvidence.readDepth())
-                && isHeterozygousAlt(bafEvidence.altSupport(), bafEvidence.readDepth());
+        return test(bafEvidence.indelCount(), bafEvidence.readDepth(), bafEvidence.refSupport(), bafEvidence.altSupport());
+    }
+
+    public boolean test(@NotNull final BaseDepthStore evidence, int index) {
+        return test(evidence.indelCount(index), evidence.readDepth(index), evidence.refSupport(index), evidence.altSupport(index));
+    }
+
+    private boolean test(int indelCount, int readDepth, int refSupport, int altSupport) {
+        return indelCount == 0 && altSupport > 0 && refSupport > 0 && isHeterozygousRef(refSupport, readDepth)
+                && isHeterozygousAlt(altSupport, readDepth);
     }
 
     private boolean isHeterozygousRef(int refSupport, int readDepth) {
@@ -2,10 +2,16 @@ package com.hartwig.hmftools.common.amber;
 
 import java.util.function.Predicate;
 
+import org.jetbrains.annotations.NotNull;
+
 public class NormalHomozygousFilter implements Predicate<BaseDepth> {
 
     @Override
     public boolean test(final BaseDepth bafEvidence) {
         return bafEvidence.isValid() && bafEvidence.altSupport() == 0;
     }
+
+    public boolean test(@NotNull final BaseDepthStore evidence, int index) {
+        return evidence.indelCount(index) == 0 && evidence.altSupport(index) == 0;
+    }
 }
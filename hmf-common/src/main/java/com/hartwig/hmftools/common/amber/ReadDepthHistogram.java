@@ -0,0 +1,54 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Count of sites at each read depth so the median depth can be found without keeping the depth of every site.
+ */
+public class ReadDepthHistogram {
+
+    private int[] counts = new int[256];
+    private long positiveCount;
+
+    public void add(@NotNull final BaseDepthStore evidence) {
+        for (int i = 0; i < evidence.size(); i++) {
+            add(evidence.readDepth(i));
+        }
+    }
+
+    public void add(int readDepth) {
+        if (readDepth > 0) {
+            if (readDepth >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(2 * counts.length, readDepth + 1));
+            }
+            counts[readDepth]++;
+            positiveCount++;
+        }
+    }
+
+    /**
+     * Same as {@link com.hartwig.hmftools.common.utils.Integers#medianPositiveValue} over every depth added.
+     */
+    public int medianPositiveValue() {
+        if (positiveCount == 0) {
+            return 0;
+        }
+
+        final int upper = depthAtRank(positiveCount / 2);
+        return positiveCount % 2 == 0 ? (depthAtRank(positiveCount / 2 - 1) + upper) / 2 : upper;
+    }
+
+    private int depthAtRank(long rank) {
+        long cumulative = 0;
+        for (int depth = 1; depth < counts.length; depth++) {
+            cumulative += counts[depth];
+            if (cumulative > rank) {
+                return depth;
+            }
+        }
+
+        throw new IllegalStateException("Rank " + rank + " exceeds " + positiveCount + " depths");
+    }
+}
@@ -15,39 +15,22 @@ class TumorBAFFactory {
         this.minBaseQuality = minBaseQuality;
     }
 
-    @NotNull
-    public static ModifiableTumorBAF create(@NotNull final BaseDepth normal) {
-        return ModifiableTumorBAF.create()
-                .from(normal)
-                .setRef(normal.ref().toString())
-                .setAlt(normal.alt().toString())
-                .setNormalReadDepth(normal.readDepth())
-                .setNormalRefSupport(normal.refSupport())
-                .setNormalAltSupport(normal.altSupport())
-                .setTumorIndelCount(0)
-                .setTumorReadDepth(0)
-                .setTumorRefSupport(0)
-                .setTumorAltQuality(0)
-                .setTumorAltSupport(0);
-    }
-
-    void addEvidence(@NotNull final ModifiableTumorBAF evidence, @NotNull final SAMRecord samRecord) {
-        int quality = getBaseQuality(evidence, samRecord);
+    void addEvidence(@NotNull final BaseDepthStore evidence, int index, @NotNull final SAMRecord samRecord) {
+        int bafPosition = evidence.position(index);
+        int quality = getBaseQuality(bafPosition, samRecord);
         if (quality >= minBaseQuality) {
-            evidence.setTumorReadDepth(evidence.tumorReadDepth() + 1);
-            int bafPosition = (int) evidence.position();
+            evidence.addReadDepth(index);
             int readPosition = samRecord.getReadPositionAtReferencePosition(bafPosition);
             if (readPosition != 0) {
                 if (!indel(bafPosition, readPosition, samRecord)) {
-                    final String base = String.valueOf(samRecord.getReadString().charAt(readPosition - 1));
-                    if (base.equals(evidence.ref())) {
-                        evidence.setTumorRefSupport(evidence.tumorRefSupport() + 1);
-                    } else if (base.equals(evidence.alt())) {
-                        evidence.setTumorAltSupport(evidence.tumorAltSupport() + 1);
-                        evidence.setTumorAltQuality(evidence.tumorAltQuality() + quality);
+                    final char base = samRecord.getReadString().charAt(readPosition - 1);
+                    if (base == evidence.ref(index).name().charAt(0)) {
+                        evidence.addRefSupport(index);
+                    } else if (base == evidence.alt(index).name().charAt(0)) {
+                        evidence.addAltSupport(index, quality);
                     }
                 } else {
-                    evidence.setTumorIndelCount(evidence.tumorIndelCount() + 1);
+                    evidence.addIndel(index);
                 }
             }
         }
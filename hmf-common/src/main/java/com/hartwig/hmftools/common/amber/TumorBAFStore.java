@@ -0,0 +1,138 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.IntPredicate;
+
+import org.jetbrains.annotations.NotNull;
+
+public class TumorBAFStore {
+
+    private final BaseDepthStore normal;
+    private final BaseDepthStore tumor;
+
+    public TumorBAFStore(@NotNull final BaseDepthStore normal) {
+        this(normal, normal.withoutEvidence());
+    }
+
+    private TumorBAFStore(@NotNull final BaseDepthStore normal, @NotNull final BaseDepthStore tumor) {
+        this.normal = normal;
+        this.tumor = tumor;
+    }
+
+    @NotNull
+    public BaseDepthStore normal() {
+        return normal;
+    }
+
+    @NotNull
+    public BaseDepthStore tumor() {
+        return tumor;
+    }
+
+    public int size() {
+        return normal.size();
+    }
+
+    @NotNull
+    public TumorBAF get(int index) {
+        return new TumorBAFView(index);
+    }
+
+    @NotNull
+    public List<TumorBAF> asList() {
+        return new TumorBAFList();
+    }
+
+    @NotNull
+    public TumorBAFStore filter(@NotNull final IntPredicate predicate) {
+        final int[] indices = BaseDepthStore.indices(size(), predicate);
+        return new TumorBAFStore(normal.retain(indices), tumor.retain(indices));
+    }
+
+    private class TumorBAFView implements TumorBAF {
+
+        private final int index;
+
+        private TumorBAFView(final int index) {
+            this.index = index;
+        }
+
+        @NotNull
+        @Override
+        public String chromosome() {
+            return normal.contig();
+        }
+
+        @Override
+        public long position() {
+            return normal.position(index);
+        }
+
+        @NotNull
+        @Override
+        public String ref() {
+            return normal.ref(index).toString();
+        }
+
+        @NotNull
+        @Override
+        public String alt() {
+            return normal.alt(index).toString();
+        }
+
+        @Override
+        public int normalReadDepth() {
+            return normal.readDepth(index);
+        }
+
+        @Override
+        public int normalRefSupport() {
+            return normal.refSupport(index);
+        }
+
+        @Override
+        public int normalAltSupport() {
+            return normal.altSupport(index);
+        }
+
+        @Override
+        public int tumorReadDepth() {
+            return tumor.readDepth(index);
+        }
+
+        @Override
+        public int tumorRefSupport() {
+            return tumor.refSupport(index);
+        }
+
+        @Override
+        public int tumorAltSupport() {
+            return tumor.altSupport(index);
+        }
+
+        @Override
+        public int tumorAltQuality() {
+            return tumor.altQuality(index);
+        }
+
+        @Override
+        public int tumorIndelCount() {
+            return tumor.indelCount(index);
+        }
+    }
+
+    private class TumorBAFList extends AbstractList<TumorBAF> implements RandomAccess {
+
+        @Override
+        public TumorBAF get(final int index) {
+            return new TumorBAFView(index);
+        }
+
+        @Override
+        public int size() {
+            return normal.size();
+        }
+    }
+}
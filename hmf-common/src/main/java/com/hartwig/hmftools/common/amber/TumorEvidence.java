@@ -0,0 +1,107 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+public class TumorEvidence implements Callable<TumorEvidence> {
+
+    private final String contig;
+    private final String bamFile;
+    private final SamReaderFactory samReaderFactory;
+    private final SAMSlicer supplier;
+
+    private final TumorBAFFactory bafFactory;
+    private final TumorBAFStore bafEvidence;
+
+    private final BaseDepthFactory contaminationFactory;
+    private final TumorBAFStore contaminationEvidence;
+
+    public TumorEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig, final String bamFile,
+            final SamReaderFactory samReaderFactory, final BaseDepthStore hetSites, final BaseDepthStore homSites) {
+        this.contig = contig;
+        this.bamFile = bamFile;
+        this.samReaderFactory = samReaderFactory;
+
+        this.bafFactory = new TumorBAFFactory(minBaseQuality);
+        this.bafEvidence = new TumorBAFStore(hetSites);
+
+        this.contaminationFactory = new BaseDepthFactory(minBaseQuality);
+        this.contaminationEvidence = new TumorBAFStore(homSites);
+
+        final GenomeRegions builder = new GenomeRegions(contig, typicalReadDepth);
+        final List<Integer> positions = Lists.newArrayList();
+        for (int i = 0; i < hetSites.size(); i++) {
+            positions.add(hetSites.position(i));
+        }
+        for (int i = 0; i < homSites.size(); i++) {
+            positions.add(homSites.position(i));
+        }
+        positions.stream().sorted().forEach(builder::addPosition);
+        this.supplier = new SAMSlicer(minMappingQuality, builder.build());
+    }
+
+    @NotNull
+    public String contig() {
+        return contig;
+    }
+
+    @NotNull
+    public TumorBAFStore bafEvidence() {
+        return bafEvidence.filter(x -> bafEvidence.tumor().indelCount(x) == 0);
+    }
+
+    @NotNull
+    public TumorBAFStore contaminationStore() {
+        return contaminationEvidence.filter(x -> contaminationEvidence.tumor().altSupport(x) != 0);
+    }
+
+    @NotNull
+    public List<TumorContamination> contaminationEvidence() {
+        return contamination(contaminationStore());
+    }
+
+    @NotNull
+    public static List<TumorContamination> contamination(@NotNull final TumorBAFStore evidence) {
+        final BaseDepthStore normalDepths = evidence.normal();
+        final BaseDepthStore tumorDepths = evidence.tumor();
+
+        final List<TumorContamination> result = Lists.newArrayList();
+        for (int i = 0; i < evidence.size(); i++) {
+            final BaseDepth normal = ModifiableBaseDepth.create().from(normalDepths.get(i));
+            final BaseDepth tumor = ModifiableBaseDepth.create().from(tumorDepths.get(i));
+            result.add(ImmutableTumorContamination.builder().from(normal).normal(normal).tumor(tumor).build());
+        }
+
+        return result;
+    }
+
+    @Override
+    public TumorEvidence call() throws Exception {
+        try (SamReader reader = samReaderFactory.open(new File(bamFile))) {
+            supplier.slice(reader, this::record);
+        }
+
+        return this;
+    }
+
+    private void record(@NotNull final SAMRecord record) {
+        final BaseDepthStore bafTumor = bafEvidence.tumor();
+        bafTumor.select(record.getAlignmentStart(), record.getAlignmentEnd(), index -> bafFactory.addEvidence(bafTumor, index, record));
+
+        final BaseDepthStore contaminationTumor = contaminationEvidence.tumor();
+        contaminationTumor.select(record.getAlignmentStart(),
+                record.getAlignmentEnd(),
+                index -> contaminationFactory.addEvidence(contaminationTumor, index, record));
+    }
+}
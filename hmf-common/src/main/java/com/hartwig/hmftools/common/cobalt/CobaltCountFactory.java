@@ -1,10 +1,10 @@
 package com.hartwig.hmftools.common.cobalt;
 
+import java.util.Map;
+
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ListMultimap;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -14,16 +14,21 @@ public final class CobaltCountFactory {
     }
 
     @NotNull
-    public static Multimap<Chromosome, CobaltCount> merge(@NotNull final Multimap<Chromosome, ReadCount> referenceCount,
-            @NotNull final Multimap<Chromosome, ReadCount> tumorCount) {
-        final Multimap<Chromosome, CobaltCount> result = ArrayListMultimap.create();
-        final GenomePositionSelector<ReadCount> tumorCountSelector = GenomePositionSelectorFactory.create(tumorCount);
-
-        for (Chromosome chromosome : referenceCount.keySet()) {
-            for (ReadCount referenceReadCount : referenceCount.get(chromosome)) {
-                int tumorReadCount = tumorCountSelector.select(referenceReadCount).map(ReadCount::readCount).orElse(0);
-                final CobaltCount position = create(referenceReadCount, tumorReadCount);
-                result.put(chromosome, position);
+    public static ListMultimap<Chromosome, CobaltCount> merge(@NotNull final Map<Chromosome, ReadCountArray> referenceCount,
+            @NotNull final Map<Chromosome, ReadCountArray> tumorCount) {
+        final ListMultimap<Chromosome, CobaltCount> result = ArrayListMultimap.create();
+
+        for (Map.Entry<Chromosome, ReadCountArray> entry : referenceCount.entrySet()) {
+            final Chromosome chromosome = entry.getKey();
+            final ReadCountArray reference = entry.getValue();
+            final ReadCountArray tumor = tumorCount.get(chromosome);
+
+            for (int window = 0; window < reference.windows(); window++) {
+                if (reference.isReported(window)) {
+                    final int tumorReadCount = tumor != null && window < tumor.windows() ? tumor.readCount(window) : 0;
+                    result.put(chromosome,
+                            create(reference.chromosome(), reference.position(window), reference.readCount(window), tumorReadCount));
+                }
             }
         }
 
@@ -31,10 +36,11 @@ public final class CobaltCountFactory {
     }
 
     @NotNull
-    private static CobaltCount create(@NotNull final ReadCount reference, int tumorReadCount) {
+    private static CobaltCount create(@NotNull final String chromosome, long position, int referenceReadCount, int tumorReadCount) {
         return ImmutableCobaltRatio.builder()
-                .from(reference)
-                .referenceReadCount(reference.readCount())
+                .chromosome(chromosome)
+                .position(position)
+                .referenceReadCount(referenceReadCount)
                 .tumorReadCount(tumorReadCount)
                 .referenceGCRatio(-1)
                 .referenceGCDiploidRatio(-1)
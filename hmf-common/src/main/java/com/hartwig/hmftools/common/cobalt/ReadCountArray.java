@@ -0,0 +1,73 @@
+package com.hartwig.hmftools.common.cobalt;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Dense read counts of a single sample for every window of a chromosome, indexed by window number.
+ */
+public class ReadCountArray {
+
+    private final String chromosome;
+    private final int windowSize;
+    private final int[] counts;
+
+    public ReadCountArray(@NotNull final String chromosome, long chromosomeLength, int windowSize) {
+        this.chromosome = chromosome;
+        this.windowSize = windowSize;
+        this.counts = new int[(int) ((chromosomeLength - 1) / windowSize + 1)];
+    }
+
+    @NotNull
+    public String chromosome() {
+        return chromosome;
+    }
+
+    public int windowSize() {
+        return windowSize;
+    }
+
+    public int windows() {
+        return counts.length;
+    }
+
+    public long position(int window) {
+        return (long) window * windowSize + 1;
+    }
+
+    public int window(long position) {
+        return (int) ((position - 1) / windowSize);
+    }
+
+    public void add(int firstWindow, @NotNull final int[] windowCounts) {
+        for (int i = 0; i < windowCounts.length; i++) {
+            counts[firstWindow + i] += windowCounts[i];
+        }
+    }
+
+    public int count(int window) {
+        return counts[window];
+    }
+
+    /**
+     * Windows are reported where they have reads plus the first and last window of the chromosome.
+     */
+    public boolean isReported(int window) {
+        return window == 0 || window == counts.length - 1 || counts[window] > 0;
+    }
+
+    /**
+     * Read count as historically reported: the first window is one less than its count (-1 when empty) and an empty last window
+     * is -1.
+     */
+    public int readCount(int window) {
+        if (window == 0) {
+            return counts[0] - 1;
+        }
+
+        if (window == counts.length - 1 && counts[window] == 0) {
+            return -1;
+        }
+
+        return counts[window];
+    }
+}
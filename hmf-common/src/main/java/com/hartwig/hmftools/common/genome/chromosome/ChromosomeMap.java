@@ -0,0 +1,79 @@
+package com.hartwig.hmftools.common.genome.chromosome;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Map of human chromosome to value backed by an array indexed by chromosome ordinal. Contig lookups go through the cached contig
+ * index of {@link HumanChromosome} so no contig names are parsed or hashed into the map on the hot path. Contigs that are not human
+ * chromosomes are never present.
+ */
+public class ChromosomeMap<T> {
+
+    private static final HumanChromosome[] CHROMOSOMES = HumanChromosome.values();
+
+    private final Object[] values = new Object[CHROMOSOMES.length];
+
+    @Nullable
+    public T get(@NotNull final Chromosome chromosome) {
+        return value(((HumanChromosome) chromosome).ordinal());
+    }
+
+    @Nullable
+    public T get(@NotNull final String contig) {
+        final int index = HumanChromosome.index(contig);
+        return index < 0 ? null : value(index);
+    }
+
+    @NotNull
+    public T getOrDefault(@NotNull final String contig, @NotNull final T defaultValue) {
+        final T result = get(contig);
+        return result == null ? defaultValue : result;
+    }
+
+    public boolean containsKey(@NotNull final Chromosome chromosome) {
+        return get(chromosome) != null;
+    }
+
+    public void put(@NotNull final Chromosome chromosome, @NotNull final T value) {
+        values[((HumanChromosome) chromosome).ordinal()] = value;
+    }
+
+    @NotNull
+    public T computeIfAbsent(@NotNull final Chromosome chromosome, @NotNull final Function<HumanChromosome, T> supplier) {
+        final HumanChromosome humanChromosome = (HumanChromosome) chromosome;
+        T result = value(humanChromosome.ordinal());
+        if (result == null) {
+            result = supplier.apply(humanChromosome);
+            values[humanChromosome.ordinal()] = result;
+        }
+
+        return result;
+    }
+
+    /**
+     * Chromosomes with a value in karyotype order.
+     */
+    @NotNull
+    public List<HumanChromosome> chromosomes() {
+        final List<HumanChromosome> result = Lists.newArrayList();
+        for (HumanChromosome chromosome : CHROMOSOMES) {
+            if (values[chromosome.ordinal()] != null) {
+                result.add(chromosome);
+            }
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable
+    private T value(int index) {
+        return (T) values[index];
+    }
+}
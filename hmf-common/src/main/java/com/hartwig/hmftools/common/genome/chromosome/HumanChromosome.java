@@ -1,5 +1,8 @@
 package com.hartwig.hmftools.common.genome.chromosome;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.purple.gender.Gender;
@@ -32,6 +35,9 @@ public enum HumanChromosome implements Chromosome {
     _X(false, true),
     _Y(false, true);
 
+    private static final HumanChromosome[] VALUES = values();
+    private static final Map<String, Integer> CONTIG_INDICES = new ConcurrentHashMap<>();
+
     private final boolean isAutosome;
     private final boolean isAllosome;
 
@@ -62,20 +68,35 @@ public enum HumanChromosome implements Chromosome {
 
     @NotNull
     public static HumanChromosome fromString(@NotNull final String chromosome) {
-        if (chromosome.toLowerCase().startsWith("chr")) {
-            return HumanChromosome.valueOf("_" + chromosome.substring(3));
+        final int index = index(chromosome);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown chromosome " + chromosome);
         }
 
-        return HumanChromosome.valueOf("_" + chromosome);
+        return VALUES[index];
     }
 
     public static boolean contains(@NotNull final String chromosome) {
-        try {
-            fromString(chromosome);
-            return true;
-        } catch (IllegalArgumentException e) {
-            return false;
+        return index(chromosome) >= 0;
+    }
+
+    /**
+     * Ordinal of the chromosome or -1 if it is not a human chromosome. Each contig name is only parsed once.
+     */
+    public static int index(@NotNull final String chromosome) {
+        final Integer cached = CONTIG_INDICES.get(chromosome);
+        return cached != null ? cached : CONTIG_INDICES.computeIfAbsent(chromosome, HumanChromosome::parse);
+    }
+
+    private static int parse(@NotNull final String chromosome) {
+        final String name = chromosome.toLowerCase().startsWith("chr") ? chromosome.substring(3) : chromosome;
+        for (HumanChromosome value : VALUES) {
+            if (value.name().equals("_" + name)) {
+                return value.ordinal();
+            }
         }
+
+        return -1;
     }
 
     public int intValue() {
@@ -26,6 +26,10 @@ public final class GCProfileFactory {
 
     @NotNull
     public static Multimap<Chromosome, GCProfile> loadGCContent(int windowSize, @NotNull final String fileName) throws IOException {
+        if (GCProfileFile.isBinary(fileName)) {
+            return GCProfileFile.read(windowSize, fileName);
+        }
+
         return loadGCContent(windowSize, LineReader.build().readLines(new File(fileName).toPath(), x -> true));
     }
 
@@ -0,0 +1,154 @@
+package com.hartwig.hmftools.common.genome.gc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Binary GC profile with the start, gc content, non N and mappable percentages of each chromosome stored as primitive columns.
+ * Columns are memory mapped on read and decoded once into an immutable multimap. This saves parsing the text profile but the
+ * decoded profiles take the same heap as those loaded from text.
+ */
+public final class GCProfileFile {
+
+    private static final int MAGIC = 0x48474350; // HGCP
+    private static final int VERSION = 1;
+
+    private GCProfileFile() {
+    }
+
+    public static boolean isBinary(@NotNull final String filename) throws IOException {
+        try (DataInputStream input = new DataInputStream(new FileInputStream(filename))) {
+            return input.available() >= 4 && input.readInt() == MAGIC;
+        }
+    }
+
+    @NotNull
+    public static Multimap<Chromosome, GCProfile> read(int windowSize, @NotNull final String filename) throws IOException {
+        final List<String> contigs = Lists.newArrayList();
+        final List<Integer> counts = Lists.newArrayList();
+        long offset = 16;
+        try (DataInputStream header = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+            if (header.readInt() != MAGIC) {
+                throw new IOException("File " + filename + " is not a binary gc profile");
+            }
+
+            final int version = header.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary gc profile version " + version + " in " + filename);
+            }
+
+            final int fileWindowSize = header.readInt();
+            if (fileWindowSize != windowSize) {
+                throw new IOException("Binary gc profile " + filename + " has window size " + fileWindowSize + " not " + windowSize);
+            }
+
+            final int chromosomeCount = header.readInt();
+            for (int i = 0; i < chromosomeCount; i++) {
+                final byte[] contig = new byte[header.readUnsignedShort()];
+                header.readFully(contig);
+                contigs.add(new String(contig, StandardCharsets.US_ASCII));
+                counts.add(header.readInt());
+                offset += 2 + contig.length + 4;
+            }
+        }
+
+        final ImmutableListMultimap.Builder<Chromosome, GCProfile> result = ImmutableListMultimap.builder();
+        try (FileInputStream input = new FileInputStream(filename); FileChannel channel = input.getChannel()) {
+            for (int i = 0; i < contigs.size(); i++) {
+                final String contig = contigs.get(i);
+                final int count = counts.get(i);
+                final long columnsOffset = offset;
+                offset += 28L * count;
+                if (!HumanChromosome.contains(contig)) {
+                    continue;
+                }
+
+                final ByteBuffer columns = channel.map(FileChannel.MapMode.READ_ONLY, columnsOffset, 28L * count);
+                final IntBuffer starts = slice(columns, 0, 4 * count).asIntBuffer();
+                final DoubleBuffer gcContent = slice(columns, 4 * count, 8 * count).asDoubleBuffer();
+                final DoubleBuffer nonNPercentage = slice(columns, 12 * count, 8 * count).asDoubleBuffer();
+                final DoubleBuffer mappablePercentage = slice(columns, 20 * count, 8 * count).asDoubleBuffer();
+
+                final Chromosome chromosome = HumanChromosome.fromString(contig);
+                for (int j = 0; j < count; j++) {
+                    final long start = starts.get(j);
+                    result.put(chromosome,
+                            ImmutableGCProfile.builder()
+                                    .chromosome(contig)
+                                    .start(start)
+                                    .end(start + windowSize - 1)
+                                    .gcContent(gcContent.get(j))
+                                    .nonNPercentage(nonNPercentage.get(j))
+                                    .mappablePercentage(mappablePercentage.get(j))
+                                    .build());
+                }
+            }
+        }
+
+        return result.build();
+    }
+
+    @NotNull
+    private static ByteBuffer slice(@NotNull final ByteBuffer buffer, int offset, int length) {
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.limit(offset + length);
+        return duplicate.slice();
+    }
+
+    public static void write(int windowSize, @NotNull final String filename, @NotNull final Multimap<Chromosome, GCProfile> profiles)
+            throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+            final List<Collection<GCProfile>> chromosomes = Lists.newArrayList();
+            for (Chromosome chromosome : profiles.keySet()) {
+                chromosomes.add(profiles.get(chromosome));
+            }
+
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(windowSize);
+            output.writeInt(chromosomes.size());
+            for (Collection<GCProfile> chromosome : chromosomes) {
+                final byte[] contig = chromosome.iterator().next().chromosome().getBytes(StandardCharsets.US_ASCII);
+                output.writeShort(contig.length);
+                output.write(contig);
+                output.writeInt(chromosome.size());
+            }
+
+            for (Collection<GCProfile> chromosome : chromosomes) {
+                for (GCProfile profile : chromosome) {
+                    output.writeInt((int) profile.start());
+                }
+                for (GCProfile profile : chromosome) {
+                    output.writeDouble(profile.gcContent());
+                }
+                for (GCProfile profile : chromosome) {
+                    output.writeDouble(profile.nonNPercentage());
+                }
+                for (GCProfile profile : chromosome) {
+                    output.writeDouble(profile.mappablePercentage());
+                }
+            }
+        }
+    }
+}
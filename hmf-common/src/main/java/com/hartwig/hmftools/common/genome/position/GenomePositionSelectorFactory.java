@@ -2,15 +2,13 @@ package com.hartwig.hmftools.common.genome.position;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 import com.google.common.collect.ListMultimap;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
-import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.chromosome.ChromosomeMap;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 
 import org.jetbrains.annotations.NotNull;
@@ -34,7 +32,7 @@ public final class GenomePositionSelectorFactory {
     public static <P extends GenomePosition> GenomePositionSelector<P> create(@NotNull final ListMultimap<Chromosome, P> positions) {
         final GenomePositionSelector<P> nullSelector = new NullGenomePositionSelector<>();
 
-        final Map<Chromosome, GenomePositionSelector<P>> chromosomeSelectors = Maps.newHashMap();
+        final ChromosomeMap<GenomePositionSelector<P>> chromosomeSelectors = new ChromosomeMap<>();
         for (final Chromosome chromosome : positions.keySet()) {
             chromosomeSelectors.put(chromosome, new GenomePositionSelectorListImpl<>(positions.get(chromosome)));
         }
@@ -42,12 +40,12 @@ public final class GenomePositionSelectorFactory {
             @NotNull
             @Override
             public Optional<P> select(@NotNull final GenomePosition position) {
-                return chromosomeSelectors.getOrDefault(HumanChromosome.fromString(position.chromosome()), nullSelector).select(position);
+                return chromosomeSelectors.getOrDefault(position.chromosome(), nullSelector).select(position);
             }
 
             @Override
             public void select(final GenomeRegion region, final Consumer<P> handler) {
-                chromosomeSelectors.getOrDefault(HumanChromosome.fromString(region.chromosome()), nullSelector).select(region, handler);
+                chromosomeSelectors.getOrDefault(region.chromosome(), nullSelector).select(region, handler);
             }
         };
     }
@@ -57,7 +55,7 @@ public final class GenomePositionSelectorFactory {
 
         final GenomePositionSelector<P> nullSelector = new NullGenomePositionSelector<>();
 
-        final Map<Chromosome, GenomePositionSelector<P>> chromosomeSelectors = Maps.newHashMap();
+        final ChromosomeMap<GenomePositionSelector<P>> chromosomeSelectors = new ChromosomeMap<>();
         for (final Chromosome chromosome : positions.keySet()) {
             chromosomeSelectors.put(chromosome, new GenomePositionSelectorIteratorImpl<>(positions.get(chromosome)));
         }
@@ -65,12 +63,12 @@ public final class GenomePositionSelectorFactory {
             @NotNull
             @Override
             public Optional<P> select(@NotNull final GenomePosition position) {
-                return chromosomeSelectors.getOrDefault(HumanChromosome.fromString(position.chromosome()), nullSelector).select(position);
+                return chromosomeSelectors.getOrDefault(position.chromosome(), nullSelector).select(position);
             }
 
             @Override
             public void select(final GenomeRegion region, final Consumer<P> handler) {
-                chromosomeSelectors.getOrDefault(HumanChromosome.fromString(region.chromosome()), nullSelector).select(region, handler);
+                chromosomeSelectors.getOrDefault(region.chromosome(), nullSelector).select(region, handler);
             }
         };
     }
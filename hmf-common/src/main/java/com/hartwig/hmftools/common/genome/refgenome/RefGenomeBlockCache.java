@@ -0,0 +1,302 @@
+package com.hartwig.hmftools.common.genome.refgenome;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.reference.ReferenceSequence;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+
+/**
+ * Thread safe, least recently used cache of fixed size reference genome blocks. Bases are packed into 2 bits each with soft masking
+ * kept as a separate 1 bit per base mask. Anything other than A, C, G or T in either case (eg, N) is kept as runs alongside so sequences
+ * are returned exactly as the underlying file would.
+ * Requests outside the contig are passed straight through to the underlying file.
+ */
+public class RefGenomeBlockCache implements ReferenceSequenceFile {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+    public static final int DEFAULT_MAX_BLOCKS = 1024;
+
+    private static final byte[] BASES = { 'A', 'C', 'G', 'T' };
+
+    private final ReferenceSequenceFile reference;
+    private final SAMSequenceDictionary dictionary;
+    private final int blockSize;
+    private final Map<BlockKey, Block> blocks;
+
+    public RefGenomeBlockCache(@NotNull final ReferenceSequenceFile reference) {
+        this(reference, DEFAULT_BLOCK_SIZE, DEFAULT_MAX_BLOCKS);
+    }
+
+    public RefGenomeBlockCache(@NotNull final ReferenceSequenceFile reference, int blockSize, int maxBlocks) {
+        this.reference = reference;
+        this.dictionary = reference.getSequenceDictionary();
+        this.blockSize = blockSize;
+        this.blocks = new LinkedHashMap<BlockKey, Block>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<BlockKey, Block> eldest) {
+                return size() > maxBlocks;
+            }
+        };
+    }
+
+    @Override
+    public SAMSequenceDictionary getSequenceDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public ReferenceSequence getSubsequenceAt(@NotNull final String contig, long start, long stop) {
+        final SAMSequenceRecord sequenceRecord = dictionary == null ? null : dictionary.getSequence(contig);
+        if (sequenceRecord == null || start < 1 || stop > sequenceRecord.getSequenceLength() || start > stop + 1) {
+            synchronized (reference) {
+                return reference.getSubsequenceAt(contig, start, stop);
+            }
+        }
+
+        final byte[] bases = new byte[(int) (stop - start + 1)];
+        long position = start;
+        while (position <= stop) {
+            final int blockIndex = (int) ((position - 1) / blockSize);
+            final long blockStart = (long) blockIndex * blockSize + 1;
+            final long blockStop = Math.min(stop, blockStart + blockSize - 1);
+
+            block(sequenceRecord, blockIndex).copy((int) (position - blockStart), bases, (int) (position - start),
+                    (int) (blockStop - position + 1));
+            position = blockStop + 1;
+        }
+
+        return new ReferenceSequence(contig, sequenceRecord.getSequenceIndex(), bases);
+    }
+
+    @Override
+    public ReferenceSequence getSequence(@NotNull final String contig) {
+        synchronized (reference) {
+            return reference.getSequence(contig);
+        }
+    }
+
+    @Override
+    public ReferenceSequence nextSequence() {
+        synchronized (reference) {
+            return reference.nextSequence();
+        }
+    }
+
+    @Override
+    public void reset() {
+        synchronized (reference) {
+            reference.reset();
+        }
+    }
+
+    @Override
+    public boolean isIndexed() {
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (blocks) {
+            blocks.clear();
+        }
+        synchronized (reference) {
+            reference.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return reference.toString();
+    }
+
+    @VisibleForTesting
+    int cachedBlocks() {
+        synchronized (blocks) {
+            return blocks.size();
+        }
+    }
+
+    @VisibleForTesting
+    long cachedBytes() {
+        synchronized (blocks) {
+            return blocks.values().stream().mapToLong(Block::bytes).sum();
+        }
+    }
+
+    @NotNull
+    private Block block(@NotNull final SAMSequenceRecord sequenceRecord, int blockIndex) {
+        final BlockKey key = new BlockKey(sequenceRecord.getSequenceIndex(), blockIndex);
+        synchronized (blocks) {
+            final Block block = blocks.get(key);
+            if (block != null) {
+                return block;
+            }
+        }
+
+        final long blockStart = (long) blockIndex * blockSize + 1;
+        final long blockStop = Math.min(sequenceRecord.getSequenceLength(), blockStart + blockSize - 1);
+        final byte[] bases;
+        synchronized (reference) {
+            bases = reference.getSubsequenceAt(sequenceRecord.getSequenceName(), blockStart, blockStop).getBases();
+        }
+
+        final Block block = new Block(bases);
+        synchronized (blocks) {
+            blocks.put(key, block);
+        }
+        return block;
+    }
+
+    private static final class BlockKey {
+
+        private final int contigIndex;
+        private final int blockIndex;
+
+        private BlockKey(final int contigIndex, final int blockIndex) {
+            this.contigIndex = contigIndex;
+            this.blockIndex = blockIndex;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BlockKey)) {
+                return false;
+            }
+            final BlockKey other = (BlockKey) o;
+            return contigIndex == other.contigIndex && blockIndex == other.blockIndex;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(contigIndex, blockIndex);
+        }
+    }
+
+    /**
+     * Immutable once built. Lower case A, C, G and T set a bit in the mask, which is only allocated if the block is soft masked. Any
+     * other base is stored as a run of a repeated byte that overwrites the packed bases on the way out.
+     */
+    private static final class Block {
+
+        private static final byte LOWER_CASE = 0x20;
+
+        private final long[] packed;
+        @Nullable
+        private final long[] lowerCase;
+        private final int[] runStarts;
+        private final int[] runLengths;
+        private final byte[] runBases;
+
+        private Block(@NotNull final byte[] bases) {
+            packed = new long[(bases.length + 31) / 32];
+            final long[] mask = new long[(bases.length + 63) / 64];
+            boolean masked = false;
+
+            int runCount = 0;
+            int[] starts = new int[16];
+            int[] lengths = new int[16];
+            byte[] runs = new byte[16];
+            for (int i = 0; i < bases.length; i++) {
+                final int code = code(bases[i]);
+                if (code >= 0) {
+                    packed[i >>> 5] |= ((long) code) << ((i & 31) << 1);
+                    if ((bases[i] & LOWER_CASE) != 0) {
+                        mask[i >>> 6] |= 1L << i;
+                        masked = true;
+                    }
+                } else if (runCount > 0 && runs[runCount - 1] == bases[i] && starts[runCount - 1] + lengths[runCount - 1] == i) {
+                    lengths[runCount - 1]++;
+                } else {
+                    if (runCount == starts.length) {
+                        starts = Arrays.copyOf(starts, 2 * runCount);
+                        lengths = Arrays.copyOf(lengths, 2 * runCount);
+                        runs = Arrays.copyOf(runs, 2 * runCount);
+                    }
+                    starts[runCount] = i;
+                    lengths[runCount] = 1;
+                    runs[runCount] = bases[i];
+                    runCount++;
+                }
+            }
+
+            lowerCase = masked ? mask : null;
+            runStarts = Arrays.copyOf(starts, runCount);
+            runLengths = Arrays.copyOf(lengths, runCount);
+            runBases = Arrays.copyOf(runs, runCount);
+        }
+
+        private long bytes() {
+            return 8L * packed.length + (lowerCase == null ? 0 : 8L * lowerCase.length) + 9L * runStarts.length;
+        }
+
+        private void copy(int offset, @NotNull final byte[] target, int targetOffset, int length) {
+            for (int i = 0; i < length; i++) {
+                final int index = offset + i;
+                target[targetOffset + i] = BASES[(int) (packed[index >>> 5] >>> ((index & 31) << 1)) & 3];
+            }
+
+            if (lowerCase != null) {
+                for (int i = 0; i < length; i++) {
+                    final int index = offset + i;
+                    if ((lowerCase[index >>> 6] & (1L << index)) != 0) {
+                        target[targetOffset + i] |= LOWER_CASE;
+                    }
+                }
+            }
+
+            final int end = offset + length;
+            for (int run = firstRunEndingAfter(offset); run < runStarts.length && runStarts[run] < end; run++) {
+                final int from = Math.max(offset, runStarts[run]);
+                final int to = Math.min(end, runStarts[run] + runLengths[run]);
+                Arrays.fill(target, targetOffset + from - offset, targetOffset + to - offset, runBases[run]);
+            }
+        }
+
+        private int firstRunEndingAfter(int offset) {
+            int low = 0;
+            int high = runStarts.length;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (runStarts[mid] + runLengths[mid] <= offset) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static int code(byte base) {
+            switch (base) {
+                case 'A':
+                case 'a':
+                    return 0;
+                case 'C':
+                case 'c':
+                    return 1;
+                case 'G':
+                case 'g':
+                    return 2;
+                case 'T':
+                case 't':
+                    return 3;
+                default:
+                    return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.hartwig.hmftools.common.genome.region;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable index of values by genome region answering overlap queries in any order in O(log n + k). Each chromosome is an
+ * implicit augmented interval tree laid over its regions sorted by start, so the index can be shared between threads.
+ */
+public final class GenomeRegionIndex<T> {
+
+    @NotNull
+    private final Map<String, ChromosomeIndex<T>> chromosomes;
+    @NotNull
+    private final List<T> values;
+
+    @NotNull
+    public static <R extends GenomeRegion> GenomeRegionIndex<R> create(@NotNull final Collection<R> regions) {
+        return create(regions, x -> x);
+    }
+
+    @NotNull
+    public static <T> GenomeRegionIndex<T> create(@NotNull final Collection<T> values,
+            @NotNull final Function<T, ? extends GenomeRegion> regionFunction) {
+        final Map<String, List<Entry<T>>> entriesPerChromosome = Maps.newHashMap();
+        for (T value : values) {
+            final GenomeRegion region = regionFunction.apply(value);
+            entriesPerChromosome.computeIfAbsent(region.chromosome(), x -> Lists.newArrayList()).add(new Entry<>(region, value));
+        }
+
+        final Map<String, ChromosomeIndex<T>> chromosomes = Maps.newHashMap();
+        for (Map.Entry<String, List<Entry<T>>> chromosomeEntries : entriesPerChromosome.entrySet()) {
+            chromosomes.put(chromosomeEntries.getKey(), new ChromosomeIndex<>(chromosomeEntries.getValue()));
+        }
+
+        return new GenomeRegionIndex<>(chromosomes, Lists.newArrayList(values));
+    }
+
+    private GenomeRegionIndex(@NotNull final Map<String, ChromosomeIndex<T>> chromosomes, @NotNull final List<T> values) {
+        this.chromosomes = chromosomes;
+        this.values = values;
+    }
+
+    @NotNull
+    public List<T> values() {
+        return values;
+    }
+
+    public boolean contains(@NotNull final GenomePosition position) {
+        return overlaps(position.chromosome(), position.position(), position.position());
+    }
+
+    public boolean overlaps(@NotNull final String chromosome, long start, long end) {
+        return anyMatch(chromosome, start, end, x -> true);
+    }
+
+    @NotNull
+    public List<T> overlapping(@NotNull final String chromosome, long start, long end) {
+        final List<T> result = Lists.newArrayList();
+        anyMatch(chromosome, start, end, x -> {
+            result.add(x);
+            return false;
+        });
+        return result;
+    }
+
+    /**
+     * Tests values whose region overlaps the inclusive range in order of region start, stopping at the first match.
+     */
+    public boolean anyMatch(@NotNull final String chromosome, long start, long end, @NotNull final Predicate<T> predicate) {
+        final ChromosomeIndex<T> index = chromosomes.get(chromosome);
+        return index != null && index.anyMatch(start, end, predicate);
+    }
+
+    private static class Entry<T> {
+
+        @NotNull
+        private final GenomeRegion region;
+        @NotNull
+        private final T value;
+
+        private Entry(@NotNull final GenomeRegion region, @NotNull final T value) {
+            this.region = region;
+            this.value = value;
+        }
+    }
+
+    private static class ChromosomeIndex<T> {
+
+        private static final int SCAN_LEVEL = 3;
+
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+        private final Object[] values;
+        private final int maxLevel;
+
+        private ChromosomeIndex(@NotNull final List<Entry<T>> entries) {
+            entries.sort(Comparator.<Entry<T>>comparingLong(x -> x.region.start()).thenComparingLong(x -> x.region.end()));
+
+            final int size = entries.size();
+            starts = new long[size];
+            ends = new long[size];
+            maxEnds = new long[size];
+            values = new Object[size];
+            for (int i = 0; i < size; i++) {
+                final Entry<T> entry = entries.get(i);
+                starts[i] = entry.region.start();
+                ends[i] = entry.region.end();
+                values[i] = entry.value;
+            }
+
+            maxLevel = index();
+        }
+
+        /**
+         * Node i is at the level of its number of trailing one bits. Its children are i -/+ 2^(level-1) and it holds the max end of
+         * its subtree. Nodes past the end of the arrays are virtual and take the max end of their last real descendant.
+         */
+        private int index() {
+            final int size = starts.length;
+
+            int lastIndex = 0;
+            long lastMaxEnd = 0;
+            for (int i = 0; i < size; i += 2) {
+                lastIndex = i;
+                lastMaxEnd = maxEnds[i] = ends[i];
+            }
+
+            int level = 1;
+            for (; 1 << level <= size; level++) {
+                final int offset = 1 << (level - 1);
+                for (int i = (offset << 1) - 1; i < size; i += offset << 2) {
+                    final long leftMaxEnd = maxEnds[i - offset];
+                    final long rightMaxEnd = i + offset < size ? maxEnds[i + offset] : lastMaxEnd;
+                    maxEnds[i] = Math.max(ends[i], Math.max(leftMaxEnd, rightMaxEnd));
+                }
+
+                lastIndex = ((lastIndex >> level) & 1) != 0 ? lastIndex - offset : lastIndex + offset;
+                if (lastIndex < size) {
+                    lastMaxEnd = Math.max(lastMaxEnd, maxEnds[lastIndex]);
+                }
+            }
+
+            return level - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean anyMatch(long start, long end, @NotNull final Predicate<T> predicate) {
+            final int size = starts.length;
+            final int[] stackLevels = new int[2 * maxLevel + 2];
+            final int[] stackIndices = new int[stackLevels.length];
+            final boolean[] stackLeftDone = new boolean[stackLevels.length];
+
+            int stackSize = 1;
+            stackLevels[0] = maxLevel;
+            stackIndices[0] = (1 << maxLevel) - 1;
+
+            while (stackSize > 0) {
+                stackSize--;
+                final int level = stackLevels[stackSize];
+                final int index = stackIndices[stackSize];
+
+                if (level <= SCAN_LEVEL) {
+                    final int scanStart = index >> level << level;
+                    final int scanEnd = Math.min(size, scanStart + (1 << (level + 1)) - 1);
+                    for (int i = scanStart; i < scanEnd && starts[i] <= end; i++) {
+                        if (start <= ends[i] && predicate.test((T) values[i])) {
+                            return true;
+                        }
+                    }
+                } else if (!stackLeftDone[stackSize]) {
+                    final int left = index - (1 << (level - 1));
+                    stackLeftDone[stackSize] = true;
+                    stackSize++;
+                    if (left >= size || maxEnds[left] >= start) {
+                        stackLevels[stackSize] = level - 1;
+                        stackIndices[stackSize] = left;
+                        stackLeftDone[stackSize] = false;
+                        stackSize++;
+                    }
+                } else if (index < size && starts[index] <= end) {
+                    if (start <= ends[index] && predicate.test((T) values[index])) {
+                        return true;
+                    }
+
+                    stackLevels[stackSize] = level - 1;
+                    stackIndices[stackSize] = index + (1 << (level - 1));
+                    stackLeftDone[stackSize] = false;
+                    stackSize++;
+                }
+            }
+
+            return false;
+        }
+    }
+}
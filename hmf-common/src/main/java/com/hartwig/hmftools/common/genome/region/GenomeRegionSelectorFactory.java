@@ -8,7 +8,7 @@ import java.util.function.Consumer;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
-import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.chromosome.ChromosomeMap;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 
 import org.jetbrains.annotations.NotNull;
@@ -50,7 +50,7 @@ public final class GenomeRegionSelectorFactory {
     public static <R extends GenomeRegion> GenomeRegionSelector<R> createImproved(@NotNull final Multimap<Chromosome, R> regions) {
         final GenomeRegionSelector<R> nullSelector = new NullGenomeRegionSelector<>();
 
-        final Map<Chromosome, GenomeRegionSelector<R>> chromosomeSelectors = Maps.newHashMap();
+        final ChromosomeMap<GenomeRegionSelector<R>> chromosomeSelectors = new ChromosomeMap<>();
         for (final Chromosome chromosome : regions.keySet()) {
             chromosomeSelectors.put(chromosome, new GenomeRegionSelectorImpl<>(regions.get(chromosome)));
         }
@@ -59,12 +59,12 @@ public final class GenomeRegionSelectorFactory {
             @NotNull
             @Override
             public Optional<R> select(@NotNull final GenomePosition position) {
-                return chromosomeSelectors.getOrDefault(HumanChromosome.fromString(position.chromosome()), nullSelector).select(position);
+                return chromosomeSelectors.getOrDefault(position.chromosome(), nullSelector).select(position);
             }
 
             @Override
             public void select(@NotNull final GenomeRegion region, @NotNull final Consumer<R> handler) {
-                chromosomeSelectors.getOrDefault(HumanChromosome.fromString(region.chromosome()), nullSelector).select(region, handler);
+                chromosomeSelectors.getOrDefault(region.chromosome(), nullSelector).select(region, handler);
             }
         };
     }
@@ -5,6 +5,7 @@ import java.util.Collection;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegionIndex;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -12,27 +13,17 @@ class BidirectionalSlicer implements Slicer {
 
     @NotNull
     private final Multimap<String, ? extends GenomeRegion> regions;
+    @NotNull
+    private final GenomeRegionIndex<? extends GenomeRegion> index;
 
     BidirectionalSlicer(@NotNull final Multimap<String, ? extends GenomeRegion> regions) {
         this.regions = regions;
+        this.index = GenomeRegionIndex.create(regions.values());
     }
 
     @Override
     public boolean test(@NotNull GenomePosition variant) {
-        final Collection<? extends GenomeRegion> regionsForChrom = regions.get(variant.chromosome());
-        if (regionsForChrom == null) {
-            return false;
-        } else {
-            for (final GenomeRegion region : regionsForChrom) {
-                if (variant.position() >= region.start() && variant.position() <= region.end()) {
-                    return true;
-                } else if (region.start() > variant.position()) {
-                    return false;
-                }
-            }
-        }
-
-        return false;
+        return index.contains(variant);
     }
 
     @NotNull
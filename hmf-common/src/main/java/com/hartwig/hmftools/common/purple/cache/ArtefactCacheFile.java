@@ -0,0 +1,287 @@
+package com.hartwig.hmftools.common.purple.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.copynumber.CopyNumberMethod;
+import com.hartwig.hmftools.common.purple.copynumber.ImmutablePurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.purity.BestFit;
+import com.hartwig.hmftools.common.purple.purity.FittedPurity;
+import com.hartwig.hmftools.common.purple.purity.FittedPurityStatus;
+import com.hartwig.hmftools.common.purple.purity.ImmutableBestFit;
+import com.hartwig.hmftools.common.purple.purity.ImmutableFittedPurity;
+import com.hartwig.hmftools.common.purple.purity.ImmutableFittedPurityScore;
+import com.hartwig.hmftools.common.purple.region.GermlineStatus;
+import com.hartwig.hmftools.common.purple.region.ImmutableEnrichedRegion;
+import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Intermediate PURPLE results stored with the key of the inputs they were built from. Doubles are written in full so that a cached
+ * artefact is identical to the one it replaces. Reading a missing, stale or malformed file returns empty.
+ */
+public enum ArtefactCacheFile {
+    ;
+
+    private static final Logger LOGGER = LogManager.getLogger(ArtefactCacheFile.class);
+
+    private static final String EXTENSION = ".purple.cache.%s.tsv";
+    private static final String DELIMITER = "\t";
+    private static final String KEY = "#key";
+
+    private static final String STATUS = "STATUS";
+    private static final String SCORE = "SCORE";
+    private static final String FIT = "FIT";
+    private static final String BEST_FIT_PER_PURITY = "BEST";
+    private static final String ALL_FITS = "ALL";
+
+    @NotNull
+    public static String generateFilename(@NotNull final String basePath, @NotNull final String sample, @NotNull final String artefact) {
+        return basePath + File.separator + sample + String.format(EXTENSION, artefact);
+    }
+
+    @NotNull
+    public static Optional<List<ObservedRegion>> readObservedRegions(@NotNull final String filename, @NotNull final String key)
+            throws IOException {
+        return read(filename, key, lines -> {
+            final List<ObservedRegion> result = Lists.newArrayList();
+            lines.forEach(x -> result.add(fromObservedRegion(x)));
+            return result;
+        });
+    }
+
+    public static void writeObservedRegions(@NotNull final String filename, @NotNull final String key,
+            @NotNull final Collection<? extends ObservedRegion> regions) throws IOException {
+        final List<String> lines = Lists.newArrayList();
+        regions.forEach(x -> lines.add(toString(x)));
+        write(filename, key, lines);
+    }
+
+    @NotNull
+    public static Optional<List<PurpleCopyNumber>> readCopyNumbers(@NotNull final String filename, @NotNull final String key)
+            throws IOException {
+        return read(filename, key, lines -> {
+            final List<PurpleCopyNumber> result = Lists.newArrayList();
+            lines.forEach(x -> result.add(fromCopyNumber(x)));
+            return result;
+        });
+    }
+
+    public static void writeCopyNumbers(@NotNull final String filename, @NotNull final String key,
+            @NotNull final Collection<PurpleCopyNumber> copyNumbers) throws IOException {
+        final List<String> lines = Lists.newArrayList();
+        copyNumbers.forEach(x -> lines.add(toString(x)));
+        write(filename, key, lines);
+    }
+
+    @NotNull
+    public static Optional<BestFit> readBestFit(@NotNull final String filename, @NotNull final String key) throws IOException {
+        return read(filename, key, ArtefactCacheFile::fromBestFit);
+    }
+
+    public static void writeBestFit(@NotNull final String filename, @NotNull final String key, @NotNull final BestFit bestFit)
+            throws IOException {
+        final List<String> lines = Lists.newArrayList();
+        lines.add(STATUS + DELIMITER + bestFit.status());
+        lines.add(new StringJoiner(DELIMITER).add(SCORE)
+                .add(String.valueOf(bestFit.score().minPurity()))
+                .add(String.valueOf(bestFit.score().maxPurity()))
+                .add(String.valueOf(bestFit.score().minPloidy()))
+                .add(String.valueOf(bestFit.score().maxPloidy()))
+                .add(String.valueOf(bestFit.score().minDiploidProportion()))
+                .add(String.valueOf(bestFit.score().maxDiploidProportion()))
+                .toString());
+        lines.add(toString(FIT, bestFit.fit()));
+        bestFit.bestFitPerPurity().forEach(x -> lines.add(toString(BEST_FIT_PER_PURITY, x)));
+        bestFit.allFits().forEach(x -> lines.add(toString(ALL_FITS, x)));
+        write(filename, key, lines);
+    }
+
+    @NotNull
+    private static <T> Optional<T> read(@NotNull final String filename, @NotNull final String key,
+            @NotNull final Function<List<String>, T> parser) throws IOException {
+        final File file = new File(filename);
+        if (!file.exists()) {
+            return Optional.empty();
+        }
+
+        final List<String> lines = Files.readAllLines(file.toPath());
+        if (lines.isEmpty() || !lines.get(0).equals(KEY + DELIMITER + key)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(parser.apply(lines.subList(1, lines.size())));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Ignoring malformed cache file {}", filename);
+            return Optional.empty();
+        }
+    }
+
+    private static void write(@NotNull final String filename, @NotNull final String key, @NotNull final List<String> lines)
+            throws IOException {
+        final List<String> content = Lists.newArrayListWithCapacity(lines.size() + 1);
+        content.add(KEY + DELIMITER + key);
+        content.addAll(lines);
+
+        // Write then move so that an interrupted run never leaves a partial file behind a valid key
+        final File file = new File(filename);
+        final File temp = new File(filename + ".tmp");
+        Files.write(temp.toPath(), content);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @NotNull
+    private static BestFit fromBestFit(@NotNull final List<String> lines) {
+        final ImmutableBestFit.Builder builder = ImmutableBestFit.builder();
+        for (String line : lines) {
+            final String[] values = line.split(DELIMITER);
+            switch (values[0]) {
+                case STATUS:
+                    builder.status(FittedPurityStatus.valueOf(values[1]));
+                    break;
+                case SCORE:
+                    builder.score(ImmutableFittedPurityScore.builder()
+                            .minPurity(Double.parseDouble(values[1]))
+                            .maxPurity(Double.parseDouble(values[2]))
+                            .minPloidy(Double.parseDouble(values[3]))
+                            .maxPloidy(Double.parseDouble(values[4]))
+                            .minDiploidProportion(Double.parseDouble(values[5]))
+                            .maxDiploidProportion(Double.parseDouble(values[6]))
+                            .build());
+                    break;
+                case FIT:
+                    builder.fit(fromFittedPurity(values));
+                    break;
+                case BEST_FIT_PER_PURITY:
+                    builder.addBestFitPerPurity(fromFittedPurity(values));
+                    break;
+                case ALL_FITS:
+                    builder.addAllFits(fromFittedPurity(values));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unexpected line " + line);
+            }
+        }
+        return builder.build();
+    }
+
+    @NotNull
+    private static String toString(@NotNull final String type, @NotNull final FittedPurity purity) {
+        return new StringJoiner(DELIMITER).add(type)
+                .add(String.valueOf(purity.purity()))
+                .add(String.valueOf(purity.normFactor()))
+                .add(String.valueOf(purity.score()))
+                .add(String.valueOf(purity.diploidProportion()))
+                .add(String.valueOf(purity.ploidy()))
+                .add(String.valueOf(purity.somaticPenalty()))
+                .toString();
+    }
+
+    @NotNull
+    private static FittedPurity fromFittedPurity(@NotNull final String[] values) {
+        return ImmutableFittedPurity.builder()
+                .purity(Double.parseDouble(values[1]))
+                .normFactor(Double.parseDouble(values[2]))
+                .score(Double.parseDouble(values[3]))
+                .diploidProportion(Double.parseDouble(values[4]))
+                .ploidy(Double.parseDouble(values[5]))
+                .somaticPenalty(Double.parseDouble(values[6]))
+                .build();
+    }
+
+    @NotNull
+    private static String toString(@NotNull final ObservedRegion region) {
+        return new StringJoiner(DELIMITER).add(region.chromosome())
+                .add(String.valueOf(region.start()))
+                .add(String.valueOf(region.end()))
+                .add(String.valueOf(region.ratioSupport()))
+                .add(String.valueOf(region.support()))
+                .add(String.valueOf(region.bafCount()))
+                .add(String.valueOf(region.observedBAF()))
+                .add(String.valueOf(region.depthWindowCount()))
+                .add(String.valueOf(region.observedTumorRatio()))
+                .add(String.valueOf(region.observedNormalRatio()))
+                .add(String.valueOf(region.status()))
+                .add(String.valueOf(region.svCluster()))
+                .add(String.valueOf(region.gcContent()))
+                .add(String.valueOf(region.minStart()))
+                .add(String.valueOf(region.maxStart()))
+                .toString();
+    }
+
+    @NotNull
+    private static ObservedRegion fromObservedRegion(@NotNull final String line) {
+        final String[] values = line.split(DELIMITER);
+        return ImmutableEnrichedRegion.builder()
+                .chromosome(values[0])
+                .start(Long.parseLong(values[1]))
+                .end(Long.parseLong(values[2]))
+                .ratioSupport(Boolean.parseBoolean(values[3]))
+                .support(SegmentSupport.valueOf(values[4]))
+                .bafCount(Integer.parseInt(values[5]))
+                .observedBAF(Double.parseDouble(values[6]))
+                .depthWindowCount(Integer.parseInt(values[7]))
+                .observedTumorRatio(Double.parseDouble(values[8]))
+                .observedNormalRatio(Double.parseDouble(values[9]))
+                .status(GermlineStatus.valueOf(values[10]))
+                .svCluster(Boolean.parseBoolean(values[11]))
+                .gcContent(Double.parseDouble(values[12]))
+                .minStart(Long.parseLong(values[13]))
+                .maxStart(Long.parseLong(values[14]))
+                .build();
+    }
+
+    @NotNull
+    private static String toString(@NotNull final PurpleCopyNumber copyNumber) {
+        return new StringJoiner(DELIMITER).add(copyNumber.chromosome())
+                .add(String.valueOf(copyNumber.start()))
+                .add(String.valueOf(copyNumber.end()))
+                .add(String.valueOf(copyNumber.averageTumorCopyNumber()))
+                .add(String.valueOf(copyNumber.bafCount()))
+                .add(String.valueOf(copyNumber.averageObservedBAF()))
+                .add(String.valueOf(copyNumber.averageActualBAF()))
+                .add(String.valueOf(copyNumber.segmentStartSupport()))
+                .add(String.valueOf(copyNumber.segmentEndSupport()))
+                .add(String.valueOf(copyNumber.method()))
+                .add(String.valueOf(copyNumber.depthWindowCount()))
+                .add(String.valueOf(copyNumber.gcContent()))
+                .add(String.valueOf(copyNumber.minStart()))
+                .add(String.valueOf(copyNumber.maxStart()))
+                .toString();
+    }
+
+    @NotNull
+    private static PurpleCopyNumber fromCopyNumber(@NotNull final String line) {
+        final String[] values = line.split(DELIMITER);
+        return ImmutablePurpleCopyNumber.builder()
+                .chromosome(values[0])
+                .start(Long.parseLong(values[1]))
+                .end(Long.parseLong(values[2]))
+                .averageTumorCopyNumber(Double.parseDouble(values[3]))
+                .bafCount(Integer.parseInt(values[4]))
+                .averageObservedBAF(Double.parseDouble(values[5]))
+                .averageActualBAF(Double.parseDouble(values[6]))
+                .segmentStartSupport(SegmentSupport.valueOf(values[7]))
+                .segmentEndSupport(SegmentSupport.valueOf(values[8]))
+                .method(CopyNumberMethod.valueOf(values[9]))
+                .depthWindowCount(Integer.parseInt(values[10]))
+                .gcContent(Double.parseDouble(values[11]))
+                .minStart(Long.parseLong(values[12]))
+                .maxStart(Long.parseLong(values[13]))
+                .build();
+    }
+}
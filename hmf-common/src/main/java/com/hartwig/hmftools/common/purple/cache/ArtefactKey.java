@@ -0,0 +1,37 @@
+package com.hartwig.hmftools.common.purple.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * SHA-256 digest of the named values and file contents that a cached artefact depends on. Values are added in order and the digest
+ * may only be taken once.
+ */
+public class ArtefactKey {
+
+    private final Hasher hasher = Hashing.sha256().newHasher();
+
+    @NotNull
+    public ArtefactKey add(@NotNull final String name, @NotNull final Object value) {
+        hasher.putString(name, UTF_8).putByte((byte) 0).putString(String.valueOf(value), UTF_8).putByte((byte) 0);
+        return this;
+    }
+
+    @NotNull
+    public ArtefactKey addFile(@NotNull final String name, @NotNull final String file) throws IOException {
+        return add(name, Files.asByteSource(new File(file)).hash(Hashing.sha256()));
+    }
+
+    @NotNull
+    public String digest() {
+        return hasher.hash().toString();
+    }
+}
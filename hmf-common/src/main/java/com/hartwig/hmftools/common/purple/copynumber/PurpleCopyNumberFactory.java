@@ -2,15 +2,18 @@ package com.hartwig.hmftools.common.purple.copynumber;
 
 import static java.util.stream.Collectors.toList;
 
+import java.util.EnumMap;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
-import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.copynumber.tolerance.AlleleTolerance;
 import com.hartwig.hmftools.common.purple.gender.Gender;
@@ -44,7 +47,12 @@ public class PurpleCopyNumberFactory {
 
     }
 
-    public void invoke(final List<FittedRegion> fittedRegions, final List<StructuralVariant> structuralVariants) {
+    /**
+     * Diploid extension and the final smoothing steps only depend on a single chromosome so run per chromosome on the executor.
+     * Structural variant implied copy numbers may link chromosomes so are a genome wide step between them.
+     */
+    public void invoke(@NotNull final ExecutorService executorService, final List<FittedRegion> fittedRegions,
+            final List<StructuralVariant> structuralVariants) throws ExecutionException, InterruptedException {
         somaticCopyNumbers.clear();
         germlineDeletions.clear();
 
@@ -53,32 +61,49 @@ public class PurpleCopyNumberFactory {
                 new ExtendDiploid(new AlleleTolerance(purityAdjuster), minTumorRatioCount, minTumorRatioCountAtCentromere);
         final PopulateUnknown populateUnknownFactory = new PopulateUnknown(gender);
 
-        final ListMultimap<Chromosome, CombinedRegion> diploidExtension = ArrayListMultimap.create();
-        for (HumanChromosome chromosome : HumanChromosome.values()) {
-            final List<FittedRegion> chromosomeFittedRegions = fittedRegions.stream().filter(matchesChromosome(chromosome)).collect(toList());
+        final ListMultimap<Chromosome, FittedRegion> fittedRegionsPerChromosome = ArrayListMultimap.create();
+        for (FittedRegion fittedRegion : fittedRegions) {
+            fittedRegionsPerChromosome.put(HumanChromosome.fromString(fittedRegion.chromosome()), fittedRegion);
+        }
 
-            final List<CombinedRegion> diploidExtended = extendDiploid.extendDiploid(chromosomeFittedRegions);
-            final List<CombinedRegion> nonDiploidExtended = ExtendNonDiploid.nonDiploid(diploidExtended);
+        final Map<HumanChromosome, Future<List<CombinedRegion>>> diploidFutures = new EnumMap<>(HumanChromosome.class);
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            final List<FittedRegion> chromosomeFittedRegions = fittedRegionsPerChromosome.get(chromosome);
+            diploidFutures.put(chromosome, executorService.submit(() -> {
+                final List<CombinedRegion> diploidExtended = extendDiploid.extendDiploid(chromosomeFittedRegions);
+                return ExtendNonDiploid.nonDiploid(diploidExtended);
+            }));
+        }
 
-            diploidExtension.putAll(chromosome, nonDiploidExtended);
+        final ListMultimap<Chromosome, CombinedRegion> diploidExtension = ArrayListMultimap.create();
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            diploidExtension.putAll(chromosome, diploidFutures.get(chromosome).get());
         }
 
         final StructuralVariantImplied svImpliedFactory = new StructuralVariantImplied(averageReadDepth, ploidy, purityAdjuster);
         final ListMultimap<Chromosome, CombinedRegion> allSVImplied =
                 svImpliedFactory.svImpliedCopyNumber(structuralVariants, diploidExtension);
 
+        final Map<HumanChromosome, Future<ChromosomeCopyNumbers>> copyNumberFutures = new EnumMap<>(HumanChromosome.class);
         for (final HumanChromosome chromosome : HumanChromosome.values()) {
             final ExtendDiploidBAF extendDiploidBAF = new ExtendDiploidBAF(simpleVariants(chromosome, structuralVariants));
+            final List<CombinedRegion> svImplied = Lists.newArrayList(allSVImplied.get(chromosome));
+            copyNumberFutures.put(chromosome, executorService.submit(() -> {
+                final List<CombinedRegion> longArmExtended = ExtendLongArm.extendLongArm(svImplied);
+                final List<CombinedRegion> populateUnknown = populateUnknownFactory.populateUnknown(longArmExtended);
+                final List<CombinedRegion> somatics = extendDiploidBAF.extendBAF(populateUnknown);
 
-            final List<CombinedRegion> svImplied = allSVImplied.get(chromosome);
-            final List<CombinedRegion> longArmExtended = ExtendLongArm.extendLongArm(svImplied);
-            final List<CombinedRegion> populateUnknown = populateUnknownFactory.populateUnknown(longArmExtended);
-            final List<CombinedRegion> somatics = extendDiploidBAF.extendBAF(populateUnknown);
+                final List<CombinedRegion> germlineDeletions = extendGermline.extractGermlineDeletions(somatics);
 
-            final List<CombinedRegion> germlineDeletions = extendGermline.extractGermlineDeletions(somatics);
+                return new ChromosomeCopyNumbers(toCopyNumber(somatics),
+                        germlineDeletions.stream().map(x -> toCopyNumber(x, SegmentSupport.UNKNOWN)).collect(toList()));
+            }));
+        }
 
-            this.somaticCopyNumbers.addAll(toCopyNumber(somatics));
-            this.germlineDeletions.addAll(germlineDeletions.stream().map(x -> toCopyNumber(x, SegmentSupport.UNKNOWN)).collect(toList()));
+        for (final HumanChromosome chromosome : HumanChromosome.values()) {
+            final ChromosomeCopyNumbers copyNumbers = copyNumberFutures.get(chromosome).get();
+            this.somaticCopyNumbers.addAll(copyNumbers.somatic);
+            this.germlineDeletions.addAll(copyNumbers.germlineDeletions);
         }
     }
 
@@ -138,8 +163,14 @@ public class PurpleCopyNumberFactory {
                 .build();
     }
 
-    @NotNull
-    private static <T extends GenomeRegion> Predicate<T> matchesChromosome(@NotNull final Chromosome chromosome) {
-        return t -> HumanChromosome.fromString(t.chromosome()).equals(chromosome);
+    private static class ChromosomeCopyNumbers {
+
+        private final List<PurpleCopyNumber> somatic;
+        private final List<PurpleCopyNumber> germlineDeletions;
+
+        private ChromosomeCopyNumbers(@NotNull final List<PurpleCopyNumber> somatic, @NotNull final List<PurpleCopyNumber> germlineDeletions) {
+            this.somatic = somatic;
+            this.germlineDeletions = germlineDeletions;
+        }
     }
 }
@@ -1,8 +1,15 @@
 package com.hartwig.hmftools.common.purple.gene;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.region.HmfExonRegion;
 import com.hartwig.hmftools.common.genome.region.HmfTranscriptRegion;
 import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
 import com.hartwig.hmftools.common.utils.zipper.RegionZipper;
@@ -17,19 +24,125 @@ public final class GeneCopyNumberFactory {
     @NotNull
     public static List<GeneCopyNumber> geneCopyNumbers(@NotNull final List<HmfTranscriptRegion> genes,
             @NotNull final List<PurpleCopyNumber> somaticCopyNumbers, @NotNull final List<PurpleCopyNumber> germlineDeletions) {
+        final CopyNumberIndex somaticIndex = new CopyNumberIndex(somaticCopyNumbers);
+        final CopyNumberIndex germlineIndex = new CopyNumberIndex(germlineDeletions);
 
-        final List<GeneCopyNumber> result = Lists.newArrayList();
-        for (HmfTranscriptRegion gene : genes) {
-            final GeneCopyNumberBuilder builder = new GeneCopyNumberBuilder(gene);
-            RegionZipper.zip(somaticCopyNumbers, gene.exome(), builder);
-            RegionZipper.zip(germlineDeletions, gene.exome(), builder);
+        final GeneCopyNumber[] result = new GeneCopyNumber[genes.size()];
+        for (int i = 0; i < genes.size(); i++) {
+            result[i] = geneCopyNumber(genes.get(i), somaticIndex, germlineIndex);
+        }
+
+        return reportable(result);
+    }
+
+    /**
+     * Assigns genes of each chromosome in parallel. Results are identical to the sequential version.
+     */
+    @NotNull
+    public static List<GeneCopyNumber> geneCopyNumbers(@NotNull final ExecutorService executorService,
+            @NotNull final List<HmfTranscriptRegion> genes, @NotNull final List<PurpleCopyNumber> somaticCopyNumbers,
+            @NotNull final List<PurpleCopyNumber> germlineDeletions) throws ExecutionException, InterruptedException {
+        final CopyNumberIndex somaticIndex = new CopyNumberIndex(somaticCopyNumbers);
+        final CopyNumberIndex germlineIndex = new CopyNumberIndex(germlineDeletions);
+
+        final Map<String, List<Integer>> genesPerChromosome = Maps.newLinkedHashMap();
+        for (int i = 0; i < genes.size(); i++) {
+            genesPerChromosome.computeIfAbsent(genes.get(i).chromosome(), x -> Lists.newArrayList()).add(i);
+        }
+
+        final GeneCopyNumber[] result = new GeneCopyNumber[genes.size()];
+        final List<Future<?>> futures = Lists.newArrayList();
+        for (List<Integer> chromosomeGenes : genesPerChromosome.values()) {
+            futures.add(executorService.submit(() -> {
+                for (int i : chromosomeGenes) {
+                    result[i] = geneCopyNumber(genes.get(i), somaticIndex, germlineIndex);
+                }
+            }));
+        }
 
-            GeneCopyNumber geneCopyNumber = builder.build();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        return reportable(result);
+    }
+
+    @NotNull
+    private static GeneCopyNumber geneCopyNumber(@NotNull final HmfTranscriptRegion gene, @NotNull final CopyNumberIndex somaticIndex,
+            @NotNull final CopyNumberIndex germlineIndex) {
+        final GeneCopyNumberBuilder builder = new GeneCopyNumberBuilder(gene);
+        RegionZipper.zip(somaticIndex.candidates(gene.chromosome(), gene.exome()), gene.exome(), builder);
+        RegionZipper.zip(germlineIndex.candidates(gene.chromosome(), gene.exome()), gene.exome(), builder);
+        return builder.build();
+    }
+
+    @NotNull
+    private static List<GeneCopyNumber> reportable(@NotNull final GeneCopyNumber[] geneCopyNumbers) {
+        final List<GeneCopyNumber> result = Lists.newArrayList();
+        for (GeneCopyNumber geneCopyNumber : geneCopyNumbers) {
             if (geneCopyNumber.totalRegions() > 0) {
                 result.add(geneCopyNumber);
             }
-
         }
         return result;
     }
+
+    /**
+     * Sorted start positions of the copy numbers of each chromosome. Zipping a gene against its candidate copy numbers gives the
+     * same result as zipping it against all of them: candidates run from the copy number preceding the first exon to the last
+     * copy number starting before the exome ends.
+     */
+    private static class CopyNumberIndex {
+
+        private final Map<String, List<PurpleCopyNumber>> copyNumbers = Maps.newHashMap();
+        private final Map<String, long[]> starts = Maps.newHashMap();
+
+        private CopyNumberIndex(@NotNull final List<PurpleCopyNumber> copyNumbers) {
+            for (PurpleCopyNumber copyNumber : copyNumbers) {
+                this.copyNumbers.computeIfAbsent(copyNumber.chromosome(), x -> Lists.newArrayList()).add(copyNumber);
+            }
+
+            for (Map.Entry<String, List<PurpleCopyNumber>> entry : this.copyNumbers.entrySet()) {
+                final List<PurpleCopyNumber> chromosomeCopyNumbers = entry.getValue();
+                final long[] chromosomeStarts = new long[chromosomeCopyNumbers.size()];
+                for (int i = 0; i < chromosomeStarts.length; i++) {
+                    chromosomeStarts[i] = chromosomeCopyNumbers.get(i).start();
+                }
+                starts.put(entry.getKey(), chromosomeStarts);
+            }
+        }
+
+        @NotNull
+        private List<PurpleCopyNumber> candidates(@NotNull final String chromosome, @NotNull final List<HmfExonRegion> exome) {
+            final long[] chromosomeStarts = starts.get(chromosome);
+            if (chromosomeStarts == null || exome.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            long exomeEnd = 0;
+            for (HmfExonRegion exon : exome) {
+                exomeEnd = Math.max(exomeEnd, exon.end());
+            }
+
+            final int first = Math.max(0, lastStartingAtOrBefore(chromosomeStarts, exome.get(0).start()));
+            final int last = lastStartingAtOrBefore(chromosomeStarts, exomeEnd);
+            return last < first ? Collections.emptyList() : copyNumbers.get(chromosome).subList(first, last + 1);
+        }
+
+        private static int lastStartingAtOrBefore(@NotNull final long[] starts, long position) {
+            int low = 0;
+            int high = starts.length - 1;
+            int result = -1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                if (starts[mid] <= position) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
 }
@@ -98,7 +98,7 @@ public class BestFitFactory {
     }
 
     @NotNull
-    private static Predicate<FittedPurity> inRangeOfLowest(final double score) {
+    static Predicate<FittedPurity> inRangeOfLowest(final double score) {
         return fittedPurity -> {
             double absDifference = Math.abs(fittedPurity.score() - score);
             double relDifference = Math.abs(absDifference / score);
@@ -4,13 +4,15 @@ import static com.hartwig.hmftools.common.utils.Doubles.greaterOrEqual;
 import static com.hartwig.hmftools.common.utils.Doubles.lessOrEqual;
 import static com.hartwig.hmftools.common.utils.Doubles.positiveOrZero;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.Predicate;
 
 import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
@@ -19,10 +21,10 @@ import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.gender.Gender;
-import com.hartwig.hmftools.common.purple.region.FittedRegion;
 import com.hartwig.hmftools.common.purple.region.FittedRegionFactory;
 import com.hartwig.hmftools.common.purple.region.GermlineStatus;
 import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+import com.hartwig.hmftools.common.purple.region.RegionFitKernel;
 import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.common.utils.collection.Downsample;
 import com.hartwig.hmftools.common.variant.SomaticVariant;
@@ -34,6 +36,10 @@ public class FittedPurityFactory {
     private static final int MAX_SOMATICS_TO_FIT = 1000;
     private static final double MAX_TUMOR_RATIO_TO_FIT = 3;
 
+    // Adaptive search evaluates every COARSE_STEPS-th norm factor then the full grid around the best ADAPTIVE_MINIMA local minima
+    private static final int COARSE_STEPS = 5;
+    private static final int ADAPTIVE_MINIMA = 10;
+
     private final int maxPloidy;
     private final Gender gender;
     private final double minPurity;
@@ -44,6 +50,7 @@ public class FittedPurityFactory {
     private final double minNormFactor;
     private final double maxNormFactor;
     private final double somaticPenaltyWeight;
+    private final boolean adaptiveSearch;
 
     @NotNull
     private final FittedRegionFactory fittedRegionFactory;
@@ -54,11 +61,48 @@ public class FittedPurityFactory {
     private final List<FittedPurity> bestScoringPerPurity = Lists.newArrayList();
     private final List<ObservedRegion> filteredRegions = Lists.newArrayList();
 
+    private int[] bafCounts;
+    private int[] normalCopyNumbers;
+    private int[] variantOffsets;
+    private SomaticVariant[] regionVariants;
+
+    private double[] purities;
+    private double[] normFactors;
+    private FittedPurity[][] fits;
+    private boolean[][] evaluated;
+    private int[] evaluatedCounts;
+
     public FittedPurityFactory(final ExecutorService executorService, final Gender gender, final int maxPloidy, final double minPurity,
             final double maxPurity, final double purityIncrements, final double minNormFactor, final double maxNormFactor,
             final double normFactorIncrements, final double somaticPenaltyWeight, @NotNull final FittedRegionFactory fittedRegionFactory,
             @NotNull final Collection<ObservedRegion> observedRegions, @NotNull final Collection<SomaticVariant> variants)
             throws ExecutionException, InterruptedException {
+        this(executorService,
+                gender,
+                maxPloidy,
+                minPurity,
+                maxPurity,
+                purityIncrements,
+                minNormFactor,
+                maxNormFactor,
+                normFactorIncrements,
+                somaticPenaltyWeight,
+                fittedRegionFactory,
+                observedRegions,
+                variants,
+                false);
+    }
+
+    /**
+     * With adaptive search every purity is fitted at the coarse norm factors, then the full grid is fitted around the best coarse local
+     * minima and for every purity whose best fit is a candidate. Other purities are represented by their coarse fits only.
+     */
+    public FittedPurityFactory(final ExecutorService executorService, final Gender gender, final int maxPloidy, final double minPurity,
+            final double maxPurity, final double purityIncrements, final double minNormFactor, final double maxNormFactor,
+            final double normFactorIncrements, final double somaticPenaltyWeight, @NotNull final FittedRegionFactory fittedRegionFactory,
+            @NotNull final Collection<ObservedRegion> observedRegions, @NotNull final Collection<SomaticVariant> variants,
+            final boolean adaptiveSearch) throws ExecutionException, InterruptedException {
+        this.adaptiveSearch = adaptiveSearch;
         this.executorService = executorService;
         this.maxPloidy = maxPloidy;
         this.minPurity = minPurity;
@@ -87,9 +131,30 @@ public class FittedPurityFactory {
         this.variants = Downsample.downsample(MAX_SOMATICS_TO_FIT, filteredVariants);
         this.totalBAFCount = filteredRegions.stream().mapToInt(ObservedRegion::bafCount).sum();
 
+        indexRegions();
         fitPurity();
     }
 
+    private void indexRegions() {
+        final int regionCount = filteredRegions.size();
+        final PurityAdjuster purityAdjuster = new PurityAdjuster(gender, 1, 1);
+        final GenomePositionSelector<SomaticVariant> variantSelector = GenomePositionSelectorFactory.create(variants);
+        final List<SomaticVariant> selectedVariants = Lists.newArrayList();
+
+        bafCounts = new int[regionCount];
+        normalCopyNumbers = new int[regionCount];
+        variantOffsets = new int[regionCount + 1];
+        for (int i = 0; i < regionCount; i++) {
+            final ObservedRegion region = filteredRegions.get(i);
+            bafCounts[i] = region.bafCount();
+            normalCopyNumbers[i] = purityAdjuster.typicalCopyNumber(region.chromosome());
+            variantSelector.select(region, selectedVariants::add);
+            variantOffsets[i + 1] = selectedVariants.size();
+        }
+
+        regionVariants = selectedVariants.toArray(new SomaticVariant[0]);
+    }
+
     public List<FittedPurity> bestFitPerPurity() {
         return bestScoringPerPurity;
     }
@@ -98,16 +163,42 @@ public class FittedPurityFactory {
         return all;
     }
 
+    /**
+     * Number of (purity, normFactor) points scored.
+     */
+    public int evaluatedCount() {
+        return Arrays.stream(evaluatedCounts).sum();
+    }
+
     private void fitPurity() throws ExecutionException, InterruptedException {
-        final List<Future<List<FittedPurity>>> futures = Lists.newArrayList();
-        for (double purity = minPurity; lessOrEqual(purity, maxPurity); purity += purityIncrements) {
-            futures.add(executorService.submit(callableFitPurity(purity)));
+        purities = grid(minPurity, maxPurity, purityIncrements);
+        normFactors = grid(minNormFactor, maxNormFactor, normFactorIncrements);
+        fits = new FittedPurity[purities.length][normFactors.length];
+        evaluated = new boolean[purities.length][normFactors.length];
+        evaluatedCounts = new int[purities.length];
+
+        if (adaptiveSearch) {
+            fitGrid(coarseGrid());
+            fitGrid(refinementGrid());
+            fitGrid(candidateGrid());
+        } else {
+            final boolean[][] selection = new boolean[purities.length][normFactors.length];
+            for (boolean[] row : selection) {
+                Arrays.fill(row, true);
+            }
+            fitGrid(selection);
         }
 
-        for (Future<List<FittedPurity>> future : futures) {
-            List<FittedPurity> fittedPurities = future.get();
+        for (FittedPurity[] row : fits) {
+            final List<FittedPurity> fittedPurities = Lists.newArrayList();
+            for (FittedPurity fit : row) {
+                if (fit != null) {
+                    fittedPurities.add(fit);
+                }
+            }
 
             if (!fittedPurities.isEmpty()) {
+                Collections.sort(fittedPurities);
                 all.addAll(fittedPurities);
                 bestScoringPerPurity.add(fittedPurities.get(0));
             }
@@ -118,56 +209,205 @@ public class FittedPurityFactory {
     }
 
     @NotNull
-    private Callable<List<FittedPurity>> callableFitPurity(final double purity) {
-        return () -> fitPurity(purity);
+    private static double[] grid(double min, double max, double increment) {
+        int count = 0;
+        for (double value = min; lessOrEqual(value, max); value += increment) {
+            count++;
+        }
+
+        final double[] result = new double[count];
+        int i = 0;
+        for (double value = min; lessOrEqual(value, max); value += increment) {
+            result[i++] = value;
+        }
+
+        return result;
+    }
+
+    private void fitGrid(@NotNull final boolean[][] selection) throws ExecutionException, InterruptedException {
+        final List<Future<?>> futures = Lists.newArrayList();
+        for (int i = 0; i < purities.length; i++) {
+            final int purityIndex = i;
+            futures.add(executorService.submit(() -> fitPurity(purityIndex, selection[purityIndex])));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
     }
 
     @NotNull
-    private List<FittedPurity> fitPurity(final double purity) {
-        final List<FittedPurity> fittedPurities = Lists.newArrayList();
-        for (double normFactor = minNormFactor; lessOrEqual(normFactor, maxNormFactor); normFactor += normFactorIncrements) {
+    private boolean[][] coarseGrid() {
+        final boolean[][] selection = new boolean[purities.length][normFactors.length];
+        for (int i = 0; i < purities.length; i++) {
+            for (int j : coarseIndices(normFactors.length)) {
+                selection[i][j] = true;
+            }
+        }
+
+        return selection;
+    }
+
+    @NotNull
+    private boolean[][] refinementGrid() {
+        final int[] coarsePurities = coarseIndices(purities.length);
+        final int[] coarseNormFactors = coarseIndices(normFactors.length);
+
+        final List<int[]> minima = Lists.newArrayList();
+        for (int a = 0; a < coarsePurities.length; a++) {
+            for (int b = 0; b < coarseNormFactors.length; b++) {
+                final FittedPurity fit = fits[coarsePurities[a]][coarseNormFactors[b]];
+                if (fit != null && isLocalMinimum(fit, coarsePurities, coarseNormFactors, a, b)) {
+                    minima.add(new int[] { coarsePurities[a], coarseNormFactors[b] });
+                }
+            }
+        }
+
+        minima.sort(Comparator.comparingDouble(x -> fits[x[0]][x[1]].score()));
+
+        final boolean[][] selection = new boolean[purities.length][normFactors.length];
+        for (int[] minimum : minima.subList(0, Math.min(ADAPTIVE_MINIMA, minima.size()))) {
+            for (int i = Math.max(0, minimum[0] - COARSE_STEPS); i <= Math.min(purities.length - 1, minimum[0] + COARSE_STEPS); i++) {
+                for (int j = Math.max(0, minimum[1] - COARSE_STEPS); j <= Math.min(normFactors.length - 1, minimum[1] + COARSE_STEPS); j++) {
+                    selection[i][j] = true;
+                }
+            }
+        }
+
+        return selection;
+    }
+
+    /**
+     * Selects every purity whose best fit so far is in range of the overall best, as the purity range of the score is taken from these.
+     */
+    @NotNull
+    private boolean[][] candidateGrid() {
+        double lowestScore = Double.POSITIVE_INFINITY;
+        for (FittedPurity[] row : fits) {
+            for (FittedPurity fit : row) {
+                if (fit != null) {
+                    lowestScore = Math.min(lowestScore, fit.score());
+                }
+            }
+        }
+
+        final Predicate<FittedPurity> inRange = BestFitFactory.inRangeOfLowest(lowestScore);
+        final boolean[][] selection = new boolean[purities.length][normFactors.length];
+        for (int i = 0; i < purities.length; i++) {
+            if (Arrays.stream(fits[i]).anyMatch(x -> x != null && inRange.test(x))) {
+                Arrays.fill(selection[i], true);
+            }
+        }
+
+        return selection;
+    }
+
+    private boolean isLocalMinimum(@NotNull final FittedPurity fit, @NotNull final int[] coarsePurities,
+            @NotNull final int[] coarseNormFactors, int a, int b) {
+        for (int da = -1; da <= 1; da++) {
+            for (int db = -1; db <= 1; db++) {
+                final int na = a + da;
+                final int nb = b + db;
+                if ((da != 0 || db != 0) && na >= 0 && na < coarsePurities.length && nb >= 0 && nb < coarseNormFactors.length) {
+                    final FittedPurity neighbour = fits[coarsePurities[na]][coarseNormFactors[nb]];
+                    if (neighbour != null && neighbour.score() < fit.score()) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @NotNull
+    private static int[] coarseIndices(int length) {
+        final int[] result = new int[(length - 1) / COARSE_STEPS + ((length - 1) % COARSE_STEPS == 0 ? 1 : 2)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Math.min(length - 1, i * COARSE_STEPS);
+        }
+
+        return result;
+    }
+
+    private void fitPurity(final int purityIndex, @NotNull final boolean[] selection) {
+        final double purity = purities[purityIndex];
+        final FittedPurity[] row = fits[purityIndex];
+        final boolean[] rowEvaluated = evaluated[purityIndex];
+
+        RegionFitKernel kernel = null;
+        for (int j = 0; j < normFactors.length; j++) {
+            if (!selection[j] || rowEvaluated[j]) {
+                continue;
+            }
+
+            rowEvaluated[j] = true;
+            final double normFactor = normFactors[j];
             double impliedPloidy = PurityAdjuster.impliedSamplePloidy(purity, normFactor);
 
             if (greaterOrEqual(impliedPloidy, 1) && lessOrEqual(impliedPloidy, maxPloidy)) {
-                fittedPurities.add(fitPurity(purity, normFactor));
+                if (kernel == null) {
+                    kernel = fittedRegionFactory.kernel(filteredRegions);
+                }
+
+                evaluatedCounts[purityIndex]++;
+                row[j] = fitPurity(kernel, purity, normFactor);
             }
         }
-
-        Collections.sort(fittedPurities);
-        return fittedPurities;
     }
 
     private double weightWithBaf(double value, int bafCount) {
         return 1d * value * bafCount / totalBAFCount;
     }
 
+    private double somaticPenalty(double somaticDeviation) {
+        final int variantCount = regionVariants.length;
+        return somaticPenaltyWeight * (variantCount == 0 ? 0 : somaticDeviation / variantCount);
+    }
+
     @NotNull
-    private FittedPurity fitPurity(final double purity, final double normFactor) {
-        ImmutableFittedPurity.Builder builder = ImmutableFittedPurity.builder().purity(purity).normFactor(normFactor);
+    private FittedPurity fitPurity(@NotNull final RegionFitKernel kernel, final double purity, final double normFactor) {
+        final PurityAdjuster purityAdjuster = new PurityAdjuster(gender, purity, normFactor);
+        final boolean includeSomatics = Doubles.greaterThan(somaticPenaltyWeight, 0);
+
         double eventPenalty = 0;
         double deviationPenalty = 0;
         double diploidProportion = 0;
         double averagePloidy = 0;
+        double somaticDeviation = 0;
+
+        for (int i = 0; i < kernel.size(); i++) {
+            kernel.fit(i, purity, normFactor);
 
-        final List<FittedRegion> fittedRegions = Lists.newArrayList();
-        for (final ObservedRegion enrichedRegion : filteredRegions) {
-            final FittedRegion fittedRegion = fittedRegionFactory.fitRegion(purity, normFactor, enrichedRegion);
-            eventPenalty += weightWithBaf(fittedRegion.eventPenalty(), enrichedRegion.bafCount());
-            deviationPenalty += weightWithBaf(fittedRegion.deviationPenalty(), enrichedRegion.bafCount());
-            averagePloidy += weightWithBaf(fittedRegion.tumorCopyNumber(), enrichedRegion.bafCount());
-            if (fittedRegion.isDiploid()) {
-                diploidProportion += weightWithBaf(1, enrichedRegion.bafCount());
+            final int bafCount = bafCounts[i];
+            eventPenalty += weightWithBaf(kernel.eventPenalty(), bafCount);
+            deviationPenalty += weightWithBaf(kernel.deviationPenalty(), bafCount);
+            averagePloidy += weightWithBaf(kernel.tumorCopyNumber(), bafCount);
+            if (kernel.isDiploid()) {
+                diploidProportion += weightWithBaf(1, bafCount);
             }
 
-            fittedRegions.add(fittedRegion);
-        }
+            if (includeSomatics && variantOffsets[i] < variantOffsets[i + 1]) {
+                final double tumorCopyNumber = Math.max(0, kernel.tumorCopyNumber());
+                final double majorAllelePloidy = Math.max(0, kernel.majorAllelePloidy());
 
-        final PurityAdjuster purityAdjuster = new PurityAdjuster(gender, purity, normFactor);
-        final double somaticPenalty = Doubles.greaterThan(somaticPenaltyWeight, 0)
-                ? somaticPenaltyWeight * SomaticPenaltyFactory.penalty(purityAdjuster, fittedRegions,
-                variants) : 0;
+                double regionDeviation = 0;
+                for (int j = variantOffsets[i]; j < variantOffsets[i + 1]; j++) {
+                    regionDeviation += SomaticDeviation.INSTANCE.deviationFromMax(purityAdjuster,
+                            normalCopyNumbers[i],
+                            regionVariants[j],
+                            tumorCopyNumber,
+                            majorAllelePloidy);
+                }
+                somaticDeviation += regionDeviation;
+            }
+        }
 
-        return builder.score(eventPenalty * deviationPenalty + somaticPenalty)
+        final double somaticPenalty = includeSomatics ? somaticPenalty(somaticDeviation) : 0;
+        return ImmutableFittedPurity.builder()
+                .purity(purity)
+                .normFactor(normFactor)
+                .score(eventPenalty * deviationPenalty + somaticPenalty)
                 .diploidProportion(diploidProportion)
                 .ploidy(averagePloidy)
                 .somaticPenalty(somaticPenalty)
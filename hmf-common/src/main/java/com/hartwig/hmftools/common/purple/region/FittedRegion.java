@@ -41,9 +41,12 @@ public abstract class FittedRegion implements ObservedRegion {
     public abstract double fittedBAF();
 
     public boolean isDiploid() {
-        return Doubles.greaterOrEqual(majorAllelePloidy(), MIN_DIPLOID_PLOIDY) && Doubles.lessOrEqual(majorAllelePloidy(),
-                MAX_DIPLOID_PLOIDY) && Doubles.greaterOrEqual(minorAllelePloidy(), MIN_DIPLOID_PLOIDY) && Doubles.lessOrEqual(
-                minorAllelePloidy(),
+        return isDiploid(majorAllelePloidy(), minorAllelePloidy());
+    }
+
+    static boolean isDiploid(double majorAllelePloidy, double minorAllelePloidy) {
+        return Doubles.greaterOrEqual(majorAllelePloidy, MIN_DIPLOID_PLOIDY) && Doubles.lessOrEqual(majorAllelePloidy, MAX_DIPLOID_PLOIDY)
+                && Doubles.greaterOrEqual(minorAllelePloidy, MIN_DIPLOID_PLOIDY) && Doubles.lessOrEqual(minorAllelePloidy,
                 MAX_DIPLOID_PLOIDY);
     }
 
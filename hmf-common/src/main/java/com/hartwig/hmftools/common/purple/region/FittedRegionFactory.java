@@ -12,4 +12,7 @@ public interface FittedRegionFactory {
 
     @NotNull
     List<FittedRegion> fitRegion(final double purity, final double normFactor, @NotNull final Collection<ObservedRegion> observedRegions);
+
+    @NotNull
+    RegionFitKernel kernel(@NotNull final List<? extends ObservedRegion> observedRegions);
 }
@@ -21,9 +21,15 @@ class GCAccumulator implements Consumer<GCProfile> {
 
     @Override
     public void accept(final GCProfile gcProfile) {
-        if (gcProfile.isMappable() && gcProfile.start() >= region.start() && gcProfile.end() <= region.end()) {
+        if (gcProfile.isMappable()) {
+            accept(gcProfile.start(), gcProfile.end(), gcProfile.gcContent());
+        }
+    }
+
+    void accept(long start, long end, double gcContent) {
+        if (start >= region.start() && end <= region.end()) {
             count++;
-            totalContent += gcProfile.gcContent();
+            totalContent += gcContent;
         }
     }
 }
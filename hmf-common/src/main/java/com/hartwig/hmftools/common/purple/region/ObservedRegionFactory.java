@@ -1,8 +1,12 @@
 package com.hartwig.hmftools.common.purple.region;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -11,13 +15,10 @@ import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.amber.AmberBAF;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.ChromosomeMap;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.gc.GCProfile;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelector;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelectorFactory;
 import com.hartwig.hmftools.common.genome.window.Window;
 import com.hartwig.hmftools.common.purple.gender.Gender;
 import com.hartwig.hmftools.common.purple.segment.PurpleSegment;
@@ -43,27 +44,143 @@ public class ObservedRegionFactory {
     @NotNull
     public List<ObservedRegion> combine(@NotNull final List<PurpleSegment> regions, @NotNull final Multimap<Chromosome, AmberBAF> bafs,
             @NotNull final Multimap<Chromosome, CobaltRatio> ratios, @NotNull final Multimap<Chromosome, GCProfile> gcProfiles) {
-        final List<ModifiableEnrichedRegion> result = Lists.newArrayList();
+        final ModifiableEnrichedRegion[] result = new ModifiableEnrichedRegion[regions.size()];
+        final ChromosomeMap<List<Integer>> regionsPerChromosome = regionsPerChromosome(regions);
+        for (HumanChromosome chromosome : regionsPerChromosome.chromosomes()) {
+            combine(chromosome,
+                    regions,
+                    regionsPerChromosome.get(chromosome),
+                    bafs.get(chromosome),
+                    ratios.get(chromosome),
+                    gcProfiles.get(chromosome),
+                    result);
+        }
+
+        return extendMinSupport(Arrays.asList(result));
+    }
+
+    /**
+     * Combines each chromosome in parallel. Results are identical to the sequential combine.
+     */
+    @NotNull
+    public List<ObservedRegion> combine(@NotNull final ExecutorService executorService, @NotNull final List<PurpleSegment> regions,
+            @NotNull final Multimap<Chromosome, AmberBAF> bafs, @NotNull final Multimap<Chromosome, CobaltRatio> ratios,
+            @NotNull final Multimap<Chromosome, GCProfile> gcProfiles) throws ExecutionException, InterruptedException {
+        final ModifiableEnrichedRegion[] result = new ModifiableEnrichedRegion[regions.size()];
+        final List<Future<?>> futures = Lists.newArrayList();
+        final ChromosomeMap<List<Integer>> regionsPerChromosome = regionsPerChromosome(regions);
+        for (HumanChromosome chromosome : regionsPerChromosome.chromosomes()) {
+            final List<Integer> regionIndexes = regionsPerChromosome.get(chromosome);
+            final Collection<AmberBAF> chromosomeBafs = bafs.get(chromosome);
+            final Collection<CobaltRatio> chromosomeRatios = ratios.get(chromosome);
+            final Collection<GCProfile> chromosomeGCProfiles = gcProfiles.get(chromosome);
+            futures.add(executorService.submit(() -> combine(chromosome,
+                    regions,
+                    regionIndexes,
+                    chromosomeBafs,
+                    chromosomeRatios,
+                    chromosomeGCProfiles,
+                    result)));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        return extendMinSupport(Arrays.asList(result));
+    }
+
+    @NotNull
+    private static ChromosomeMap<List<Integer>> regionsPerChromosome(@NotNull final List<PurpleSegment> regions) {
+        final ChromosomeMap<List<Integer>> result = new ChromosomeMap<>();
+        for (int i = 0; i < regions.size(); i++) {
+            result.computeIfAbsent(HumanChromosome.fromString(regions.get(i).chromosome()), x -> Lists.newArrayList()).add(i);
+        }
+        return result;
+    }
 
-        final GenomePositionSelector<CobaltRatio> cobaltSelector = GenomePositionSelectorFactory.create(ratios);
-        final GenomePositionSelector<AmberBAF> bafSelector = GenomePositionSelectorFactory.create(bafs);
-        final GenomeRegionSelector<GCProfile> gcSelector = GenomeRegionSelectorFactory.createImproved(gcProfiles);
+    /**
+     * Single merge join pass of the chromosome regions over sorted primitive BAF, ratio and GC tracks. Each track only moves forward
+     * so values are consumed by the first region that contains them.
+     */
+    private void combine(@NotNull final Chromosome chromosome, @NotNull final List<PurpleSegment> regions,
+            @NotNull final List<Integer> regionIndexes, @NotNull final Collection<AmberBAF> bafs,
+            @NotNull final Collection<CobaltRatio> ratios, @NotNull final Collection<GCProfile> gcProfiles,
+            @NotNull final ModifiableEnrichedRegion[] result) {
+
+        int bafCount = 0;
+        final long[] bafPositions = new long[bafs.size()];
+        final double[] bafValues = new double[bafs.size()];
+        if (chromosome.isDiploid(gender)) {
+            for (AmberBAF baf : bafs) {
+                if (!Double.isNaN(baf.tumorModifiedBAF())) {
+                    bafPositions[bafCount] = baf.position();
+                    bafValues[bafCount++] = baf.tumorModifiedBAF();
+                }
+            }
+        }
+
+        int ratioCount = 0;
+        final long[] ratioPositions = new long[ratios.size()];
+        final double[] referenceRatios = new double[ratios.size()];
+        final double[] tumorRatios = new double[ratios.size()];
+        for (CobaltRatio ratio : ratios) {
+            ratioPositions[ratioCount] = ratio.position();
+            referenceRatios[ratioCount] = ratio.referenceGCDiploidRatio();
+            tumorRatios[ratioCount++] = ratio.tumorGCRatio();
+        }
+
+        int gcCount = 0;
+        final long[] gcStarts = new long[gcProfiles.size()];
+        final long[] gcEnds = new long[gcProfiles.size()];
+        final double[] gcContent = new double[gcProfiles.size()];
+        for (GCProfile gcProfile : gcProfiles) {
+            if (gcProfile.isMappable()) {
+                gcStarts[gcCount] = gcProfile.start();
+                gcEnds[gcCount] = gcProfile.end();
+                gcContent[gcCount++] = gcProfile.gcContent();
+            }
+        }
+
+        final double[] bafBuffer = new double[bafCount];
+        int bafIndex = 0;
+        int ratioIndex = 0;
+        int gcIndex = 0;
+        for (int regionIndex : regionIndexes) {
+            final PurpleSegment region = regions.get(regionIndex);
+
+            while (bafIndex < bafCount && bafPositions[bafIndex] < region.start()) {
+                bafIndex++;
+            }
+            int regionBafCount = 0;
+            while (bafIndex < bafCount && bafPositions[bafIndex] <= region.end()) {
+                bafBuffer[regionBafCount++] = bafValues[bafIndex++];
+            }
 
-        for (final PurpleSegment region : regions) {
-            final BAFAccumulator baf = new BAFAccumulator();
             final CobaltAccumulator cobalt = new CobaltAccumulator(windowSize, region);
-            final GCAccumulator gc = new GCAccumulator(region);
+            while (ratioIndex < ratioCount && ratioPositions[ratioIndex] < region.start()) {
+                ratioIndex++;
+            }
+            while (ratioIndex < ratioCount && ratioPositions[ratioIndex] <= region.end()) {
+                cobalt.accept(ratioPositions[ratioIndex], referenceRatios[ratioIndex], tumorRatios[ratioIndex]);
+                ratioIndex++;
+            }
 
-            bafSelector.select(region, baf);
-            cobaltSelector.select(region, cobalt);
-            gcSelector.select(region, gc);
+            final GCAccumulator gc = new GCAccumulator(region);
+            while (gcIndex < gcCount && region.start() > gcEnds[gcIndex]) {
+                gcIndex++;
+            }
+            while (gcIndex < gcCount && region.start() <= gcEnds[gcIndex] && region.end() >= gcStarts[gcIndex]) {
+                gc.accept(gcStarts[gcIndex], gcEnds[gcIndex], gcContent[gcIndex]);
+                gcIndex++;
+            }
 
             double tumorRatio = cobalt.tumorMeanRatio();
             double normalRatio = cobalt.referenceMeanRatio();
-            final ModifiableEnrichedRegion observedRegion = ModifiableEnrichedRegion.create()
+            result[regionIndex] = ModifiableEnrichedRegion.create()
                     .from(region)
-                    .setBafCount(baf.count())
-                    .setObservedBAF(baf.medianBaf())
+                    .setBafCount(regionBafCount)
+                    .setObservedBAF(median(bafBuffer, regionBafCount))
                     .setObservedTumorRatio(tumorRatio)
                     .setObservedNormalRatio(normalRatio)
                     .setRatioSupport(region.ratioSupport())
@@ -74,11 +191,7 @@ public class ObservedRegionFactory {
                     .setSvCluster(region.svCluster())
                     .setMinStart(region.minStart())
                     .setMaxStart(region.maxStart());
-
-            result.add(observedRegion);
         }
-
-        return extendMinSupport(result);
     }
 
     @NotNull
@@ -103,29 +216,60 @@ public class ObservedRegionFactory {
         return new ArrayList<>(modifiables);
     }
 
-    private class BAFAccumulator implements Consumer<AmberBAF> {
-        private int count;
-        final private List<Double> bafs = Lists.newArrayList();
+    @VisibleForTesting
+    static double median(@NotNull final double[] values, int count) {
+        if (count == 0) {
+            return 0;
+        }
 
-        @Override
-        public void accept(final AmberBAF baf) {
-            if (HumanChromosome.valueOf(baf).isDiploid(gender) && !Double.isNaN(baf.tumorModifiedBAF())) {
-                count++;
-                bafs.add(baf.tumorModifiedBAF());
-            }
+        final int upperIndex = count / 2;
+        final double upper = select(values, count, upperIndex);
+        if (count % 2 == 1) {
+            return upper;
         }
 
-        private int count() {
-            return count;
+        // After selection all values before the upper median are no greater than it
+        double lower = values[0];
+        for (int i = 1; i < upperIndex; i++) {
+            if (Double.compare(values[i], lower) > 0) {
+                lower = values[i];
+            }
         }
 
-        private double medianBaf() {
-            if (count > 0) {
-                Collections.sort(bafs);
-                return bafs.size() % 2 == 0 ? (bafs.get(count / 2) + bafs.get(count / 2 - 1)) / 2 : bafs.get(count / 2);
+        return (upper + lower) / 2;
+    }
+
+    private static double select(@NotNull final double[] values, int count, int k) {
+        int left = 0;
+        int right = count - 1;
+        while (left < right) {
+            final double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (Double.compare(values[i], pivot) < 0) {
+                    i++;
+                }
+                while (Double.compare(values[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    final double swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
             }
-            return 0;
         }
+
+        return values[k];
     }
 
     @VisibleForTesting
@@ -156,14 +300,18 @@ public class ObservedRegionFactory {
 
         @Override
         public void accept(final CobaltRatio ratio) {
-            if (window.end(ratio.position()) <= region.end()) {
-                referenceAccumulator.accept(ratio.referenceGCDiploidRatio());
-                tumorAccumulator.accept(ratio.tumorGCRatio());
+            accept(ratio.position(), ratio.referenceGCDiploidRatio(), ratio.tumorGCRatio());
+        }
+
+        void accept(long position, double referenceRatio, double tumorRatio) {
+            if (window.end(position) <= region.end()) {
+                referenceAccumulator.accept(referenceRatio);
+                tumorAccumulator.accept(tumorRatio);
             }
         }
     }
 
-    static private class RatioAccumulator implements Consumer<Double> {
+    static private class RatioAccumulator {
         private double sumRatio;
         private int count;
 
@@ -175,8 +323,7 @@ public class ObservedRegionFactory {
             return count;
         }
 
-        @Override
-        public void accept(final Double ratio) {
+        private void accept(double ratio) {
             if (Doubles.greaterThan(ratio, -1)) {
                 count++;
                 sumRatio += ratio;
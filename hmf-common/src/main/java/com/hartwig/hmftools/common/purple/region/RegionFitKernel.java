@@ -0,0 +1,171 @@
+package com.hartwig.hmftools.common.purple.region;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.purple.PurityAdjuster;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.utils.Doubles;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Fits the same observed regions at many purity / norm factor combinations without allocating a FittedRegion per fit. Observed
+ * values are held in primitive arrays and the outcome of the most recent call to fit is read back through the accessors. Not thread
+ * safe, use one kernel per thread.
+ */
+public class RegionFitKernel {
+
+    private final Gender gender;
+    private final double ambiguousBaf;
+    private final double ploidyPenaltyFactor;
+    private final PloidyDeviation ploidyDeviation;
+
+    private final double[] observedTumorRatio;
+    private final double[] observedBAF;
+    private final boolean[] homologous;
+
+    private PurityAdjuster purityAdjuster;
+
+    private double tumorCopyNumber;
+    private double tumorBAF;
+    private double minorAllelePloidyDeviation;
+    private double majorAllelePloidyDeviation;
+    private double eventPenalty;
+    private double deviationPenalty;
+
+    RegionFitKernel(@NotNull final Gender gender, double ambiguousBaf, double ploidyPenaltyFactor,
+            @NotNull final PloidyDeviation ploidyDeviation, @NotNull final List<? extends ObservedRegion> regions) {
+        this.gender = gender;
+        this.ambiguousBaf = ambiguousBaf;
+        this.ploidyPenaltyFactor = ploidyPenaltyFactor;
+        this.ploidyDeviation = ploidyDeviation;
+
+        final int size = regions.size();
+        observedTumorRatio = new double[size];
+        observedBAF = new double[size];
+        homologous = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            final ObservedRegion region = regions.get(i);
+            observedTumorRatio[i] = region.observedTumorRatio();
+            observedBAF[i] = region.observedBAF();
+            homologous[i] = HumanChromosome.fromString(region.chromosome()).isDiploid(gender);
+        }
+    }
+
+    public int size() {
+        return observedTumorRatio.length;
+    }
+
+    public void fit(int region, double purity, double normFactor) {
+        if (purityAdjuster == null || purityAdjuster.purity() != purity || purityAdjuster.normFactor() != normFactor) {
+            purityAdjuster = new PurityAdjuster(gender, purity, normFactor);
+        }
+
+        final double baf = observedBAF[region];
+        final double typicalRatio = homologous[region] ? 1 : 0.5;
+        tumorCopyNumber = purityAdjuster.purityAdjustedCopyNumber(observedTumorRatio[region], typicalRatio);
+        tumorBAF = impliedBaf(homologous[region], tumorCopyNumber, baf);
+
+        final double majorAllelePloidy = majorAllelePloidy();
+        final double minorAllelePloidy = minorAllelePloidy();
+        majorAllelePloidyDeviation = ploidyDeviation.majorAlleleDeviation(purity, normFactor, majorAllelePloidy);
+        minorAllelePloidyDeviation = ploidyDeviation.minorAlleleDeviation(purity, normFactor, minorAllelePloidy);
+
+        eventPenalty = EventPenalty.penalty(ploidyPenaltyFactor, majorAllelePloidy, minorAllelePloidy);
+        deviationPenalty = (minorAllelePloidyDeviation + majorAllelePloidyDeviation) * baf;
+    }
+
+    public double tumorCopyNumber() {
+        return tumorCopyNumber;
+    }
+
+    public double tumorBAF() {
+        return tumorBAF;
+    }
+
+    public double majorAllelePloidy() {
+        return tumorBAF * tumorCopyNumber;
+    }
+
+    public double minorAllelePloidy() {
+        return tumorCopyNumber - majorAllelePloidy();
+    }
+
+    public double minorAllelePloidyDeviation() {
+        return minorAllelePloidyDeviation;
+    }
+
+    public double majorAllelePloidyDeviation() {
+        return majorAllelePloidyDeviation;
+    }
+
+    public double eventPenalty() {
+        return eventPenalty;
+    }
+
+    public double deviationPenalty() {
+        return deviationPenalty;
+    }
+
+    public boolean isDiploid() {
+        return FittedRegion.isDiploid(majorAllelePloidy(), minorAllelePloidy());
+    }
+
+    private double impliedBaf(boolean isHomologous, final double copyNumber, final double observedBAF) {
+        if (!isHomologous || Doubles.lessOrEqual(copyNumber, 1)) {
+            return 1;
+        }
+
+        return Doubles.lessOrEqual(observedBAF, ambiguousBaf)
+                ? bafToMinimiseDeviation(copyNumber)
+                : purityAdjustedBAF(copyNumber, observedBAF);
+    }
+
+    private double purityAdjustedBAF(double copyNumber, double observedBAF) {
+        return purityAdjuster.purityAdjustedPloidy(2, 1, copyNumber, observedBAF) / copyNumber;
+    }
+
+    private double bafToMinimiseDeviation(double impliedCopyNumber) {
+        final double minBAF = Math.max(0, Math.min(1, purityAdjustedBAF(impliedCopyNumber, 0.5)));
+        final double maxBAF = Math.max(0, Math.min(1, purityAdjustedBAF(impliedCopyNumber, ambiguousBaf)));
+
+        // Major Ploidy
+        final double minBAFMajorAllelePloidy = minBAF * impliedCopyNumber;
+        final double maxBAFMajorAllelePloidy = maxBAF * impliedCopyNumber;
+
+        // Major Ploidy crosses whole number?
+        final double minBAFMajorAllelePloidyCeil = Math.ceil(minBAFMajorAllelePloidy);
+        if (!Doubles.equal(Math.signum(minBAFMajorAllelePloidyCeil - minBAFMajorAllelePloidy),
+                Math.signum(minBAFMajorAllelePloidyCeil - maxBAFMajorAllelePloidy))) {
+            return minBAFMajorAllelePloidyCeil / impliedCopyNumber;
+        }
+
+        // Minor Ploidy
+        final double minBAFMinorAllelePloidy = impliedCopyNumber - minBAFMajorAllelePloidy;
+        final double maxBAFMinorAllelePloidy = impliedCopyNumber - maxBAFMajorAllelePloidy;
+
+        // Minor Ploidy crosses whole number?
+        final double maxBAFMinorAllelePloidyCeil = Math.ceil(maxBAFMinorAllelePloidy);
+        if (!Doubles.equal(Math.signum(maxBAFMinorAllelePloidyCeil - minBAFMinorAllelePloidy),
+                Math.signum(maxBAFMinorAllelePloidyCeil - maxBAFMinorAllelePloidy))) {
+            return 1 - maxBAFMinorAllelePloidyCeil / impliedCopyNumber;
+        }
+
+        double purity = purityAdjuster.purity();
+        double normFactor = purityAdjuster.normFactor();
+
+        // Minimise
+        final double minBAFTotalDeviation =
+                ploidyDeviation.majorAlleleDeviation(purity, normFactor, minBAFMajorAllelePloidy) + ploidyDeviation.minorAlleleDeviation(
+                        purity,
+                        normFactor,
+                        minBAFMinorAllelePloidy);
+        final double maxBAFTotalDeviation =
+                ploidyDeviation.majorAlleleDeviation(purity, normFactor, maxBAFMajorAllelePloidy) + ploidyDeviation.minorAlleleDeviation(
+                        purity,
+                        normFactor,
+                        maxBAFMinorAllelePloidy);
+        return Doubles.lessThan(minBAFTotalDeviation, maxBAFTotalDeviation) ? 0.5 : ambiguousBaf;
+    }
+}
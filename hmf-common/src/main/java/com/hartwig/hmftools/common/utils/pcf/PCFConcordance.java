@@ -0,0 +1,47 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.immutables.value.Value;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+@Value.Immutable
+@Value.Style(passAnnotations = { NotNull.class, Nullable.class })
+public abstract class PCFConcordance {
+
+    public abstract int sharedBreakpoints();
+
+    public abstract int expectedOnlyBreakpoints();
+
+    public abstract int actualOnlyBreakpoints();
+
+    public double concordance() {
+        final int total = sharedBreakpoints() + expectedOnlyBreakpoints() + actualOnlyBreakpoints();
+        return total == 0 ? 1 : sharedBreakpoints() / (double) total;
+    }
+
+    @NotNull
+    public static PCFConcordance compare(@NotNull final Collection<? extends GenomeRegion> expected,
+            @NotNull final Collection<? extends GenomeRegion> actual) {
+        final Set<String> expectedBreakpoints = breakpoints(expected);
+        final Set<String> actualBreakpoints = breakpoints(actual);
+        final int shared = Sets.intersection(expectedBreakpoints, actualBreakpoints).size();
+
+        return ImmutablePCFConcordance.builder()
+                .sharedBreakpoints(shared)
+                .expectedOnlyBreakpoints(expectedBreakpoints.size() - shared)
+                .actualOnlyBreakpoints(actualBreakpoints.size() - shared)
+                .build();
+    }
+
+    @NotNull
+    private static Set<String> breakpoints(@NotNull final Collection<? extends GenomeRegion> segments) {
+        return segments.stream().map(x -> x.chromosome() + ":" + x.start()).collect(Collectors.toSet());
+    }
+}
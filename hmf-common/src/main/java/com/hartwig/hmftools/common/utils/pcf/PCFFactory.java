@@ -0,0 +1,147 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenome;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * In process equivalent of copynumber::pcf(data, gamma, kmin). The penalty is gamma scaled by the squared sample noise estimated
+ * over the whole genome and each chromosome arm is fitted independently on the supplied executor. Arms are split at the HG19
+ * centromeres as that is the copynumber default assembly.
+ */
+public class PCFFactory {
+
+    public static final double DEFAULT_GAMMA = 100;
+    public static final int DEFAULT_KMIN = 1;
+
+    private static final String P_ARM = "p";
+    private static final String Q_ARM = "q";
+
+    private final ExecutorService executorService;
+    private final double gamma;
+    private final int kmin;
+    private final Map<Chromosome, Long> centromeres;
+
+    public PCFFactory(@NotNull final ExecutorService executorService) {
+        this(executorService, DEFAULT_GAMMA, DEFAULT_KMIN);
+    }
+
+    public PCFFactory(@NotNull final ExecutorService executorService, double gamma, int kmin) {
+        this.executorService = executorService;
+        this.gamma = gamma;
+        this.kmin = kmin;
+        this.centromeres = RefGenome.HG19.centromeres();
+    }
+
+    @NotNull
+    public <T extends GenomePosition> List<PCFSegment> segment(@NotNull final Multimap<Chromosome, T> positions,
+            @NotNull final ToDoubleFunction<T> value) throws ExecutionException, InterruptedException {
+
+        final List<ArmData> arms = Lists.newArrayList();
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            final Collection<T> chromosomePositions = positions.get(chromosome);
+            if (chromosomePositions.isEmpty()) {
+                continue;
+            }
+
+            final Long centromere = centromeres.get(chromosome);
+            ArmData pArm = new ArmData(P_ARM);
+            ArmData qArm = new ArmData(Q_ARM);
+            for (T position : chromosomePositions) {
+                final double positionValue = value.applyAsDouble(position);
+                if (Double.isFinite(positionValue)) {
+                    final boolean isPArm = centromere == null || position.position() <= centromere;
+                    (isPArm ? pArm : qArm).add(position, positionValue);
+                }
+            }
+
+            if (!pArm.isEmpty()) {
+                arms.add(pArm);
+            }
+            if (!qArm.isEmpty()) {
+                arms.add(qArm);
+            }
+        }
+
+        final double[] allValues = arms.stream().flatMapToDouble(x -> x.values().stream().mapToDouble(Double::doubleValue)).toArray();
+        final double standardDeviation = PCFStandardDeviation.estimate(allValues);
+        final PiecewiseConstantFit fit = new PiecewiseConstantFit(gamma * standardDeviation * standardDeviation, kmin);
+
+        final List<Future<List<PCFSegment>>> futures = Lists.newArrayList();
+        for (ArmData arm : arms) {
+            futures.add(executorService.submit(() -> arm.segment(fit)));
+        }
+
+        final List<PCFSegment> result = Lists.newArrayList();
+        for (Future<List<PCFSegment>> future : futures) {
+            result.addAll(future.get());
+        }
+
+        return result;
+    }
+
+    private static class ArmData {
+
+        private final String arm;
+        private final List<GenomePosition> positions = Lists.newArrayList();
+        private final List<Double> values = Lists.newArrayList();
+
+        private ArmData(@NotNull final String arm) {
+            this.arm = arm;
+        }
+
+        private void add(@NotNull final GenomePosition position, double value) {
+            positions.add(position);
+            values.add(value);
+        }
+
+        private boolean isEmpty() {
+            return positions.isEmpty();
+        }
+
+        @NotNull
+        private List<Double> values() {
+            return values;
+        }
+
+        @NotNull
+        private List<PCFSegment> segment(@NotNull final PiecewiseConstantFit fit) {
+            final double[] armValues = values.stream().mapToDouble(Double::doubleValue).toArray();
+            final int[] ends = fit.fit(armValues);
+
+            final List<PCFSegment> result = Lists.newArrayListWithCapacity(ends.length);
+            int start = 0;
+            for (int end : ends) {
+                double sum = 0;
+                for (int i = start; i < end; i++) {
+                    sum += armValues[i];
+                }
+
+                result.add(ImmutablePCFSegment.builder()
+                        .chromosome(positions.get(start).chromosome())
+                        .arm(arm)
+                        .start(positions.get(start).position())
+                        .end(positions.get(end - 1).position())
+                        .probes(end - start)
+                        .mean(sum / (end - start))
+                        .build());
+                start = end;
+            }
+
+            return result;
+        }
+    }
+}
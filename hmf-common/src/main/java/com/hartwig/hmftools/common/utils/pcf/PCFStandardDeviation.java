@@ -0,0 +1,129 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Robust estimate of the sample noise used to scale the pcf penalty. Mirrors getMad of the copynumber package: the MAD of the
+ * residuals after a running median (R runmed with endrule median) of half width k, ignoring values equal to zero.
+ */
+public final class PCFStandardDeviation {
+
+    private static final double MAD_SCALE = 1.4826;
+    static final int DEFAULT_HALF_WIDTH = 25;
+
+    private PCFStandardDeviation() {
+    }
+
+    public static double estimate(@NotNull final double[] values) {
+        return estimate(values, DEFAULT_HALF_WIDTH);
+    }
+
+    public static double estimate(@NotNull final double[] values, int halfWidth) {
+        final double[] nonZero = Arrays.stream(values).filter(x -> x != 0).toArray();
+        final double[] runningMedian = medianFilter(nonZero, halfWidth);
+
+        final double[] residuals = new double[nonZero.length];
+        for (int i = 0; i < nonZero.length; i++) {
+            residuals[i] = nonZero[i] - runningMedian[i];
+        }
+
+        return mad(residuals);
+    }
+
+    static double mad(@NotNull final double[] values) {
+        if (values.length == 0) {
+            return Double.NaN;
+        }
+
+        final double median = median(values.clone());
+        final double[] deviations = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            deviations[i] = Math.abs(values[i] - median);
+        }
+
+        return MAD_SCALE * median(deviations);
+    }
+
+    @NotNull
+    static double[] medianFilter(@NotNull final double[] values, int halfWidth) {
+        final int n = values.length;
+        int width = 2 * halfWidth + 1;
+        if (width > n) {
+            width = n == 0 ? 1 : (n % 2 == 0 ? n - 1 : n);
+        }
+
+        return smoothEnds(runningMedian(values, width), width);
+    }
+
+    @NotNull
+    private static double[] runningMedian(@NotNull final double[] values, int width) {
+        final double[] result = values.clone();
+        final int half = width / 2;
+        if (half == 0) {
+            return result;
+        }
+
+        final double[] window = Arrays.copyOf(values, width);
+        Arrays.sort(window);
+        result[half] = window[half];
+
+        for (int i = half + 1; i + half < values.length; i++) {
+            remove(window, values[i - half - 1]);
+            insert(window, values[i + half]);
+            result[i] = window[half];
+        }
+
+        return result;
+    }
+
+    private static void remove(@NotNull final double[] window, double value) {
+        final int index = Arrays.binarySearch(window, value);
+        System.arraycopy(window, index + 1, window, index, window.length - index - 1);
+    }
+
+    private static void insert(@NotNull final double[] window, double value) {
+        // The last slot is free after a removal
+        int index = window.length - 1;
+        while (index > 0 && window[index - 1] > value) {
+            window[index] = window[index - 1];
+            index--;
+        }
+        window[index] = value;
+    }
+
+    @NotNull
+    private static double[] smoothEnds(@NotNull final double[] values, int width) {
+        final int half = width / 2;
+        final int n = values.length;
+        if (half < 1 || n < 3) {
+            return values;
+        }
+
+        final double[] result = values.clone();
+        if (half >= 2) {
+            result[1] = median3(values[0], values[1], values[2]);
+            result[n - 2] = median3(values[n - 1], values[n - 2], values[n - 3]);
+
+            for (int i = 3; i <= half && 2 * i <= n; i++) {
+                result[i - 1] = median(Arrays.copyOfRange(values, 0, 2 * i - 1));
+                result[n - i] = median(Arrays.copyOfRange(values, n + 1 - 2 * i, n));
+            }
+        }
+
+        result[0] = median3(values[0], result[1], 3 * result[1] - 2 * result[2]);
+        result[n - 1] = median3(values[n - 1], result[n - 2], 3 * result[n - 2] - 2 * result[n - 3]);
+        return result;
+    }
+
+    private static double median3(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static double median(@NotNull final double[] values) {
+        Arrays.sort(values);
+        final int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+}
@@ -0,0 +1,184 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Least squares piecewise constant fit with a fixed penalty per segment and a minimum segment length of kmin, ie, the objective of
+ * the copynumber package pcf function. The optimal solution is found exactly using optimal partitioning with functional pruning
+ * (FPOP): each candidate split retains the range of segment means over which it is still optimal and is dropped once that range
+ * is empty, which keeps the candidate set small even across long segments without change points.
+ */
+public class PiecewiseConstantFit {
+
+    private final double penalty;
+    private final int kmin;
+
+    public PiecewiseConstantFit(double penalty, int kmin) {
+        if (kmin < 1) {
+            throw new IllegalArgumentException("kmin must be at least 1");
+        }
+
+        this.penalty = penalty;
+        this.kmin = kmin;
+    }
+
+    /**
+     * Returns the exclusive end index of each segment.
+     */
+    @NotNull
+    public int[] fit(@NotNull final double[] values) {
+        final int n = values.length;
+        if (n == 0) {
+            return new int[0];
+        }
+
+        if (n < 2 * kmin) {
+            return new int[] { n };
+        }
+
+        // Centering reduces cancellation in the sum of squares
+        double offset = 0;
+        for (double value : values) {
+            offset += value;
+        }
+        offset /= n;
+
+        final double[] sum = new double[n + 1];
+        final double[] sumSquares = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            final double value = values[i] - offset;
+            sum[i + 1] = sum[i] + value;
+            sumSquares[i + 1] = sumSquares[i] + value * value;
+        }
+
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            lower = Math.min(lower, values[i] - offset);
+            upper = Math.max(upper, values[i] - offset);
+        }
+
+        final double[] cost = new double[n + 1];
+        final int[] split = new int[n + 1];
+
+        // The first segment carries no penalty
+        cost[0] = -penalty;
+        Pieces pieces = new Pieces(16);
+        pieces.add(0, lower, upper);
+        Pieces next = new Pieces(16);
+
+        for (int end = kmin; end <= n; end++) {
+            final int newCandidate = end - kmin;
+            if (newCandidate >= kmin) {
+                // Hand the new candidate every segment mean at which it is cheaper than the existing optimum
+                next.clear();
+                for (int i = 0; i < pieces.size; i++) {
+                    final int candidate = pieces.candidate[i];
+                    final double pieceLower = pieces.lower[i];
+                    final double pieceUpper = pieces.upper[i];
+
+                    final int length = newCandidate - candidate;
+                    final double margin = cost[newCandidate] - cost[candidate] - segmentCost(sum, sumSquares, candidate, newCandidate);
+                    if (margin <= 0) {
+                        next.add(newCandidate, pieceLower, pieceUpper);
+                        continue;
+                    }
+
+                    final double mean = (sum[newCandidate] - sum[candidate]) / length;
+                    final double radius = Math.sqrt(margin / length);
+                    final double retainedLower = Math.max(pieceLower, mean - radius);
+                    final double retainedUpper = Math.min(pieceUpper, mean + radius);
+                    if (retainedLower > retainedUpper) {
+                        next.add(newCandidate, pieceLower, pieceUpper);
+                        continue;
+                    }
+
+                    if (retainedLower > pieceLower) {
+                        next.add(newCandidate, pieceLower, retainedLower);
+                    }
+                    next.add(candidate, retainedLower, retainedUpper);
+                    if (retainedUpper < pieceUpper) {
+                        next.add(newCandidate, retainedUpper, pieceUpper);
+                    }
+                }
+
+                final Pieces swap = pieces;
+                pieces = next;
+                next = swap;
+            }
+
+            double bestCost = Double.POSITIVE_INFINITY;
+            int bestSplit = 0;
+            for (int i = 0; i < pieces.size; i++) {
+                final int candidate = pieces.candidate[i];
+                final int length = end - candidate;
+                final double mean = (sum[end] - sum[candidate]) / length;
+                final double clamped = Math.max(pieces.lower[i], Math.min(pieces.upper[i], mean));
+                final double candidateCost = cost[candidate] + segmentCost(sum, sumSquares, candidate, end) + penalty
+                        + length * (clamped - mean) * (clamped - mean);
+                if (candidateCost < bestCost) {
+                    bestCost = candidateCost;
+                    bestSplit = candidate;
+                }
+            }
+
+            cost[end] = bestCost;
+            split[end] = bestSplit;
+        }
+
+        int segments = 0;
+        for (int end = n; end > 0; end = split[end]) {
+            segments++;
+        }
+
+        final int[] result = new int[segments];
+        for (int end = n; end > 0; end = split[end]) {
+            result[--segments] = end;
+        }
+
+        return result;
+    }
+
+    private static double segmentCost(@NotNull final double[] sum, @NotNull final double[] sumSquares, int start, int end) {
+        final double segmentSum = sum[end] - sum[start];
+        return sumSquares[end] - sumSquares[start] - segmentSum * segmentSum / (end - start);
+    }
+
+    private static class Pieces {
+
+        private int size;
+        private int[] candidate;
+        private double[] lower;
+        private double[] upper;
+
+        private Pieces(int capacity) {
+            candidate = new int[capacity];
+            lower = new double[capacity];
+            upper = new double[capacity];
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        private void add(int pieceCandidate, double pieceLower, double pieceUpper) {
+            if (size > 0 && candidate[size - 1] == pieceCandidate) {
+                upper[size - 1] = pieceUpper;
+                return;
+            }
+
+            if (size == candidate.length) {
+                candidate = Arrays.copyOf(candidate, 2 * size);
+                lower = Arrays.copyOf(lower, 2 * size);
+                upper = Arrays.copyOf(upper, 2 * size);
+            }
+
+            candidate[size] = pieceCandidate;
+            lower[size] = pieceLower;
+            upper[size] = pieceUpper;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hartwig.hmftools.common.variant;
+
+import java.util.Iterator;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.util.AsyncBufferedIterator;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
+import htsjdk.variant.variantcontext.VariantContext;
+
+/**
+ * Decompresses and parses variants on a background thread, holding at most BUFFER_COUNT + 1 buffers of BUFFER_SIZE variants.
+ * Genotypes are decoded on the background thread too as the lazy genotype parser shares state with the codec that is still reading.
+ * Variants are returned in file order.
+ */
+public class AsyncVariantContextIterator extends AsyncBufferedIterator<VariantContext> {
+
+    private static final int BUFFER_SIZE = 1000;
+    private static final int BUFFER_COUNT = 4;
+
+    public AsyncVariantContextIterator(@NotNull final Iterator<VariantContext> source) {
+        this(source, BUFFER_SIZE, BUFFER_COUNT);
+    }
+
+    public AsyncVariantContextIterator(@NotNull final Iterator<VariantContext> source, int bufferSize, int bufferCount) {
+        super(new DecodedGenotypes(source), bufferSize, bufferCount);
+    }
+
+    @Override
+    protected String getThreadNamePrefix() {
+        return "AsyncVariantContextIterator";
+    }
+
+    private static class DecodedGenotypes implements Iterator<VariantContext> {
+
+        private final Iterator<VariantContext> source;
+
+        private DecodedGenotypes(@NotNull final Iterator<VariantContext> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+
+        @Override
+        public VariantContext next() {
+            final VariantContext context = source.next();
+            final GenotypesContext genotypes = context.getGenotypes();
+            if (genotypes instanceof LazyGenotypesContext) {
+                ((LazyGenotypesContext) genotypes).decode();
+            }
+            return context;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hartwig.hmftools.common.variant.clonality;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Probability and cumulative probability of every allele read count of each distinct (allele read count, total read count) pair,
+ * addressed by the int index assigned when the pair is first added. Tables are complete once added so lookups can be shared between
+ * threads.
+ */
+class BinomialTables {
+
+    private final ExecutorService executorService;
+    private final Map<Long, Integer> indices = Maps.newHashMap();
+    private final List<double[]> probabilities = Lists.newArrayList();
+    private final List<double[]> cumulativeProbabilities = Lists.newArrayList();
+
+    BinomialTables(@NotNull final ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Returns the table index of each pair. Tables of pairs not seen before are filled concurrently.
+     */
+    @NotNull
+    int[] add(@NotNull final int[] alleleReadCounts, @NotNull final int[] totalReadCounts)
+            throws ExecutionException, InterruptedException {
+        final int[] result = new int[alleleReadCounts.length];
+        final List<Future<?>> futures = Lists.newArrayList();
+
+        for (int i = 0; i < alleleReadCounts.length; i++) {
+            final int alleleReadCount = alleleReadCounts[i];
+            final int totalReadCount = totalReadCounts[i];
+            final long key = ((long) totalReadCount << 32) | alleleReadCount;
+
+            final Integer existing = indices.get(key);
+            if (existing != null) {
+                result[i] = existing;
+                continue;
+            }
+
+            final double[] probability = new double[totalReadCount + 1];
+            final double[] cumulativeProbability = new double[totalReadCount + 1];
+            futures.add(executorService.submit(() -> fill(alleleReadCount, totalReadCount, probability, cumulativeProbability)));
+
+            result[i] = probabilities.size();
+            indices.put(key, result[i]);
+            probabilities.add(probability);
+            cumulativeProbabilities.add(cumulativeProbability);
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        return result;
+    }
+
+    double probability(int index, int alleleReadCount) {
+        final double[] table = probabilities.get(index);
+        return alleleReadCount < 0 || alleleReadCount >= table.length ? 0 : table[alleleReadCount];
+    }
+
+    double cumulativeProbability(int index, int alleleReadCount) {
+        final double[] table = cumulativeProbabilities.get(index);
+        if (alleleReadCount < 0) {
+            return 0;
+        }
+
+        return alleleReadCount >= table.length ? 1 : table[alleleReadCount];
+    }
+
+    private static void fill(int alleleReadCount, int totalReadCount, @NotNull final double[] probability,
+            @NotNull final double[] cumulativeProbability) {
+        final BinomialDistribution distribution = new BinomialDistribution(totalReadCount, (double) alleleReadCount / totalReadCount);
+        for (int i = 0; i <= totalReadCount; i++) {
+            probability[i] = distribution.probability(i);
+            cumulativeProbability[i] = distribution.cumulativeProbability(i);
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package com.hartwig.hmftools.common.variant.clonality;
 
 import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntToDoubleFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.hartwig.hmftools.common.utils.Doubles;
 
-import org.apache.commons.math3.distribution.BinomialDistribution;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
@@ -29,45 +33,68 @@ public class PeakModelFactory {
 
     private static final double MAX_UNEXPLAINED_WEIGHT_PERCENT = 0.01;
 
+    // Number of peak histogram buckets modelled concurrently when an executor is supplied
+    private static final int PARALLEL_BUCKETS = 8;
+
     private final double maxPloidy;
     private final double modelWidth;
+    private final ExecutorService executorService;
+    private final int bucketBatch;
     private final WeightedPloidyHistogram preciseHistogramFactory;
-    private final Map<String, BinomialDistribution> binomialDistributionMap;
+    private final BinomialTables binomialTables;
 
     public PeakModelFactory(final double maxPloidy, final double modelWidth) {
+        this(MoreExecutors.newDirectExecutorService(), 1, maxPloidy, modelWidth);
+    }
+
+    /**
+     * Models the likelihood of several peak histogram buckets at once on the executor. Results are identical to the sequential version.
+     */
+    public PeakModelFactory(@NotNull final ExecutorService executorService, final double maxPloidy, final double modelWidth) {
+        this(executorService, PARALLEL_BUCKETS, maxPloidy, modelWidth);
+    }
+
+    private PeakModelFactory(@NotNull final ExecutorService executorService, final int bucketBatch, final double maxPloidy,
+            final double modelWidth) {
         this.modelWidth = modelWidth;
         this.maxPloidy = maxPloidy;
+        this.executorService = executorService;
+        this.bucketBatch = bucketBatch;
         this.preciseHistogramFactory = new WeightedPloidyHistogram(maxPloidy, PEAK_BIN_WIDTH);
-        this.binomialDistributionMap = Maps.newHashMap();
+        this.binomialTables = new BinomialTables(executorService);
     }
 
     @NotNull
-    public List<PeakModel> model(@NotNull final List<ModifiableWeightedPloidy> weightedPloidies) {
+    public List<PeakModel> model(@NotNull final List<ModifiableWeightedPloidy> weightedPloidies)
+            throws ExecutionException, InterruptedException {
+        final Variants variants = new Variants(weightedPloidies);
+        final double[] ploidies = variants.ploidies;
+        final double[] weights = variants.weights;
+
         boolean hasValidSubclonalPeaks = false;
         final WeightedPloidyHistogram residualHistogram = new WeightedPloidyHistogram(0.85, modelWidth);
-        double[] residualHistogramActual = residualHistogram.histogram(weightedPloidies);
+        double[] residualHistogramActual = residualHistogram.histogram(ploidies, weights);
 
         final List<ModifiablePeakModel> peakModel = Lists.newArrayList();
-        double initialWeight = positiveWeight(weightedPloidies);
+        double initialWeight = positiveWeight(weights);
 
         for (int i = 0; i < MAX_ITERATIONS; i++) {
             // Calculate peak
-            double peak = preciseHistogramFactory.peakPloidy(PEAK_BIN_COUNT, weightedPloidies);
+            double peak = preciseHistogramFactory.peakPloidy(PEAK_BIN_COUNT, ploidies, weights);
             double offset = offset(peak);
             final WeightedPloidyHistogram peakHistogramFactory = new WeightedPloidyHistogram(maxPloidy, modelWidth, offset);
-            final List<WeightedPloidy> peakPloidies = peakPloidies(peak, weightedPloidies);
-            double peakAverageWeight = averageWeight(peakPloidies);
-            double[] peakHistogram = modelPeakHistogram(peak, peakPloidies);
+            final int[] peakVariants = peakVariants(peak, ploidies);
+            double peakAverageWeight = averageWeight(peakVariants, weights);
+            double[] peakHistogram = modelPeakHistogram(peak, variants, peakVariants);
 
             // Subtract modelled weight
-            double[] currentHistogram = peakHistogramFactory.histogram(weightedPloidies);
-            for (final ModifiableWeightedPloidy ploidy : weightedPloidies) {
-                int bucket = peakHistogramFactory.bucket(ploidy.ploidy());
-                double currentWeight = ploidy.weight();
+            double[] currentHistogram = peakHistogramFactory.histogram(ploidies, weights);
+            for (int j = 0; j < ploidies.length; j++) {
+                int bucket = peakHistogramFactory.bucket(ploidies[j]);
+                double currentWeight = weights[j];
                 double bucketWeight = currentHistogram[bucket];
                 double peakWeight = peakHistogram[bucket];
-                double newWeight = Doubles.isZero(bucketWeight) ? 0 : currentWeight - Math.abs(peakWeight / bucketWeight);
-                ploidy.setWeight(newWeight);
+                weights[j] = Doubles.isZero(bucketWeight) ? 0 : currentWeight - Math.abs(peakWeight / bucketWeight);
             }
 
             // Add results
@@ -86,7 +113,7 @@ public class PeakModelFactory {
             }
 
             // Decide if we should do another round
-            double remainingWeight = positiveWeight(weightedPloidies);
+            double remainingWeight = positiveWeight(weights);
             double unexplainedWeight = remainingWeight / initialWeight;
 
             LOGGER.debug("Peak: {}, Offset: {}, PeakAvgWeigh: {}, Unexplained: {}",
@@ -98,6 +125,10 @@ public class PeakModelFactory {
             }
         }
 
+        for (int i = 0; i < weights.length; i++) {
+            weightedPloidies.get(i).setWeight(weights[i]);
+        }
+
         // Scale results
         double totalModelWeight = peakModel.stream().filter(PeakModel::isValid).mapToDouble(PeakModel::bucketWeight).sum();
         double weightScalingFactor = initialWeight / totalModelWeight;
@@ -145,8 +176,8 @@ public class PeakModelFactory {
         return result;
     }
 
-    private double positiveWeight(@NotNull final List<? extends WeightedPloidy> weightedPloidies) {
-        return weightedPloidies.stream().mapToDouble(x -> Math.max(0, x.weight())).sum();
+    private static double positiveWeight(@NotNull final double[] weights) {
+        return Arrays.stream(weights).map(x -> Math.max(0, x)).sum();
     }
 
     double offset(double peak) {
@@ -154,81 +185,102 @@ public class PeakModelFactory {
     }
 
     @NotNull
-    private List<WeightedPloidy> peakPloidies(double peak, @NotNull final List<? extends WeightedPloidy> allPloidies) {
-        return allPloidies.stream()
-                .filter(x -> Doubles.greaterThan(x.ploidy(), peak - modelWidth / 2) && Doubles.lessThan(x.ploidy(), peak + modelWidth / 2))
-                .collect(Collectors.toList());
+    private int[] peakVariants(double peak, @NotNull final double[] ploidies) {
+        return IntStream.range(0, ploidies.length)
+                .filter(i -> Doubles.greaterThan(ploidies[i], peak - modelWidth / 2)
+                        && Doubles.lessThan(ploidies[i], peak + modelWidth / 2))
+                .toArray();
     }
 
     @VisibleForTesting
-    double[] modelPeakHistogram(double peak, @NotNull final List<WeightedPloidy> peakPloidies) {
+    double[] modelPeakHistogram(double peak, @NotNull final List<WeightedPloidy> peakPloidies)
+            throws ExecutionException, InterruptedException {
+        return modelPeakHistogram(peak, new Variants(peakPloidies), IntStream.range(0, peakPloidies.size()).toArray());
+    }
+
+    @NotNull
+    private double[] modelPeakHistogram(double peak, @NotNull final Variants variants, @NotNull final int[] peakVariants)
+            throws ExecutionException, InterruptedException {
+        variants.addBinomialTables(peakVariants);
         double offset = offset(peak);
 
         int maxBucket = bucket(maxPloidy);
         double[] result = new double[maxBucket + 1];
-        double[] weight = scalingFactor(peak, peakPloidies);
+        double[] weight = scalingFactor(peak, variants, peakVariants);
 
         int startBucket = bucket(peak - offset);
 
+        final IntToDoubleFunction likelihood = bucket -> likelihood(bucket * modelWidth + offset, weight, variants, peakVariants);
+
         // Forwards until unlikely...
-        for (int i = startBucket; i <= maxBucket; i++) {
-            double ploidy = i * modelWidth + offset;
-            double likelihood = likelihood(ploidy, weight, peakPloidies);
-            result[i] = likelihood;
-            if (Doubles.isZero(likelihood)) {
-                break;
-            }
-        }
+        modelPeakBuckets(result, startBucket, maxBucket, 1, likelihood);
 
         // Backwards until unlikely...
-        for (int i = startBucket - 1; i >= 0; i--) {
-            double ploidy = i * modelWidth + offset;
-            double likelihood = likelihood(ploidy, weight, peakPloidies);
-            result[i] = likelihood;
-            if (Doubles.isZero(likelihood)) {
-                break;
-            }
-        }
+        modelPeakBuckets(result, startBucket - 1, 0, -1, likelihood);
 
         return result;
     }
 
-    private double likelihood(double ploidy, double[] scalingFactor, @NotNull List<WeightedPloidy> ploidies) {
+    private void modelPeakBuckets(@NotNull final double[] result, int startBucket, int endBucket, int step,
+            @NotNull final IntToDoubleFunction likelihood) throws ExecutionException, InterruptedException {
+        final int bucketCount = (endBucket - startBucket) * step + 1;
+        for (int i = 0; i < bucketCount; i += bucketBatch) {
+            final List<Future<Double>> futures = Lists.newArrayList();
+            for (int j = i; j < Math.min(bucketCount, i + bucketBatch); j++) {
+                final int bucket = startBucket + j * step;
+                futures.add(executorService.submit(() -> likelihood.applyAsDouble(bucket)));
+            }
+
+            for (int j = 0; j < futures.size(); j++) {
+                double bucketLikelihood = futures.get(j).get();
+                result[startBucket + (i + j) * step] = bucketLikelihood;
+                if (Doubles.isZero(bucketLikelihood)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private double likelihood(double ploidy, double[] scalingFactor, @NotNull final Variants variants, @NotNull final int[] peakVariants) {
         double result = 0;
         for (int i = 0; i < scalingFactor.length; i++) {
-            result += scalingFactor[i] * ploidyLikelihood(ploidy, ploidies.get(i));
+            result += scalingFactor[i] * ploidyLikelihood(ploidy, variants, peakVariants[i]);
         }
 
         return result;
     }
 
-    private double[] scalingFactor(double ploidy, @NotNull List<WeightedPloidy> ploidies) {
-        double[] result = new double[ploidies.size()];
-        for (int i = 0; i < ploidies.size(); i++) {
-            result[i] = ploidies.get(i).weight() / ploidyLikelihood(ploidy, ploidies.get(i));
+    private double[] scalingFactor(double ploidy, @NotNull final Variants variants, @NotNull final int[] peakVariants) {
+        double[] result = new double[peakVariants.length];
+        for (int i = 0; i < peakVariants.length; i++) {
+            result[i] = variants.weights[peakVariants[i]] / ploidyLikelihood(ploidy, variants, peakVariants[i]);
         }
 
         return result;
     }
 
-    double ploidyLikelihood(double ploidy, @NotNull final WeightedPloidy weighted) {
-        final String binomialKey = weighted.alleleReadCount() + ":" + weighted.totalReadCount();
-        final BinomialDistribution binomialDistribution = binomialDistributionMap.computeIfAbsent(binomialKey,
-                s -> new BinomialDistribution(weighted.totalReadCount(), weighted.alleleFrequency()));
+    double ploidyLikelihood(double ploidy, @NotNull final WeightedPloidy weighted) throws ExecutionException, InterruptedException {
+        final int table = binomialTables.add(new int[] { weighted.alleleReadCount() }, new int[] { weighted.totalReadCount() })[0];
+        return ploidyLikelihood(ploidy, weighted.ploidy(), weighted.alleleReadCount(), table);
+    }
+
+    private double ploidyLikelihood(double ploidy, @NotNull final Variants variants, int variant) {
+        return ploidyLikelihood(ploidy, variants.ploidies[variant], variants.alleleReadCounts[variant], variants.tables[variant]);
+    }
 
-        double lowerBoundAlleleReadCount = Math.max(0, ploidy - modelWidth / 2d) / weighted.ploidy() * weighted.alleleReadCount();
+    private double ploidyLikelihood(double ploidy, double variantPloidy, int alleleReadCount, int table) {
+        double lowerBoundAlleleReadCount = Math.max(0, ploidy - modelWidth / 2d) / variantPloidy * alleleReadCount;
         int lowerBoundAlleleReadCountRounded = (int) Math.round(lowerBoundAlleleReadCount);
         double lowerBoundAddition = lowerBoundAlleleReadCountRounded + 0.5 - lowerBoundAlleleReadCount;
 
-        double upperBoundAlleleReadCount = Math.max(0, ploidy + modelWidth / 2d) / weighted.ploidy() * weighted.alleleReadCount();
+        double upperBoundAlleleReadCount = Math.max(0, ploidy + modelWidth / 2d) / variantPloidy * alleleReadCount;
         int upperBoundAlleleReadCountRounded = (int) Math.round(upperBoundAlleleReadCount);
         double upperBoundSubtraction = upperBoundAlleleReadCountRounded + 0.5 - upperBoundAlleleReadCount;
 
-        double rawResult =
-                binomialDistribution.cumulativeProbability(upperBoundAlleleReadCountRounded) - binomialDistribution.cumulativeProbability(
-                        lowerBoundAlleleReadCountRounded) + lowerBoundAddition * binomialDistribution.probability(
-                        lowerBoundAlleleReadCountRounded) - upperBoundSubtraction * binomialDistribution.probability(
-                        upperBoundAlleleReadCountRounded);
+        double rawResult = binomialTables.cumulativeProbability(table, upperBoundAlleleReadCountRounded)
+                - binomialTables.cumulativeProbability(table, lowerBoundAlleleReadCountRounded)
+                + lowerBoundAddition * binomialTables.probability(table, lowerBoundAlleleReadCountRounded)
+                - upperBoundSubtraction * binomialTables.probability(table, upperBoundAlleleReadCountRounded);
 
         return Math.round(rawResult * 100) / 100d;
     }
@@ -237,12 +289,50 @@ public class PeakModelFactory {
         return (int) Math.round(ploidy / modelWidth);
     }
 
-    private static double averageWeight(@NotNull final List<WeightedPloidy> ploidies) {
-        int count = ploidies.size();
+    private static double averageWeight(@NotNull final int[] peakVariants, @NotNull final double[] weights) {
+        int count = peakVariants.length;
         if (count == 0) {
             return 0;
         }
 
-        return ploidies.stream().mapToDouble(WeightedPloidy::weight).sum() / count;
+        return Arrays.stream(peakVariants).mapToDouble(i -> weights[i]).sum() / count;
+    }
+
+    private final class Variants {
+
+        private final double[] ploidies;
+        private final double[] weights;
+        private final int[] alleleReadCounts;
+        private final int[] totalReadCounts;
+        private final int[] tables;
+
+        private Variants(@NotNull final List<? extends WeightedPloidy> weightedPloidies) {
+            final int count = weightedPloidies.size();
+            ploidies = new double[count];
+            weights = new double[count];
+            alleleReadCounts = new int[count];
+            totalReadCounts = new int[count];
+            tables = new int[count];
+
+            for (int i = 0; i < count; i++) {
+                final WeightedPloidy weightedPloidy = weightedPloidies.get(i);
+                ploidies[i] = weightedPloidy.ploidy();
+                weights[i] = weightedPloidy.weight();
+                alleleReadCounts[i] = weightedPloidy.alleleReadCount();
+                totalReadCounts[i] = weightedPloidy.totalReadCount();
+                tables[i] = -1;
+            }
+        }
+
+        // Only variants within a peak need tables. Must be called before their likelihoods are modelled concurrently.
+        private void addBinomialTables(@NotNull final int[] peakVariants) throws ExecutionException, InterruptedException {
+            final int[] missing = Arrays.stream(peakVariants).filter(x -> tables[x] < 0).toArray();
+            final int[] missingTables = binomialTables.add(Arrays.stream(missing).map(x -> alleleReadCounts[x]).toArray(),
+                    Arrays.stream(missing).map(x -> totalReadCounts[x]).toArray());
+
+            for (int i = 0; i < missing.length; i++) {
+                tables[missing[i]] = missingTables[i];
+            }
+        }
     }
 }
@@ -36,6 +36,21 @@ class WeightedPloidyHistogram {
         return histogram(ploidies, WeightedPloidy::ploidy, WeightedPloidy::weight);
     }
 
+    @NotNull
+    double[] histogram(@NotNull final double[] ploidies, @NotNull final double[] weights) {
+        int maxBucket = bucket(maxPloidy);
+        double[] result = new double[maxBucket + 1];
+
+        for (int i = 0; i < ploidies.length; i++) {
+            int bucket = bucket(ploidies[i]);
+            if (bucket <= maxBucket) {
+                result[bucket] = result[bucket] + weights[i];
+            }
+        }
+
+        return result;
+    }
+
     @NotNull
     double[] modelHistogram(@NotNull final Collection<? extends PeakModel> model) {
         return histogram(model, PeakModel::bucket, PeakModel::bucketWeight);
@@ -61,6 +76,10 @@ class WeightedPloidyHistogram {
         return peakPloidy(peakBinCount, histogram(ploidies));
     }
 
+    double peakPloidy(int peakBinCount, @NotNull final double[] ploidies, @NotNull final double[] weights) {
+        return peakPloidy(peakBinCount, histogram(ploidies, weights));
+    }
+
     private double peakPloidy(int peakBinCount, @NotNull double[] histogram) {
         int peakBucket = peakBucket(peakBinCount, histogram);
         return ploidy(peakBucket);
@@ -1,13 +1,10 @@
 package com.hartwig.hmftools.common.variant.enrich;
 
-import java.util.Optional;
 import java.util.function.Consumer;
 
 import com.google.common.collect.Multimap;
-import com.hartwig.hmftools.common.genome.position.GenomePositions;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelector;
-import com.hartwig.hmftools.common.genome.region.GenomeRegionSelectorFactory;
+import com.hartwig.hmftools.common.genome.region.GenomeRegionIndex;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -22,11 +19,11 @@ public class HighConfidenceEnrichment implements VariantContextEnrichment {
     private static final String HIGH_CONFIDENCE_FLAG_DESCRIPTION = "High confidence region";
 
     private final Consumer<VariantContext> consumer;
-    private final GenomeRegionSelector<GenomeRegion> highConfidenceSelector;
+    private final GenomeRegionIndex<GenomeRegion> highConfidenceIndex;
 
     HighConfidenceEnrichment(@NotNull final Multimap<String, GenomeRegion> highConfidenceRegions,
             @NotNull final Consumer<VariantContext> consumer) {
-        this.highConfidenceSelector = GenomeRegionSelectorFactory.create(highConfidenceRegions);
+        this.highConfidenceIndex = GenomeRegionIndex.create(highConfidenceRegions.values());
         this.consumer = consumer;
     }
 
@@ -48,8 +45,7 @@ public class HighConfidenceEnrichment implements VariantContextEnrichment {
 
     @Override
     public void accept(@NotNull final VariantContext context) {
-        Optional<GenomeRegion> region = highConfidenceSelector.select(GenomePositions.create(context.getContig(), context.getStart()));
-        if (region.isPresent()) {
+        if (highConfidenceIndex.overlaps(context.getContig(), context.getStart(), context.getStart())) {
             context.getCommonInfo().putAttribute(HIGH_CONFIDENCE_FLAG, true);
         }
 
@@ -5,7 +5,11 @@ import java.util.stream.Collectors;
 
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.ChromosomeMap;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegionIndex;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.variant.Hotspot;
 import com.hartwig.hmftools.common.variant.ImmutableSomaticVariantImpl;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
@@ -22,7 +26,7 @@ public class HotspotEnrichment implements SomaticEnrichment {
     public static final String HOTSPOT_FLAG = "HOTSPOT";
     public static final String NEAR_HOTSPOT_FLAG = "NEAR_HOTSPOT";
 
-    private final Multimap<Chromosome, VariantHotspot> hotspots;
+    private final ChromosomeMap<GenomeRegionIndex<VariantHotspot>> hotspots = new ChromosomeMap<>();
 
     @NotNull
     public static HotspotEnrichment fromHotspotsFile(@NotNull final String hotspotsFile) throws IOException {
@@ -30,7 +34,9 @@ public class HotspotEnrichment implements SomaticEnrichment {
     }
 
     HotspotEnrichment(@NotNull final Multimap<Chromosome, VariantHotspot> hotspots) {
-        this.hotspots = hotspots;
+        for (Chromosome chromosome : hotspots.keySet()) {
+            this.hotspots.put(chromosome, GenomeRegionIndex.create(hotspots.get(chromosome), x -> nearRegion(chromosome, x)));
+        }
     }
 
     @NotNull
@@ -62,35 +68,24 @@ public class HotspotEnrichment implements SomaticEnrichment {
     }
 
     public boolean isOnHotspot(@NotNull final VariantContext context) {
-        if (HumanChromosome.contains(context.getContig())) {
-            final Chromosome chromosome = HumanChromosome.fromString(context.getContig());
-            if (hotspots.containsKey(chromosome)) {
-                return hotspots.get(chromosome).stream().anyMatch(x -> exactMatch(x, context));
-            }
-        }
-
-        return false;
+        final GenomeRegionIndex<VariantHotspot> index = hotspots.get(context.getContig());
+        return index != null && index.anyMatch(contig(context), context.getStart(), context.getStart(), x -> exactMatch(x, context));
     }
 
     public boolean isNearHotspot(@NotNull final VariantContext context) {
-        if (HumanChromosome.contains(context.getContig())) {
-            final Chromosome chromosome = HumanChromosome.fromString(context.getContig());
-            if (hotspots.containsKey(chromosome)) {
-                return hotspots.get(chromosome).stream().anyMatch(x -> overlaps(x, context));
-            }
-        }
-
-        return false;
+        final GenomeRegionIndex<VariantHotspot> index = hotspots.get(context.getContig());
+        final int variantEnd = context.getStart() + context.getReference().length() - 1 + DISTANCE;
+        return index != null && index.overlaps(contig(context), context.getStart(), variantEnd);
     }
 
-    private static boolean overlaps(@NotNull final VariantHotspot hotspot, @NotNull final VariantContext variant) {
-        int variantStart = variant.getStart();
-        int variantEnd = variant.getStart() + variant.getReference().length() - 1 + DISTANCE;
-
-        long ponStart = hotspot.position();
-        long ponEnd = hotspot.position() + hotspot.ref().length() - 1 + DISTANCE;
+    @NotNull
+    private static String contig(@NotNull final VariantContext context) {
+        return HumanChromosome.fromString(context.getContig()).toString();
+    }
 
-        return variantStart <= ponEnd && variantEnd >= ponStart;
+    @NotNull
+    private static GenomeRegion nearRegion(@NotNull final Chromosome chromosome, @NotNull final VariantHotspot hotspot) {
+        return GenomeRegions.create(chromosome.toString(), hotspot.position(), hotspot.position() + hotspot.ref().length() - 1 + DISTANCE);
     }
 
     private static boolean exactMatch(@NotNull final VariantHotspot hotspot, @NotNull final VariantContext variant) {
@@ -15,7 +15,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import htsjdk.samtools.SAMSequenceRecord;
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLineType;
@@ -35,10 +35,10 @@ public class SomaticRefContextEnrichment implements VariantContextEnrichment {
     private static final String REPEAT_COUNT_DESCRIPTION = "Repeat sequence count";
     private static final String TRINUCLEOTIDE_FLAG_DESCRIPTION = "Tri-nucleotide context";
 
-    private final IndexedFastaSequenceFile reference;
+    private final ReferenceSequenceFile reference;
     private final Consumer<VariantContext> consumer;
 
-    public SomaticRefContextEnrichment(@NotNull final IndexedFastaSequenceFile reference, final Consumer<VariantContext> consumer) {
+    public SomaticRefContextEnrichment(@NotNull final ReferenceSequenceFile reference, final Consumer<VariantContext> consumer) {
         this.reference = reference;
         this.consumer = consumer;
     }
@@ -111,7 +111,7 @@ public class SomaticRefContextEnrichment implements VariantContextEnrichment {
     }
 
     @NotNull
-    static Pair<Integer, String> relativePositionAndRef(@NotNull final IndexedFastaSequenceFile reference, @NotNull final VariantContext variant) {
+    static Pair<Integer, String> relativePositionAndRef(@NotNull final ReferenceSequenceFile reference, @NotNull final VariantContext variant) {
         final int refLength = variant.getReference().getBaseString().length();
         @Nullable
         final SAMSequenceRecord samSequenceRecord = reference.getSequenceDictionary().getSequence(variant.getContig());
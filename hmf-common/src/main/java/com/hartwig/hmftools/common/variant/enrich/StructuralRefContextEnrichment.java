@@ -7,7 +7,7 @@ import java.util.function.Consumer;
 import org.apache.commons.math3.util.Pair;
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
 import htsjdk.variant.vcf.VCFHeaderLineType;
@@ -20,10 +20,10 @@ public class StructuralRefContextEnrichment implements VariantContextEnrichment
     public static final String REF_CONTEXT_FLAG = "REFG";
     private static final String REF_CONTEXT_DESCRIPTION = "Reference genome surrounding break";
 
-    private final IndexedFastaSequenceFile reference;
+    private final ReferenceSequenceFile reference;
     private final Consumer<VariantContext> consumer;
 
-    public StructuralRefContextEnrichment(@NotNull final IndexedFastaSequenceFile reference, final Consumer<VariantContext> consumer) {
+    public StructuralRefContextEnrichment(@NotNull final ReferenceSequenceFile reference, final Consumer<VariantContext> consumer) {
         this.reference = reference;
         this.consumer = consumer;
     }
@@ -10,7 +10,7 @@ import com.hartwig.hmftools.common.variant.clonality.PeakModel;
 
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
 
@@ -22,7 +22,7 @@ public class VariantContextEnrichmentPurple implements VariantContextEnrichment
     private final SubclonalLikelihoodEnrichment subclonalLikelihoodEnrichment;
 
     public VariantContextEnrichmentPurple(double clonalityMaxPloidy, double clonalityBinWidth, @NotNull final String purpleVersion,
-            @NotNull final String tumorSample, @NotNull final IndexedFastaSequenceFile reference,
+            @NotNull final String tumorSample, @NotNull final ReferenceSequenceFile reference,
             @NotNull final PurityAdjuster purityAdjuster, @NotNull final List<PurpleCopyNumber> copyNumbers,
             @NotNull final List<FittedRegion> fittedRegions, @NotNull final List<PeakModel> peakModel,
             @NotNull final Consumer<VariantContext> consumer) {
@@ -19,17 +19,17 @@ import org.jetbrains.annotations.NotNull;
 import htsjdk.samtools.CigarElement;
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
 import htsjdk.samtools.reference.ReferenceSequence;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class InframeIndelHotspots {
 
     private final SAMSlicer samSlicer;
-    private final IndexedFastaSequenceFile sequenceFile;
+    private final ReferenceSequenceFile sequenceFile;
     private final ListMultimap<Chromosome, GenomeRegion> codingRegions;
 
     public InframeIndelHotspots(final int minMappingQuality, @NotNull final Collection<GenomeRegion> regions,
-            @NotNull final IndexedFastaSequenceFile sequenceFile) {
+            @NotNull final ReferenceSequenceFile sequenceFile) {
         this.sequenceFile = sequenceFile;
         this.codingRegions = Multimaps.fromRegions(regions);
         this.samSlicer = new SAMSlicer(minMappingQuality, regions);
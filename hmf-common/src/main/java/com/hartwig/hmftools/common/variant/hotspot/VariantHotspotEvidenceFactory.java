@@ -31,7 +31,7 @@ import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class VariantHotspotEvidenceFactory {
 
@@ -49,7 +49,7 @@ public class VariantHotspotEvidenceFactory {
     }
 
     @NotNull
-    public List<VariantHotspotEvidence> evidence(@NotNull final IndexedFastaSequenceFile sequenceFile, @NotNull final SamReader samReader) {
+    public List<VariantHotspotEvidence> evidence(@NotNull final ReferenceSequenceFile sequenceFile, @NotNull final SamReader samReader) {
         final Map<VariantHotspot, String> refSequenceMap = Maps.newHashMap();
         final Map<VariantHotspot, ModifiableVariantHotspotEvidence> evidenceMap = Maps.newHashMap();
         final ListMultimap<Chromosome, VariantHotspot> hotspotMap = Multimaps.fromPositions(hotspots);
@@ -91,7 +91,7 @@ public class VariantHotspotEvidenceFactory {
     }
 
     @NotNull
-    private String refSequence(@NotNull final IndexedFastaSequenceFile sequenceFile, int start, int end, String contig) {
+    private String refSequence(@NotNull final ReferenceSequenceFile sequenceFile, int start, int end, String contig) {
         return sequenceFile.getSubsequenceAt(contig, start, end).getBaseString();
     }
 
@@ -9,10 +9,14 @@ import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFa
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -20,6 +24,8 @@ import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
@@ -53,6 +59,7 @@ public class RecoverStructuralVariants implements Closeable {
     private static final double UNBALANCED_MIN_UNEXPLAINED_COPY_NUMBER_CHANGE = 0.6;
     private static final double UNBALANCED_MIN_UNEXPLAINED_COPY_NUMBER_CHANGE_AS_PERCENT_OF_COPY_NUMBER = 0.2;
 
+    private final ExecutorService executorService;
     private final PurityAdjuster purityAdjuster;
     private final ListMultimap<Chromosome, PurpleCopyNumber> allCopyNumbers;
     private final StructuralVariantLegPloidyFactory<PurpleCopyNumber> ploidyFactory;
@@ -62,11 +69,25 @@ public class RecoverStructuralVariants implements Closeable {
 
     public RecoverStructuralVariants(@NotNull final PurityAdjuster purityAdjuster, @NotNull final String recoveryVCF,
             @NotNull final List<PurpleCopyNumber> allCopyNumbers) {
-        this(purityAdjuster, new RecoveredVariantFactory(purityAdjuster, recoveryVCF), allCopyNumbers);
+        this(MoreExecutors.newDirectExecutorService(), purityAdjuster, recoveryVCF, allCopyNumbers);
+    }
+
+    /**
+     * Evaluates the candidates of each copy number break concurrently. Results are identical to the sequential version.
+     */
+    public RecoverStructuralVariants(@NotNull final ExecutorService executorService, @NotNull final PurityAdjuster purityAdjuster,
+            @NotNull final String recoveryVCF, @NotNull final List<PurpleCopyNumber> allCopyNumbers) {
+        this(executorService, purityAdjuster, new RecoveredVariantFactory(purityAdjuster, recoveryVCF), allCopyNumbers);
     }
 
     RecoverStructuralVariants(@NotNull final PurityAdjuster purityAdjuster, @NotNull final RecoveredVariantFactory factory,
             @NotNull final List<PurpleCopyNumber> allCopyNumbers) {
+        this(MoreExecutors.newDirectExecutorService(), purityAdjuster, factory, allCopyNumbers);
+    }
+
+    private RecoverStructuralVariants(@NotNull final ExecutorService executorService, @NotNull final PurityAdjuster purityAdjuster,
+            @NotNull final RecoveredVariantFactory factory, @NotNull final List<PurpleCopyNumber> allCopyNumbers) {
+        this.executorService = executorService;
         this.purityAdjuster = purityAdjuster;
         this.allCopyNumbers = Multimaps.fromRegions(allCopyNumbers);
         ploidyFactory = new StructuralVariantLegPloidyFactory<>(purityAdjuster, PurpleCopyNumber::averageTumorCopyNumber);
@@ -74,7 +95,8 @@ public class RecoverStructuralVariants implements Closeable {
     }
 
     @NotNull
-    public Collection<VariantContext> recoverVariants(@NotNull final List<StructuralVariant> currentVariants) throws IOException {
+    public Collection<VariantContext> recoverVariants(@NotNull final List<StructuralVariant> currentVariants)
+            throws IOException, ExecutionException, InterruptedException {
         final Map<String, VariantContext> result = Maps.newHashMap();
 
         recoverFromUnexplainedSegments().forEach(x -> result.put(x.getID(), x));
@@ -86,17 +108,13 @@ public class RecoverStructuralVariants implements Closeable {
     @VisibleForTesting
     @NotNull
     List<VariantContext> recoverFromUnbalancedVariants(@NotNull final List<StructuralVariant> currentVariants,
-            @NotNull final Collection<VariantContext> recovered) throws IOException {
+            @NotNull final Collection<VariantContext> recovered) throws IOException, ExecutionException, InterruptedException {
         final StructuralVariantLegCopyNumberChangeFactory changeFactory =
                 new StructuralVariantLegCopyNumberChangeFactory(purityAdjuster, allCopyNumbers, currentVariants);
 
-        final List<VariantContext> result = Lists.newArrayList();
+        final List<UnbalancedVariant> unbalancedVariants = Lists.newArrayList();
         for (final StructuralVariant variant : currentVariants) {
-
-            int recoverCount = 0;
-            boolean attemptRecovery = false;
-            boolean unbalancedStart = false;
-            boolean unbalancedEnd = false;
+            final UnbalancedVariant unbalancedVariant = new UnbalancedVariant(variant);
 
             final List<StructuralVariantLegPloidy> legs = ploidyFactory.create(variant, allCopyNumbers);
             for (StructuralVariantLegPloidy leg : legs) {
@@ -109,9 +127,9 @@ public class RecoverStructuralVariants implements Closeable {
 
                 if (isUnbalanced(unexplainedCopyNumberChange, copyNumber) && !isCloseToRecoveredVariant(leg, recovered)) {
                     if (isStart) {
-                        unbalancedStart = true;
+                        unbalancedVariant.unbalancedStart = true;
                     } else {
-                        unbalancedEnd = true;
+                        unbalancedVariant.unbalancedEnd = true;
                     }
 
                     final List<PurpleCopyNumber> chromosomeCopyNumbers = allCopyNumbers.get(HumanChromosome.fromString(leg.chromosome()));
@@ -122,25 +140,40 @@ public class RecoverStructuralVariants implements Closeable {
                         final PurpleCopyNumber current = chromosomeCopyNumbers.get(index);
 
                         if (current.segmentStartSupport() != SegmentSupport.MULTIPLE && isSupportedByDepthWindowCounts(prev, current)) {
-                            attemptRecovery = true;
                             int expectedOrientation = -1 * leg.orientation();
-                            final Optional<RecoveredVariant> optionalRecoveredVariant = recoveredVariantFactory.recoverVariantAtIndex(
+                            unbalancedVariant.recoveries.add(executorService.submit(() -> recoveredVariantFactory.recoverVariantAtIndex(
                                     expectedOrientation,
                                     unexplainedCopyNumberChange,
                                     index,
-                                    chromosomeCopyNumbers);
-                            if (optionalRecoveredVariant.isPresent()) {
-                                final RecoveredVariant recoveredVariant = optionalRecoveredVariant.get();
-                                result.addAll(toContext(recoveredVariant, "UNBALANCED_SV"));
-                                recoverCount++;
-                            }
+                                    chromosomeCopyNumbers)));
                         }
                     }
                 }
             }
 
-            if (unbalancedStart != unbalancedEnd && attemptRecovery && recoverCount == 0) {
-                final StructuralVariantLeg leg = unbalancedStart ? variant.start() : variant.end();
+            unbalancedVariants.add(unbalancedVariant);
+        }
+
+        final List<Future<Optional<RecoveredVariant>>> allRecoveries = Lists.newArrayList();
+        unbalancedVariants.forEach(x -> allRecoveries.addAll(x.recoveries));
+        final Iterator<Optional<RecoveredVariant>> recoveryResults = getAll(allRecoveries).iterator();
+
+        final List<VariantContext> result = Lists.newArrayList();
+        for (UnbalancedVariant unbalancedVariant : unbalancedVariants) {
+            int recoverCount = 0;
+            for (int i = 0; i < unbalancedVariant.recoveries.size(); i++) {
+                final Optional<RecoveredVariant> optionalRecoveredVariant = recoveryResults.next();
+                if (optionalRecoveredVariant.isPresent()) {
+                    final RecoveredVariant recoveredVariant = optionalRecoveredVariant.get();
+                    result.addAll(toContext(recoveredVariant, "UNBALANCED_SV"));
+                    recoverCount++;
+                }
+            }
+
+            boolean attemptRecovery = !unbalancedVariant.recoveries.isEmpty();
+            if (unbalancedVariant.unbalancedStart != unbalancedVariant.unbalancedEnd && attemptRecovery && recoverCount == 0) {
+                final StructuralVariant variant = unbalancedVariant.variant;
+                final StructuralVariantLeg leg = unbalancedVariant.unbalancedStart ? variant.start() : variant.end();
                 assert (leg != null);
                 result.add(infer(leg));
             }
@@ -161,8 +194,8 @@ public class RecoverStructuralVariants implements Closeable {
     }
 
     @NotNull
-    private List<VariantContext> recoverFromUnexplainedSegments() throws IOException {
-        final List<VariantContext> result = Lists.newArrayList();
+    private List<VariantContext> recoverFromUnexplainedSegments() throws IOException, ExecutionException, InterruptedException {
+        final List<Future<Optional<RecoveredVariant>>> recoveries = Lists.newArrayList();
 
         for (Chromosome chromosome : allCopyNumbers.keySet()) {
             final List<PurpleCopyNumber> chromosomeCopyNumbers = allCopyNumbers.get(chromosome);
@@ -175,25 +208,80 @@ public class RecoverStructuralVariants implements Closeable {
 
                     int expectedOrientation = Doubles.greaterThan(current.averageTumorCopyNumber(), prev.averageTumorCopyNumber()) ? -1 : 1;
 
-                    final Optional<RecoveredVariant> optionalRecoveredVariant = recoveredVariantFactory.recoverVariantAtIndex(
-                            expectedOrientation,
+                    final int breakIndex = index;
+                    recoveries.add(executorService.submit(() -> recoveredVariantFactory.recoverVariantAtIndex(expectedOrientation,
                             unexplainedCopyNumberChange,
-                            index,
-                            chromosomeCopyNumbers);
-                    optionalRecoveredVariant.ifPresent(recoveredVariant -> result.addAll(toContext(recoveredVariant,
-                            "UNSUPPORTED_BREAKEND")));
+                            breakIndex,
+                            chromosomeCopyNumbers)));
                 }
             }
         }
 
+        final List<VariantContext> result = Lists.newArrayList();
+        for (Optional<RecoveredVariant> recovery : getAll(recoveries)) {
+            recovery.ifPresent(recoveredVariant -> result.addAll(toContext(recoveredVariant, "UNSUPPORTED_BREAKEND")));
+        }
+
+        return result;
+    }
+
+    /**
+     * Results in submission order. If any recovery fails the others are waited for before rethrowing so that none is still querying
+     * the readers when they are closed.
+     */
+    @NotNull
+    private static List<Optional<RecoveredVariant>> getAll(@NotNull final List<Future<Optional<RecoveredVariant>>> recoveries)
+            throws IOException, ExecutionException, InterruptedException {
+        final List<Optional<RecoveredVariant>> result = Lists.newArrayList();
+        try {
+            for (Future<Optional<RecoveredVariant>> recovery : recoveries) {
+                result.add(get(recovery));
+            }
+        } catch (IOException | ExecutionException | InterruptedException | RuntimeException e) {
+            recoveries.forEach(RecoverStructuralVariants::await);
+            throw e;
+        }
+
         return result;
     }
 
+    private static void await(@NotNull final Future<?> future) {
+        try {
+            Uninterruptibles.getUninterruptibly(future);
+        } catch (ExecutionException | RuntimeException ignored) {
+            // Only the first failure is reported
+        }
+    }
+
+    @NotNull
+    private static Optional<RecoveredVariant> get(@NotNull final Future<Optional<RecoveredVariant>> recovery)
+            throws IOException, ExecutionException, InterruptedException {
+        try {
+            return recovery.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     private static <T extends GenomeRegion> int indexOf(long cnaPosition, @NotNull final List<T> regions) {
         assert (!regions.isEmpty());
-        for (int i = 0; i < regions.size(); i++) {
-            if (regions.get(i).start() == cnaPosition) {
-                return i;
+        int low = 0;
+        int high = regions.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long start = regions.get(mid).start();
+            if (start < cnaPosition) {
+                low = mid + 1;
+            } else if (start > cnaPosition) {
+                high = mid - 1;
+            } else {
+                return mid;
             }
         }
 
@@ -271,4 +359,16 @@ public class RecoverStructuralVariants implements Closeable {
     public void close() throws IOException {
         recoveredVariantFactory.close();
     }
+
+    private static class UnbalancedVariant {
+
+        private final StructuralVariant variant;
+        private final List<Future<Optional<RecoveredVariant>>> recoveries = Lists.newArrayList();
+        private boolean unbalancedStart;
+        private boolean unbalancedEnd;
+
+        private UnbalancedVariant(@NotNull final StructuralVariant variant) {
+            this.variant = variant;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import static com.hartwig.hmftools.common.variant.structural.StructuralVariantFa
 import static htsjdk.tribble.AbstractFeatureReader.getFeatureReader;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +35,10 @@ import htsjdk.tribble.readers.LineIterator;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFCodec;
 
+/**
+ * Candidates are queried through the index of the recovery VCF. Each thread gets its own reader so breaks can be evaluated
+ * concurrently.
+ */
 class RecoveredVariantFactory implements AutoCloseable {
 
     private static final double MIN_LENGTH = 1000;
@@ -48,12 +53,24 @@ class RecoveredVariantFactory implements AutoCloseable {
 
     private static final Comparator<RecoveredVariant> QUALITY_COMPARATOR = comparingDouble(x -> x.context().getPhredScaledQual());
 
-    private final AbstractFeatureReader<VariantContext, LineIterator> reader;
+    private final String recoveryVCF;
+    private final List<AbstractFeatureReader<VariantContext, LineIterator>> readers = Collections.synchronizedList(Lists.newArrayList());
+    private final ThreadLocal<AbstractFeatureReader<VariantContext, LineIterator>> reader = ThreadLocal.withInitial(this::openReader);
     private final StructuralVariantLegPloidyFactory<PurpleCopyNumber> ploidyFactory;
 
     RecoveredVariantFactory(@NotNull final PurityAdjuster purityAdjuster, @NotNull final String recoveryVCF) {
-        reader = getFeatureReader(recoveryVCF, new VCFCodec(), true);
+        this.recoveryVCF = recoveryVCF;
         ploidyFactory = new StructuralVariantLegPloidyFactory<>(purityAdjuster, PurpleCopyNumber::averageTumorCopyNumber);
+
+        // Fail on a missing file or index up front rather than in the first worker
+        reader.get();
+    }
+
+    @NotNull
+    private AbstractFeatureReader<VariantContext, LineIterator> openReader() {
+        final AbstractFeatureReader<VariantContext, LineIterator> result = getFeatureReader(recoveryVCF, new VCFCodec(), true);
+        readers.add(result);
+        return result;
     }
 
     @NotNull
@@ -184,7 +201,7 @@ class RecoveredVariantFactory implements AutoCloseable {
     @NotNull
     private List<VariantContext> findVariants(@NotNull final String chromosome, final long lowerBound, final long upperBound)
             throws IOException {
-        return reader.query(chromosome, (int) lowerBound, (int) upperBound)
+        return reader.get().query(chromosome, (int) lowerBound, (int) upperBound)
                 .stream()
                 .filter(RecoveredVariantFactory::isAppropriatelyFiltered)
                 .collect(Collectors.toList());
@@ -199,7 +216,7 @@ class RecoveredVariantFactory implements AutoCloseable {
     @NotNull
     private VariantContext findMate(@NotNull final String id, @NotNull final String chromosome, final long min, final long max)
             throws IOException {
-        return reader.query(chromosome, (int) min, (int) max)
+        return reader.get().query(chromosome, (int) min, (int) max)
                 .stream()
                 .filter(x -> x.getID().equals(id))
                 .findFirst()
@@ -238,6 +255,10 @@ class RecoveredVariantFactory implements AutoCloseable {
 
     @Override
     public void close() throws IOException {
-        reader.close();
+        synchronized (readers) {
+            for (AbstractFeatureReader<VariantContext, LineIterator> openReader : readers) {
+                openReader.close();
+            }
+        }
     }
 }
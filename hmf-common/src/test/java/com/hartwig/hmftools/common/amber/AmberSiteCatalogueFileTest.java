@@ -0,0 +1,61 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class AmberSiteCatalogueFileTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final ListMultimap<Chromosome, AmberSite> sites = ArrayListMultimap.create();
+        sites.put(HumanChromosome._2, create("2", 500, "C", "T", false));
+        sites.put(HumanChromosome._1, create("1", 300, "G", "A", true));
+        sites.put(HumanChromosome._1, create("1", 100, "A", "C", false));
+
+        final File file = File.createTempFile("amber", ".sites.bin");
+        file.deleteOnExit();
+        AmberSiteCatalogueFile.write(file.getPath(), AmberSiteCatalogue.create(sites));
+
+        assertTrue(AmberSiteCatalogueFile.isCatalogue(file.getPath()));
+        final AmberSiteCatalogue victim = AmberSiteCatalogueFile.read(file.getPath());
+        assertEquals(3, victim.size());
+
+        final List<AmberSite> chromosomeOne = victim.sites(HumanChromosome._1);
+        assertEquals(2, chromosomeOne.size());
+        assertEquals(create("1", 100, "A", "C", false), chromosomeOne.get(0));
+        assertEquals(create("1", 300, "G", "A", true), chromosomeOne.get(1));
+
+        assertEquals(create("2", 500, "C", "T", false), victim.sites(HumanChromosome._2).get(0));
+        assertTrue(victim.sites(HumanChromosome._3).isEmpty());
+
+        final List<AmberSite> snpCheck = victim.snpCheckSites();
+        assertEquals(1, snpCheck.size());
+        assertEquals(300, snpCheck.get(0).position());
+    }
+
+    @Test
+    public void testVcfIsNotCatalogue() throws IOException {
+        final File file = File.createTempFile("amber", ".vcf");
+        file.deleteOnExit();
+        assertFalse(AmberSiteCatalogueFile.isCatalogue(file.getPath()));
+    }
+
+    @NotNull
+    private static AmberSite create(@NotNull final String chromosome, long position, @NotNull final String ref,
+            @NotNull final String alt, boolean snpCheck) {
+        return ImmutableAmberSite.builder().chromosome(chromosome).position(position).ref(ref).alt(alt).snpCheck(snpCheck).build();
+    }
+}
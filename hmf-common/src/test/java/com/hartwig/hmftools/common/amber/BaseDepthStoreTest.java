@@ -0,0 +1,65 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class BaseDepthStoreTest {
+
+    @Test
+    public void testSelectIsInclusive() {
+        final BaseDepthStore victim = create(100, 200, 300, 400);
+
+        final List<Integer> selected = Lists.newArrayList();
+        victim.select(200, 300, selected::add);
+        assertEquals(Lists.newArrayList(1, 2), selected);
+
+        selected.clear();
+        victim.select(150, 399, selected::add);
+        assertEquals(Lists.newArrayList(1, 2), selected);
+
+        selected.clear();
+        victim.select(401, 500, selected::add);
+        assertEquals(0, selected.size());
+    }
+
+    @Test
+    public void testFilterAndSliceRetainEvidence() {
+        final BaseDepthStore victim = create(100, 200, 300);
+        victim.addReadDepth(1);
+        victim.addAltSupport(1, 30);
+        victim.addReadDepth(2);
+        victim.addRefSupport(2);
+
+        final BaseDepthStore filtered = victim.filter(i -> victim.readDepth(i) > 0);
+        assertEquals(2, filtered.size());
+        assertEquals(200, filtered.get(0).position());
+        assertEquals(1, filtered.get(0).altSupport());
+        assertEquals(30, filtered.altQuality(0));
+        assertEquals(1, filtered.get(1).refSupport());
+
+        final BaseDepthStore slice = victim.slice(2, 3);
+        assertEquals(1, slice.size());
+        assertEquals(300, slice.position(0));
+        assertEquals(BaseDepth.Base.A, slice.ref(0));
+        assertEquals(BaseDepth.Base.T, slice.alt(0));
+
+        final BaseDepthStore empty = victim.withoutEvidence();
+        assertEquals(3, empty.size());
+        assertEquals(0, empty.readDepth(1));
+    }
+
+    @NotNull
+    private static BaseDepthStore create(int... positions) {
+        final List<AmberSite> sites = Lists.newArrayList();
+        for (int position : positions) {
+            sites.add(ImmutableAmberSite.builder().chromosome("1").position(position).ref("A").alt("T").snpCheck(false).build());
+        }
+        return BaseDepthStore.create("1", sites);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.Integers;
+
+import org.junit.Test;
+
+public class ReadDepthHistogramTest {
+
+    @Test
+    public void testEmpty() {
+        final ReadDepthHistogram victim = new ReadDepthHistogram();
+        victim.add(0);
+        assertEquals(0, victim.medianPositiveValue());
+    }
+
+    @Test
+    public void testMatchesMedianOfList() {
+        final Random random = new Random(0);
+        for (int size : new int[] { 1, 2, 3, 10, 11, 1000 }) {
+            final List<Integer> depths = Lists.newArrayList();
+            final ReadDepthHistogram victim = new ReadDepthHistogram();
+            for (int i = 0; i < size; i++) {
+                final int depth = random.nextInt(10) == 0 ? 0 : random.nextInt(random.nextBoolean() ? 60 : 1000);
+                depths.add(depth);
+                victim.add(depth);
+            }
+
+            assertEquals(Integers.medianPositiveValue(depths), victim.medianPositiveValue());
+        }
+    }
+}
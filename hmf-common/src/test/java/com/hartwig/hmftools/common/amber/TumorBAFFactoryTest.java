@@ -2,6 +2,8 @@ package com.hartwig.hmftools.common.amber;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Collections;
+
 import com.hartwig.hmftools.common.utils.sam.SAMRecords;
 import com.hartwig.hmftools.common.utils.sam.SAMRecordsTest;
 
@@ -18,26 +20,18 @@ public class TumorBAFFactoryTest {
 
         final SAMRecord lowQualDel = SAMRecordsTest.buildSamRecord(1000, "1M1D1M", "CT", "FI");
         final SAMRecord highQualDel = SAMRecordsTest.buildSamRecord(1000, "1M1D1M", "CT", "FJ");
-        final ModifiableTumorBAF victim = createDefault("5", 1001);
+        final TumorBAFStore victim = createDefault("5", 1001);
 
-        new TumorBAFFactory(minQuality).addEvidence(victim, lowQualDel);
-        assertEquals(0, victim.tumorReadDepth());
+        new TumorBAFFactory(minQuality).addEvidence(victim.tumor(), 0, lowQualDel);
+        assertEquals(0, victim.get(0).tumorReadDepth());
 
-        new TumorBAFFactory(minQuality).addEvidence(victim, highQualDel);
-        assertEquals(1, victim.tumorReadDepth());
+        new TumorBAFFactory(minQuality).addEvidence(victim.tumor(), 0, highQualDel);
+        assertEquals(1, victim.get(0).tumorReadDepth());
     }
 
     @NotNull
-    private static ModifiableTumorBAF createDefault(@NotNull final String chromosome, final long position) {
-        final ModifiableBaseDepth normal = ModifiableBaseDepth.create()
-                .setChromosome(chromosome)
-                .setPosition(position)
-                .setRef(BaseDepth.Base.A)
-                .setRefSupport(3)
-                .setAlt(BaseDepth.Base.T)
-                .setAltSupport(3)
-                .setReadDepth(6)
-                .setIndelCount(0);
-        return TumorBAFFactory.create(normal);
+    private static TumorBAFStore createDefault(@NotNull final String chromosome, final long position) {
+        final AmberSite site = ImmutableAmberSite.builder().chromosome(chromosome).position(position).ref("A").alt("T").snpCheck(false).build();
+        return new TumorBAFStore(BaseDepthStore.create(chromosome, Collections.singletonList(site)));
     }
 }
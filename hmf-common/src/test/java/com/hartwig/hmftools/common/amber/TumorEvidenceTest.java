@@ -0,0 +1,190 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
+
+public class TumorEvidenceTest {
+
+    private static final String CONTIG = "1";
+    private static final int PAIRS = 20;
+    private static final int HOM_OFFSET = 20;
+    private static final int READ_LENGTH = 50;
+    private static final int DEPTH = 20;
+    private static final int TYPICAL_READ_DEPTH = 151;
+    private static final int MIN_MAPPING_QUALITY = 1;
+    private static final int MIN_BASE_QUALITY = 13;
+    private static final int INDEL_PAIR = 2;
+
+    private final SamReaderFactory readerFactory = SamReaderFactory.makeDefault().validationStringency(ValidationStringency.SILENT);
+    private final List<AmberSite> hetSites = Lists.newArrayList();
+    private final List<AmberSite> homSites = Lists.newArrayList();
+
+    private File tumorBam;
+
+    @Before
+    public void setup() throws IOException {
+        tumorBam = File.createTempFile("tumor", ".bam");
+
+        final SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        header.addSequence(new SAMSequenceRecord(CONTIG, (PAIRS + 1) * 1000));
+
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, false, tumorBam)) {
+            for (int pair = 1; pair <= PAIRS; pair++) {
+                final int hetPosition = pair * 1000;
+                final int homPosition = hetPosition + HOM_OFFSET;
+                hetSites.add(site(hetPosition));
+                homSites.add(site(homPosition));
+
+                // Every read covers both the het and the hom site of the pair
+                final int hetAlt = (pair * 3) % 10;
+                final int homAlt = pair % 3;
+                for (int i = 0; i < DEPTH; i++) {
+                    final int start = hetPosition - 5 - i % 10;
+                    final char[] bases = Strings.repeat("A", READ_LENGTH).toCharArray();
+                    final char[] qualities = Strings.repeat("?", READ_LENGTH).toCharArray();
+                    bases[hetPosition - start] = i < hetAlt ? 'G' : 'A';
+                    bases[homPosition - start] = i < homAlt ? 'G' : 'A';
+                    if (i == 0) {
+                        qualities[hetPosition - start] = '&';
+                    }
+                    writer.addAlignment(read(header, pair + "_" + i, start, "50M", bases, qualities));
+                }
+
+                if (pair == INDEL_PAIR) {
+                    final int start = hetPosition - 19;
+                    final char[] bases = Strings.repeat("A", READ_LENGTH).toCharArray();
+                    final char[] qualities = Strings.repeat("?", READ_LENGTH).toCharArray();
+                    writer.addAlignment(read(header, pair + "_indel", start, "20M2I28M", bases, qualities));
+                }
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        tumorBam.delete();
+        new File(tumorBam.getPath().replaceAll("\\.bam$", ".bai")).delete();
+    }
+
+    @Test
+    public void testEachSiteReachesItsOwnEvidence() throws Exception {
+        final BaseDepthStore hetNormal = normal(hetSites, 10);
+        final BaseDepthStore homNormal = normal(homSites, 0);
+
+        final List<String> expectedBAF = new TumorBAFEvidence(TYPICAL_READ_DEPTH,
+                MIN_MAPPING_QUALITY,
+                MIN_BASE_QUALITY,
+                CONTIG,
+                tumorBam.getPath(),
+                readerFactory,
+                normal(hetSites, 10)).call().evidence().asList().stream().map(TumorEvidenceTest::describe).collect(Collectors.toList());
+
+        final BaseDepthStore homTumor = new BaseDepthEvidence(TYPICAL_READ_DEPTH,
+                MIN_MAPPING_QUALITY,
+                MIN_BASE_QUALITY,
+                CONTIG,
+                tumorBam.getPath(),
+                readerFactory,
+                homSites).call().evidence();
+        final List<String> expectedContamination = Lists.newArrayList();
+        for (int i = 0; i < homTumor.size(); i++) {
+            if (homTumor.altSupport(i) != 0) {
+                expectedContamination.add(describe(homNormal.get(i)) + "/" + describe(homTumor.get(i)));
+            }
+        }
+
+        final TumorEvidence victim = new TumorEvidence(TYPICAL_READ_DEPTH,
+                MIN_MAPPING_QUALITY,
+                MIN_BASE_QUALITY,
+                CONTIG,
+                tumorBam.getPath(),
+                readerFactory,
+                hetNormal,
+                homNormal).call();
+        final List<TumorBAF> bafEvidence = victim.bafEvidence().asList();
+        assertEquals(PAIRS - 1, bafEvidence.size());
+        assertTrue(bafEvidence.stream().noneMatch(x -> x.position() == INDEL_PAIR * 1000));
+        assertTrue(bafEvidence.stream().allMatch(x -> x.position() % 1000 == 0 && x.tumorReadDepth() == DEPTH - 1));
+
+        final List<TumorContamination> contaminationEvidence = victim.contaminationEvidence();
+        assertTrue(contaminationEvidence.size() > PAIRS / 2);
+        assertTrue(contaminationEvidence.stream().allMatch(x -> x.position() % 1000 == HOM_OFFSET && x.tumor().altSupport() > 0));
+
+        final List<String> actualBAF = bafEvidence.stream().map(TumorEvidenceTest::describe).collect(Collectors.toList());
+        final List<String> actualContamination =
+                contaminationEvidence.stream().map(x -> describe(x.normal()) + "/" + describe(x.tumor())).collect(Collectors.toList());
+
+        assertEquals(expectedBAF, actualBAF);
+        assertEquals(expectedContamination, actualContamination);
+    }
+
+    @NotNull
+    private static AmberSite site(int position) {
+        return ImmutableAmberSite.builder().chromosome(CONTIG).position(position).ref("A").alt("G").snpCheck(false).build();
+    }
+
+    @NotNull
+    private static BaseDepthStore normal(@NotNull final List<AmberSite> sites, int altSupport) {
+        final BaseDepthStore result = BaseDepthStore.create(CONTIG, sites);
+        for (int i = 0; i < result.size(); i++) {
+            for (int j = 0; j < DEPTH; j++) {
+                result.addReadDepth(i);
+                if (j < altSupport) {
+                    result.addAltSupport(i, 30);
+                } else {
+                    result.addRefSupport(i);
+                }
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static SAMRecord read(@NotNull final SAMFileHeader header, @NotNull final String name, int start, @NotNull final String cigar,
+            @NotNull final char[] bases, @NotNull final char[] qualities) {
+        final SAMRecord record = new SAMRecord(header);
+        record.setReadName(name);
+        record.setReferenceName(CONTIG);
+        record.setAlignmentStart(start);
+        record.setCigarString(cigar);
+        record.setMappingQuality(60);
+        record.setReadString(new String(bases));
+        record.setBaseQualityString(new String(qualities));
+        return record;
+    }
+
+    @NotNull
+    private static String describe(@NotNull final BaseDepth depth) {
+        return depth.chromosome() + ":" + depth.position() + ":" + depth.readDepth() + ":" + depth.indelCount() + ":" + depth.refSupport()
+                + ":" + depth.altSupport();
+    }
+
+    @NotNull
+    private static String describe(@NotNull final TumorBAF baf) {
+        return baf.chromosome() + ":" + baf.position() + ":" + baf.normalReadDepth() + ":" + baf.normalRefSupport() + ":"
+                + baf.normalAltSupport() + ":" + baf.tumorReadDepth() + ":" + baf.tumorRefSupport() + ":" + baf.tumorAltSupport() + ":"
+                + baf.tumorAltQuality() + ":" + baf.tumorIndelCount();
+    }
+}
@@ -0,0 +1,40 @@
+package com.hartwig.hmftools.common.genome.chromosome;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class ChromosomeMapTest {
+
+    @Test
+    public void testContigLookup() {
+        final ChromosomeMap<String> victim = new ChromosomeMap<>();
+        victim.put(HumanChromosome._1, "one");
+        victim.put(HumanChromosome._X, "x");
+
+        assertEquals("one", victim.get("1"));
+        assertEquals("one", victim.get("chr1"));
+        assertEquals("x", victim.get(HumanChromosome._X));
+        assertNull(victim.get("2"));
+        assertNull(victim.get("HLA-DRB1*14:54:01"));
+        assertEquals("default", victim.getOrDefault("MT", "default"));
+        assertTrue(victim.containsKey(HumanChromosome._1));
+        assertFalse(victim.containsKey(HumanChromosome._Y));
+    }
+
+    @Test
+    public void testChromosomesInKaryotypeOrder() {
+        final ChromosomeMap<Integer> victim = new ChromosomeMap<>();
+        victim.computeIfAbsent(HumanChromosome._Y, HumanChromosome::intValue);
+        victim.computeIfAbsent(HumanChromosome._10, HumanChromosome::intValue);
+        victim.computeIfAbsent(HumanChromosome._2, HumanChromosome::intValue);
+        assertEquals(10, (int) victim.computeIfAbsent(HumanChromosome._10, x -> -1));
+
+        assertEquals(Lists.newArrayList(HumanChromosome._2, HumanChromosome._10, HumanChromosome._Y), victim.chromosomes());
+    }
+}
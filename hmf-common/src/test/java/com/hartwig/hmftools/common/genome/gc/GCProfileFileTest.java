@@ -0,0 +1,58 @@
+package com.hartwig.hmftools.common.genome.gc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.google.common.collect.Multimap;
+import com.google.common.io.Resources;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.junit.Test;
+
+public class GCProfileFileTest {
+
+    private static final String GC_PROFILE = Resources.getResource("gc").getPath() + File.separator + "GC_profile.1000bp.cnp";
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Multimap<Chromosome, GCProfile> expected = GCProfileFactory.loadGCContent(1000, GC_PROFILE);
+
+        final File file = File.createTempFile("gcprofile", ".bin");
+        file.deleteOnExit();
+        GCProfileFile.write(1000, file.getPath(), expected);
+
+        assertFalse(GCProfileFile.isBinary(GC_PROFILE));
+        assertTrue(GCProfileFile.isBinary(file.getPath()));
+
+        final Multimap<Chromosome, GCProfile> victim = GCProfileFactory.loadGCContent(1000, file.getPath());
+        assertEquals(expected.size(), victim.size());
+        assertEquals(expected.keySet(), victim.keySet());
+        assertEquals(expected, victim);
+
+        final GCProfile first = victim.get(HumanChromosome._2).iterator().next();
+        assertEquals("2", first.chromosome());
+        assertEquals(1001, first.start());
+        assertEquals(2000, first.end());
+        assertEquals(0.475, first.gcContent(), 0);
+        assertEquals(1, first.nonNPercentage(), 0);
+        assertEquals(0.126, first.mappablePercentage(), 0);
+
+        // Profiles are decoded once so repeated passes see the same instances
+        assertSame(first, victim.get(HumanChromosome._2).iterator().next());
+    }
+
+    @Test(expected = IOException.class)
+    public void testWindowSizeMismatch() throws IOException {
+        final File file = File.createTempFile("gcprofile", ".bin");
+        file.deleteOnExit();
+        GCProfileFile.write(1000, file.getPath(), GCProfileFactory.loadGCContent(1000, GC_PROFILE));
+
+        GCProfileFile.read(500, file.getPath());
+    }
+}
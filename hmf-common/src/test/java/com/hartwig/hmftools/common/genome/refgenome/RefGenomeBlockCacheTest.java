@@ -0,0 +1,178 @@
+package com.hartwig.hmftools.common.genome.refgenome;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequence;
+
+public class RefGenomeBlockCacheTest {
+
+    private static final int LINE_LENGTH = 60;
+    private static final String[] CONTIGS = { "1", "2", "3" };
+    private static final int[] LENGTHS = { 5_000, 1_234, 6_400 };
+    private static final String SOFT_MASKED_CONTIG = "3";
+
+    private File fasta;
+    private File index;
+    private File dictionary;
+
+    @Before
+    public void setup() throws IOException {
+        fasta = File.createTempFile("refgenome", ".fasta");
+        index = new File(fasta.getPath() + ".fai");
+        dictionary = new File(fasta.getPath().replaceAll("\\.fasta$", ".dict"));
+
+        final Random random = new Random(0);
+        long offset = 0;
+        try (PrintWriter fastaWriter = new PrintWriter(fasta); PrintWriter indexWriter = new PrintWriter(index);
+                PrintWriter dictionaryWriter = new PrintWriter(dictionary)) {
+            dictionaryWriter.println("@HD\tVN:1.5");
+            for (int i = 0; i < CONTIGS.length; i++) {
+                dictionaryWriter.println("@SQ\tSN:" + CONTIGS[i] + "\tLN:" + LENGTHS[i]);
+                final String header = ">" + CONTIGS[i] + "\n";
+                fastaWriter.print(header);
+                offset += header.length();
+                indexWriter.println(CONTIGS[i] + "\t" + LENGTHS[i] + "\t" + offset + "\t" + LINE_LENGTH + "\t" + (LINE_LENGTH + 1));
+
+                final String sequence = CONTIGS[i].equals(SOFT_MASKED_CONTIG)
+                        ? softMaskedSequence(random, LENGTHS[i])
+                        : sequence(random, LENGTHS[i]);
+                for (int start = 0; start < sequence.length(); start += LINE_LENGTH) {
+                    final String line = sequence.substring(start, Math.min(sequence.length(), start + LINE_LENGTH)) + "\n";
+                    fastaWriter.print(line);
+                    offset += line.length();
+                }
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        fasta.delete();
+        index.delete();
+        dictionary.delete();
+    }
+
+    @Test
+    public void testMatchesUnderlyingFile() throws IOException {
+        try (IndexedFastaSequenceFile expected = new IndexedFastaSequenceFile(fasta);
+                RefGenomeBlockCache victim = new RefGenomeBlockCache(new IndexedFastaSequenceFile(fasta), 100, 4)) {
+            final Random random = new Random(1);
+            for (int i = 0; i < 2_000; i++) {
+                final int contig = random.nextInt(CONTIGS.length);
+                final int start = 1 + random.nextInt(LENGTHS[contig]);
+                final int stop = Math.min(LENGTHS[contig], start + random.nextInt(350) - 1);
+                assertSequence(expected.getSubsequenceAt(CONTIGS[contig], start, stop),
+                        victim.getSubsequenceAt(CONTIGS[contig], start, stop));
+            }
+
+            assertSequence(expected.getSubsequenceAt("1", 1, LENGTHS[0]), victim.getSubsequenceAt("1", 1, LENGTHS[0]));
+            assertTrue(victim.cachedBlocks() > 0);
+            assertTrue(victim.cachedBlocks() <= 4);
+        }
+    }
+
+    @Test
+    public void testSoftMaskedBlockIsPacked() throws IOException {
+        final int length = LENGTHS[2];
+        try (IndexedFastaSequenceFile expected = new IndexedFastaSequenceFile(fasta);
+                RefGenomeBlockCache victim = new RefGenomeBlockCache(new IndexedFastaSequenceFile(fasta), length, 1)) {
+            assertSequence(expected.getSubsequenceAt(SOFT_MASKED_CONTIG, 1, length),
+                    victim.getSubsequenceAt(SOFT_MASKED_CONTIG, 1, length));
+            assertSequence(expected.getSubsequenceAt(SOFT_MASKED_CONTIG, 1001, 1100),
+                    victim.getSubsequenceAt(SOFT_MASKED_CONTIG, 1001, 1100));
+
+            // 2 bits per base plus 1 bit of mask plus a handful of N runs
+            assertEquals(1, victim.cachedBlocks());
+            assertTrue(victim.cachedBytes() < length / 4 + length / 8 + 100);
+        }
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try (IndexedFastaSequenceFile expected = new IndexedFastaSequenceFile(fasta);
+                RefGenomeBlockCache victim = new RefGenomeBlockCache(new IndexedFastaSequenceFile(fasta), 100, 8)) {
+            final String contig = CONTIGS[0];
+            final String sequence = expected.getSubsequenceAt(contig, 1, LENGTHS[0]).getBaseString();
+
+            final List<Future<?>> futures = Lists.newArrayList();
+            for (int thread = 0; thread < 4; thread++) {
+                final Random random = new Random(thread);
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        final int start = 1 + random.nextInt(LENGTHS[0]);
+                        final int stop = Math.min(LENGTHS[0], start + random.nextInt(250));
+                        assertEquals(sequence.substring(start - 1, stop), victim.getSubsequenceAt(contig, start, stop).getBaseString());
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static void assertSequence(@NotNull final ReferenceSequence expected, @NotNull final ReferenceSequence victim) {
+        assertEquals(expected.getName(), victim.getName());
+        assertEquals(expected.getContigIndex(), victim.getContigIndex());
+        assertEquals(expected.getBaseString(), victim.getBaseString());
+    }
+
+    @NotNull
+    private static String sequence(@NotNull final Random random, int length) {
+        final String bases = "ACGTacgtN";
+        final StringBuilder builder = new StringBuilder(length);
+        while (builder.length() < length) {
+            final char base = bases.charAt(random.nextInt(10) < 8 ? random.nextInt(4) : 4 + random.nextInt(5));
+            final int repeat = base == 'N' ? 1 + random.nextInt(150) : 1;
+            for (int i = 0; i < repeat && builder.length() < length; i++) {
+                builder.append(base);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Alternating upper and lower case stretches, as in a soft masked reference, with the odd run of N.
+     */
+    @NotNull
+    private static String softMaskedSequence(@NotNull final Random random, int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        boolean lowerCase = false;
+        while (builder.length() < length) {
+            final int stretch = random.nextInt(10) == 0 ? 1 : 1 + random.nextInt(300);
+            for (int i = 0; i < stretch && builder.length() < length; i++) {
+                final char base = "ACGT".charAt(random.nextInt(4));
+                builder.append(lowerCase ? Character.toLowerCase(base) : base);
+            }
+            if (random.nextInt(20) == 0) {
+                for (int i = 0; i < 10 && builder.length() < length; i++) {
+                    builder.append(lowerCase ? 'n' : 'N');
+                }
+            }
+            lowerCase = !lowerCase;
+        }
+        return builder.toString();
+    }
+}
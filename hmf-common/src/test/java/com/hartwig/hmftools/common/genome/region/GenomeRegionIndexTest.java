@@ -0,0 +1,68 @@
+package com.hartwig.hmftools.common.genome.region;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+
+import org.junit.Test;
+
+public class GenomeRegionIndexTest {
+
+    private static final Comparator<GenomeRegion> BY_START_AND_END =
+            Comparator.comparingLong(GenomeRegion::start).thenComparingLong(GenomeRegion::end);
+
+    @Test
+    public void testOverlaps() {
+        final GenomeRegionIndex<GenomeRegion> victim = GenomeRegionIndex.create(Lists.newArrayList(GenomeRegions.create("1", 300, 400),
+                GenomeRegions.create("1", 100, 200),
+                GenomeRegions.create("2", 100, 200)));
+
+        assertTrue(victim.contains(GenomePositions.create("1", 100)));
+        assertTrue(victim.contains(GenomePositions.create("1", 400)));
+        assertFalse(victim.contains(GenomePositions.create("1", 250)));
+        assertFalse(victim.contains(GenomePositions.create("3", 150)));
+        assertTrue(victim.overlaps("1", 150, 350));
+        assertFalse(victim.overlaps("1", 201, 299));
+
+        final List<GenomeRegion> overlapping = victim.overlapping("1", 200, 300);
+        assertEquals(2, overlapping.size());
+        assertEquals(100, overlapping.get(0).start());
+        assertEquals(300, overlapping.get(1).start());
+    }
+
+    @Test
+    public void testRandomNestedRegionsMatchLinearScan() {
+        final Random random = new Random(0);
+        for (int size : new int[] { 1, 2, 3, 7, 16, 17, 100, 1000 }) {
+            final List<GenomeRegion> regions = Lists.newArrayList();
+            for (int i = 0; i < size; i++) {
+                final long start = random.nextInt(10000);
+                regions.add(GenomeRegions.create("1", start, start + random.nextInt(random.nextBoolean() ? 20 : 2000)));
+            }
+
+            final GenomeRegionIndex<GenomeRegion> victim = GenomeRegionIndex.create(regions);
+            for (int i = 0; i < 500; i++) {
+                final long start = random.nextInt(12000) - 1000;
+                final long end = start + random.nextInt(100);
+
+                final List<GenomeRegion> expected = regions.stream()
+                        .filter(x -> x.start() <= end && x.end() >= start)
+                        .sorted(BY_START_AND_END)
+                        .collect(Collectors.toList());
+                final List<GenomeRegion> actual = Lists.newArrayList(victim.overlapping("1", start, end));
+                actual.sort(BY_START_AND_END);
+
+                assertEquals(expected, actual);
+                assertEquals(!expected.isEmpty(), victim.overlaps("1", start, end));
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.hartwig.hmftools.common.purple.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.copynumber.CopyNumberMethod;
+import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.purity.BestFit;
+import com.hartwig.hmftools.common.purple.purity.FittedPurity;
+import com.hartwig.hmftools.common.purple.purity.FittedPurityStatus;
+import com.hartwig.hmftools.common.purple.purity.ImmutableBestFit;
+import com.hartwig.hmftools.common.purple.purity.ImmutableFittedPurity;
+import com.hartwig.hmftools.common.purple.purity.ImmutableFittedPurityScore;
+import com.hartwig.hmftools.common.purple.region.GermlineStatus;
+import com.hartwig.hmftools.common.purple.region.ImmutableEnrichedRegion;
+import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ArtefactCacheFileTest {
+
+    private static final String KEY = "abc";
+
+    private File file;
+
+    @Before
+    public void setup() throws IOException {
+        file = File.createTempFile("artefact", ".tsv");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testObservedRegionsRoundTrip() throws IOException {
+        final Random random = new Random(0);
+        final List<ObservedRegion> expected = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            expected.add(ImmutableEnrichedRegion.builder()
+                    .chromosome(String.valueOf(1 + i / 10))
+                    .start(1 + 1000 * i)
+                    .end(1000 * (i + 1))
+                    .ratioSupport(random.nextBoolean())
+                    .support(SegmentSupport.values()[random.nextInt(SegmentSupport.values().length)])
+                    .bafCount(random.nextInt(100))
+                    .observedBAF(random.nextDouble())
+                    .depthWindowCount(random.nextInt(100))
+                    .observedTumorRatio(random.nextDouble())
+                    .observedNormalRatio(random.nextDouble())
+                    .status(GermlineStatus.values()[random.nextInt(GermlineStatus.values().length)])
+                    .svCluster(random.nextBoolean())
+                    .gcContent(random.nextDouble())
+                    .minStart(1 + 1000 * i)
+                    .maxStart(1 + 1000 * i + random.nextInt(1000))
+                    .build());
+        }
+
+        ArtefactCacheFile.writeObservedRegions(file.getPath(), KEY, expected);
+        assertEquals(expected, ArtefactCacheFile.readObservedRegions(file.getPath(), KEY).get());
+    }
+
+    @Test
+    public void testCopyNumbersRoundTrip() throws IOException {
+        final Random random = new Random(1);
+        final List<PurpleCopyNumber> expected = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            expected.add(PurpleDatamodelTest.createCopyNumber("1", 1 + 1000 * i, 1000 * (i + 1), 4 * random.nextDouble())
+                    .bafCount(random.nextInt(100))
+                    .averageObservedBAF(random.nextDouble())
+                    .averageActualBAF(random.nextDouble())
+                    .method(CopyNumberMethod.values()[random.nextInt(CopyNumberMethod.values().length)])
+                    .gcContent(random.nextDouble())
+                    .build());
+        }
+
+        ArtefactCacheFile.writeCopyNumbers(file.getPath(), KEY, expected);
+        assertEquals(expected, ArtefactCacheFile.readCopyNumbers(file.getPath(), KEY).get());
+    }
+
+    @Test
+    public void testBestFitRoundTrip() throws IOException {
+        final Random random = new Random(2);
+        final List<FittedPurity> all = Lists.newArrayList();
+        for (int i = 0; i < 50; i++) {
+            all.add(fittedPurity(random));
+        }
+
+        final BestFit expected = ImmutableBestFit.builder()
+                .fit(fittedPurity(random))
+                .status(FittedPurityStatus.SOMATIC)
+                .score(ImmutableFittedPurityScore.builder()
+                        .minPurity(random.nextDouble())
+                        .maxPurity(random.nextDouble())
+                        .minPloidy(random.nextDouble())
+                        .maxPloidy(random.nextDouble())
+                        .minDiploidProportion(random.nextDouble())
+                        .maxDiploidProportion(random.nextDouble())
+                        .build())
+                .bestFitPerPurity(all.subList(0, 10))
+                .allFits(all)
+                .build();
+
+        ArtefactCacheFile.writeBestFit(file.getPath(), KEY, expected);
+        assertEquals(expected, ArtefactCacheFile.readBestFit(file.getPath(), KEY).get());
+    }
+
+    @Test
+    public void testStaleOrMalformedFileIsIgnored() throws IOException {
+        assertFalse(ArtefactCacheFile.readCopyNumbers(file.getPath(), KEY).isPresent());
+
+        ArtefactCacheFile.writeCopyNumbers(file.getPath(), KEY, Collections.emptyList());
+        assertTrue(ArtefactCacheFile.readCopyNumbers(file.getPath(), KEY).isPresent());
+        assertFalse(ArtefactCacheFile.readCopyNumbers(file.getPath(), "def").isPresent());
+
+        Files.write(file.toPath(), Lists.newArrayList("#key\t" + KEY, "1\tnot a copy number"));
+        assertFalse(ArtefactCacheFile.readCopyNumbers(file.getPath(), KEY).isPresent());
+    }
+
+    @Test
+    public void testKeyDependsOnValuesAndFileContent() throws IOException {
+        Files.write(file.toPath(), Collections.singletonList("content"));
+        final String key = new ArtefactKey().add("a", 1.5).addFile("file", file.getPath()).digest();
+        assertEquals(key, new ArtefactKey().add("a", 1.5).addFile("file", file.getPath()).digest());
+        assertNotEquals(key, new ArtefactKey().add("a", 1.25).addFile("file", file.getPath()).digest());
+
+        Files.write(file.toPath(), Collections.singletonList("changed"));
+        assertNotEquals(key, new ArtefactKey().add("a", 1.5).addFile("file", file.getPath()).digest());
+    }
+
+    @NotNull
+    private static FittedPurity fittedPurity(@NotNull final Random random) {
+        return ImmutableFittedPurity.builder()
+                .purity(random.nextDouble())
+                .normFactor(random.nextDouble())
+                .score(random.nextDouble())
+                .diploidProportion(random.nextDouble())
+                .ploidy(8 * random.nextDouble())
+                .somaticPenalty(random.nextDouble())
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.hartwig.hmftools.common.purple.copynumber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.purple.PurityAdjuster;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.purple.region.FittedRegion;
+import com.hartwig.hmftools.common.purple.region.GermlineStatus;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+import com.hartwig.hmftools.common.variant.structural.StructuralVariant;
+import com.hartwig.hmftools.common.variant.structural.StructuralVariantType;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class PurpleCopyNumberFactoryTest {
+
+    @Test
+    public void testParallelMatchesSequential() throws Exception {
+        final Random random = new Random(1);
+        final List<FittedRegion> fittedRegions = fittedRegions(random);
+        final List<StructuralVariant> structuralVariants = Lists.newArrayList(
+                PurpleDatamodelTest.createStructuralVariant("1", 300_001, "2", 200_001, StructuralVariantType.BND, 0.5, 0.5).build(),
+                PurpleDatamodelTest.createStructuralVariant("3", 100_001, "3", 400_001, StructuralVariantType.DEL, 0.5, 0.5).build());
+
+        final PurpleCopyNumberFactory sequential = factory();
+        sequential.invoke(MoreExecutors.newDirectExecutorService(), fittedRegions, structuralVariants);
+
+        final PurpleCopyNumberFactory parallel = factory();
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            parallel.invoke(executorService, fittedRegions, structuralVariants);
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertFalse(sequential.copyNumbers().isEmpty());
+        assertFalse(sequential.germlineDeletions().isEmpty());
+        assertEquals(sequential.copyNumbers(), parallel.copyNumbers());
+        assertEquals(sequential.germlineDeletions(), parallel.germlineDeletions());
+
+        for (int i = 1; i < parallel.copyNumbers().size(); i++) {
+            final PurpleCopyNumber previous = parallel.copyNumbers().get(i - 1);
+            final PurpleCopyNumber current = parallel.copyNumbers().get(i);
+            assertTrue(HumanChromosome.fromString(previous.chromosome()).intValue() <= HumanChromosome.fromString(current.chromosome())
+                    .intValue());
+        }
+    }
+
+    @NotNull
+    private static PurpleCopyNumberFactory factory() {
+        return new PurpleCopyNumberFactory(10, 50, 100, 2, new PurityAdjuster(Gender.FEMALE, 0.8, 1));
+    }
+
+    @NotNull
+    static List<FittedRegion> fittedRegions(@NotNull final Random random) {
+        final List<FittedRegion> result = Lists.newArrayList();
+        for (String chromosome : new String[] { "1", "2", "3", "X" }) {
+            for (int i = 0; i < 50; i++) {
+                final long start = 1 + i * 10_000L;
+                final double copyNumber = 1 + random.nextInt(3) + random.nextDouble() / 10;
+                final int statusRoll = random.nextInt(20);
+                final GermlineStatus status =
+                        statusRoll == 0 ? GermlineStatus.HOM_DELETION : statusRoll < 3 ? GermlineStatus.HET_DELETION : GermlineStatus.DIPLOID;
+                result.add(PurpleDatamodelTest.createDefaultFittedRegion(chromosome, start, start + 9_999)
+                        .tumorCopyNumber(copyNumber)
+                        .tumorBAF(0.5 + random.nextInt(5) / 10d)
+                        .observedBAF(0.5 + random.nextInt(5) / 10d)
+                        .bafCount(random.nextInt(100))
+                        .depthWindowCount(random.nextInt(20))
+                        .observedNormalRatio(status == GermlineStatus.DIPLOID ? 1 : status == GermlineStatus.HET_DELETION ? 0.5 : 0.05)
+                        .status(status)
+                        .support(i % 10 == 0 ? SegmentSupport.BND : SegmentSupport.NONE)
+                        .build());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,147 @@
+package com.hartwig.hmftools.common.purple.gene;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.region.HmfExonRegion;
+import com.hartwig.hmftools.common.genome.region.HmfTranscriptRegion;
+import com.hartwig.hmftools.common.genome.region.ImmutableHmfExonRegion;
+import com.hartwig.hmftools.common.genome.region.ImmutableHmfTranscriptRegion;
+import com.hartwig.hmftools.common.genome.region.Strand;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.utils.zipper.RegionZipper;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Assigns a 20,000 gene panel to the copy numbers of a highly fragmented tumor, zipping every gene against all copy numbers as
+ * before versus the sliced sequential and per chromosome parallel versions.
+ * Run from hmf-common with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.hartwig.hmftools.common.purple.gene.GeneCopyNumberFactoryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GeneCopyNumberFactoryBenchmark {
+
+    private static final long CHROMOSOME_LENGTH = 150_000_000;
+    private static final int GENES = 20_000;
+
+    @Param({ "500", "5000" })
+    public int copyNumbersPerChromosome;
+
+    private List<HmfTranscriptRegion> genes;
+    private List<PurpleCopyNumber> copyNumbers;
+    private ExecutorService executorService;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        copyNumbers = Lists.newArrayList();
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            final long length = CHROMOSOME_LENGTH / copyNumbersPerChromosome;
+            for (int i = 0; i < copyNumbersPerChromosome; i++) {
+                final long start = 1 + i * length;
+                copyNumbers.add(PurpleDatamodelTest.createCopyNumber(chromosome.toString(), start, start + length - 1, random.nextInt(5))
+                        .build());
+            }
+        }
+
+        genes = Lists.newArrayList();
+        for (int i = 0; i < GENES; i++) {
+            final String chromosome = HumanChromosome.values()[random.nextInt(HumanChromosome.values().length)].toString();
+            final long geneStart = 1 + random.nextInt((int) CHROMOSOME_LENGTH - 1_000_000);
+            final List<HmfExonRegion> exome = Lists.newArrayList();
+            for (int j = 0; j < 10; j++) {
+                final long exonStart = geneStart + j * 5_000;
+                exome.add(ImmutableHmfExonRegion.builder().exonID("ID").chromosome(chromosome).start(exonStart).end(exonStart + 200).build());
+            }
+            genes.add(gene(chromosome, geneStart, exome));
+        }
+
+        executorService = Executors.newFixedThreadPool(4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executorService.shutdown();
+    }
+
+    @Benchmark
+    public List<GeneCopyNumber> zipAll() {
+        final List<GeneCopyNumber> result = Lists.newArrayList();
+        for (HmfTranscriptRegion gene : genes) {
+            final GeneCopyNumberBuilder builder = new GeneCopyNumberBuilder(gene);
+            RegionZipper.zip(copyNumbers, gene.exome(), builder);
+            RegionZipper.zip(Collections.emptyList(), gene.exome(), builder);
+            final GeneCopyNumber geneCopyNumber = builder.build();
+            if (geneCopyNumber.totalRegions() > 0) {
+                result.add(geneCopyNumber);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<GeneCopyNumber> sequential() {
+        return GeneCopyNumberFactory.geneCopyNumbers(genes, copyNumbers, Collections.emptyList());
+    }
+
+    @Benchmark
+    public List<GeneCopyNumber> parallel() throws ExecutionException, InterruptedException {
+        return GeneCopyNumberFactory.geneCopyNumbers(executorService, genes, copyNumbers, Collections.emptyList());
+    }
+
+    @NotNull
+    private static HmfTranscriptRegion gene(@NotNull final String chromosome, long geneStart, @NotNull final List<HmfExonRegion> exome) {
+        final long geneEnd = exome.get(exome.size() - 1).end();
+        return ImmutableHmfTranscriptRegion.builder()
+                .chromosome(chromosome)
+                .start(geneStart)
+                .end(geneEnd)
+                .gene("GENE")
+                .transcriptID("ID")
+                .transcriptVersion(1)
+                .chromosomeBand("BAND")
+                .entrezId(Collections.singletonList(1))
+                .geneID("ID")
+                .geneStart(geneStart)
+                .geneEnd(geneEnd)
+                .codingStart(0)
+                .codingEnd(0)
+                .strand(Strand.FORWARD)
+                .exome(exome)
+                .build();
+    }
+
+    public static void main(final String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GeneCopyNumberFactoryBenchmark.class.getSimpleName()).build()).run();
+    }
+}
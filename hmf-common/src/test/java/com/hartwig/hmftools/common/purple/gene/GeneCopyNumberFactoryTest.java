@@ -0,0 +1,129 @@
+package com.hartwig.hmftools.common.purple.gene;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.HmfExonRegion;
+import com.hartwig.hmftools.common.genome.region.HmfTranscriptRegion;
+import com.hartwig.hmftools.common.genome.region.ImmutableHmfExonRegion;
+import com.hartwig.hmftools.common.genome.region.ImmutableHmfTranscriptRegion;
+import com.hartwig.hmftools.common.genome.region.Strand;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.copynumber.CopyNumberMethod;
+import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.utils.zipper.RegionZipper;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class GeneCopyNumberFactoryTest {
+
+    private static final long CHROMOSOME_LENGTH = 10_000_000;
+
+    @Test
+    public void testMatchesZipOverAllCopyNumbers() throws Exception {
+        for (int seed = 0; seed < 5; seed++) {
+            final Random random = new Random(seed);
+            final List<PurpleCopyNumber> somatic = copyNumbers(random, 2_000, CopyNumberMethod.BAF_WEIGHTED);
+            final List<PurpleCopyNumber> germline = copyNumbers(random, 200, CopyNumberMethod.GERMLINE_HOM_DELETION);
+            final List<HmfTranscriptRegion> genes = genes(random, 500);
+
+            final List<GeneCopyNumber> expected = zipAll(genes, somatic, germline);
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, GeneCopyNumberFactory.geneCopyNumbers(genes, somatic, germline));
+
+            final ExecutorService executorService = Executors.newFixedThreadPool(4);
+            try {
+                assertEquals(expected, GeneCopyNumberFactory.geneCopyNumbers(executorService, genes, somatic, germline));
+            } finally {
+                executorService.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testGeneOnChromosomeWithoutCopyNumbers() {
+        final List<HmfTranscriptRegion> genes = genes(new Random(0), 10);
+        final List<PurpleCopyNumber> somatic =
+                Collections.singletonList(PurpleDatamodelTest.createCopyNumber("X", 1, CHROMOSOME_LENGTH, 2).build());
+        assertEquals(0, GeneCopyNumberFactory.geneCopyNumbers(genes, somatic, Collections.emptyList()).size());
+    }
+
+    @NotNull
+    private static List<GeneCopyNumber> zipAll(@NotNull final List<HmfTranscriptRegion> genes,
+            @NotNull final List<PurpleCopyNumber> somatic, @NotNull final List<PurpleCopyNumber> germline) {
+        final List<GeneCopyNumber> result = Lists.newArrayList();
+        for (HmfTranscriptRegion gene : genes) {
+            final GeneCopyNumberBuilder builder = new GeneCopyNumberBuilder(gene);
+            RegionZipper.zip(somatic, gene.exome(), builder);
+            RegionZipper.zip(germline, gene.exome(), builder);
+            final GeneCopyNumber geneCopyNumber = builder.build();
+            if (geneCopyNumber.totalRegions() > 0) {
+                result.add(geneCopyNumber);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static List<PurpleCopyNumber> copyNumbers(@NotNull final Random random, int perChromosome,
+            @NotNull final CopyNumberMethod method) {
+        final List<PurpleCopyNumber> result = Lists.newArrayList();
+        for (int chromosome = 1; chromosome <= 3; chromosome++) {
+            long start = 1 + random.nextInt(1000);
+            for (int i = 0; i < perChromosome && start < CHROMOSOME_LENGTH; i++) {
+                final long end = start + random.nextInt((int) (2 * CHROMOSOME_LENGTH / perChromosome));
+                result.add(PurpleDatamodelTest.createCopyNumber(String.valueOf(chromosome), start, end, random.nextInt(5))
+                        .method(method)
+                        .averageActualBAF(0.5 + 0.5 * random.nextDouble())
+                        .build());
+                start = end + 1 + (method == CopyNumberMethod.GERMLINE_HOM_DELETION ? random.nextInt(50_000) : 0);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static List<HmfTranscriptRegion> genes(@NotNull final Random random, int count) {
+        final List<HmfTranscriptRegion> result = Lists.newArrayList();
+        for (int i = 0; i < count; i++) {
+            final String chromosome = String.valueOf(1 + random.nextInt(4));
+            final long geneStart = 1 + random.nextInt((int) CHROMOSOME_LENGTH);
+
+            final List<HmfExonRegion> exome = Lists.newArrayList();
+            long exonStart = geneStart;
+            for (int j = 0; j < 1 + random.nextInt(10); j++) {
+                final long exonEnd = exonStart + random.nextInt(500);
+                exome.add(ImmutableHmfExonRegion.builder().exonID("ID").chromosome(chromosome).start(exonStart).end(exonEnd).build());
+                exonStart = exonEnd + 1 + random.nextInt(20_000);
+            }
+
+            final long geneEnd = exome.get(exome.size() - 1).end();
+            result.add(ImmutableHmfTranscriptRegion.builder()
+                    .chromosome(chromosome)
+                    .start(geneStart)
+                    .end(geneEnd)
+                    .gene("GENE" + i)
+                    .transcriptID("ID")
+                    .transcriptVersion(1)
+                    .chromosomeBand("BAND")
+                    .entrezId(Collections.singletonList(1))
+                    .geneID("ID")
+                    .geneStart(geneStart)
+                    .geneEnd(geneEnd)
+                    .codingStart(0)
+                    .codingEnd(0)
+                    .strand(Strand.FORWARD)
+                    .exome(exome)
+                    .build());
+        }
+        return result;
+    }
+}
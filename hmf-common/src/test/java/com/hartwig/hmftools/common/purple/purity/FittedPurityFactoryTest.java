@@ -0,0 +1,232 @@
+package com.hartwig.hmftools.common.purple.purity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
+import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
+import com.hartwig.hmftools.common.purple.PurityAdjuster;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.purple.region.FittedRegion;
+import com.hartwig.hmftools.common.purple.region.FittedRegionFactory;
+import com.hartwig.hmftools.common.purple.region.FittedRegionFactoryV2;
+import com.hartwig.hmftools.common.purple.region.GermlineStatus;
+import com.hartwig.hmftools.common.purple.region.ImmutableEnrichedRegion;
+import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+import com.hartwig.hmftools.common.variant.SomaticVariant;
+import com.hartwig.hmftools.common.variant.SomaticVariantTestBuilderFactory;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class FittedPurityFactoryTest {
+
+    private static final double EPSILON = 1e-10;
+
+    private static final double MIN_PURITY = 0.1;
+    private static final double MAX_PURITY = 1.0;
+    private static final double PURITY_INCREMENT = 0.05;
+    private static final double MIN_NORM_FACTOR = 0.5;
+    private static final double MAX_NORM_FACTOR = 1.5;
+    private static final double NORM_FACTOR_INCREMENT = 0.01;
+    private static final int MAX_PLOIDY = 8;
+
+    private final FittedRegionFactory fittedRegionFactory = new FittedRegionFactoryV2(Gender.FEMALE, 100, 0.3, 0.05, 1, 2, 1.5, 0.2);
+
+    @Test
+    public void testBestFitPerPurityMatchesFittedRegions() throws Exception {
+        final Random random = new Random(1);
+        final List<ObservedRegion> regions = Lists.newArrayList();
+        final List<SomaticVariant> variants = Lists.newArrayList();
+        createRegions(random, regions, variants);
+
+        final FittedPurityFactory victim = fit(regions, variants, false);
+
+        final List<FittedPurity> bestFitPerPurity = victim.bestFitPerPurity();
+        assertFalse(bestFitPerPurity.isEmpty());
+        for (FittedPurity fit : bestFitPerPurity) {
+            final FittedPurity expected = bestFit(fit.purity(), regions, variants);
+            assertEquals(expected.normFactor(), fit.normFactor(), EPSILON);
+            assertEquals(expected.score(), fit.score(), EPSILON);
+            assertEquals(expected.somaticPenalty(), fit.somaticPenalty(), EPSILON);
+            assertEquals(expected.diploidProportion(), fit.diploidProportion(), EPSILON);
+            assertEquals(expected.ploidy(), fit.ploidy(), EPSILON);
+        }
+    }
+
+    @Test
+    public void testAdaptiveSearchFindsExhaustiveBestFit() throws Exception {
+        final Random random = new Random(2);
+        final List<ObservedRegion> regions = Lists.newArrayList();
+        final List<SomaticVariant> variants = Lists.newArrayList();
+        createRegions(random, regions, variants);
+
+        final FittedPurityFactory exhaustive = fit(regions, variants, false);
+        final FittedPurityFactory adaptive = fit(regions, variants, true);
+
+        final FittedPurity exhaustiveBest = exhaustive.bestFitPerPurity().get(0);
+        final FittedPurity adaptiveBest = adaptive.bestFitPerPurity().get(0);
+        assertEquals(exhaustiveBest.purity(), adaptiveBest.purity(), EPSILON);
+        assertEquals(exhaustiveBest.normFactor(), adaptiveBest.normFactor(), EPSILON);
+        assertEquals(exhaustiveBest.score(), adaptiveBest.score(), EPSILON);
+        assertTrue(adaptive.all().size() < exhaustive.all().size());
+        assertTrue(adaptive.evaluatedCount() < exhaustive.evaluatedCount());
+        assertTrue(exhaustive.evaluatedCount() >= exhaustive.all().size());
+
+        for (FittedPurity fit : adaptive.all()) {
+            assertTrue(fit.score() >= exhaustiveBest.score() - EPSILON);
+        }
+
+        // Every purity keeps a best fit and the candidates the purity range is taken from are exact
+        assertEquals(exhaustive.bestFitPerPurity().size(), adaptive.bestFitPerPurity().size());
+        final List<FittedPurity> exhaustiveCandidates = candidates(exhaustive.bestFitPerPurity());
+        final List<FittedPurity> adaptiveCandidates = candidates(adaptive.bestFitPerPurity());
+        assertTrue(exhaustiveCandidates.size() > 1);
+        assertEquals(exhaustiveCandidates.size(), adaptiveCandidates.size());
+        for (int i = 0; i < exhaustiveCandidates.size(); i++) {
+            assertEquals(exhaustiveCandidates.get(i).purity(), adaptiveCandidates.get(i).purity(), EPSILON);
+            assertEquals(exhaustiveCandidates.get(i).normFactor(), adaptiveCandidates.get(i).normFactor(), EPSILON);
+            assertEquals(exhaustiveCandidates.get(i).score(), adaptiveCandidates.get(i).score(), EPSILON);
+        }
+    }
+
+    @NotNull
+    private static List<FittedPurity> candidates(@NotNull final List<FittedPurity> bestFitPerPurity) {
+        return bestFitPerPurity.stream()
+                .filter(BestFitFactory.inRangeOfLowest(bestFitPerPurity.get(0).score()))
+                .sorted(Comparator.comparingDouble(FittedPurity::purity))
+                .collect(Collectors.toList());
+    }
+
+    @NotNull
+    private FittedPurityFactory fit(@NotNull final List<ObservedRegion> regions, @NotNull final List<SomaticVariant> variants,
+            boolean adaptiveSearch) throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            return new FittedPurityFactory(executorService,
+                    Gender.FEMALE,
+                    MAX_PLOIDY,
+                    MIN_PURITY,
+                    MAX_PURITY,
+                    PURITY_INCREMENT,
+                    MIN_NORM_FACTOR,
+                    MAX_NORM_FACTOR,
+                    NORM_FACTOR_INCREMENT,
+                    1,
+                    fittedRegionFactory,
+                    regions,
+                    variants,
+                    adaptiveSearch);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static void createRegions(@NotNull final Random random, @NotNull final List<ObservedRegion> regions,
+            @NotNull final List<SomaticVariant> variants) {
+        for (int i = 0; i < 100; i++) {
+            final String chromosome = String.valueOf(1 + i / 5);
+            final long start = 1 + 1_000_000L * (i % 5);
+            regions.add(region(chromosome, start, random));
+            final int variantCount = random.nextInt(3);
+            for (int j = 0; j < variantCount; j++) {
+                variants.add(variant(chromosome, start + 1000 * j + random.nextInt(1000), random));
+            }
+        }
+    }
+
+    @NotNull
+    private FittedPurity bestFit(double purity, @NotNull final List<ObservedRegion> regions, @NotNull final List<SomaticVariant> variants) {
+        final int totalBafCount = regions.stream().mapToInt(ObservedRegion::bafCount).sum();
+        final GenomePositionSelector<SomaticVariant> variantSelector = GenomePositionSelectorFactory.create(variants);
+
+        FittedPurity best = null;
+        for (double normFactor = MIN_NORM_FACTOR; normFactor < MAX_NORM_FACTOR + EPSILON; normFactor += NORM_FACTOR_INCREMENT) {
+            final double impliedPloidy = PurityAdjuster.impliedSamplePloidy(purity, normFactor);
+            if (impliedPloidy < 1 - EPSILON || impliedPloidy > MAX_PLOIDY + EPSILON) {
+                continue;
+            }
+
+            final PurityAdjuster purityAdjuster = new PurityAdjuster(Gender.FEMALE, purity, normFactor);
+            double eventPenalty = 0;
+            double deviationPenalty = 0;
+            double diploidProportion = 0;
+            double ploidy = 0;
+            double somaticDeviation = 0;
+            int somaticCount = 0;
+            for (FittedRegion region : fittedRegionFactory.fitRegion(purity, normFactor, regions)) {
+                final double weight = 1d * region.bafCount() / totalBafCount;
+                eventPenalty += region.eventPenalty() * weight;
+                deviationPenalty += region.deviationPenalty() * weight;
+                ploidy += region.tumorCopyNumber() * weight;
+                diploidProportion += region.isDiploid() ? weight : 0;
+
+                final List<SomaticVariant> regionVariants = Lists.newArrayList();
+                variantSelector.select(region, regionVariants::add);
+                for (SomaticVariant variant : regionVariants) {
+                    somaticDeviation += SomaticDeviation.INSTANCE.deviationFromMax(purityAdjuster, region, variant);
+                    somaticCount++;
+                }
+            }
+
+            final double somaticPenalty = somaticCount == 0 ? 0 : somaticDeviation / somaticCount;
+            final double score = eventPenalty * deviationPenalty + somaticPenalty;
+            if (best == null || score < best.score()) {
+                best = ImmutableFittedPurity.builder()
+                        .purity(purity)
+                        .normFactor(normFactor)
+                        .score(score)
+                        .diploidProportion(diploidProportion)
+                        .ploidy(ploidy)
+                        .somaticPenalty(somaticPenalty)
+                        .build();
+            }
+        }
+
+        assert best != null;
+        return best;
+    }
+
+    @NotNull
+    private static ObservedRegion region(@NotNull final String chromosome, long start, @NotNull final Random random) {
+        final double copyNumber = 1 + random.nextInt(4);
+        return ImmutableEnrichedRegion.builder()
+                .chromosome(chromosome)
+                .start(start)
+                .end(start + 999_999)
+                .observedBAF(0.5 + 0.5 * random.nextDouble())
+                .bafCount(1 + random.nextInt(200))
+                .observedTumorRatio(copyNumber / 2 * (0.9 + 0.2 * random.nextDouble()))
+                .observedNormalRatio(1)
+                .depthWindowCount(1)
+                .ratioSupport(true)
+                .svCluster(false)
+                .minStart(start)
+                .maxStart(start)
+                .status(GermlineStatus.DIPLOID)
+                .gcContent(0.5)
+                .support(SegmentSupport.NONE)
+                .build();
+    }
+
+    @NotNull
+    private static SomaticVariant variant(@NotNull final String chromosome, long position, @NotNull final Random random) {
+        final int totalReadCount = 20 + random.nextInt(80);
+        return SomaticVariantTestBuilderFactory.create()
+                .chromosome(chromosome)
+                .position(position)
+                .totalReadCount(totalReadCount)
+                .alleleReadCount(random.nextInt(totalReadCount))
+                .build();
+    }
+}
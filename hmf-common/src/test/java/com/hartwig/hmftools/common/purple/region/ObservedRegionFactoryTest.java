@@ -0,0 +1,174 @@
+package com.hartwig.hmftools.common.purple.region;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.amber.ImmutableAmberBAF;
+import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.gc.GCProfile;
+import com.hartwig.hmftools.common.genome.gc.ImmutableGCProfile;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.purple.segment.ImmutablePurpleSegment;
+import com.hartwig.hmftools.common.purple.segment.PurpleSegment;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class ObservedRegionFactoryTest {
+
+    private static final int WINDOW_SIZE = 1000;
+    private static final double EPSILON = 1e-10;
+
+    @Test
+    public void testMedian() {
+        final Random random = new Random(1);
+        for (int count = 0; count < 50; count++) {
+            final double[] values = new double[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = random.nextInt(10) / 10d;
+            }
+
+            final double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            final double expected = count == 0 ? 0 : count % 2 == 0 ? (sorted[count / 2] + sorted[count / 2 - 1]) / 2 : sorted[count / 2];
+            assertEquals(expected, ObservedRegionFactory.median(values, count), 0);
+        }
+    }
+
+    @Test
+    public void testCombine() {
+        final ListMultimap<Chromosome, AmberBAF> bafs = ArrayListMultimap.create();
+        bafs.put(HumanChromosome._1, baf("1", 1500, 0.6));
+        bafs.put(HumanChromosome._1, baf("1", 2500, 0.8));
+        bafs.put(HumanChromosome._1, baf("1", 3500, 0.7));
+        bafs.put(HumanChromosome._1, baf("1", 5500, 0.9));
+
+        final ListMultimap<Chromosome, CobaltRatio> ratios = ArrayListMultimap.create();
+        for (long position = 1; position < 6000; position += WINDOW_SIZE) {
+            ratios.put(HumanChromosome._1, PurpleDatamodelTest.cobalt("1", position, position < 4000 ? 1 : 2).build());
+        }
+
+        final ListMultimap<Chromosome, GCProfile> gcProfiles = ArrayListMultimap.create();
+        for (long position = 1; position < 6000; position += WINDOW_SIZE) {
+            gcProfiles.put(HumanChromosome._1, gcProfile("1", position, 0.2 + (position - 1) / 10000d));
+        }
+
+        final List<PurpleSegment> segments = Lists.newArrayList(segment("1", 1, 4000), segment("1", 4001, 6000));
+        final List<ObservedRegion> victim = new ObservedRegionFactory(WINDOW_SIZE, Gender.FEMALE).combine(segments,
+                bafs,
+                ratios,
+                gcProfiles);
+
+        assertEquals(2, victim.size());
+        assertEquals(3, victim.get(0).bafCount());
+        assertEquals(0.7, victim.get(0).observedBAF(), EPSILON);
+        assertEquals(1, victim.get(0).observedTumorRatio(), EPSILON);
+        assertEquals(4, victim.get(0).depthWindowCount());
+        assertEquals(0.35, victim.get(0).gcContent(), EPSILON);
+
+        assertEquals(1, victim.get(1).bafCount());
+        assertEquals(0.9, victim.get(1).observedBAF(), EPSILON);
+        assertEquals(2, victim.get(1).observedTumorRatio(), EPSILON);
+        assertEquals(2, victim.get(1).depthWindowCount());
+        assertEquals(0.65, victim.get(1).gcContent(), EPSILON);
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws Exception {
+        final Random random = new Random(2);
+        final ListMultimap<Chromosome, AmberBAF> bafs = ArrayListMultimap.create();
+        final ListMultimap<Chromosome, CobaltRatio> ratios = ArrayListMultimap.create();
+        final ListMultimap<Chromosome, GCProfile> gcProfiles = ArrayListMultimap.create();
+        final List<PurpleSegment> segments = Lists.newArrayList();
+        createData(random, bafs, ratios, gcProfiles, segments);
+
+        final ObservedRegionFactory victim = new ObservedRegionFactory(WINDOW_SIZE, Gender.MALE);
+        final List<ObservedRegion> expected = victim.combine(segments, bafs, ratios, gcProfiles);
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try {
+            assertEquals(expected, victim.combine(executorService, segments, bafs, ratios, gcProfiles));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    static void createData(@NotNull final Random random, @NotNull final ListMultimap<Chromosome, AmberBAF> bafs,
+            @NotNull final ListMultimap<Chromosome, CobaltRatio> ratios, @NotNull final ListMultimap<Chromosome, GCProfile> gcProfiles,
+            @NotNull final List<PurpleSegment> segments) {
+        for (String contig : new String[] { "1", "2", "X" }) {
+            final Chromosome chromosome = HumanChromosome.fromString(contig);
+            final long length = 500_000;
+            for (long position = 1; position < length; position += WINDOW_SIZE) {
+                ratios.put(chromosome, PurpleDatamodelTest.cobalt(contig, position, random.nextInt(10) == 0 ? -1 : random.nextDouble() * 2)
+                        .referenceGCDiploidRatio(random.nextInt(10) == 0 ? -1 : random.nextDouble() * 2)
+                        .build());
+                gcProfiles.put(chromosome, gcProfile(contig, position, random.nextDouble()));
+            }
+
+            long bafPosition = 1;
+            while (bafPosition < length) {
+                bafPosition += 1 + random.nextInt(2000);
+                bafs.put(chromosome, baf(contig, bafPosition, random.nextInt(20) == 0 ? Double.NaN : 0.5 + random.nextInt(50) / 100d));
+            }
+
+            long start = 1;
+            while (start < length) {
+                final long end = Math.min(length, start + random.nextInt(50_000));
+                segments.add(segment(contig, start, end));
+                start = end + 1;
+            }
+        }
+    }
+
+    @NotNull
+    private static AmberBAF baf(@NotNull final String chromosome, long position, double tumorBAF) {
+        return ImmutableAmberBAF.builder()
+                .chromosome(chromosome)
+                .position(position)
+                .tumorBAF(tumorBAF)
+                .tumorDepth(50)
+                .normalBAF(0.5)
+                .normalDepth(50)
+                .build();
+    }
+
+    @NotNull
+    private static GCProfile gcProfile(@NotNull final String chromosome, long start, double gcContent) {
+        return ImmutableGCProfile.builder()
+                .chromosome(chromosome)
+                .start(start)
+                .end(start + WINDOW_SIZE - 1)
+                .gcContent(gcContent)
+                .nonNPercentage(1)
+                .mappablePercentage(gcContent > 0.1 ? 1 : 0)
+                .build();
+    }
+
+    @NotNull
+    private static PurpleSegment segment(@NotNull final String chromosome, long start, long end) {
+        return ImmutablePurpleSegment.builder()
+                .chromosome(chromosome)
+                .start(start)
+                .end(end)
+                .ratioSupport(true)
+                .support(SegmentSupport.NONE)
+                .svCluster(false)
+                .minStart(start)
+                .maxStart(start)
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class PCFFactoryTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testArmsSegmentedIndependently() throws ExecutionException, InterruptedException {
+        final ListMultimap<Chromosome, GenomePosition> positions = ArrayListMultimap.create();
+        final double[] values = { 1, 1.1, 0.9, 1, Double.NaN, 1, 1.1, 0.9, 1 };
+        for (int i = 0; i < values.length; i++) {
+            positions.put(HumanChromosome._1, GenomePositions.create("1", i < 4 ? 1000 + i : 200000000 + i));
+        }
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        final List<PCFSegment> segments;
+        try {
+            segments = new PCFFactory(executorService).segment(positions, x -> values[index(x)]);
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(2, segments.size());
+        assertSegment(segments.get(0), "p", 1000, 1003, 4, 1);
+        assertSegment(segments.get(1), "q", 200000005, 200000008, 4, 1);
+    }
+
+    private static int index(@NotNull final GenomePosition position) {
+        return (int) (position.position() < 200000000 ? position.position() - 1000 : position.position() - 200000000);
+    }
+
+    private static void assertSegment(@NotNull final PCFSegment segment, @NotNull final String arm, long start, long end, int probes,
+            double mean) {
+        assertEquals(arm, segment.arm());
+        assertEquals(start, segment.start());
+        assertEquals(end, segment.end());
+        assertEquals(probes, segment.probes());
+        assertEquals(mean, segment.mean(), EPSILON);
+    }
+}
@@ -0,0 +1,43 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PCFStandardDeviationTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testMad() {
+        assertEquals(1.4826, PCFStandardDeviation.mad(new double[] { 1, 2, 3, 4, 100 }), EPSILON);
+        assertEquals(1.4826 * 1.5, PCFStandardDeviation.mad(new double[] { 1, 2, 4, 5 }), EPSILON);
+    }
+
+    @Test
+    public void testMedianFilterMatchesRunmed() {
+        // runmed(c(1,5,2,8,3,9,4), k=3, endrule="median")
+        final double[] values = { 1, 5, 2, 8, 3, 9, 4 };
+        assertArrayEquals(new double[] { 1, 2, 5, 3, 8, 4, 4 }, PCFStandardDeviation.medianFilter(values, 1), EPSILON);
+    }
+
+    @Test
+    public void testMedianFilterSmoothsEnds() {
+        // runmed(c(3,1,4,1,5,9,2,6,5), k=5, endrule="median")
+        final double[] values = { 3, 1, 4, 1, 5, 9, 2, 6, 5 };
+        assertArrayEquals(new double[] { 3, 3, 3, 4, 4, 5, 5, 5, 5 }, PCFStandardDeviation.medianFilter(values, 2), EPSILON);
+    }
+
+    @Test
+    public void testWidthTruncatedToLength() {
+        final double[] values = { 3, 1, 2 };
+        assertArrayEquals(new double[] { 2, 2, 2 }, PCFStandardDeviation.medianFilter(values, 25), EPSILON);
+    }
+
+    @Test
+    public void testZerosIgnored() {
+        final double[] values = { 0, 1, 1, 0, 1, 1, 0 };
+        assertEquals(0, PCFStandardDeviation.estimate(values), EPSILON);
+    }
+}
@@ -0,0 +1,101 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class PiecewiseConstantFitTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, new PiecewiseConstantFit(1, 1).fit(new double[0]).length);
+    }
+
+    @Test
+    public void testDetectsSteps() {
+        final double[] values = { 1, 1.1, 0.9, 1, 5, 5.1, 4.9, 5, 1, 1.1, 0.9 };
+        assertArrayEquals(new int[] { 4, 8, 11 }, new PiecewiseConstantFit(1, 1).fit(values));
+    }
+
+    @Test
+    public void testLargePenaltyGivesSingleSegment() {
+        final double[] values = { 1, 1.1, 0.9, 1, 5, 5.1, 4.9, 5, 1, 1.1, 0.9 };
+        assertArrayEquals(new int[] { 11 }, new PiecewiseConstantFit(1000, 1).fit(values));
+    }
+
+    @Test
+    public void testMinSegmentLength() {
+        final double[] values = { 0, 0, 0, 0, 10, 2, 0, 0, 0 };
+        assertArrayEquals(new int[] { 4, 5, 6, 9 }, new PiecewiseConstantFit(1, 1).fit(values));
+        assertArrayEquals(new int[] { 4, 6, 9 }, new PiecewiseConstantFit(1, 2).fit(values));
+    }
+
+    @Test
+    public void testMatchesUnprunedOptimalPartitioning() {
+        final Random random = new Random(0);
+        for (int kmin = 1; kmin <= 3; kmin++) {
+            for (int trial = 0; trial < 20; trial++) {
+                final double[] values = new double[200];
+                double level = 0;
+                for (int i = 0; i < values.length; i++) {
+                    if (random.nextDouble() < 0.05) {
+                        level = random.nextGaussian() * 2;
+                    }
+                    values[i] = level + random.nextGaussian() * 0.5;
+                }
+
+                final double penalty = 0.25 * (1 + random.nextInt(10));
+                final int[] ends = new PiecewiseConstantFit(penalty, kmin).fit(values);
+                assertEquals(exactCost(values, penalty, kmin), cost(values, ends, penalty), EPSILON);
+                for (int i = 0; i < ends.length; i++) {
+                    assertEquals(true, ends[i] - (i == 0 ? 0 : ends[i - 1]) >= kmin);
+                }
+            }
+        }
+    }
+
+    private static double cost(@NotNull final double[] values, @NotNull final int[] ends, double penalty) {
+        double result = -penalty;
+        int start = 0;
+        for (int end : ends) {
+            result += segmentCost(values, start, end) + penalty;
+            start = end;
+        }
+        return result;
+    }
+
+    private static double exactCost(@NotNull final double[] values, double penalty, int kmin) {
+        final int n = values.length;
+        final double[] best = new double[n + 1];
+        best[0] = -penalty;
+        for (int end = 1; end <= n; end++) {
+            best[end] = Double.POSITIVE_INFINITY;
+            for (int start = 0; start <= end - kmin; start++) {
+                if (start == 0 || start >= kmin) {
+                    best[end] = Math.min(best[end], best[start] + segmentCost(values, start, end) + penalty);
+                }
+            }
+        }
+        return best[n];
+    }
+
+    private static double segmentCost(@NotNull final double[] values, int start, int end) {
+        double sum = 0;
+        for (int i = start; i < end; i++) {
+            sum += values[i];
+        }
+
+        final double mean = sum / (end - start);
+        double result = 0;
+        for (int i = start; i < end; i++) {
+            result += (values[i] - mean) * (values[i] - mean);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+package com.hartwig.hmftools.common.variant;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFFileReader;
+
+public class AsyncVariantContextIteratorTest {
+
+    @Test
+    public void testMatchesSynchronousRead() throws IOException {
+        final File vcf = createVCF(new Random(0), 5_000);
+        try (VCFFileReader synchronous = new VCFFileReader(vcf, false); VCFFileReader asynchronous = new VCFFileReader(vcf, false)) {
+            final List<String> expected = Lists.newArrayList();
+            for (VariantContext context : synchronous) {
+                expected.add(describe(context));
+            }
+
+            final List<String> actual = Lists.newArrayList();
+            try (AsyncVariantContextIterator iterator = new AsyncVariantContextIterator(asynchronous.iterator(), 100, 2)) {
+                while (iterator.hasNext()) {
+                    actual.add(describe(iterator.next()));
+                }
+            }
+
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected, actual);
+        } finally {
+            vcf.delete();
+        }
+    }
+
+    @Test
+    public void testGenotypesAreDecoded() throws IOException {
+        final File vcf = createVCF(new Random(1), 10);
+        try (VCFFileReader reader = new VCFFileReader(vcf, false)) {
+            final Iterator<VariantContext> iterator = new AsyncVariantContextIterator(reader.iterator());
+            while (iterator.hasNext()) {
+                final VariantContext context = iterator.next();
+                assertEquals(2, context.getGenotype("TUMOR").getAD().length);
+            }
+        } finally {
+            vcf.delete();
+        }
+    }
+
+    @NotNull
+    private static String describe(@NotNull final VariantContext context) {
+        final StringBuilder builder = new StringBuilder().append(context.getContig())
+                .append(context.getStart())
+                .append(context.getAlleles())
+                .append(context.getAttributes());
+        for (Genotype genotype : context.getGenotypes()) {
+            builder.append(genotype);
+        }
+        return builder.toString();
+    }
+
+    @NotNull
+    private static File createVCF(@NotNull final Random random, int variants) throws IOException {
+        final File file = File.createTempFile("async", ".vcf");
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("##fileformat=VCFv4.2");
+            writer.println("##contig=<ID=1,length=100000000>");
+            writer.println("##INFO=<ID=DP,Number=1,Type=Integer,Description=\"Depth\">");
+            writer.println("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">");
+            writer.println("##FORMAT=<ID=AD,Number=R,Type=Integer,Description=\"Allelic depths\">");
+            writer.println("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tNORMAL\tTUMOR");
+            final String[] bases = { "A", "C", "G", "T" };
+            for (int i = 0; i < variants; i++) {
+                final int ref = random.nextInt(4);
+                final int alt = (ref + 1 + random.nextInt(3)) % 4;
+                writer.println("1\t" + (1 + 10 * i) + "\t.\t" + bases[ref] + "\t" + bases[alt] + "\t.\tPASS\tDP=" + random.nextInt(200)
+                        + "\tGT:AD\t0/0:" + random.nextInt(100) + ",0\t0/1:" + random.nextInt(100) + "," + random.nextInt(100));
+            }
+        }
+        return file;
+    }
+}
@@ -6,9 +6,13 @@ import static org.junit.Assert.assertEquals;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import com.google.common.collect.Lists;
 
+import org.apache.commons.math3.distribution.BinomialDistribution;
+import org.jetbrains.annotations.NotNull;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -22,13 +26,39 @@ public class PealModelFactoryTest {
     }
 
     @Test
-    public void testMaxBucket() {
+    public void testMaxBucket() throws Exception {
         final PeakModelFactory victim = new PeakModelFactory(10, 0.05);
         victim.modelPeakHistogram(8.18, Lists.newArrayList(WeightedPloidyHistogramTest.create(8.18, 18, 55)));
     }
 
+    @Test
+    public void testPloidyLikelihoodMatchesBinomialDistribution() throws Exception {
+        final PeakModelFactory victim = new PeakModelFactory(10, 0.05);
+        for (int totalReadCount = 1; totalReadCount <= 60; totalReadCount += 7) {
+            for (int alleleReadCount = 1; alleleReadCount <= totalReadCount; alleleReadCount += 3) {
+                final WeightedPloidy weighted = WeightedPloidyHistogramTest.create(1.3, alleleReadCount, totalReadCount);
+                for (double ploidy = 0; ploidy <= 10; ploidy += 0.05) {
+                    assertEquals(binomialPloidyLikelihood(ploidy, 0.05, weighted), victim.ploidyLikelihood(ploidy, weighted), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelModelMatchesSequential() throws Exception {
+        final List<PeakModel> sequential = new PeakModelFactory(10, 0.05).model(readResource("ploidies.tsv"));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<PeakModel> parallel = new PeakModelFactory(executorService, 10, 0.05).model(readResource("ploidies.tsv"));
+            assertEquals(sequential, parallel);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
     @Ignore
-    public void testPeakModelling() {
+    public void testPeakModelling() throws Exception {
         long startTime = new Date().getTime();
         final WeightedPloidyHistogram victim = new WeightedPloidyHistogram(10, 0.01);
         List<ModifiableWeightedPloidy> ploidies = readResource("ploidies.tsv");
@@ -40,4 +70,19 @@ public class PealModelFactoryTest {
         List<PeakModel> result = factory.model(ploidies);
         System.out.println(new Date().getTime() - startTime);
     }
+
+    private static double binomialPloidyLikelihood(double ploidy, double modelWidth, @NotNull final WeightedPloidy weighted) {
+        final BinomialDistribution distribution = new BinomialDistribution(weighted.totalReadCount(), weighted.alleleFrequency());
+
+        double lower = Math.max(0, ploidy - modelWidth / 2d) / weighted.ploidy() * weighted.alleleReadCount();
+        int lowerRounded = (int) Math.round(lower);
+        double upper = Math.max(0, ploidy + modelWidth / 2d) / weighted.ploidy() * weighted.alleleReadCount();
+        int upperRounded = (int) Math.round(upper);
+
+        double rawResult = distribution.cumulativeProbability(upperRounded) - distribution.cumulativeProbability(lowerRounded)
+                + (lowerRounded + 0.5 - lower) * distribution.probability(lowerRounded)
+                - (upperRounded + 0.5 - upper) * distribution.probability(upperRounded);
+
+        return Math.round(rawResult * 100) / 100d;
+    }
 }
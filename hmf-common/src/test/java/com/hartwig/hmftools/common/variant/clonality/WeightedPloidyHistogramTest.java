@@ -99,7 +99,7 @@ public class WeightedPloidyHistogramTest {
     }
 
     @Test
-    public void testPeakLikelihood() {
+    public void testPeakLikelihood() throws Exception {
         final PeakModelFactory victim = new PeakModelFactory(10, 0.05);
         final WeightedPloidy ploidy = create(2, 35, 50);
         assertEquals(0.06, victim.ploidyLikelihood(1.8, ploidy), 0.001);
@@ -0,0 +1,164 @@
+package com.hartwig.hmftools.common.variant.recovery;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.PurityAdjuster;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+import com.hartwig.hmftools.common.variant.structural.StructuralVariant;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import htsjdk.tribble.index.IndexFactory;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFCodec;
+
+public class RecoverStructuralVariantsExecutorTest {
+
+    private static final int BREAKS = 40;
+    private static final long SEGMENT_LENGTH = 100000;
+
+    private final PurityAdjuster purityAdjuster = new PurityAdjuster(Gender.FEMALE, 1, 1);
+    private final List<PurpleCopyNumber> copyNumbers = Lists.newArrayList();
+    private final List<StructuralVariant> currentVariants = Lists.newArrayList();
+
+    private File vcf;
+    private File index;
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() throws IOException {
+        vcf = File.createTempFile("recovery", ".vcf");
+        index = new File(vcf.getPath() + ".idx");
+        executorService = Executors.newFixedThreadPool(4);
+
+        final List<String> chromosome1 = Lists.newArrayList();
+        final List<String> chromosome2 = Lists.newArrayList();
+        for (int i = 0; i <= BREAKS; i++) {
+            final long start = i * SEGMENT_LENGTH + 1;
+            // Recovery is never attempted at the first break
+            copyNumbers.add(PurpleDatamodelTest.createCopyNumber("1", start, start + SEGMENT_LENGTH - 1, i % 2 == 0 ? 2 : 3 + i % 3)
+                    .depthWindowCount(10)
+                    .segmentStartSupport(i == 1 ? SegmentSupport.BND : SegmentSupport.NONE)
+                    .build());
+            if (i <= 1) {
+                continue;
+            }
+
+            // Every third break has no candidates so its unbalanced leg is inferred instead
+            currentVariants.add(PurpleDatamodelTest.createStructuralVariantSingleBreakend("1", start - 1, 0.9).build());
+            if (i % 3 == 0) {
+                continue;
+            }
+
+            for (int j = 0; j < 3; j++) {
+                final long position = start - 300 + 200 * j + i;
+                chromosome1.add("1\t" + position + "\tsgl" + i + "_" + j + "\tN\t" + (j % 2 == 0 ? "N." : ".N") + "\t" + (900 + 100 * j + i)
+                        + "\tLOW_QUAL\tSVTYPE=BND;TAF=0.5");
+            }
+
+            final long position = start - 150 + i;
+            final long matePosition = 1000 + i * 5000L;
+            chromosome1.add("1\t" + position + "\tbp" + i + "o\tN\tN[2:" + matePosition + "[\t" + (1000 + 25 * i)
+                    + "\tLOW_QUAL\tSVTYPE=BND;MATEID=bp" + i + "h;TAF=0.5,0.5");
+            chromosome2.add("2\t" + matePosition + "\tbp" + i + "h\tN\t]1:" + position + "]N\t500\tLOW_QUAL\tSVTYPE=BND;MATEID=bp" + i
+                    + "o;TAF=0.5,0.5");
+        }
+
+        chromosome1.sort(RecoverStructuralVariantsExecutorTest::compareLines);
+        try (PrintWriter writer = new PrintWriter(vcf)) {
+            writer.println("##fileformat=VCFv4.2");
+            writer.println("##contig=<ID=1,length=249250621>");
+            writer.println("##contig=<ID=2,length=243199373>");
+            writer.println("##INFO=<ID=SVTYPE,Number=1,Type=String,Description=\"Type\">");
+            writer.println("##INFO=<ID=MATEID,Number=.,Type=String,Description=\"Mate\">");
+            writer.println("##INFO=<ID=TAF,Number=.,Type=Float,Description=\"Tumor allele frequency\">");
+            writer.println("##FILTER=<ID=LOW_QUAL,Description=\"Low quality\">");
+            writer.println("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO");
+            chromosome1.forEach(writer::println);
+            chromosome2.forEach(writer::println);
+        }
+
+        IndexFactory.writeIndex(IndexFactory.createDynamicIndex(vcf, new VCFCodec()), index);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdown();
+        vcf.delete();
+        index.delete();
+    }
+
+    @Test
+    public void testUnbalancedVariantsMatchDirectExecutor() throws Exception {
+        final List<String> expected;
+        try (RecoverStructuralVariants victim = new RecoverStructuralVariants(purityAdjuster, vcf.getPath(), copyNumbers)) {
+            expected = describe(victim.recoverFromUnbalancedVariants(currentVariants, Collections.emptyList()));
+        }
+
+        final List<String> actual;
+        try (RecoverStructuralVariants victim = new RecoverStructuralVariants(executorService,
+                purityAdjuster,
+                vcf.getPath(),
+                copyNumbers)) {
+            actual = describe(victim.recoverFromUnbalancedVariants(currentVariants, Collections.emptyList()));
+        }
+
+        assertTrue(expected.stream().anyMatch(x -> x.startsWith("sgl")));
+        assertTrue(expected.stream().anyMatch(x -> x.startsWith("unbalanced_" + (BREAKS / 3 - 1) + ":")));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testRecoverVariantsMatchDirectExecutor() throws Exception {
+        final List<String> expected;
+        try (RecoverStructuralVariants victim = new RecoverStructuralVariants(purityAdjuster, vcf.getPath(), copyNumbers)) {
+            expected = sorted(victim.recoverVariants(currentVariants));
+        }
+
+        final List<String> actual;
+        try (RecoverStructuralVariants victim = new RecoverStructuralVariants(executorService,
+                purityAdjuster,
+                vcf.getPath(),
+                copyNumbers)) {
+            actual = sorted(victim.recoverVariants(currentVariants));
+        }
+
+        assertTrue(expected.stream().anyMatch(x -> x.startsWith("sgl")));
+        assertTrue(expected.stream().anyMatch(x -> x.startsWith("unbalanced_0:")));
+        assertEquals(expected, actual);
+    }
+
+    @NotNull
+    private static List<String> sorted(@NotNull final Collection<VariantContext> variants) {
+        return describe(variants).stream().sorted().collect(Collectors.toList());
+    }
+
+    @NotNull
+    private static List<String> describe(@NotNull final Collection<VariantContext> variants) {
+        return variants.stream()
+                .map(x -> x.getID() + ":" + x.getContig() + ":" + x.getStart() + ":" + x.getFilters() + x.getAttributes())
+                .collect(Collectors.toList());
+    }
+
+    private static int compareLines(@NotNull final String first, @NotNull final String second) {
+        return Long.compare(Long.parseLong(first.split("\t")[1]), Long.parseLong(second.split("\t")[1]));
+    }
+}
@@ -6,7 +6,6 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
-import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -31,64 +30,64 @@ public class RecoverStructuralVariantsTest {
     private final PurityAdjuster purityAdjuster = new PurityAdjuster(Gender.FEMALE, 1, 0.68);
 
     @Test
-    public void testRecoverUnbalancedSingle() throws IOException {
+    public void testRecoverUnbalancedSingle() throws Exception {
         List<VariantContext> result = singleTest(UNBALANCED_MIN_DEPTH_WINDOW_COUNT, 3);
         assertFalse(result.isEmpty());
         assertEquals(10000, result.get(0).getStart());
     }
 
     @Test
-    public void testSingleIsAlreadyBalanced() throws IOException {
+    public void testSingleIsAlreadyBalanced() throws Exception {
         List<VariantContext> result = singleTest(UNBALANCED_MIN_DEPTH_WINDOW_COUNT, 0.8);
         assertTrue(result.isEmpty());
     }
 
     @Test
-    public void testSingleHasInsufficientDepth() throws IOException {
+    public void testSingleHasInsufficientDepth() throws Exception {
         List<VariantContext> result = singleTest(UNBALANCED_MIN_DEPTH_WINDOW_COUNT - 1, 3);
         assertTrue(result.isEmpty());
     }
 
     @Test
-    public void testDelEndIsUnbalanced() throws IOException {
+    public void testDelEndIsUnbalanced() throws Exception {
         final List<VariantContext> result = delTest(3, 0.8, 0.8);
         assertFalse(result.isEmpty());
         assertEquals(20000, result.get(0).getStart());
     }
 
     @Test
-    public void testDelStartIsUnbalanced() throws IOException {
+    public void testDelStartIsUnbalanced() throws Exception {
         final List<VariantContext> result = delTest(0.8, 0.8, 3);
         assertFalse(result.isEmpty());
         assertEquals(10000, result.get(0).getStart());
     }
 
     @Test
-    public void testDelBothEndsUnbalanced() throws IOException {
+    public void testDelBothEndsUnbalanced() throws Exception {
         final List<VariantContext> result = delTest(3, 3, 3);
         assertTrue(result.isEmpty());
     }
 
     @Test
-    public void testDelBothEndsUnbalancedButWithInsufficientDepthWindowCountInOneEnd() throws IOException {
+    public void testDelBothEndsUnbalancedButWithInsufficientDepthWindowCountInOneEnd() throws Exception {
         final List<VariantContext> result = delTest(3, 3, 3, UNBALANCED_MIN_DEPTH_WINDOW_COUNT - 1);
         assertTrue(result.isEmpty());
     }
 
     @Test
-    public void testDelAlreadyBalanced() throws IOException {
+    public void testDelAlreadyBalanced() throws Exception {
         final List<VariantContext> result = delTest(3, 0.8, 3);
         assertTrue(result.isEmpty());
     }
 
     @NotNull
-    private List<VariantContext> delTest(double startCopyNumber, double middleCopyNumber, double endCopyNumber) throws IOException {
+    private List<VariantContext> delTest(double startCopyNumber, double middleCopyNumber, double endCopyNumber) throws Exception {
         return delTest(startCopyNumber, middleCopyNumber, endCopyNumber, UNBALANCED_MIN_DEPTH_WINDOW_COUNT);
     }
 
     @NotNull
     private List<VariantContext> delTest(double startCopyNumber, double middleCopyNumber, double endCopyNumber, int startDepthWindowCount)
-            throws IOException {
+            throws Exception {
         StructuralVariant del = createDel();
         assertEquals(10001, del.start().cnaPosition());
         assertEquals(20000, del.end().cnaPosition());
@@ -104,7 +103,7 @@ public class RecoverStructuralVariantsTest {
     }
 
     @NotNull
-    private List<VariantContext> singleTest(int depthWindowCount, double endCopyNumber) throws IOException {
+    private List<VariantContext> singleTest(int depthWindowCount, double endCopyNumber) throws Exception {
         long position = 10000;
 
         PurpleCopyNumber start = create(1, position, 3, depthWindowCount);
@@ -0,0 +1,29 @@
+package com.hartwig.hmftools.purple;
+
+import com.hartwig.hmftools.common.purple.purity.FittedPurity;
+
+import org.immutables.value.Value;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+@Value.Immutable
+@Value.Style(passAnnotations = { NotNull.class, Nullable.class })
+public interface AdaptiveFitValidation {
+
+    @NotNull
+    String sample();
+
+    @NotNull
+    FittedPurity exhaustiveFit();
+
+    long exhaustiveTimeMs();
+
+    int exhaustiveFitCount();
+
+    @NotNull
+    FittedPurity adaptiveFit();
+
+    long adaptiveTimeMs();
+
+    int adaptiveFitCount();
+}
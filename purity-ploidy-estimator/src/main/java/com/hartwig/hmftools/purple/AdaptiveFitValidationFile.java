@@ -0,0 +1,104 @@
+package com.hartwig.hmftools.purple;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.DecimalFormat;
+import java.util.List;
+import java.util.StringJoiner;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.purity.FittedPurity;
+import com.hartwig.hmftools.common.purple.purity.ImmutableFittedPurity;
+
+import org.jetbrains.annotations.NotNull;
+
+public final class AdaptiveFitValidationFile {
+
+    private static final DecimalFormat FORMAT = new DecimalFormat("0.0000");
+    private static final String DELIMITER = "\t";
+    public static final String EXTENSION = ".purple.purity.validation.tsv";
+
+    private AdaptiveFitValidationFile() {
+    }
+
+    @NotNull
+    public static String generateFilename(@NotNull final String basePath, @NotNull final String sample) {
+        return basePath + File.separator + sample + EXTENSION;
+    }
+
+    @NotNull
+    public static AdaptiveFitValidation read(@NotNull final String filename) throws IOException {
+        final List<String> lines = Files.readAllLines(new File(filename).toPath());
+        return fromString(lines.get(1));
+    }
+
+    public static void write(@NotNull final String basePath, @NotNull final AdaptiveFitValidation validation) throws IOException {
+        final List<String> lines = Lists.newArrayList();
+        lines.add(header());
+        lines.add(toString(validation));
+        Files.write(new File(generateFilename(basePath, validation.sample())).toPath(), lines);
+    }
+
+    @NotNull
+    static String header() {
+        return new StringJoiner(DELIMITER, "", "").add("sample")
+                .add("exhaustivePurity")
+                .add("exhaustiveNormFactor")
+                .add("exhaustivePloidy")
+                .add("exhaustiveScore")
+                .add("exhaustiveTimeMs")
+                .add("exhaustiveFitCount")
+                .add("adaptivePurity")
+                .add("adaptiveNormFactor")
+                .add("adaptivePloidy")
+                .add("adaptiveScore")
+                .add("adaptiveTimeMs")
+                .add("adaptiveFitCount")
+                .toString();
+    }
+
+    @NotNull
+    private static String toString(@NotNull final AdaptiveFitValidation validation) {
+        return new StringJoiner(DELIMITER).add(validation.sample())
+                .add(FORMAT.format(validation.exhaustiveFit().purity()))
+                .add(FORMAT.format(validation.exhaustiveFit().normFactor()))
+                .add(FORMAT.format(validation.exhaustiveFit().ploidy()))
+                .add(FORMAT.format(validation.exhaustiveFit().score()))
+                .add(String.valueOf(validation.exhaustiveTimeMs()))
+                .add(String.valueOf(validation.exhaustiveFitCount()))
+                .add(FORMAT.format(validation.adaptiveFit().purity()))
+                .add(FORMAT.format(validation.adaptiveFit().normFactor()))
+                .add(FORMAT.format(validation.adaptiveFit().ploidy()))
+                .add(FORMAT.format(validation.adaptiveFit().score()))
+                .add(String.valueOf(validation.adaptiveTimeMs()))
+                .add(String.valueOf(validation.adaptiveFitCount()))
+                .toString();
+    }
+
+    @NotNull
+    private static AdaptiveFitValidation fromString(@NotNull final String line) {
+        final String[] values = line.split(DELIMITER);
+        return ImmutableAdaptiveFitValidation.builder()
+                .sample(values[0])
+                .exhaustiveFit(fit(values, 1))
+                .exhaustiveTimeMs(Long.parseLong(values[5]))
+                .exhaustiveFitCount(Integer.parseInt(values[6]))
+                .adaptiveFit(fit(values, 7))
+                .adaptiveTimeMs(Long.parseLong(values[11]))
+                .adaptiveFitCount(Integer.parseInt(values[12]))
+                .build();
+    }
+
+    @NotNull
+    private static FittedPurity fit(@NotNull final String[] values, int offset) {
+        return ImmutableFittedPurity.builder()
+                .purity(Double.parseDouble(values[offset]))
+                .normFactor(Double.parseDouble(values[offset + 1]))
+                .ploidy(Double.parseDouble(values[offset + 2]))
+                .score(Double.parseDouble(values[offset + 3]))
+                .diploidProportion(0)
+                .somaticPenalty(0)
+                .build();
+    }
+}
@@ -0,0 +1,223 @@
+package com.hartwig.hmftools.purple;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import com.hartwig.hmftools.common.amber.AmberBAFFile;
+import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
+import com.hartwig.hmftools.common.purple.cache.ArtefactCacheFile;
+import com.hartwig.hmftools.common.purple.cache.ArtefactKey;
+import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.purity.BestFit;
+import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+import com.hartwig.hmftools.common.utils.pcf.PCFFile;
+import com.hartwig.hmftools.common.variant.SomaticVariant;
+import com.hartwig.hmftools.purple.config.CommonConfig;
+import com.hartwig.hmftools.purple.config.ConfigSupplier;
+import com.hartwig.hmftools.purple.config.FittingConfig;
+import com.hartwig.hmftools.purple.config.SmoothingConfig;
+import com.hartwig.hmftools.purple.config.SomaticConfig;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Reuses segmentation, fit and copy number results of an earlier run in the same output directory when the inputs and config they
+ * depend on are unchanged. Each key includes the key of the stage before it so an invalidated stage invalidates everything after.
+ * When disabled, keys are not computed, nothing is read and nothing is written.
+ */
+class ArtefactCache {
+
+    private static final Logger LOGGER = LogManager.getLogger(ArtefactCache.class);
+
+    private static final String SEGMENTATION = "segmentation";
+    private static final String FIT = "fit";
+    private static final String COPY_NUMBER = "copynumber";
+    private static final String GERMLINE_DELETION = "germline";
+    private static final String RECOVERED = "recovered.";
+
+    private final boolean enabled;
+    private final String outputDirectory;
+    private final String tumorSample;
+
+    ArtefactCache(boolean enabled, @NotNull final CommonConfig config) {
+        this.enabled = enabled;
+        this.outputDirectory = config.outputDirectory();
+        this.tumorSample = config.tumorSample();
+    }
+
+    @NotNull
+    String segmentationKey(@NotNull final ConfigSupplier configSupplier) throws IOException {
+        if (!enabled) {
+            return "";
+        }
+
+        final CommonConfig config = configSupplier.commonConfig();
+        final ArtefactKey key = new ArtefactKey().add("version", config.version())
+                .add("windowSize", config.windowSize())
+                .add("hg38", configSupplier.refGenomeConfig().isHg38())
+                .addFile("amber", AmberBAFFile.generateAmberFilenameForReading(config.amberDirectory(), config.tumorSample()))
+                .addFile("amberPcf", PCFFile.generateBAFFilename(config.amberDirectory(), config.tumorSample()))
+                .addFile("cobalt", CobaltRatioFile.generateFilenameForReading(config.cobaltDirectory(), config.tumorSample()))
+                .addFile("cobaltReferencePcf", PCFFile.generateRatioFilename(config.cobaltDirectory(), config.refSample()))
+                .addFile("cobaltTumorPcf", PCFFile.generateRatioFilename(config.cobaltDirectory(), config.tumorSample()))
+                .addFile("gcProfile", config.gcProfile());
+
+        final Optional<File> svFile = configSupplier.structuralVariantConfig().file();
+        if (svFile.isPresent()) {
+            key.addFile("structuralVariants", svFile.get().toString());
+        }
+
+        return key.digest();
+    }
+
+    @NotNull
+    String fitKey(@NotNull final String segmentationKey, @NotNull final ConfigSupplier configSupplier,
+            @NotNull final List<SomaticVariant> fittingSomatics) {
+        if (!enabled) {
+            return "";
+        }
+
+        final FittingConfig fittingConfig = configSupplier.fittingConfig();
+        final SomaticConfig somaticConfig = configSupplier.somaticConfig();
+        final ArtefactKey key = new ArtefactKey().add(SEGMENTATION, segmentationKey)
+                .add("minPurity", fittingConfig.minPurity())
+                .add("maxPurity", fittingConfig.maxPurity())
+                .add("purityIncrement", fittingConfig.purityIncrement())
+                .add("minNormFactor", fittingConfig.minNormFactor())
+                .add("maxNormFactor", fittingConfig.maxNormFactor())
+                .add("normFactorIncrement", fittingConfig.normFactorIncrement())
+                .add("maxPloidy", fittingConfig.maxPloidy())
+                .add("adaptiveFit", fittingConfig.adaptiveFit())
+                .add("fitScore", configSupplier.fitScoreConfig())
+                .add("somaticPenaltyWeight", somaticConfig.somaticPenaltyWeight())
+                .add("minSomaticUnadjustedVaf", somaticConfig.minSomaticUnadjustedVaf())
+                .add("minTotalVariants", somaticConfig.minTotalVariants())
+                .add("minPeakVariants", somaticConfig.minPeakVariants())
+                .add("highlyDiploidPercentage", somaticConfig.highlyDiploidPercentage())
+                .add("minSomaticPurity", somaticConfig.minSomaticPurity())
+                .add("minSomaticPuritySpread", somaticConfig.minSomaticPuritySpread())
+                .add("tumorOnly", configSupplier.commonConfig().tumorOnly());
+
+        // Only the fields the fit reads so that re-annotating the somatic VCF does not invalidate it
+        for (SomaticVariant variant : fittingSomatics) {
+            key.add("somatic",
+                    variant.chromosome() + ":" + variant.position() + ":" + variant.ref() + ":" + variant.alt() + ":"
+                            + variant.alleleReadCount() + ":" + variant.totalReadCount());
+        }
+
+        return key.digest();
+    }
+
+    @NotNull
+    String copyNumberKey(@NotNull final String fitKey, @NotNull final SmoothingConfig smoothingConfig) {
+        if (!enabled) {
+            return "";
+        }
+
+        return new ArtefactKey().add(FIT, fitKey).add("smoothing", smoothingConfig).digest();
+    }
+
+    @NotNull
+    String recoveredKey(@NotNull final String copyNumberKey, @NotNull final ConfigSupplier configSupplier) throws IOException {
+        if (!enabled) {
+            return "";
+        }
+
+        final ArtefactKey key = new ArtefactKey().add(COPY_NUMBER, copyNumberKey);
+        final Optional<File> recoveryFile = configSupplier.structuralVariantConfig().recoveryFile();
+        if (recoveryFile.isPresent()) {
+            key.addFile("recovery", recoveryFile.get().toString());
+        }
+        return key.digest();
+    }
+
+    @NotNull
+    Optional<List<ObservedRegion>> segmentation(@NotNull final String key) throws IOException {
+        return enabled ? log(SEGMENTATION, ArtefactCacheFile.readObservedRegions(filename(SEGMENTATION), key)) : Optional.empty();
+    }
+
+    void writeSegmentation(@NotNull final String key, @NotNull final List<ObservedRegion> regions) throws IOException {
+        if (enabled) {
+            ArtefactCacheFile.writeObservedRegions(filename(SEGMENTATION), key, regions);
+        }
+    }
+
+    @NotNull
+    Optional<BestFit> fit(@NotNull final String key) throws IOException {
+        return enabled ? log(FIT, ArtefactCacheFile.readBestFit(filename(FIT), key)) : Optional.empty();
+    }
+
+    void writeFit(@NotNull final String key, @NotNull final BestFit bestFit) throws IOException {
+        if (enabled) {
+            ArtefactCacheFile.writeBestFit(filename(FIT), key, bestFit);
+        }
+    }
+
+    @NotNull
+    Optional<List<PurpleCopyNumber>> copyNumbers(@NotNull final String key) throws IOException {
+        return enabled ? log(COPY_NUMBER, ArtefactCacheFile.readCopyNumbers(filename(COPY_NUMBER), key)) : Optional.empty();
+    }
+
+    @NotNull
+    Optional<List<PurpleCopyNumber>> germlineDeletions(@NotNull final String key) throws IOException {
+        return enabled ? ArtefactCacheFile.readCopyNumbers(filename(GERMLINE_DELETION), key) : Optional.empty();
+    }
+
+    void writeCopyNumbers(@NotNull final String key, @NotNull final List<PurpleCopyNumber> copyNumbers,
+            @NotNull final List<PurpleCopyNumber> germlineDeletions) throws IOException {
+        if (enabled) {
+            ArtefactCacheFile.writeCopyNumbers(filename(GERMLINE_DELETION), key, germlineDeletions);
+            ArtefactCacheFile.writeCopyNumbers(filename(COPY_NUMBER), key, copyNumbers);
+        }
+    }
+
+    @NotNull
+    Optional<List<ObservedRegion>> recoveredSegmentation(@NotNull final String key) throws IOException {
+        return enabled
+                ? log(RECOVERED + SEGMENTATION, ArtefactCacheFile.readObservedRegions(filename(RECOVERED + SEGMENTATION), key))
+                : Optional.empty();
+    }
+
+    void writeRecoveredSegmentation(@NotNull final String key, @NotNull final List<ObservedRegion> regions) throws IOException {
+        if (enabled) {
+            ArtefactCacheFile.writeObservedRegions(filename(RECOVERED + SEGMENTATION), key, regions);
+        }
+    }
+
+    @NotNull
+    Optional<List<PurpleCopyNumber>> recoveredCopyNumbers(@NotNull final String key) throws IOException {
+        return enabled
+                ? log(RECOVERED + COPY_NUMBER, ArtefactCacheFile.readCopyNumbers(filename(RECOVERED + COPY_NUMBER), key))
+                : Optional.empty();
+    }
+
+    @NotNull
+    Optional<List<PurpleCopyNumber>> recoveredGermlineDeletions(@NotNull final String key) throws IOException {
+        return enabled ? ArtefactCacheFile.readCopyNumbers(filename(RECOVERED + GERMLINE_DELETION), key) : Optional.empty();
+    }
+
+    void writeRecoveredCopyNumbers(@NotNull final String key, @NotNull final List<PurpleCopyNumber> copyNumbers,
+            @NotNull final List<PurpleCopyNumber> germlineDeletions) throws IOException {
+        if (enabled) {
+            ArtefactCacheFile.writeCopyNumbers(filename(RECOVERED + GERMLINE_DELETION), key, germlineDeletions);
+            ArtefactCacheFile.writeCopyNumbers(filename(RECOVERED + COPY_NUMBER), key, copyNumbers);
+        }
+    }
+
+    @NotNull
+    private String filename(@NotNull final String artefact) {
+        return ArtefactCacheFile.generateFilename(outputDirectory, tumorSample, artefact);
+    }
+
+    @NotNull
+    private static <T> Optional<T> log(@NotNull final String artefact, @NotNull final Optional<T> cached) {
+        if (cached.isPresent()) {
+            LOGGER.info("Reusing cached {} from previous run", artefact);
+        }
+        return cached;
+    }
+}
@@ -11,6 +11,7 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -93,9 +94,12 @@ public class PurityPloidyEstimateApplication {
     private static final String THREADS = "threads";
     private static final String VERSION = "version";
     private static final String EXPERIMENTAL = "experimental";
+    private static final String ARTEFACT_CACHE = "artefact_cache";
 
     public static void main(final String... args)
             throws ParseException, IOException, SQLException, ExecutionException, InterruptedException {
+        // Charts are rendered with Java2D so AWT must never try to reach a display
+        System.setProperty("java.awt.headless", "true");
         new PurityPloidyEstimateApplication(args);
     }
 
@@ -141,14 +145,34 @@ public class PurityPloidyEstimateApplication {
                     ? Collections.emptyList()
                     : allSomatics.stream().filter(SomaticVariant::isSnp).collect(Collectors.toList());
 
-            LOGGER.info("Applying segmentation");
-            final Segmentation segmentation = new Segmentation(configSupplier, cobaltGender);
-            final List<ObservedRegion> observedRegions = segmentation.createSegments(structuralVariants.variants());
+            final ArtefactCache cache = new ArtefactCache(cmd.hasOption(ARTEFACT_CACHE), config);
+            final String segmentationKey = cache.segmentationKey(configSupplier);
+
+            Segmentation segmentation = null;
+            final List<ObservedRegion> observedRegions;
+            final Optional<List<ObservedRegion>> cachedObservedRegions = cache.segmentation(segmentationKey);
+            if (cachedObservedRegions.isPresent()) {
+                observedRegions = cachedObservedRegions.get();
+            } else {
+                LOGGER.info("Applying segmentation");
+                segmentation = new Segmentation(configSupplier, cobaltGender);
+                observedRegions = segmentation.createSegments(executorService, structuralVariants.variants());
+                cache.writeSegmentation(segmentationKey, observedRegions);
+            }
 
-            LOGGER.info("Fitting purity");
             final FitScoreConfig fitScoreConfig = configSupplier.fitScoreConfig();
             final FittedRegionFactory fittedRegionFactory = createFittedRegionFactory(averageTumorDepth, cobaltGender, fitScoreConfig);
-            final BestFit bestFit = fitPurity(executorService, configSupplier, cobaltGender, fittingSomatics, observedRegions, fittedRegionFactory);
+            final String fitKey = cache.fitKey(segmentationKey, configSupplier, fittingSomatics);
+            final Optional<BestFit> cachedBestFit =
+                    configSupplier.fittingConfig().adaptiveFitValidation() ? Optional.empty() : cache.fit(fitKey);
+            final BestFit bestFit;
+            if (cachedBestFit.isPresent()) {
+                bestFit = cachedBestFit.get();
+            } else {
+                LOGGER.info("Fitting purity");
+                bestFit = fitPurity(executorService, configSupplier, cobaltGender, fittingSomatics, observedRegions, fittedRegionFactory);
+                cache.writeFit(fitKey, bestFit);
+            }
             final FittedPurity fittedPurity = bestFit.fit();
             final PurityAdjuster purityAdjuster = new PurityAdjuster(cobaltGender, fittedPurity);
 
@@ -162,29 +186,64 @@ public class PurityPloidyEstimateApplication {
             LOGGER.info("Calculating copy number");
             List<FittedRegion> fittedRegions =
                     fittedRegionFactory.fitRegion(fittedPurity.purity(), fittedPurity.normFactor(), observedRegions);
-            copyNumberFactory.invoke(fittedRegions, structuralVariants.variants());
+            final String copyNumberKey = cache.copyNumberKey(fitKey, smoothingConfig);
+            final Optional<List<PurpleCopyNumber>> cachedCopyNumbers = cache.copyNumbers(copyNumberKey);
+            final Optional<List<PurpleCopyNumber>> cachedGermlineDeletions = cache.germlineDeletions(copyNumberKey);
+            List<PurpleCopyNumber> copyNumbers;
+            List<PurpleCopyNumber> germlineDeletions;
+            if (cachedCopyNumbers.isPresent() && cachedGermlineDeletions.isPresent()) {
+                copyNumbers = cachedCopyNumbers.get();
+                germlineDeletions = cachedGermlineDeletions.get();
+            } else {
+                copyNumberFactory.invoke(executorService, fittedRegions, structuralVariants.variants());
+                copyNumbers = copyNumberFactory.copyNumbers();
+                germlineDeletions = copyNumberFactory.germlineDeletions();
+                cache.writeCopyNumbers(copyNumberKey, copyNumbers, germlineDeletions);
+            }
 
-            final int recoveredSVCount = recoverStructuralVariants(configSupplier.structuralVariantConfig(),
+            final int recoveredSVCount = recoverStructuralVariants(executorService,
+                    configSupplier.structuralVariantConfig(),
                     structuralVariants,
                     purityAdjuster,
-                    copyNumberFactory.copyNumbers());
+                    copyNumbers);
             if (recoveredSVCount > 0) {
-                LOGGER.info("Reapplying segmentation with {} recovered structural variants", recoveredSVCount);
-                final List<ObservedRegion> recoveredObservedRegions = segmentation.createSegments(structuralVariants.variants());
+                final String recoveredKey = cache.recoveredKey(copyNumberKey, configSupplier);
+                final List<ObservedRegion> recoveredObservedRegions;
+                final Optional<List<ObservedRegion>> cachedRecoveredObservedRegions = cache.recoveredSegmentation(recoveredKey);
+                if (cachedRecoveredObservedRegions.isPresent()) {
+                    recoveredObservedRegions = cachedRecoveredObservedRegions.get();
+                } else {
+                    LOGGER.info("Reapplying segmentation with {} recovered structural variants", recoveredSVCount);
+                    if (segmentation == null) {
+                        segmentation = new Segmentation(configSupplier, cobaltGender);
+                    }
+                    recoveredObservedRegions = segmentation.createSegments(executorService, structuralVariants.variants());
+                    cache.writeRecoveredSegmentation(recoveredKey, recoveredObservedRegions);
+                }
 
                 LOGGER.info("Recalculating copy number");
                 fittedRegions = fittedRegionFactory.fitRegion(fittedPurity.purity(), fittedPurity.normFactor(), recoveredObservedRegions);
-                copyNumberFactory.invoke(fittedRegions, structuralVariants.variants());
+                final Optional<List<PurpleCopyNumber>> cachedRecoveredCopyNumbers = cache.recoveredCopyNumbers(recoveredKey);
+                final Optional<List<PurpleCopyNumber>> cachedRecoveredGermlineDeletions = cache.recoveredGermlineDeletions(recoveredKey);
+                if (cachedRecoveredCopyNumbers.isPresent() && cachedRecoveredGermlineDeletions.isPresent()) {
+                    copyNumbers = cachedRecoveredCopyNumbers.get();
+                    germlineDeletions = cachedRecoveredGermlineDeletions.get();
+                } else {
+                    copyNumberFactory.invoke(executorService, fittedRegions, structuralVariants.variants());
+                    copyNumbers = copyNumberFactory.copyNumbers();
+                    germlineDeletions = copyNumberFactory.germlineDeletions();
+                    cache.writeRecoveredCopyNumbers(recoveredKey, copyNumbers, germlineDeletions);
+                }
             }
 
-            final List<PurpleCopyNumber> copyNumbers = copyNumberFactory.copyNumbers();
             structuralVariants.inferMissingVariant(copyNumbers);
 
-            final List<PurpleCopyNumber> germlineDeletions = copyNumberFactory.germlineDeletions();
             final List<FittedRegion> enrichedFittedRegions = updateRegionsWithCopyNumbers(fittedRegions, copyNumbers);
 
-            final List<GeneCopyNumber> geneCopyNumbers =
-                    GeneCopyNumberFactory.geneCopyNumbers(configSupplier.refGenomeConfig().genePanel(), copyNumbers, germlineDeletions);
+            final List<GeneCopyNumber> geneCopyNumbers = GeneCopyNumberFactory.geneCopyNumbers(executorService,
+                    configSupplier.refGenomeConfig().genePanel(),
+                    copyNumbers,
+                    germlineDeletions);
 
             LOGGER.info("Generating QC Stats");
             final PurpleQC qcChecks = PurpleQCFactory.create(bestFit.fit(), copyNumbers, amberGender, cobaltGender, geneCopyNumbers);
@@ -193,7 +252,7 @@ public class PurityPloidyEstimateApplication {
             final List<PurityAdjustedSomaticVariant> enrichedSomatics =
                     new PurityAdjustedSomaticVariantFactory(tumorSample, purityAdjuster, copyNumbers, enrichedFittedRegions).create(
                             allSomatics);
-            final List<PeakModel> somaticPeaks = modelSomaticPeaks(configSupplier.somaticConfig(), enrichedSomatics);
+            final List<PeakModel> somaticPeaks = modelSomaticPeaks(executorService, configSupplier.somaticConfig(), enrichedSomatics);
 
             LOGGER.info("Enriching somatic variants");
             final SomaticStream somaticStream = new SomaticStream(config, configSupplier.somaticConfig(), configSupplier.refGenomeConfig());
@@ -255,8 +314,11 @@ public class PurityPloidyEstimateApplication {
             LOGGER.info("Generating charts");
 
             new Charts(configSupplier, executorService).write(cobaltGender,
+                    bestFit,
                     copyNumbers,
                     enrichedSomatics,
+                    somaticStream.kataegis(),
+                    somaticPeaks,
                     structuralVariants.variants(),
                     fittedRegions,
                     Lists.newArrayList(bafs.values()));
@@ -267,16 +329,19 @@ public class PurityPloidyEstimateApplication {
         LOGGER.info("Complete");
     }
 
-    private int recoverStructuralVariants(@NotNull final StructuralVariantConfig svConfig,
+    private int recoverStructuralVariants(@NotNull final ExecutorService executorService, @NotNull final StructuralVariantConfig svConfig,
             @NotNull final PurpleStructuralVariantSupplier structuralVariants, @NotNull final PurityAdjuster purityAdjuster,
-            @NotNull final List<PurpleCopyNumber> copyNumbers) throws IOException {
+            @NotNull final List<PurpleCopyNumber> copyNumbers) throws IOException, ExecutionException, InterruptedException {
         if (!svConfig.recoveryFile().isPresent()) {
             return 0;
         }
 
         final String vcfRecoveryFile = svConfig.recoveryFile().get().toString();
         LOGGER.info("Loading recovery candidates from {}", vcfRecoveryFile);
-        try (final RecoverStructuralVariants recovery = new RecoverStructuralVariants(purityAdjuster, vcfRecoveryFile, copyNumbers)) {
+        try (final RecoverStructuralVariants recovery = new RecoverStructuralVariants(executorService,
+                purityAdjuster,
+                vcfRecoveryFile,
+                copyNumbers)) {
             final Collection<VariantContext> recoveredVariants = recovery.recoverVariants(structuralVariants.variants());
             if (!recoveredVariants.isEmpty()) {
                 recoveredVariants.forEach(structuralVariants::addVariant);
@@ -288,10 +353,54 @@ public class PurityPloidyEstimateApplication {
     @NotNull
     private BestFit fitPurity(final ExecutorService executorService, final ConfigSupplier configSupplier, final Gender cobaltGender,
             final List<SomaticVariant> snpSomatics, final List<ObservedRegion> observedRegions,
-            final FittedRegionFactory fittedRegionFactory) throws ExecutionException, InterruptedException {
+            final FittedRegionFactory fittedRegionFactory) throws ExecutionException, InterruptedException, IOException {
         final FittingConfig fittingConfig = configSupplier.fittingConfig();
         final SomaticConfig somaticConfig = configSupplier.somaticConfig();
-        final FittedPurityFactory fittedPurityFactory = new FittedPurityFactory(executorService,
+
+        long startTime = System.currentTimeMillis();
+        final FittedPurityFactory fittedPurityFactory =
+                fittedPurityFactory(executorService, configSupplier, cobaltGender, snpSomatics, observedRegions, fittedRegionFactory,
+                        fittingConfig.adaptiveFit());
+        final BestFit bestFit = bestFit(somaticConfig, fittedPurityFactory, snpSomatics);
+
+        if (fittingConfig.adaptiveFitValidation()) {
+            final long adaptiveTime = System.currentTimeMillis() - startTime;
+            startTime = System.currentTimeMillis();
+            final FittedPurityFactory exhaustiveFactory =
+                    fittedPurityFactory(executorService, configSupplier, cobaltGender, snpSomatics, observedRegions, fittedRegionFactory,
+                            false);
+            final BestFit exhaustiveBestFit = bestFit(somaticConfig, exhaustiveFactory, snpSomatics);
+            final long exhaustiveTime = System.currentTimeMillis() - startTime;
+
+            final AdaptiveFitValidation validation = ImmutableAdaptiveFitValidation.builder()
+                    .sample(configSupplier.commonConfig().tumorSample())
+                    .exhaustiveFit(exhaustiveBestFit.fit())
+                    .exhaustiveTimeMs(exhaustiveTime)
+                    .exhaustiveFitCount(exhaustiveFactory.evaluatedCount())
+                    .adaptiveFit(bestFit.fit())
+                    .adaptiveTimeMs(adaptiveTime)
+                    .adaptiveFitCount(fittedPurityFactory.evaluatedCount())
+                    .build();
+
+            LOGGER.info("Adaptive fit purity {} ploidy {} in {}ms, exhaustive fit purity {} ploidy {} in {}ms",
+                    validation.adaptiveFit().purity(),
+                    validation.adaptiveFit().ploidy(),
+                    adaptiveTime,
+                    validation.exhaustiveFit().purity(),
+                    validation.exhaustiveFit().ploidy(),
+                    exhaustiveTime);
+            AdaptiveFitValidationFile.write(configSupplier.commonConfig().outputDirectory(), validation);
+        }
+
+        return bestFit;
+    }
+
+    @NotNull
+    private static FittedPurityFactory fittedPurityFactory(final ExecutorService executorService, final ConfigSupplier configSupplier,
+            final Gender cobaltGender, final List<SomaticVariant> snpSomatics, final List<ObservedRegion> observedRegions,
+            final FittedRegionFactory fittedRegionFactory, boolean adaptiveFit) throws ExecutionException, InterruptedException {
+        final FittingConfig fittingConfig = configSupplier.fittingConfig();
+        return new FittedPurityFactory(executorService,
                 cobaltGender,
                 fittingConfig.maxPloidy(),
                 fittingConfig.minPurity(),
@@ -300,11 +409,16 @@ public class PurityPloidyEstimateApplication {
                 fittingConfig.minNormFactor(),
                 fittingConfig.maxNormFactor(),
                 fittingConfig.normFactorIncrement(),
-                somaticConfig.somaticPenaltyWeight(),
+                configSupplier.somaticConfig().somaticPenaltyWeight(),
                 fittedRegionFactory,
                 observedRegions,
-                snpSomatics);
+                snpSomatics,
+                adaptiveFit);
+    }
 
+    @NotNull
+    private static BestFit bestFit(final SomaticConfig somaticConfig, final FittedPurityFactory fittedPurityFactory,
+            final List<SomaticVariant> snpSomatics) {
         final BestFitFactory bestFitFactory = new BestFitFactory(somaticConfig.minSomaticUnadjustedVaf(),
                 somaticConfig.minTotalVariants(),
                 somaticConfig.minPeakVariants(),
@@ -371,6 +485,9 @@ public class PurityPloidyEstimateApplication {
 
         options.addOption(THREADS, true, "Number of threads (default 2)");
         options.addOption(EXPERIMENTAL, false, "Anything goes!");
+        options.addOption(ARTEFACT_CACHE,
+                false,
+                "Reuse segmentation, fit and copy number results of a previous run with unchanged inputs.");
         options.addOption(VERSION, false, "Exit after displaying version info.");
 
         return options;
@@ -388,8 +505,8 @@ public class PurityPloidyEstimateApplication {
     }
 
     @NotNull
-    private List<PeakModel> modelSomaticPeaks(@NotNull final SomaticConfig config,
-            @NotNull final List<PurityAdjustedSomaticVariant> enrichedSomatics) {
+    private List<PeakModel> modelSomaticPeaks(@NotNull final ExecutorService executorService, @NotNull final SomaticConfig config,
+            @NotNull final List<PurityAdjustedSomaticVariant> enrichedSomatics) throws ExecutionException, InterruptedException {
         final List<ModifiableWeightedPloidy> weightedPloidies = Lists.newArrayList();
         for (PurityAdjustedSomaticVariant enrichedSomatic : enrichedSomatics) {
             if (Doubles.lessThan(enrichedSomatic.ploidy(), config.clonalityMaxPloidy()) && !enrichedSomatic.isFiltered()
@@ -402,7 +519,7 @@ public class PurityPloidyEstimateApplication {
             }
         }
 
-        return new PeakModelFactory(config.clonalityMaxPloidy(), config.clonalityBinWidth()).model(weightedPloidies);
+        return new PeakModelFactory(executorService, config.clonalityMaxPloidy(), config.clonalityBinWidth()).model(weightedPloidies);
     }
 
 }
@@ -17,6 +17,7 @@ import java.util.Optional;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeBlockCache;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
@@ -160,7 +161,7 @@ class PurpleStructuralVariantSupplier {
                             .build()) {
 
                 final StructuralRefContextEnrichment refEnricher =
-                        new StructuralRefContextEnrichment(indexedFastaSequenceFile, writer::add);
+                        new StructuralRefContextEnrichment(new RefGenomeBlockCache(indexedFastaSequenceFile), writer::add);
                 writer.writeHeader(refEnricher.enrichHeader(header.get()));
 
                 enriched(purityAdjuster, copyNumbers).forEach(refEnricher);
@@ -2,6 +2,8 @@ package com.hartwig.hmftools.purple;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
@@ -50,7 +52,8 @@ class Segmentation {
     }
 
     @NotNull
-    public List<ObservedRegion> createSegments(@NotNull final List<StructuralVariant> structuralVariants) {
+    public List<ObservedRegion> createSegments(@NotNull final ExecutorService executorService,
+            @NotNull final List<StructuralVariant> structuralVariants) throws ExecutionException, InterruptedException {
         final PurpleSegmentFactory factory = new PurpleSegmentFactory(config.windowSize(),
                 configSupplier.refGenomeConfig().centromere(),
                 configSupplier.refGenomeConfig().length());
@@ -58,6 +61,6 @@ class Segmentation {
         final List<PurpleSegment> segments = factory.segment(structuralVariants, pcfPositions, ratios);
 
         final ObservedRegionFactory observedRegionFactory = new ObservedRegionFactory(config.windowSize(), gender);
-        return observedRegionFactory.combine(segments, bafs, ratios, gcProfiles);
+        return observedRegionFactory.combine(executorService, segments, bafs, ratios, gcProfiles);
     }
 }
@@ -18,6 +18,8 @@ public interface FittingConfig {
     String MIN_NORM_FACTOR = "min_norm_factor";
     String MAX_NORM_FACTOR = "max_norm_factor";
     String NORM_FACTOR_INCREMENTS = "norm_factor_increment";
+    String ADAPTIVE_FIT = "adaptive_fit";
+    String ADAPTIVE_FIT_VALIDATION = "adaptive_fit_validation";
 
     double MIN_PURITY_DEFAULT = 0.08;
     double MAX_PURITY_DEFAULT = 1.0;
@@ -34,6 +36,9 @@ public interface FittingConfig {
         options.addOption(MIN_NORM_FACTOR, true, "Minimum norm factor (default " + MIN_NORM_FACTOR_DEFAULT + ")");
         options.addOption(MAX_NORM_FACTOR, true, "Maximum norm factor (default " + MAX_NORM_FACTOR_DEFAULT + ")");
         options.addOption(NORM_FACTOR_INCREMENTS, true, "Norm factor increments (default  " + NORM_FACTOR_INCREMENTS_DEFAULT + ")");
+
+        options.addOption(ADAPTIVE_FIT, false, "Fit a coarse grid and refine around its best local minima");
+        options.addOption(ADAPTIVE_FIT_VALIDATION, false, "Also run the exhaustive fit and write a comparison with the adaptive fit");
     }
 
     double minPurity();
@@ -52,6 +57,10 @@ public interface FittingConfig {
         return 20;
     }
 
+    boolean adaptiveFit();
+
+    boolean adaptiveFitValidation();
+
     @NotNull
     static FittingConfig createConfig(@NotNull final CommandLine cmd) {
         final double minPurity = defaultValue(cmd, MIN_PURITY, MIN_PURITY_DEFAULT);
@@ -68,6 +77,8 @@ public interface FittingConfig {
                 .minNormFactor(minNormFactor)
                 .maxNormFactor(maxNormFactor)
                 .normFactorIncrement(normFactorIncrement)
+                .adaptiveFit(cmd.hasOption(ADAPTIVE_FIT) || cmd.hasOption(ADAPTIVE_FIT_VALIDATION))
+                .adaptiveFitValidation(cmd.hasOption(ADAPTIVE_FIT_VALIDATION))
                 .build();
 
     }
@@ -3,15 +3,19 @@ package com.hartwig.hmftools.purple.plot;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.purple.purity.BestFit;
 import com.hartwig.hmftools.common.purple.region.FittedRegion;
 import com.hartwig.hmftools.common.variant.PurityAdjustedSomaticVariant;
+import com.hartwig.hmftools.common.variant.clonality.PeakModel;
 import com.hartwig.hmftools.common.variant.structural.StructuralVariant;
 import com.hartwig.hmftools.purple.config.ChartConfig;
 import com.hartwig.hmftools.purple.config.ConfigSupplier;
@@ -22,7 +26,7 @@ import org.jetbrains.annotations.NotNull;
 
 public class Charts {
 
-    private static final Logger LOGGER = LogManager.getLogger(RCharts.class);
+    private static final Logger LOGGER = LogManager.getLogger(Charts.class);
 
     private final ConfigSupplier configSupplier;
     private final ExecutorService executorService;
@@ -38,8 +42,9 @@ public class Charts {
         }
     }
 
-    public void write(@NotNull final Gender gender, @NotNull final List<PurpleCopyNumber> copyNumbers,
-            @NotNull final List<PurityAdjustedSomaticVariant> somaticVariants, @NotNull final List<StructuralVariant> structuralVariants,
+    public void write(@NotNull final Gender gender, @NotNull final BestFit bestFit, @NotNull final List<PurpleCopyNumber> copyNumbers,
+            @NotNull final List<PurityAdjustedSomaticVariant> somaticVariants, @NotNull final Map<GenomePosition, String> kataegis,
+            @NotNull final List<PeakModel> somaticPeaks, @NotNull final List<StructuralVariant> structuralVariants,
             @NotNull final List<FittedRegion> regions, @NotNull final List<AmberBAF> bafs)
             throws InterruptedException, ExecutionException, IOException {
 
@@ -49,8 +54,40 @@ public class Charts {
         final List<Future<Integer>> futures = circosCharts.chartFutures();
 
         if (chartConfig.enabled()) {
-            final RCharts rCharts = new RCharts(configSupplier, executorService);
-            futures.addAll(rCharts.chartFutures());
+            final String tumorSample = configSupplier.commonConfig().tumorSample();
+            final CopyNumberCharts copyNumberCharts = new CopyNumberCharts(tumorSample, chartConfig.plotDirectory());
+            futures.add(executorService.submit(() -> {
+                copyNumberCharts.copyNumberPdf(copyNumbers);
+                return 0;
+            }));
+            futures.add(executorService.submit(() -> {
+                copyNumberCharts.minorAllelePloidyPdf(copyNumbers);
+                return 0;
+            }));
+            futures.add(executorService.submit(() -> {
+                copyNumberCharts.purityRange(bestFit);
+                return 0;
+            }));
+            futures.add(executorService.submit(() -> {
+                copyNumberCharts.segments(regions);
+                return 0;
+            }));
+
+            if (configSupplier.somaticConfig().file().isPresent()) {
+                final SomaticVariantCharts somaticCharts = new SomaticVariantCharts(tumorSample, chartConfig.plotDirectory());
+                futures.add(executorService.submit(() -> {
+                    somaticCharts.somaticPloidyPdf(somaticVariants);
+                    return 0;
+                }));
+                futures.add(executorService.submit(() -> {
+                    somaticCharts.rainfall(somaticVariants, kataegis);
+                    return 0;
+                }));
+                futures.add(executorService.submit(() -> {
+                    somaticCharts.clonality(somaticVariants, somaticPeaks);
+                    return 0;
+                }));
+            }
         }
 
         for (final Future<Integer> future : futures) {
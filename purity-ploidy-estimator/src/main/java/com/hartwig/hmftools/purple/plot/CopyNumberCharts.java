@@ -0,0 +1,311 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.alpha;
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.color;
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.format;
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.gradient;
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.integerBreaks;
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.labels;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.purity.BestFit;
+import com.hartwig.hmftools.common.purple.purity.FittedPurity;
+import com.hartwig.hmftools.common.purple.region.FittedRegion;
+import com.hartwig.hmftools.common.purple.region.GermlineStatus;
+
+import org.jetbrains.annotations.NotNull;
+
+class CopyNumberCharts {
+
+    static final List<String> COPY_NUMBER_CATEGORIES = Lists.newArrayList("CN0", "CN1", "CN2", "CN3", "CN4", "CN5", "CN6+");
+    static final List<Color> COPY_NUMBER_COLORS = Lists.newArrayList(color("#8dd3c7"),
+            color("#ffffb3"),
+            color("#bebada"),
+            color("#fb8072"),
+            color("#80b1d3"),
+            color("#fdb462"),
+            color("#b3de69"));
+
+    private static final List<String> MINOR_ALLELE_CATEGORIES = Lists.newArrayList("MAP0", "MAP1", "MAP2", "MAP3", "MAP4", "MAP5+");
+    private static final List<Color> MINOR_ALLELE_COLORS = COPY_NUMBER_COLORS.subList(0, MINOR_ALLELE_CATEGORIES.size());
+
+    private static final double MAX_PURITY_RANGE_SCORE = 4;
+
+    private final String tumorSample;
+    private final String plotDirectory;
+
+    CopyNumberCharts(@NotNull final String tumorSample, @NotNull final String plotDirectory) {
+        this.tumorSample = tumorSample;
+        this.plotDirectory = plotDirectory;
+    }
+
+    @NotNull
+    static String copyNumberCategory(double copyNumber) {
+        final long rounded = Math.max(0, Math.round(copyNumber));
+        return rounded >= 6 ? "CN6+" : "CN" + rounded;
+    }
+
+    void copyNumberPdf(@NotNull final List<PurpleCopyNumber> allCopyNumbers) throws IOException {
+        final List<PurpleCopyNumber> copyNumbers = autosomes(allCopyNumbers);
+        if (copyNumbers.isEmpty()) {
+            return;
+        }
+
+        final StackedHistogram histogram = new StackedHistogram(0.1, MINOR_ALLELE_CATEGORIES);
+        final double[] values = new double[copyNumbers.size()];
+        final double[] weights = new double[copyNumbers.size()];
+        double minCopyNumber = Double.MAX_VALUE;
+        for (int i = 0; i < copyNumbers.size(); i++) {
+            final PurpleCopyNumber copyNumber = copyNumbers.get(i);
+            final long minorAllele = Math.round(copyNumber.minorAllelePloidy());
+            histogram.add(copyNumber.averageTumorCopyNumber(), minorAllele >= 5 ? "MAP5+" : "MAP" + minorAllele, copyNumber.bafCount());
+            values[i] = copyNumber.averageTumorCopyNumber();
+            weights[i] = copyNumber.bafCount();
+            minCopyNumber = Math.min(minCopyNumber, Math.floor(values[i]));
+        }
+
+        final double maxCopyNumber = StackedHistogram.bucketAtProportion(values, weights, 0.9);
+        histogramChart("Copy Number PDF",
+                "Copy Number",
+                "Baf Count",
+                histogram,
+                MINOR_ALLELE_CATEGORIES,
+                MINOR_ALLELE_COLORS,
+                minCopyNumber - 0.1,
+                maxCopyNumber + 0.1,
+                integerBreaks(minCopyNumber - 1, maxCopyNumber + 1),
+                filename("copynumber"));
+    }
+
+    void minorAllelePloidyPdf(@NotNull final List<PurpleCopyNumber> allCopyNumbers) throws IOException {
+        final List<PurpleCopyNumber> copyNumbers = autosomes(allCopyNumbers);
+        if (copyNumbers.isEmpty()) {
+            return;
+        }
+
+        final StackedHistogram histogram = new StackedHistogram(0.1, COPY_NUMBER_CATEGORIES);
+        final double[] values = new double[copyNumbers.size()];
+        final double[] weights = new double[copyNumbers.size()];
+        for (int i = 0; i < copyNumbers.size(); i++) {
+            final PurpleCopyNumber copyNumber = copyNumbers.get(i);
+            histogram.add(copyNumber.minorAllelePloidy(), copyNumberCategory(copyNumber.averageTumorCopyNumber()), copyNumber.bafCount());
+            values[i] = copyNumber.minorAllelePloidy();
+            weights[i] = copyNumber.bafCount();
+        }
+
+        final double maxMinorAllelePloidy = StackedHistogram.bucketAtProportion(values, weights, 0.9);
+        histogramChart("Minor Allele Ploidy PDF",
+                "Minor Allele Ploidy",
+                "Baf Count",
+                histogram,
+                COPY_NUMBER_CATEGORIES,
+                COPY_NUMBER_COLORS,
+                -0.1,
+                maxMinorAllelePloidy + 0.1,
+                integerBreaks(0, 10),
+                filename("map"));
+    }
+
+    void purityRange(@NotNull final BestFit bestFit) throws IOException {
+        final PurityRange range = new PurityRange(bestFit.allFits());
+        if (range.rects.isEmpty()) {
+            return;
+        }
+
+        final List<double[]> rects = range.rects;
+        final double minPloidy = range.minPloidy;
+        final double maxPloidy = range.maxPloidy;
+        final double minScore = range.minScore;
+
+        final double bestPurity = bestFit.fit().purity();
+        final double bestPloidy = bestFit.fit().ploidy();
+        final double[] xBreaks = integerBreaks(minPloidy, maxPloidy + 0.5);
+        final double[] yBreaks = { 0.25, 0.5, 0.75, 1 };
+
+        final BufferedImage image = PlotCanvas.image(4.8, 4);
+        final PlotCanvas canvas = new PlotCanvas(image, true);
+        canvas.range(minPloidy, maxPloidy + 0.5, 0.06, 1.08);
+        canvas.background(xBreaks, yBreaks);
+        for (double[] rect : rects) {
+            if (rect[0] <= maxPloidy && rect[1] >= minPloidy) {
+                final Color fill = gradient((rect[4] - minScore) / (MAX_PURITY_RANGE_SCORE - minScore));
+                canvas.rect(Math.max(minPloidy, rect[0]), rect[2], Math.min(maxPloidy, rect[1]), rect[3], fill, fill);
+            }
+        }
+
+        canvas.line(bestPloidy, 0.085, bestPloidy, 1.05, Color.BLACK, true);
+        canvas.line(minPloidy, bestPurity, maxPloidy + 0.4, bestPurity, Color.BLACK, true);
+        canvas.label(bestPloidy, 1.05, format(Math.round(bestPloidy * 100) / 100d));
+        canvas.label(maxPloidy + 0.4, bestPurity, format(Math.round(bestPurity * 100)) + "%");
+        final String[] yLabels = { "25%", "50%", "75%", "100%" };
+        canvas.axes("Purity/Ploidy Scores", "Ploidy", "Purity", xBreaks, labels(xBreaks), yBreaks, yLabels);
+        canvas.gradientLegend("score", minScore, MAX_PURITY_RANGE_SCORE);
+        canvas.dispose();
+
+        PlotCanvas.write(image, filename("purity.range"));
+    }
+
+    void segments(@NotNull final List<FittedRegion> regions) throws IOException {
+        final List<FittedRegion> segments = regions.stream()
+                .filter(x -> x.status() == GermlineStatus.DIPLOID && x.bafCount() > 0)
+                .sorted(Comparator.comparingDouble(FittedRegion::majorAllelePloidy))
+                .collect(Collectors.toList());
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        double totalWeightedPloidy = 0;
+        for (FittedRegion segment : segments) {
+            totalWeightedPloidy += segment.bafCount() * segment.majorAllelePloidy();
+        }
+
+        // Axis and colour limits are taken from the bulk of the data so a few outliers don't flatten the chart
+        double cumulativeWeightedPloidy = 0;
+        double minScore = Double.MAX_VALUE;
+        double maxScore = -Double.MAX_VALUE;
+        double minMajorAllelePloidy = Double.MAX_VALUE;
+        double maxMajorAllelePloidy = -Double.MAX_VALUE;
+        int maxWeight = 0;
+        for (FittedRegion segment : segments) {
+            cumulativeWeightedPloidy += segment.bafCount() * segment.majorAllelePloidy();
+            maxWeight = Math.max(maxWeight, segment.bafCount());
+            if (cumulativeWeightedPloidy / totalWeightedPloidy <= 0.9) {
+                final double score = segment.deviationPenalty() * segment.eventPenalty();
+                minScore = Math.min(minScore, score);
+                maxScore = Math.max(maxScore, score);
+                minMajorAllelePloidy = Math.min(minMajorAllelePloidy, segment.majorAllelePloidy());
+                maxMajorAllelePloidy = Math.max(maxMajorAllelePloidy, segment.majorAllelePloidy());
+            }
+        }
+
+        if (minScore > maxScore) {
+            return;
+        }
+
+        minScore = Math.floor(minScore);
+        maxScore = Math.ceil(maxScore);
+        final double xMin = Math.min(0, Math.floor(minMajorAllelePloidy));
+        final double xMax = Math.ceil(maxMajorAllelePloidy);
+        final double yMax = xMax - 1;
+        final double[] xBreaks = integerBreaks(xMin, xMax);
+        final double[] yBreaks = integerBreaks(0, yMax);
+
+        final BufferedImage image = PlotCanvas.image(4.8, 4);
+        final PlotCanvas canvas = new PlotCanvas(image, true);
+        canvas.range(xMin, xMax, 0, yMax);
+        canvas.background(xBreaks, yBreaks);
+        for (FittedRegion segment : segments) {
+            final double score = segment.deviationPenalty() * segment.eventPenalty();
+            final double radius = PlotCanvas.DPI / 150d + PlotCanvas.DPI / 25d * Math.sqrt((double) segment.bafCount() / maxWeight);
+            canvas.point(segment.majorAllelePloidy(),
+                    segment.minorAllelePloidy(),
+                    radius,
+                    alpha(gradient((score - minScore) / (maxScore - minScore)), 0.7));
+        }
+        canvas.axes("Segment Scores", "Major Allele", "Minor Allele", xBreaks, labels(xBreaks), yBreaks, labels(yBreaks));
+        canvas.gradientLegend("Score", minScore, maxScore);
+        canvas.dispose();
+
+        PlotCanvas.write(image, filename("segment"));
+    }
+
+    private void histogramChart(@NotNull final String title, @NotNull final String xLabel, @NotNull final String yLabel,
+            @NotNull final StackedHistogram histogram, @NotNull final List<String> categories, @NotNull final List<Color> colors,
+            double xMin, double xMax, @NotNull final double[] xBreaks, @NotNull final String filename) throws IOException {
+        final double yMax = 1.05 * histogram.maxTotal(xMin, xMax);
+        final double[] yBreaks = niceBreaks(yMax);
+
+        final BufferedImage image = PlotCanvas.image(4.8, 4);
+        final PlotCanvas canvas = new PlotCanvas(image, true);
+        canvas.range(xMin, xMax, 0, yMax);
+        canvas.background(xBreaks, yBreaks);
+        histogram.draw(canvas, colors, Color.BLACK);
+        canvas.axes(title, xLabel, yLabel, xBreaks, labels(xBreaks), yBreaks, labels(yBreaks));
+        canvas.legend("", categories, colors);
+        canvas.dispose();
+
+        PlotCanvas.write(image, filename);
+    }
+
+    @NotNull
+    static double[] niceBreaks(double max) {
+        if (max <= 0) {
+            return new double[] { 0 };
+        }
+
+        final double magnitude = Math.pow(10, Math.floor(Math.log10(max / 4)));
+        final double residual = max / 4 / magnitude;
+        final double step = (residual > 5 ? 10 : residual > 2 ? 5 : residual > 1 ? 2 : 1) * magnitude;
+        final double[] result = new double[(int) Math.floor(max / step) + 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = i * step;
+        }
+        return result;
+    }
+
+    @NotNull
+    private static List<PurpleCopyNumber> autosomes(@NotNull final List<PurpleCopyNumber> copyNumbers) {
+        return copyNumbers.stream().filter(x -> {
+            final String chromosome = x.chromosome().replace("chr", "");
+            return !chromosome.equals("X") && !chromosome.equals("Y") && x.bafCount() > 0;
+        }).collect(Collectors.toList());
+    }
+
+    @NotNull
+    private String filename(@NotNull final String chart) {
+        return plotDirectory + File.separator + tumorSample + "." + chart + ".png";
+    }
+
+    /**
+     * Tiles of the purity range chart as { left, right, bottom, top, score }. Each fit covers the ploidy range half way to its
+     * neighbours at the same purity. The ploidy range is limited to where every purity has fits.
+     */
+    static class PurityRange {
+
+        final List<double[]> rects = Lists.newArrayList();
+        final double minPloidy;
+        final double maxPloidy;
+        final double minScore;
+
+        PurityRange(@NotNull final List<FittedPurity> allFits) {
+            final Map<Double, List<FittedPurity>> fitsByPurity = allFits.stream()
+                    .sorted(Comparator.comparingDouble(FittedPurity::purity).thenComparingDouble(FittedPurity::ploidy))
+                    .collect(Collectors.groupingBy(FittedPurity::purity, TreeMap::new, Collectors.toList()));
+
+            double minPloidy = -Double.MAX_VALUE;
+            double maxPloidy = Double.MAX_VALUE;
+            double minScore = Double.MAX_VALUE;
+            for (List<FittedPurity> fits : fitsByPurity.values()) {
+                for (int i = 0; i < fits.size(); i++) {
+                    final FittedPurity fit = fits.get(i);
+                    final double left = i == 0 ? fit.ploidy() : fit.ploidy() - (fit.ploidy() - fits.get(i - 1).ploidy()) / 2;
+                    final double right = i == fits.size() - 1 ? fit.ploidy() : fit.ploidy() + (fits.get(i + 1).ploidy() - fit.ploidy()) / 2;
+                    final double score = Math.min(MAX_PURITY_RANGE_SCORE, fit.score());
+                    rects.add(new double[] { left, right, fit.purity() - 0.005, fit.purity() + 0.005, score });
+                    minScore = Math.min(minScore, score);
+                    if (i == 0) {
+                        minPloidy = Math.max(minPloidy, left);
+                    }
+                    if (i == fits.size() - 1) {
+                        maxPloidy = Math.min(maxPloidy, right);
+                    }
+                }
+            }
+
+            this.minPloidy = minPloidy;
+            this.maxPloidy = maxPloidy;
+            this.minScore = minScore;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.hartwig.hmftools.purple.plot;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Minimal 2D plotting onto a panel of a shared image in the style of the ggplot2 theme_bw charts this replaces. A canvas covers one
+ * panel including its margins; create several on the same image to stack panels.
+ */
+class PlotCanvas {
+
+    static final int DPI = 300;
+
+    private static final Color PANEL_BORDER = new Color(51, 51, 51);
+    private static final Color GRID = new Color(235, 235, 235);
+    private static final Color TEXT = new Color(77, 77, 77);
+    private static final Color[] GRADIENT = { Color.BLUE, Color.GREEN, Color.YELLOW, Color.ORANGE, Color.RED };
+
+    static final int BOTTOM_MARGIN = DPI / 2;
+    static final int TOP_MARGIN = DPI / 3;
+
+    private static final int LEFT_MARGIN = DPI * 2 / 3;
+    private static final int RIGHT_MARGIN = DPI / 12;
+    private static final int LEGEND_WIDTH = DPI;
+
+    private final Graphics2D graphics;
+    private final Rectangle2D panel;
+    private final Font font;
+    private final Font titleFont;
+
+    private double xMin;
+    private double xMax;
+    private double yMin;
+    private double yMax;
+    private boolean logY;
+
+    @NotNull
+    static BufferedImage image(double widthInches, double heightInches) {
+        final BufferedImage image =
+                new BufferedImage((int) Math.round(widthInches * DPI), (int) Math.round(heightInches * DPI), BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.dispose();
+        return image;
+    }
+
+    static void write(@NotNull final BufferedImage image, @NotNull final String filename) throws IOException {
+        ImageIO.write(image, "png", new File(filename));
+    }
+
+    PlotCanvas(@NotNull final BufferedImage image, int top, int height, int topMargin, int bottomMargin, boolean legend) {
+        graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        font = new Font(Font.SANS_SERIF, Font.PLAIN, DPI / 8);
+        titleFont = font.deriveFont(DPI / 6f);
+
+        final int right = legend ? LEGEND_WIDTH : RIGHT_MARGIN;
+        panel = new Rectangle2D.Double(LEFT_MARGIN,
+                top + topMargin,
+                image.getWidth() - LEFT_MARGIN - right,
+                height - topMargin - bottomMargin);
+    }
+
+    PlotCanvas(@NotNull final BufferedImage image, boolean legend) {
+        this(image, 0, image.getHeight(), TOP_MARGIN, BOTTOM_MARGIN, legend);
+    }
+
+    void range(double xMin, double xMax, double yMin, double yMax) {
+        this.xMin = xMin;
+        this.xMax = xMax == xMin ? xMin + 1 : xMax;
+        this.yMin = yMin;
+        this.yMax = yMax == yMin ? yMin + 1 : yMax;
+    }
+
+    void logY() {
+        logY = true;
+    }
+
+    double x(double value) {
+        return panel.getMinX() + (value - xMin) / (xMax - xMin) * panel.getWidth();
+    }
+
+    double y(double value) {
+        if (logY) {
+            final double logMin = Math.log10(Math.max(1, yMin));
+            final double logMax = Math.log10(Math.max(1, yMax));
+            final double log = Math.log10(Math.max(1, value));
+            return panel.getMaxY() - (log - logMin) / Math.max(1e-9, logMax - logMin) * panel.getHeight();
+        }
+        return panel.getMaxY() - (value - yMin) / (yMax - yMin) * panel.getHeight();
+    }
+
+    void background(@NotNull final double[] xBreaks, @NotNull final double[] yBreaks) {
+        graphics.setClip(null);
+        graphics.setColor(Color.WHITE);
+        graphics.fill(panel);
+        graphics.setStroke(new BasicStroke(DPI / 150f));
+        graphics.setColor(GRID);
+        for (double xBreak : xBreaks) {
+            if (inX(xBreak)) {
+                graphics.draw(new Line2D.Double(x(xBreak), panel.getMinY(), x(xBreak), panel.getMaxY()));
+            }
+        }
+        for (double yBreak : yBreaks) {
+            if (inY(yBreak)) {
+                graphics.draw(new Line2D.Double(panel.getMinX(), y(yBreak), panel.getMaxX(), y(yBreak)));
+            }
+        }
+    }
+
+    void axes(@NotNull final String title, @NotNull final String xLabel, @NotNull final String yLabel, @NotNull final double[] xBreaks,
+            @NotNull final String[] xBreakLabels, @NotNull final double[] yBreaks, @NotNull final String[] yBreakLabels) {
+        graphics.setClip(null);
+        graphics.setStroke(new BasicStroke(DPI / 150f));
+        graphics.setColor(PANEL_BORDER);
+        graphics.draw(panel);
+
+        graphics.setFont(font);
+        graphics.setColor(TEXT);
+        final FontMetrics metrics = graphics.getFontMetrics();
+        for (int i = 0; i < xBreaks.length; i++) {
+            if (inX(xBreaks[i])) {
+                final int width = metrics.stringWidth(xBreakLabels[i]);
+                graphics.drawString(xBreakLabels[i], (float) x(xBreaks[i]) - width / 2f, (float) panel.getMaxY() + metrics.getHeight());
+            }
+        }
+        for (int i = 0; i < yBreaks.length; i++) {
+            if (inY(yBreaks[i])) {
+                final int width = metrics.stringWidth(yBreakLabels[i]);
+                graphics.drawString(yBreakLabels[i],
+                        (float) panel.getMinX() - width - DPI / 30f,
+                        (float) y(yBreaks[i]) + metrics.getAscent() / 2f - 2);
+            }
+        }
+
+        graphics.setColor(Color.BLACK);
+        if (!xLabel.isEmpty()) {
+            final int width = metrics.stringWidth(xLabel);
+            graphics.drawString(xLabel, (float) panel.getCenterX() - width / 2f, (float) panel.getMaxY() + 2.2f * metrics.getHeight());
+        }
+        if (!yLabel.isEmpty()) {
+            final AffineTransform transform = graphics.getTransform();
+            graphics.translate(panel.getMinX() - LEFT_MARGIN + metrics.getHeight(), panel.getCenterY() + metrics.stringWidth(yLabel) / 2d);
+            graphics.rotate(-Math.PI / 2);
+            graphics.drawString(yLabel, 0, 0);
+            graphics.setTransform(transform);
+        }
+        if (!title.isEmpty()) {
+            graphics.setFont(titleFont);
+            final float baseline = (float) panel.getMinY() - graphics.getFontMetrics().getDescent() - DPI / 20f;
+            graphics.drawString(title, (float) panel.getMinX(), baseline);
+        }
+    }
+
+    void rect(double x0, double y0, double x1, double y1, @NotNull final Color fill, @NotNull final Color border) {
+        final Shape shape = clip(new Rectangle2D.Double(Math.min(x(x0), x(x1)),
+                Math.min(y(y0), y(y1)),
+                Math.abs(x(x1) - x(x0)),
+                Math.abs(y(y1) - y(y0))));
+        graphics.setColor(fill);
+        graphics.fill(shape);
+        if (!border.equals(fill)) {
+            graphics.setStroke(new BasicStroke(DPI / 300f));
+            graphics.setColor(border);
+            graphics.draw(shape);
+        }
+    }
+
+    void point(double x, double y, double radius, @NotNull final Color color) {
+        if (inX(x) && inY(y)) {
+            graphics.setColor(color);
+            graphics.fill(new Ellipse2D.Double(x(x) - radius, y(y) - radius, 2 * radius, 2 * radius));
+        }
+    }
+
+    void line(double x0, double y0, double x1, double y1, @NotNull final Color color, boolean dashed) {
+        graphics.setColor(color);
+        graphics.setStroke(dashed
+                ? new BasicStroke(DPI / 150f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10, new float[] { DPI / 25f, DPI / 25f }, 0)
+                : new BasicStroke(DPI / 150f));
+        graphics.draw(clip(new Line2D.Double(x(x0), y(y0), x(x1), y(y1))));
+    }
+
+    void polyline(@NotNull final double[] xs, @NotNull final double[] ys, @NotNull final Color color) {
+        if (xs.length == 0) {
+            return;
+        }
+
+        final Path2D path = new Path2D.Double();
+        path.moveTo(x(xs[0]), y(ys[0]));
+        for (int i = 1; i < xs.length; i++) {
+            path.lineTo(x(xs[i]), y(ys[i]));
+        }
+        graphics.setColor(color);
+        graphics.setStroke(new BasicStroke(DPI / 150f));
+        graphics.draw(clip(path));
+    }
+
+    void area(@NotNull final double[] xs, @NotNull final double[] ys, @NotNull final Color fill, @NotNull final Color border) {
+        if (xs.length == 0) {
+            return;
+        }
+
+        final Path2D path = new Path2D.Double();
+        path.moveTo(x(xs[0]), y(0));
+        for (int i = 0; i < xs.length; i++) {
+            path.lineTo(x(xs[i]), y(ys[i]));
+        }
+        path.lineTo(x(xs[xs.length - 1]), y(0));
+        path.closePath();
+
+        final Shape shape = clip(path);
+        graphics.setColor(fill);
+        graphics.fill(shape);
+        graphics.setColor(border);
+        graphics.setStroke(new BasicStroke(DPI / 150f));
+        graphics.draw(shape);
+    }
+
+    void label(double x, double y, @NotNull final String text) {
+        graphics.setClip(null);
+        graphics.setFont(font);
+        final FontMetrics metrics = graphics.getFontMetrics();
+        final double width = metrics.stringWidth(text) + DPI / 15d;
+        final double height = metrics.getHeight();
+        final Rectangle2D box = new Rectangle2D.Double(x(x) - width / 2, y(y) - height / 2, width, height);
+        graphics.setColor(Color.WHITE);
+        graphics.fill(box);
+        graphics.setStroke(new BasicStroke(DPI / 300f));
+        graphics.setColor(Color.BLACK);
+        graphics.draw(box);
+        graphics.drawString(text, (float) (box.getMinX() + DPI / 30d), (float) (box.getMaxY() - metrics.getDescent()));
+    }
+
+    void legend(@NotNull final String title, @NotNull final List<String> labels, @NotNull final List<Color> colors) {
+        graphics.setClip(null);
+        graphics.setFont(font);
+        final FontMetrics metrics = graphics.getFontMetrics();
+        final int key = metrics.getHeight();
+        final double left = panel.getMaxX() + DPI / 12d;
+        double top = panel.getCenterY() - (labels.size() + (title.isEmpty() ? 0 : 1)) * key * 1.2 / 2;
+
+        graphics.setColor(Color.BLACK);
+        if (!title.isEmpty()) {
+            graphics.drawString(title, (float) left, (float) (top + key - metrics.getDescent()));
+            top += key * 1.2;
+        }
+
+        for (int i = 0; i < labels.size(); i++) {
+            final Rectangle2D box = new Rectangle2D.Double(left, top, key, key);
+            graphics.setColor(colors.get(i));
+            graphics.fill(box);
+            graphics.setColor(Color.BLACK);
+            graphics.drawString(labels.get(i), (float) (left + key * 1.4), (float) (top + key - metrics.getDescent()));
+            top += key * 1.2;
+        }
+    }
+
+    void gradientLegend(@NotNull final String title, double min, double max) {
+        graphics.setClip(null);
+        graphics.setFont(font);
+        final FontMetrics metrics = graphics.getFontMetrics();
+        final double left = panel.getMaxX() + DPI / 12d;
+        final double width = metrics.getHeight();
+        final double height = panel.getHeight() / 2;
+        final double top = panel.getCenterY() - height / 2;
+
+        graphics.setColor(Color.BLACK);
+        graphics.drawString(title, (float) left, (float) (top - metrics.getDescent() - DPI / 30d));
+
+        final int steps = 100;
+        for (int i = 0; i < steps; i++) {
+            graphics.setColor(gradient(1 - (i + 0.5) / steps));
+            graphics.fill(new Rectangle2D.Double(left, top + i * height / steps, width, height / steps + 1));
+        }
+
+        graphics.setColor(Color.BLACK);
+        graphics.drawString(format(max), (float) (left + width * 1.4), (float) (top + metrics.getAscent() / 2d));
+        graphics.drawString(format(min), (float) (left + width * 1.4), (float) (top + height + metrics.getAscent() / 2d));
+    }
+
+    void dispose() {
+        graphics.dispose();
+    }
+
+    @NotNull
+    static Color gradient(double proportion) {
+        final double scaled = Double.isNaN(proportion) ? 0 : Math.max(0, Math.min(1, proportion)) * (GRADIENT.length - 1);
+        final int index = Math.min(GRADIENT.length - 2, (int) scaled);
+        final double fraction = scaled - index;
+        final Color from = GRADIENT[index];
+        final Color to = GRADIENT[index + 1];
+        return new Color((int) Math.round(from.getRed() + fraction * (to.getRed() - from.getRed())),
+                (int) Math.round(from.getGreen() + fraction * (to.getGreen() - from.getGreen())),
+                (int) Math.round(from.getBlue() + fraction * (to.getBlue() - from.getBlue())));
+    }
+
+    @NotNull
+    static Color alpha(@NotNull final Color color, double alpha) {
+        return new Color(color.getRed(), color.getGreen(), color.getBlue(), (int) Math.round(255 * alpha));
+    }
+
+    @NotNull
+    static Color color(@NotNull final String hex) {
+        return Color.decode(hex);
+    }
+
+    @NotNull
+    static double[] integerBreaks(double min, double max) {
+        final int from = (int) Math.ceil(min);
+        final int to = (int) Math.floor(max);
+        final double[] result = new double[Math.max(0, to - from + 1)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = from + i;
+        }
+        return result;
+    }
+
+    @NotNull
+    static String[] labels(@NotNull final double[] breaks) {
+        final String[] result = new String[breaks.length];
+        for (int i = 0; i < breaks.length; i++) {
+            result[i] = format(breaks[i]);
+        }
+        return result;
+    }
+
+    @NotNull
+    static String format(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e12 ? String.valueOf((long) value) : String.format("%.2f", value);
+    }
+
+    private boolean inX(double value) {
+        return value >= Math.min(xMin, xMax) && value <= Math.max(xMin, xMax);
+    }
+
+    private boolean inY(double value) {
+        return value >= Math.min(yMin, yMax) && value <= Math.max(yMin, yMax);
+    }
+
+    @NotNull
+    private Shape clip(@NotNull final Shape shape) {
+        graphics.setClip(panel);
+        return shape;
+    }
+}
@@ -0,0 +1,271 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.COPY_NUMBER_CATEGORIES;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.COPY_NUMBER_COLORS;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.copyNumberCategory;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.niceBreaks;
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.alpha;
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.color;
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.integerBreaks;
+import static com.hartwig.hmftools.purple.plot.PlotCanvas.labels;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+import com.hartwig.hmftools.common.variant.SomaticVariant;
+import com.hartwig.hmftools.common.variant.clonality.PeakModel;
+
+import org.jetbrains.annotations.NotNull;
+
+class SomaticVariantCharts {
+
+    private static final List<String> MUTATIONS = Lists.newArrayList("C>A", "C>G", "C>T", "T>A", "T>C", "T>G");
+    private static final List<Color> MUTATION_COLORS = Lists.newArrayList(color("#14B0EF"),
+            color("#060809"),
+            color("#E00714"),
+            color("#BFBEBF"),
+            color("#90CA4B"),
+            color("#E9BBB8"));
+
+    private static final List<Color> STRAND_COLORS = Lists.newArrayList(color("#6bd692"), color("#7e6bd6"));
+
+    private static final Color SINGLE_BLUE = color("#6baed6");
+    private static final Color SINGLE_RED = color("#d94701");
+    private static final Color[] PEAK_COLORS = { color("#F8766D"), color("#B79F00"), color("#00BA38"), color("#00BFC4"),
+            color("#619CFF"), color("#F564E3") };
+
+    private static final double CLONALITY_BIN_WIDTH = 0.05;
+    private static final double CLONALITY_MAX_PLOIDY = 3.5;
+
+    private final String tumorSample;
+    private final String plotDirectory;
+
+    SomaticVariantCharts(@NotNull final String tumorSample, @NotNull final String plotDirectory) {
+        this.tumorSample = tumorSample;
+        this.plotDirectory = plotDirectory;
+    }
+
+    void somaticPloidyPdf(@NotNull final List<? extends SomaticVariant> variants) throws IOException {
+        if (variants.isEmpty()) {
+            return;
+        }
+
+        final double[] ploidies = new double[variants.size()];
+        final double[] weights = new double[variants.size()];
+        final StackedHistogram histogram = new StackedHistogram(0.1, COPY_NUMBER_CATEGORIES);
+        for (int i = 0; i < variants.size(); i++) {
+            final SomaticVariant variant = variants.get(i);
+            ploidies[i] = variant.ploidy();
+            weights[i] = 1;
+            if (!variant.isFiltered() && !variant.chromosome().equals("MT")) {
+                histogram.add(variant.ploidy(), copyNumberCategory(variant.adjustedCopyNumber()), 1);
+            }
+        }
+
+        final double xMax = StackedHistogram.bucketAtProportion(ploidies, weights, 0.95) + 1.1;
+        final double yMax = 1.05 * histogram.maxTotal(-0.1, xMax);
+        final double[] xBreaks = integerBreaks(0, Math.min(10, xMax));
+        final double[] yBreaks = niceBreaks(yMax);
+
+        final BufferedImage image = PlotCanvas.image(4.8, 4);
+        final PlotCanvas canvas = new PlotCanvas(image, true);
+        canvas.range(-0.1, xMax, 0, yMax);
+        canvas.background(xBreaks, yBreaks);
+        histogram.draw(canvas, COPY_NUMBER_COLORS, Color.BLACK);
+        canvas.axes("Somatic Variant Ploidy PDF", "Ploidy", "Count", xBreaks, labels(xBreaks), yBreaks, labels(yBreaks));
+        canvas.legend("", COPY_NUMBER_CATEGORIES, COPY_NUMBER_COLORS);
+        canvas.dispose();
+
+        PlotCanvas.write(image, filename("somatic"));
+    }
+
+    void rainfall(@NotNull final List<? extends SomaticVariant> variants, @NotNull final Map<GenomePosition, String> kataegis)
+            throws IOException {
+        final List<SomaticVariant> snps = variants.stream()
+                .filter(x -> !x.isFiltered() && x.ref().length() == 1 && x.alt().length() == 1)
+                .collect(Collectors.toList());
+        if (snps.isEmpty()) {
+            return;
+        }
+
+        final double[] distances = new double[snps.size()];
+        double minDistance = Double.MAX_VALUE;
+        double maxDistance = 1;
+        for (int i = 0; i < snps.size(); i++) {
+            final SomaticVariant snp = snps.get(i);
+            final long previous = i > 0 && snps.get(i - 1).chromosome().equals(snp.chromosome()) ? snps.get(i - 1).position() : 0;
+            final long next =
+                    i < snps.size() - 1 && snps.get(i + 1).chromosome().equals(snp.chromosome()) ? snps.get(i + 1).position() : 0;
+            distances[i] = Math.min(Math.abs(snp.position() - previous), Math.abs(next - snp.position()));
+            minDistance = Math.min(minDistance, distances[i]);
+            maxDistance = Math.max(maxDistance, distances[i]);
+        }
+
+        final Map<String, int[]> kataegisRanks = Maps.newLinkedHashMap();
+        for (int i = 0; i < snps.size(); i++) {
+            final String event = kataegis.get(GenomePositions.create(snps.get(i)));
+            if (event != null) {
+                final int rank = i + 1;
+                kataegisRanks.computeIfAbsent(event, x -> new int[] { rank, rank })[1] = rank;
+            }
+        }
+
+        final double[] xBreaks = niceBreaks(snps.size());
+        final double[] yBreaks = integerBreaks(0, Math.log10(maxDistance));
+        final String[] yBreakLabels = new String[yBreaks.length];
+        for (int i = 0; i < yBreaks.length; i++) {
+            yBreaks[i] = Math.pow(10, yBreaks[i]);
+            yBreakLabels[i] = String.valueOf((long) yBreaks[i]);
+        }
+
+        final BufferedImage image = PlotCanvas.image(8, 4);
+        final PlotCanvas canvas = new PlotCanvas(image, true);
+        canvas.logY();
+        canvas.range(0, snps.size() + 1, Math.max(1, minDistance), maxDistance);
+        canvas.background(xBreaks, yBreaks);
+        for (Map.Entry<String, int[]> event : kataegisRanks.entrySet()) {
+            final Color fill = alpha(STRAND_COLORS.get(event.getKey().startsWith("FWD") ? 0 : 1), 0.6);
+            canvas.rect(event.getValue()[0], Math.max(1, minDistance), event.getValue()[1], maxDistance, fill, fill);
+        }
+        for (int i = 0; i < snps.size(); i++) {
+            final int mutation = MUTATIONS.indexOf(standardMutation(snps.get(i).ref() + ">" + snps.get(i).alt()));
+            if (mutation >= 0) {
+                canvas.point(i + 1, Math.max(1, distances[i]), PlotCanvas.DPI / 150d, MUTATION_COLORS.get(mutation));
+            }
+        }
+        canvas.axes("", "Mutation number", "Intermutation distance (bp)", xBreaks, labels(xBreaks), yBreaks, yBreakLabels);
+        canvas.legend("Mutation", MUTATIONS, MUTATION_COLORS);
+        canvas.dispose();
+
+        PlotCanvas.write(image, filename("somatic.rainfall"));
+    }
+
+    void clonality(@NotNull final List<? extends SomaticVariant> variants, @NotNull final List<PeakModel> allPeaks) throws IOException {
+        final List<PeakModel> peaks = allPeaks.stream().filter(PeakModel::isValid).collect(Collectors.toList());
+        if (peaks.isEmpty()) {
+            return;
+        }
+
+        final StackedHistogram histogram = new StackedHistogram(CLONALITY_BIN_WIDTH, Lists.newArrayList(""));
+        for (SomaticVariant variant : variants) {
+            if (!variant.isFiltered()) {
+                histogram.add(variant.ploidy(), "", 1);
+            }
+        }
+
+        // Bucket totals excluding the residual (peak 0) model
+        final Map<Double, Double> combined = Maps.newTreeMap();
+        final Map<Double, Double> subclonal = Maps.newTreeMap();
+        final Map<Double, List<PeakModel>> byPeak = Maps.newTreeMap();
+        final Map<Double, Double> total = Maps.newTreeMap();
+        final Map<Double, Double> totalSubclonal = Maps.newTreeMap();
+        for (PeakModel peak : peaks) {
+            total.merge(peak.bucket(), peak.bucketWeight(), Double::sum);
+            if (peak.isSubclonal()) {
+                totalSubclonal.merge(peak.bucket(), peak.bucketWeight(), Double::sum);
+            }
+
+            if (peak.peak() != 0) {
+                combined.merge(peak.bucket(), peak.bucketWeight(), Double::sum);
+                byPeak.computeIfAbsent(peak.peak(), x -> Lists.newArrayList()).add(peak);
+                if (peak.isSubclonal()) {
+                    subclonal.merge(peak.bucket(), peak.bucketWeight(), Double::sum);
+                }
+            }
+        }
+
+        double yMax = histogram.maxTotal(0, CLONALITY_MAX_PLOIDY);
+        for (double weight : combined.values()) {
+            yMax = Math.max(yMax, weight);
+        }
+        yMax *= 1.05;
+
+        final double[] xBreaks = integerBreaks(0, CLONALITY_MAX_PLOIDY);
+        final double[] yBreaks = niceBreaks(yMax);
+        final BufferedImage image = PlotCanvas.image(8, 6);
+        final int topHeight = image.getHeight() * 4 / 5;
+
+        final PlotCanvas top = new PlotCanvas(image, 0, topHeight, PlotCanvas.DPI / 12, PlotCanvas.DPI / 6, false);
+        top.range(0, CLONALITY_MAX_PLOIDY, 0, yMax);
+        top.background(xBreaks, yBreaks);
+        histogram.draw(top, Lists.newArrayList(alpha(SINGLE_BLUE, 0.4)), SINGLE_BLUE);
+        top.polyline(keys(combined), values(combined), alpha(Color.BLACK, 0.8));
+        int peakIndex = 0;
+        for (List<PeakModel> peakModel : byPeak.values()) {
+            final double[] xs = new double[peakModel.size()];
+            final double[] ys = new double[peakModel.size()];
+            for (int i = 0; i < peakModel.size(); i++) {
+                xs[i] = peakModel.get(i).bucket();
+                ys[i] = peakModel.get(i).bucketWeight();
+            }
+            top.polyline(xs, ys, PEAK_COLORS[peakIndex++ % PEAK_COLORS.length]);
+        }
+        top.area(keys(subclonal), values(subclonal), alpha(SINGLE_RED, 0.3), SINGLE_RED);
+        top.axes("", "", "", xBreaks, labels(xBreaks), yBreaks, labels(yBreaks));
+        top.dispose();
+
+        final double[] likelihoodBreaks = { 0, 0.5, 1 };
+        final PlotCanvas bottom =
+                new PlotCanvas(image, topHeight, image.getHeight() - topHeight, PlotCanvas.DPI / 12, PlotCanvas.BOTTOM_MARGIN, false);
+        bottom.range(0, CLONALITY_MAX_PLOIDY, 0, 1);
+        bottom.background(xBreaks, likelihoodBreaks);
+        for (Map.Entry<Double, Double> bucket : totalSubclonal.entrySet()) {
+            final double bucketTotal = total.get(bucket.getKey());
+            final double likelihood = bucketTotal == 0 ? 0 : bucket.getValue() / bucketTotal;
+            bottom.rect(bucket.getKey() - CLONALITY_BIN_WIDTH / 2,
+                    0,
+                    bucket.getKey() + CLONALITY_BIN_WIDTH / 2,
+                    likelihood,
+                    alpha(SINGLE_RED, 0.3),
+                    SINGLE_RED);
+        }
+        bottom.axes("", "Ploidy", "", xBreaks, labels(xBreaks), likelihoodBreaks, new String[] { "0%", "50%", "100%" });
+        bottom.dispose();
+
+        PlotCanvas.write(image, filename("somatic.clonality"));
+    }
+
+    @NotNull
+    static String standardMutation(@NotNull final String mutation) {
+        switch (mutation) {
+            case "G>T":
+                return "C>A";
+            case "G>C":
+                return "C>G";
+            case "G>A":
+                return "C>T";
+            case "A>T":
+                return "T>A";
+            case "A>G":
+                return "T>C";
+            case "A>C":
+                return "T>G";
+            default:
+                return mutation;
+        }
+    }
+
+    @NotNull
+    private static double[] keys(@NotNull final Map<Double, Double> map) {
+        return map.keySet().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    @NotNull
+    private static double[] values(@NotNull final Map<Double, Double> map) {
+        return map.values().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    @NotNull
+    private String filename(@NotNull final String chart) {
+        return plotDirectory + File.separator + tumorSample + "." + chart + ".png";
+    }
+}
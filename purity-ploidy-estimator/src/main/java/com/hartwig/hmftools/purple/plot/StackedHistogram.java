@@ -0,0 +1,80 @@
+package com.hartwig.hmftools.purple.plot;
+
+import java.awt.Color;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.collect.Maps;
+
+import org.jetbrains.annotations.NotNull;
+
+class StackedHistogram {
+
+    private final double binWidth;
+    private final List<String> categories;
+    private final Map<Long, double[]> bins = Maps.newTreeMap();
+
+    StackedHistogram(double binWidth, @NotNull final List<String> categories) {
+        this.binWidth = binWidth;
+        this.categories = categories;
+    }
+
+    void add(double value, @NotNull final String category, double weight) {
+        final int index = categories.indexOf(category);
+        if (index >= 0) {
+            bins.computeIfAbsent(Math.round(value / binWidth), x -> new double[categories.size()])[index] += weight;
+        }
+    }
+
+    double maxTotal(double minValue, double maxValue) {
+        double result = 0;
+        for (Map.Entry<Long, double[]> entry : bins.entrySet()) {
+            final double center = entry.getKey() * binWidth;
+            if (center >= minValue && center <= maxValue) {
+                double total = 0;
+                for (double weight : entry.getValue()) {
+                    total += weight;
+                }
+                result = Math.max(result, total);
+            }
+        }
+        return result;
+    }
+
+    void draw(@NotNull final PlotCanvas canvas, @NotNull final List<Color> colors, @NotNull final Color border) {
+        for (Map.Entry<Long, double[]> entry : bins.entrySet()) {
+            final double center = entry.getKey() * binWidth;
+            double bottom = 0;
+            for (int i = 0; i < categories.size(); i++) {
+                final double weight = entry.getValue()[i];
+                if (weight > 0) {
+                    canvas.rect(center - binWidth / 2, bottom, center + binWidth / 2, bottom + weight, colors.get(i), border);
+                    bottom += weight;
+                }
+            }
+        }
+    }
+
+    /**
+     * Smallest whole number bucket below which more than the given proportion of the total weight falls.
+     */
+    static double bucketAtProportion(@NotNull final double[] values, @NotNull final double[] weights, double proportion) {
+        final TreeMap<Double, Double> buckets = Maps.newTreeMap();
+        double total = 0;
+        for (int i = 0; i < values.length; i++) {
+            buckets.merge(Math.ceil(values[i]), weights[i], Double::sum);
+            total += weights[i];
+        }
+
+        double cumulative = 0;
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            cumulative += bucket.getValue();
+            if (cumulative / total > proportion) {
+                return bucket.getKey();
+            }
+        }
+
+        return buckets.isEmpty() ? 0 : buckets.lastKey();
+    }
+}
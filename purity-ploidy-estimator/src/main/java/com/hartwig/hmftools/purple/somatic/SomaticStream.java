@@ -3,14 +3,20 @@ package com.hartwig.hmftools.purple.somatic;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.drivercatalog.DriverCatalog;
 import com.hartwig.hmftools.common.drivercatalog.SomaticVariantDrivers;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeBlockCache;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.gene.GeneCopyNumber;
 import com.hartwig.hmftools.common.purple.region.FittedRegion;
+import com.hartwig.hmftools.common.variant.AsyncVariantContextIterator;
 import com.hartwig.hmftools.common.variant.SomaticVariantFactory;
 import com.hartwig.hmftools.common.variant.clonality.PeakModel;
 import com.hartwig.hmftools.common.variant.enrich.VariantContextEnrichmentPurple;
@@ -43,6 +49,7 @@ public class SomaticStream {
     private final MicrosatelliteIndels microsatelliteIndels;
     private final SomaticVariantDrivers drivers;
     private final SomaticVariantFactory somaticVariantFactory;
+    private final Map<GenomePosition, String> kataegis = Maps.newHashMap();
 
     public SomaticStream(final CommonConfig commonConfig, final SomaticConfig somaticConfig, final RefGenomeData refGenomeData) {
         this.commonConfig = commonConfig;
@@ -84,6 +91,15 @@ public class SomaticStream {
         return enabled ? TumorMutationalStatus.fromLoad(tumorMutationalLoad()) : TumorMutationalStatus.UNKNOWN;
     }
 
+    /**
+     * Kataegis identifier of each passing variant in a kataegis event. All other chart inputs come from the purity adjusted
+     * variants already in memory.
+     */
+    @NotNull
+    public Map<GenomePosition, String> kataegis() {
+        return kataegis;
+    }
+
     @NotNull
     public List<DriverCatalog> drivers(@NotNull final List<GeneCopyNumber> geneCopyNumbers) {
         return drivers.build(geneCopyNumbers);
@@ -95,6 +111,9 @@ public class SomaticStream {
                 x -> somaticVariantFactory.createVariant(commonConfig.tumorSample(), x).ifPresent(somatic -> {
                     tumorMutationalLoad.accept(somatic);
                     drivers.add(somatic);
+                    if (!somatic.kataegis().isEmpty()) {
+                        kataegis.put(GenomePositions.create(somatic), somatic.kataegis());
+                    }
                 });
 
         if (enabled) {
@@ -102,16 +121,18 @@ public class SomaticStream {
                     VCFFileReader vcfReader = new VCFFileReader(new File(inputVCF), false);
                     VariantContextWriter writer = new VariantContextWriterBuilder().setOutputFile(outputVCF)
                             .setOption(htsjdk.variant.variantcontext.writer.Options.ALLOW_MISSING_FIELDS_IN_HEADER)
+                            .setOption(htsjdk.variant.variantcontext.writer.Options.USE_ASYNC_IO)
                             .build()) {
 
+                // Writing is asynchronous so variants are handed to the writer last
                 final Consumer<VariantContext> consumer =
-                        microsatelliteIndels.andThen(writer::add).andThen(driverConsumer);
+                        microsatelliteIndels.andThen(driverConsumer).andThen(writer::add);
 
                 final VariantContextEnrichmentPurple enricher = new VariantContextEnrichmentPurple(somaticConfig.clonalityMaxPloidy(),
                         somaticConfig.clonalityBinWidth(),
                         commonConfig.version(),
                         commonConfig.tumorSample(),
-                        indexedFastaSequenceFile,
+                        new RefGenomeBlockCache(indexedFastaSequenceFile),
                         purityAdjuster,
                         copyNumbers,
                         fittedRegions,
@@ -121,12 +142,14 @@ public class SomaticStream {
                 final VCFHeader header = enricher.enrichHeader(vcfReader.getFileHeader());
                 writer.writeHeader(header);
 
-                for (VariantContext context : vcfReader) {
-                    enricher.accept(context);
+                // Parsing starts once the header has been enriched as the header is shared with the codec
+                try (AsyncVariantContextIterator variants = new AsyncVariantContextIterator(vcfReader.iterator())) {
+                    while (variants.hasNext()) {
+                        enricher.accept(variants.next());
+                    }
                 }
 
                 enricher.flush();
-
             }
         }
     }
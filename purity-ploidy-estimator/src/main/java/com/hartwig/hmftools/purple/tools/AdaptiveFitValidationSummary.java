@@ -0,0 +1,107 @@
+package com.hartwig.hmftools.purple.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.hartwig.hmftools.common.utils.Doubles;
+import com.hartwig.hmftools.purple.AdaptiveFitValidation;
+import com.hartwig.hmftools.purple.AdaptiveFitValidationFile;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Summarises the adaptive fit validation files written by PURPLE with -adaptive_fit_validation across a cohort.
+ */
+public class AdaptiveFitValidationSummary {
+
+    private static final Logger LOGGER = LogManager.getLogger(AdaptiveFitValidationSummary.class);
+
+    private static final String INPUT_DIR = "input_dir";
+
+    public static void main(final String... args) throws IOException {
+        final Options options = createOptions();
+        try {
+            final CommandLine cmd = createCommandLine(args, options);
+            if (!cmd.hasOption(INPUT_DIR)) {
+                throw new ParseException(INPUT_DIR + " is a mandatory argument");
+            }
+            summarise(cmd.getOptionValue(INPUT_DIR));
+        } catch (ParseException e) {
+            LOGGER.warn(e);
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("AdaptiveFitValidationSummary", options);
+            System.exit(1);
+        }
+    }
+
+    private static void summarise(@NotNull final String inputDir) throws IOException {
+        final List<String> files;
+        try (Stream<Path> paths = Files.walk(new File(inputDir).toPath())) {
+            files = paths.map(Path::toString)
+                    .filter(x -> x.endsWith(AdaptiveFitValidationFile.EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        int samples = 0;
+        int matching = 0;
+        long exhaustiveTime = 0;
+        long adaptiveTime = 0;
+        for (String file : files) {
+            final AdaptiveFitValidation validation = AdaptiveFitValidationFile.read(file);
+            samples++;
+            exhaustiveTime += validation.exhaustiveTimeMs();
+            adaptiveTime += validation.adaptiveTimeMs();
+
+            final boolean samePurity = Doubles.equal(validation.exhaustiveFit().purity(), validation.adaptiveFit().purity());
+            final boolean sameNormFactor = Doubles.equal(validation.exhaustiveFit().normFactor(), validation.adaptiveFit().normFactor());
+            if (samePurity && sameNormFactor) {
+                matching++;
+            } else {
+                LOGGER.warn("Sample {} exhaustive fit purity {} ploidy {} differs from adaptive fit purity {} ploidy {}",
+                        validation.sample(),
+                        validation.exhaustiveFit().purity(),
+                        validation.exhaustiveFit().ploidy(),
+                        validation.adaptiveFit().purity(),
+                        validation.adaptiveFit().ploidy());
+            }
+        }
+
+        if (samples == 0) {
+            LOGGER.warn("No {} files found in {}", AdaptiveFitValidationFile.EXTENSION, inputDir);
+            return;
+        }
+
+        LOGGER.info("Adaptive fit matched exhaustive fit in {} of {} samples", matching, samples);
+        LOGGER.info("Total exhaustive fit time {}ms, adaptive fit time {}ms, speed up {}",
+                exhaustiveTime,
+                adaptiveTime,
+                String.format("%.1f", (double) exhaustiveTime / Math.max(1, adaptiveTime)));
+    }
+
+    @NotNull
+    private static CommandLine createCommandLine(@NotNull String[] args, @NotNull Options options) throws ParseException {
+        final CommandLineParser parser = new DefaultParser();
+        return parser.parse(options, args);
+    }
+
+    @NotNull
+    private static Options createOptions() {
+        final Options options = new Options();
+        options.addOption(INPUT_DIR, true, "Directory searched recursively for PURPLE adaptive fit validation files");
+        return options;
+    }
+}
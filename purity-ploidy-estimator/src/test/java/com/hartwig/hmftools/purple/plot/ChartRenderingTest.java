@@ -0,0 +1,267 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+import com.hartwig.hmftools.common.purple.copynumber.CopyNumberMethod;
+import com.hartwig.hmftools.common.purple.copynumber.ImmutablePurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.purple.purity.BestFit;
+import com.hartwig.hmftools.common.purple.purity.FittedPurity;
+import com.hartwig.hmftools.common.purple.purity.FittedPurityStatus;
+import com.hartwig.hmftools.common.purple.purity.ImmutableBestFit;
+import com.hartwig.hmftools.common.purple.purity.ImmutableFittedPurity;
+import com.hartwig.hmftools.common.purple.purity.ImmutableFittedPurityScore;
+import com.hartwig.hmftools.common.purple.region.FittedRegion;
+import com.hartwig.hmftools.common.purple.region.GermlineStatus;
+import com.hartwig.hmftools.common.purple.region.ImmutableFittedRegion;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+import com.hartwig.hmftools.common.variant.CodingEffect;
+import com.hartwig.hmftools.common.variant.Hotspot;
+import com.hartwig.hmftools.common.variant.ImmutableSomaticVariantImpl;
+import com.hartwig.hmftools.common.variant.SomaticVariant;
+import com.hartwig.hmftools.common.variant.VariantType;
+import com.hartwig.hmftools.common.variant.clonality.ModifiablePeakModel;
+import com.hartwig.hmftools.common.variant.clonality.PeakModel;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChartRenderingTest {
+
+    private static final String TUMOR = "TUMOR";
+    private static final String[] BASES = { "A", "C", "G", "T" };
+
+    private File directory;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("plot").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testRenderCopyNumberCharts() throws IOException {
+        final CopyNumberCharts victim = new CopyNumberCharts(TUMOR, directory.getPath());
+        victim.copyNumberPdf(copyNumbers());
+        victim.minorAllelePloidyPdf(copyNumbers());
+        victim.purityRange(bestFit());
+        victim.segments(fittedRegions());
+
+        assertPng("copynumber");
+        assertPng("map");
+        assertPng("purity.range");
+        assertPng("segment");
+    }
+
+    @Test
+    public void testRenderSomaticVariantCharts() throws IOException {
+        final List<SomaticVariant> variants = Lists.newArrayList();
+        final Map<GenomePosition, String> kataegis = Maps.newHashMap();
+        for (int i = 0; i < 200; i++) {
+            final String chromosome = String.valueOf(1 + i / 100);
+            final long position = i % 50 < 10 ? 1000000 + 100 * i : 10000 * i * i;
+            final String ref = BASES[i % 4];
+            final String alt = BASES[(i + 1 + i / 4 % 3) % 4];
+            final SomaticVariant variant = somaticVariant(chromosome, position, ref, alt, 1 + (i % 7) / 3d, 2 + i % 3);
+            variants.add(variant);
+            if (i % 50 < 10) {
+                kataegis.put(GenomePositions.create(variant), "FWD_" + chromosome);
+            }
+        }
+
+        final SomaticVariantCharts victim = new SomaticVariantCharts(TUMOR, directory.getPath());
+        victim.somaticPloidyPdf(variants);
+        victim.rainfall(variants, kataegis);
+        victim.clonality(variants, peaks());
+
+        assertPng("somatic");
+        assertPng("somatic.rainfall");
+        assertPng("somatic.clonality");
+    }
+
+    private void assertPng(@NotNull final String chart) throws IOException {
+        final File file = new File(directory, TUMOR + "." + chart + ".png");
+        assertTrue(file.exists());
+        assertTrue(file.length() > 0);
+        assertNotNull(ImageIO.read(file));
+    }
+
+    @NotNull
+    private static List<PurpleCopyNumber> copyNumbers() {
+        final List<PurpleCopyNumber> result = Lists.newArrayList();
+        final double[] copyNumbers = { 2, 3.1, 1.8, 4.2, 2.05, 0.9, 6.5 };
+        final double[] bafs = { 0.5, 0.67, 0.55, 0.75, 1, 1, 0.6 };
+        for (int i = 0; i < copyNumbers.length; i++) {
+            final long start = i * 1000000L + 1;
+            result.add(ImmutablePurpleCopyNumber.builder()
+                    .chromosome(i == copyNumbers.length - 1 ? "X" : String.valueOf(1 + i % 3))
+                    .start(start)
+                    .end(start + 999999)
+                    .averageTumorCopyNumber(copyNumbers[i])
+                    .segmentStartSupport(SegmentSupport.NONE)
+                    .segmentEndSupport(SegmentSupport.NONE)
+                    .method(CopyNumberMethod.BAF_WEIGHTED)
+                    .bafCount(100 + 50 * i)
+                    .depthWindowCount(1000)
+                    .gcContent(0.4)
+                    .minStart(start)
+                    .maxStart(start)
+                    .averageObservedBAF(bafs[i])
+                    .averageActualBAF(bafs[i])
+                    .build());
+        }
+        return result;
+    }
+
+    @NotNull
+    private static BestFit bestFit() {
+        final List<FittedPurity> fits = Lists.newArrayList();
+        for (int purity = 20; purity <= 100; purity += 10) {
+            for (int ploidy = 0; ploidy < 5; ploidy++) {
+                fits.add(ImmutableFittedPurity.builder()
+                        .purity(purity / 100d)
+                        .normFactor(1)
+                        .ploidy(1.5 + ploidy + purity / 200d)
+                        .score(Math.abs(purity - 60) / 20d + Math.abs(ploidy - 2) / 2d)
+                        .diploidProportion(0.5)
+                        .somaticPenalty(0)
+                        .build());
+            }
+        }
+
+        final FittedPurity best = fits.stream().min(FittedPurity::compareTo).orElseThrow(IllegalStateException::new);
+        return ImmutableBestFit.builder()
+                .fit(best)
+                .score(ImmutableFittedPurityScore.builder()
+                        .minPurity(0.5)
+                        .maxPurity(0.7)
+                        .minPloidy(3)
+                        .maxPloidy(4)
+                        .minDiploidProportion(0.4)
+                        .maxDiploidProportion(0.6)
+                        .build())
+                .status(FittedPurityStatus.NORMAL)
+                .bestFitPerPurity(Lists.newArrayList(best))
+                .allFits(fits)
+                .build();
+    }
+
+    @NotNull
+    private static List<FittedRegion> fittedRegions() {
+        final List<FittedRegion> result = Lists.newArrayList();
+        for (int i = 0; i < 20; i++) {
+            final long start = i * 1000000L + 1;
+            result.add(ImmutableFittedRegion.builder()
+                    .chromosome("1")
+                    .start(start)
+                    .end(start + 999999)
+                    .observedBAF(0.6)
+                    .bafCount(10 + 20 * i)
+                    .observedTumorRatio(1)
+                    .depthWindowCount(100)
+                    .observedNormalRatio(1)
+                    .ratioSupport(true)
+                    .svCluster(false)
+                    .minStart(start)
+                    .maxStart(start)
+                    .status(i == 0 ? GermlineStatus.AMPLIFICATION : GermlineStatus.DIPLOID)
+                    .gcContent(0.4)
+                    .support(SegmentSupport.NONE)
+                    .tumorCopyNumber(1.5 + i % 5)
+                    .tumorBAF(0.5 + (i % 4) / 10d)
+                    .fittedBAF(0.5)
+                    .fittedTumorCopyNumber(2)
+                    .deviationPenalty(0.1 + i % 6)
+                    .minorAllelePloidyDeviation(0)
+                    .majorAllelePloidyDeviation(0)
+                    .refNormalisedCopyNumber(2)
+                    .eventPenalty(1 + i % 2)
+                    .build());
+        }
+        return result;
+    }
+
+    @NotNull
+    private static List<PeakModel> peaks() {
+        final List<PeakModel> result = Lists.newArrayList();
+        for (int bucket = 0; bucket <= 70; bucket++) {
+            final double ploidy = bucket * 0.05;
+            for (int peak = 0; peak <= 2; peak++) {
+                final double weight = 40 * Math.exp(-Math.pow(ploidy - (peak == 0 ? 0.3 : peak), 2) / 0.02);
+                result.add(ModifiablePeakModel.create()
+                        .setBucket(ploidy)
+                        .setPeak(peak)
+                        .setBucketWeight(weight)
+                        .setPeakAvgWeight(1)
+                        .setIsSubclonal(peak == 0)
+                        .setIsValid(true));
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static SomaticVariant somaticVariant(@NotNull final String chromosome, long position, @NotNull final String ref,
+            @NotNull final String alt, double ploidy, double adjustedCopyNumber) {
+        return ImmutableSomaticVariantImpl.builder()
+                .chromosome(chromosome)
+                .position(position)
+                .ref(ref)
+                .alt(alt)
+                .type(VariantType.SNP)
+                .filter("PASS")
+                .totalReadCount(100)
+                .alleleReadCount(30)
+                .gene("")
+                .genesEffected(0)
+                .worstEffect("")
+                .worstCodingEffect(CodingEffect.NONE)
+                .worstEffectTranscript("")
+                .canonicalEffect("")
+                .canonicalCodingEffect(CodingEffect.NONE)
+                .canonicalHgvsCodingImpact("")
+                .canonicalHgvsProteinImpact("")
+                .hotspot(Hotspot.NON_HOTSPOT)
+                .recovered(false)
+                .adjustedCopyNumber(adjustedCopyNumber)
+                .adjustedVAF(0.3)
+                .minorAllelePloidy(0)
+                .germlineStatus(GermlineStatus.DIPLOID)
+                .ploidy(ploidy)
+                .biallelic(false)
+                .kataegis("")
+                .trinucleotideContext("")
+                .highConfidenceRegion(true)
+                .microhomology("")
+                .repeatSequence("")
+                .repeatCount(0)
+                .subclonalLikelihood(0)
+                .mappability(1)
+                .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.copyNumberCategory;
+import static com.hartwig.hmftools.purple.plot.CopyNumberCharts.niceBreaks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.purity.FittedPurity;
+import com.hartwig.hmftools.common.purple.purity.ImmutableFittedPurity;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class CopyNumberChartsTest {
+
+    private static final double EPSILON = 1e-10;
+
+    @Test
+    public void testNiceBreaks() {
+        assertArrayEquals(new double[] { 0 }, niceBreaks(0), EPSILON);
+        assertArrayEquals(new double[] { 0, 1, 2, 3 }, niceBreaks(3), EPSILON);
+        assertArrayEquals(new double[] { 0, 2, 4, 6 }, niceBreaks(7), EPSILON);
+        assertArrayEquals(new double[] { 0, 20, 40 }, niceBreaks(45), EPSILON);
+        assertArrayEquals(new double[] { 0, 50, 100 }, niceBreaks(100), EPSILON);
+    }
+
+    @Test
+    public void testCopyNumberCategory() {
+        assertEquals("CN0", copyNumberCategory(-0.3));
+        assertEquals("CN0", copyNumberCategory(0.49));
+        assertEquals("CN2", copyNumberCategory(1.5));
+        assertEquals("CN5", copyNumberCategory(5.4));
+        assertEquals("CN6+", copyNumberCategory(5.5));
+        assertEquals("CN6+", copyNumberCategory(12));
+    }
+
+    @Test
+    public void testPurityRangeRects() {
+        final CopyNumberCharts.PurityRange victim = new CopyNumberCharts.PurityRange(Lists.newArrayList(fit(0.6, 4, 3),
+                fit(0.5, 3, 2),
+                fit(0.5, 5, 6),
+                fit(0.6, 1.5, 0.5),
+                fit(0.5, 2, 1)));
+
+        assertEquals(5, victim.rects.size());
+        assertRect(victim.rects.get(0), 2, 2.5, 0.5, 1);
+        assertRect(victim.rects.get(1), 2.5, 4, 0.5, 2);
+        assertRect(victim.rects.get(2), 4, 5, 0.5, 4);
+        assertRect(victim.rects.get(3), 1.5, 2.75, 0.6, 0.5);
+        assertRect(victim.rects.get(4), 2.75, 4, 0.6, 3);
+
+        assertEquals(2, victim.minPloidy, EPSILON);
+        assertEquals(4, victim.maxPloidy, EPSILON);
+        assertEquals(0.5, victim.minScore, EPSILON);
+    }
+
+    @Test
+    public void testPurityRangeWithoutFits() {
+        assertTrue(new CopyNumberCharts.PurityRange(Collections.emptyList()).rects.isEmpty());
+    }
+
+    private static void assertRect(@NotNull final double[] rect, double left, double right, double purity, double score) {
+        assertArrayEquals(new double[] { left, right, purity - 0.005, purity + 0.005, score }, rect, EPSILON);
+    }
+
+    @NotNull
+    private static FittedPurity fit(double purity, double ploidy, double score) {
+        return ImmutableFittedPurity.builder()
+                .purity(purity)
+                .normFactor(1)
+                .ploidy(ploidy)
+                .score(score)
+                .diploidProportion(1)
+                .somaticPenalty(0)
+                .build();
+    }
+}
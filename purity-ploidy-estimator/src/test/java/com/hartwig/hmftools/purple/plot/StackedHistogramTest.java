@@ -0,0 +1,42 @@
+package com.hartwig.hmftools.purple.plot;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Test;
+
+public class StackedHistogramTest {
+
+    private static final double EPSILON = 1e-10;
+
+    @Test
+    public void testAddStacksCategoriesWithinBin() {
+        final StackedHistogram victim = new StackedHistogram(0.1, Lists.newArrayList("A", "B"));
+        victim.add(1.02, "A", 2);
+        victim.add(0.98, "B", 3);
+        victim.add(1.04, "A", 1);
+        victim.add(2, "A", 4);
+        victim.add(2, "C", 100);
+
+        assertEquals(6, victim.maxTotal(0, 3), EPSILON);
+        assertEquals(4, victim.maxTotal(1.5, 3), EPSILON);
+        assertEquals(0, victim.maxTotal(3, 4), EPSILON);
+    }
+
+    @Test
+    public void testMaxTotalOfEmptyHistogram() {
+        final StackedHistogram victim = new StackedHistogram(0.1, Lists.newArrayList("A"));
+        assertEquals(0, victim.maxTotal(-10, 10), EPSILON);
+    }
+
+    @Test
+    public void testBucketAtProportion() {
+        final double[] values = { 0.5, 1.2, 2.7, 3.1 };
+        assertEquals(3, StackedHistogram.bucketAtProportion(values, new double[] { 1, 1, 1, 1 }, 0.5), EPSILON);
+        assertEquals(4, StackedHistogram.bucketAtProportion(values, new double[] { 1, 1, 1, 1 }, 0.9), EPSILON);
+        assertEquals(1, StackedHistogram.bucketAtProportion(values, new double[] { 10, 1, 1, 1 }, 0.5), EPSILON);
+        assertEquals(4, StackedHistogram.bucketAtProportion(values, new double[] { 1, 1, 1, 1 }, 1), EPSILON);
+        assertEquals(0, StackedHistogram.bucketAtProportion(new double[0], new double[0], 0.9), EPSILON);
+    }
+}
@@ -25,6 +25,7 @@ import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotFile;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.pipeline.ChromosomePipeline;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
 
 import org.apache.commons.cli.CommandLine;
@@ -51,6 +52,7 @@ public class SageApplication implements AutoCloseable {
     private final SageConfig config;
     private final ExecutorService executorService;
     private final IndexedFastaSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
 
     private final ListMultimap<Chromosome, GenomeRegion> panel;
     private final ListMultimap<Chromosome, VariantHotspot> hotspots;
@@ -82,6 +84,7 @@ public class SageApplication implements AutoCloseable {
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("SAGE-%d").build();
         executorService = Executors.newFixedThreadPool(config.threads(), namedThreadFactory);
         refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
+        samReaderPool = new SamReaderPool(refGenome);
         vcf = new SageVCF(refGenome, config);
 
         LOGGER.info("Writing to file {}", config.outputFile());
@@ -111,7 +114,6 @@ public class SageApplication implements AutoCloseable {
             Future<ChromosomePipeline> future = chromosomeIterator.next();
             ChromosomePipeline pipeline = future.get();
             vcf.addVCF(pipeline.vcfFilename());
-            pipeline.close();
             LOGGER.info("Finished writing chromosome  {} ", pipeline.chromosome());
             chromosomeIterator.remove();
         }
@@ -132,6 +134,8 @@ public class SageApplication implements AutoCloseable {
         return new ChromosomePipeline(contig,
                 config,
                 executorService,
+                refGenome,
+                samReaderPool,
                 hotspots.get(chromosome),
                 panel.get(chromosome),
                 highConfidence.get(chromosome));
@@ -140,6 +144,7 @@ public class SageApplication implements AutoCloseable {
     @Override
     public void close() throws IOException {
         vcf.close();
+        samReaderPool.close();
         refGenome.close();
         executorService.shutdown();
     }
@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeBlockCache;
 import com.hartwig.hmftools.common.genome.region.BEDFileLoader;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.HotspotEvidence;
@@ -38,6 +39,7 @@ import org.jetbrains.annotations.Nullable;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class SageHotspotApplication implements AutoCloseable {
 
@@ -81,7 +83,7 @@ public class SageHotspotApplication implements AutoCloseable {
         final int minBaseQuality = config.minBaseQuality();
 
         final File refGenomeFile = new File(config.refGenomePath());
-        final IndexedFastaSequenceFile refSequence = new IndexedFastaSequenceFile(refGenomeFile);
+        final ReferenceSequenceFile refSequence = new RefGenomeBlockCache(new IndexedFastaSequenceFile(refGenomeFile));
 
         LOGGER.info("Loading coding regions from {}", codingRegionBedFile);
         final Collection<GenomeRegion> codingRegions = BEDFileLoader.fromBedFile(codingRegionBedFile).values();
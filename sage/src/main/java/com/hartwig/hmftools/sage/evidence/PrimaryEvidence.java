@@ -1,8 +1,6 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
 import java.util.List;
-import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -14,6 +12,7 @@ import com.hartwig.hmftools.sage.context.AltContext;
 import com.hartwig.hmftools.sage.context.RefContextConsumer;
 import com.hartwig.hmftools.sage.context.RefSequence;
 import com.hartwig.hmftools.sage.context.TumorRefContextCandidates;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.select.HotspotSelector;
@@ -25,9 +24,6 @@ import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class PrimaryEvidence {
 
@@ -35,15 +31,15 @@ public class PrimaryEvidence {
 
     private final SageConfig config;
     private final List<VariantHotspot> hotspots;
-    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final SamSlicerFactory samSlicerFactory;
 
     public PrimaryEvidence(@NotNull final SageConfig config, @NotNull final List<VariantHotspot> hotspots,
-            @NotNull final SamSlicerFactory samSlicerFactory, @NotNull final ReferenceSequenceFile refGenome) {
+            @NotNull final SamSlicerFactory samSlicerFactory, @NotNull final SamReaderPool samReaderPool) {
         this.config = config;
         this.samSlicerFactory = samSlicerFactory;
         this.hotspots = hotspots;
-        this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
     }
 
     @NotNull
@@ -69,25 +65,19 @@ public class PrimaryEvidence {
 
 
         final SamSlicer slicer = samSlicerFactory.create(bounds);
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bamFile))) {
+        final SamReader tumorReader = samReaderPool.reader(bamFile);
 
-            // First parse
-            slicer.slice(tumorReader, recordConsumer);
+        // First parse
+        slicer.slice(tumorReader, recordConsumer);
 
-            // Add all valid alt contexts
-            altContexts.addAll(candidates.altContexts());
+        // Add all valid alt contexts
+        altContexts.addAll(candidates.altContexts());
 
-            // Second parse
-            slicer.slice(tumorReader, samRecord -> {
-                consumerSelector.select(samRecord,
-                        x -> x.primaryReadContext().accept(x.rawDepth() < config.maxReadDepth(), samRecord, config));
-            });
-
-        } catch (Exception e) {
-            throw new CompletionException(e);
-        }
+        // Second parse
+        slicer.slice(tumorReader, samRecord -> {
+            consumerSelector.select(samRecord,
+                    x -> x.primaryReadContext().accept(x.rawDepth() < config.maxReadDepth(), samRecord, config));
+        });
 
         return altContexts.stream().filter(x -> qualPredicate(hotspotSelector, x)).collect(Collectors.toList());
     }
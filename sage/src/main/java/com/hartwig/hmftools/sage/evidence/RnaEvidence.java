@@ -1,9 +1,6 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
-import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -14,6 +11,7 @@ import com.hartwig.hmftools.sage.context.NormalRefContextCandidates;
 import com.hartwig.hmftools.sage.context.RefContext;
 import com.hartwig.hmftools.sage.context.RefContextConsumer;
 import com.hartwig.hmftools.sage.context.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.select.SamRecordSelector;
@@ -24,23 +22,20 @@ import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class RnaEvidence {
 
     private static final Logger LOGGER = LogManager.getLogger(RnaEvidence.class);
 
     private final SageConfig sageConfig;
-    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final SamSlicerFactory samSlicerFactory;
 
     public RnaEvidence(@NotNull final SageConfig config, @NotNull final SamSlicerFactory samSlicerFactory,
-            @NotNull final ReferenceSequenceFile refGenome) {
+            @NotNull final SamReaderPool samReaderPool) {
         this.sageConfig = config;
         this.samSlicerFactory = samSlicerFactory;
-        this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
     }
 
     @NotNull
@@ -58,20 +53,15 @@ public class RnaEvidence {
         final SamRecordSelector<AltContext> consumerSelector = new SamRecordSelector<>(sageConfig.maxSkippedReferenceRegions(),
                 candidates.refContexts().stream().flatMap(x -> x.alts().stream()).collect(Collectors.toList()));
 
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(sageConfig.rnaBam()))) {
-            slicer.slice(tumorReader, samRecord -> {
+        final SamReader tumorReader = samReaderPool.reader(sageConfig.rnaBam());
+        slicer.slice(tumorReader, samRecord -> {
 
-                recordConsumer.accept(samRecord);
+            recordConsumer.accept(samRecord);
 
-                consumerSelector.select(samRecord,
-                        x -> x.primaryReadContext().accept(x.rawDepth() < sageConfig.maxReadDepth(), samRecord, sageConfig));
+            consumerSelector.select(samRecord,
+                    x -> x.primaryReadContext().accept(x.rawDepth() < sageConfig.maxReadDepth(), samRecord, sageConfig));
 
-            });
-        } catch (IOException e) {
-            throw new CompletionException(e);
-        }
+        });
 
         return candidates.refContexts();
     }
@@ -1,6 +1,5 @@
 package com.hartwig.hmftools.sage.pipeline;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.EnumSet;
 import java.util.Iterator;
@@ -17,6 +16,7 @@ import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.context.AltContext;
 import com.hartwig.hmftools.sage.phase.Phase;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantContextFactory;
 import com.hartwig.hmftools.sage.variant.SageVariantTier;
@@ -26,10 +26,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.reference.IndexedFastaSequenceFile;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
 
-public class ChromosomePipeline implements AutoCloseable {
+public class ChromosomePipeline {
 
     private static final Logger LOGGER = LogManager.getLogger(ChromosomePipeline.class);
     private static final EnumSet<SageVariantTier> PANEL_ONLY_TIERS = EnumSet.of(SageVariantTier.HOTSPOT, SageVariantTier.PANEL);
@@ -39,10 +39,11 @@ public class ChromosomePipeline implements AutoCloseable {
     private final SageChromosomeVCF sageVCF;
     private final Function<SageVariant, VariantContext> variantContextFactory;
     private final List<CompletableFuture<List<SageVariant>>> regions = Lists.newArrayList();
-    private final IndexedFastaSequenceFile refGenome;
+    private final ReferenceSequenceFile refGenome;
     private final SageVariantPipeline sageVariantPipeline;
 
     public ChromosomePipeline(@NotNull final String chromosome, @NotNull final SageConfig config, @NotNull final Executor executor,
+            @NotNull final ReferenceSequenceFile refGenome, @NotNull final SamReaderPool samReaderPool,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions) throws IOException {
         this.chromosome = chromosome;
@@ -50,10 +51,10 @@ public class ChromosomePipeline implements AutoCloseable {
         this.variantContextFactory =
                 config.germlineOnly() ? SageVariantContextFactory::germlineOnly : SageVariantContextFactory::pairedTumorNormal;
         this.sageVCF = new SageChromosomeVCF(chromosome, config);
-        this.refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
+        this.refGenome = refGenome;
         this.sageVariantPipeline = config.germlineOnly()
-                ? new GermlineOnlyPipeline(config, executor, refGenome, hotspots, panelRegions, highConfidenceRegions)
-                : new SomaticPipeline(config, executor, refGenome, hotspots, panelRegions, highConfidenceRegions);
+                ? new GermlineOnlyPipeline(config, executor, refGenome, samReaderPool, hotspots, panelRegions, highConfidenceRegions)
+                : new SomaticPipeline(config, executor, refGenome, samReaderPool, hotspots, panelRegions, highConfidenceRegions);
     }
 
     @NotNull
@@ -67,7 +68,7 @@ public class ChromosomePipeline implements AutoCloseable {
     }
 
     public void addAllRegions() {
-        int maxPosition = refGenome.getSequence(chromosome).length();
+        int maxPosition = refGenome.getSequenceDictionary().getSequence(chromosome).getSequenceLength();
         addAllRegions(maxPosition);
     }
 
@@ -157,9 +158,4 @@ public class ChromosomePipeline implements AutoCloseable {
 
         return entry.primaryTumor().primaryReadContext().tumorQuality() >= config.filter().hardMinTumorQualFiltered();
     }
-
-    @Override
-    public void close() throws IOException {
-        refGenome.close();
-    }
 }
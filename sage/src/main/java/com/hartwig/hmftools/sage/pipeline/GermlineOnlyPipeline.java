@@ -11,6 +11,7 @@ import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.context.AltContext;
 import com.hartwig.hmftools.sage.context.RefSequence;
 import com.hartwig.hmftools.sage.evidence.PrimaryEvidence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantFactory;
@@ -34,14 +35,15 @@ class GermlineOnlyPipeline implements SageVariantPipeline {
     private final ReferenceSequenceFile refGenome;
 
     GermlineOnlyPipeline(final SageConfig config, final Executor executor, final ReferenceSequenceFile refGenome,
-            final List<VariantHotspot> hotspots, final List<GenomeRegion> panelRegions, final List<GenomeRegion> highConfidenceRegions) {
+            final SamReaderPool samReaderPool, final List<VariantHotspot> hotspots, final List<GenomeRegion> panelRegions,
+            final List<GenomeRegion> highConfidenceRegions) {
         this.config = config;
         this.executor = executor;
         this.hotspots = hotspots;
         this.panelRegions = panelRegions;
 
         final SamSlicerFactory samSlicerFactory = new SamSlicerFactory(config, panelRegions);
-        this.primaryEvidence = new PrimaryEvidence(config, hotspots, samSlicerFactory, refGenome);
+        this.primaryEvidence = new PrimaryEvidence(config, hotspots, samSlicerFactory, samReaderPool);
         this.highConfidenceRegions = highConfidenceRegions;
         this.refGenome = refGenome;
 
@@ -14,6 +14,7 @@ import com.hartwig.hmftools.sage.context.RefSequence;
 import com.hartwig.hmftools.sage.evidence.NormalEvidence;
 import com.hartwig.hmftools.sage.evidence.PrimaryEvidence;
 import com.hartwig.hmftools.sage.evidence.RnaEvidence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantFactory;
@@ -39,17 +40,17 @@ public class SomaticPipeline implements SageVariantPipeline {
     private final ReferenceSequenceFile refGenome;
 
     SomaticPipeline(@NotNull final SageConfig config, @NotNull final Executor executor, @NotNull final ReferenceSequenceFile refGenome,
-            @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
-            @NotNull final List<GenomeRegion> highConfidenceRegions) {
+            @NotNull final SamReaderPool samReaderPool, @NotNull final List<VariantHotspot> hotspots,
+            @NotNull final List<GenomeRegion> panelRegions, @NotNull final List<GenomeRegion> highConfidenceRegions) {
         this.config = config;
         this.executor = executor;
         final SamSlicerFactory samSlicerFactory = new SamSlicerFactory(config, panelRegions);
         this.hotspots = hotspots;
         this.panelRegions = panelRegions;
         this.highConfidenceRegions = highConfidenceRegions;
-        this.primaryEvidence = new PrimaryEvidence(config, hotspots, samSlicerFactory, refGenome);
-        this.normalEvidence = new NormalEvidence(config, samSlicerFactory, refGenome);
-        this.rnaEvidence = new RnaEvidence(config, samSlicerFactory, refGenome);
+        this.primaryEvidence = new PrimaryEvidence(config, hotspots, samSlicerFactory, samReaderPool);
+        this.normalEvidence = new NormalEvidence(config, samSlicerFactory, samReaderPool);
+        this.rnaEvidence = new RnaEvidence(config, samSlicerFactory, samReaderPool);
         this.refGenome = refGenome;
     }
 
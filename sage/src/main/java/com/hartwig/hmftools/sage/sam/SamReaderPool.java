@@ -0,0 +1,54 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.cram.ref.ReferenceSource;
+import htsjdk.samtools.reference.ReferenceSequenceFile;
+
+/**
+ * Keeps one open reader per thread and bam so the header and index of each bam are only loaded once per thread for the whole run.
+ * A reader must not be used by more than one slice at a time.
+ */
+public class SamReaderPool implements AutoCloseable {
+
+    private final SamReaderFactory factory;
+    private final Map<String, ThreadLocal<SamReader>> readers = new ConcurrentHashMap<>();
+    private final List<SamReader> openReaders = Collections.synchronizedList(Lists.newArrayList());
+
+    public SamReaderPool(@NotNull final ReferenceSequenceFile refGenome) {
+        this.factory = SamReaderFactory.makeDefault().referenceSource(new ReferenceSource(refGenome));
+    }
+
+    @NotNull
+    public SamReader reader(@NotNull final String bamFile) {
+        return readers.computeIfAbsent(bamFile, x -> ThreadLocal.withInitial(() -> open(x))).get();
+    }
+
+    @NotNull
+    private SamReader open(@NotNull final String bamFile) {
+        final SamReader reader = factory.open(new File(bamFile));
+        openReaders.add(reader);
+        return reader;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (openReaders) {
+            for (SamReader reader : openReaders) {
+                reader.close();
+            }
+            openReaders.clear();
+        }
+    }
+}
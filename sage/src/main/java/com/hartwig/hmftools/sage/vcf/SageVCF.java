@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenomeBlockCache;
 import com.hartwig.hmftools.common.variant.enrich.SomaticRefContextEnrichment;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.config.SoftFilter;
@@ -81,7 +82,7 @@ public class SageVCF implements AutoCloseable {
                 .modifyOption(Options.USE_ASYNC_IO, false)
                 .setReferenceDictionary(reference.getSequenceDictionary())
                 .build();
-        refContextEnrichment = new SomaticRefContextEnrichment(reference, this::writeToFile);
+        refContextEnrichment = new SomaticRefContextEnrichment(new RefGenomeBlockCache(reference), this::writeToFile);
 
         final VCFHeader header = refContextEnrichment.enrichHeader(header(config));
         header.setSequenceDictionary(reference.getSequenceDictionary());